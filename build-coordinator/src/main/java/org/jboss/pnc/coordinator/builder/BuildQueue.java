@@ -21,7 +21,10 @@ import org.jboss.pnc.common.Configuration;
 import org.jboss.pnc.common.json.ConfigurationParseException;
 import org.jboss.pnc.common.json.moduleconfig.SystemConfig;
 import org.jboss.pnc.common.json.moduleprovider.PncConfigProvider;
+import org.jboss.pnc.coordinator.builder.queue.ReadyTaskQueue;
+import org.jboss.pnc.coordinator.builder.queue.ReadyTaskQueuePolicy;
 import org.jboss.pnc.model.BuildConfigurationAudited;
+import org.jboss.pnc.model.IdRev;
 import org.jboss.pnc.spi.coordinator.BuildSetTask;
 import org.jboss.pnc.spi.coordinator.BuildTask;
 import org.slf4j.Logger;
@@ -31,15 +34,11 @@ import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 
@@ -50,15 +49,22 @@ import java.util.stream.Collectors;
  * <ul>
  * <li>taskSets - set of currently processed task sets</li>
  * <li>tasksInProgress - set of tasks that are being executed at the moment</li>
- * <li>readyTasks - queue of tasks that are ready to be executed but are waiting for a free executor (and throttling mechanism)</li>
+ * <li>readyTasks - queue of tasks that are ready to be executed but are waiting for a free executor (and throttling mechanism).
+ * The order in which they are started is given by the configured {@link ReadyTaskQueuePolicy}</li>
  * <li>waitingTasksWithCallbacks - tasks waiting for a dependency. As soon as their dependencies are built, they are moved to readyTasks.
- * The waiting tasks are mapped to callbacks that are executed upon the transfer
+ * The waiting tasks are mapped to callbacks that are executed upon the transfer.
+ * A finished task only notifies its own dependants, see {@link #executeNewReadyTasks(BuildTask)}
  * </li>
- * <li>unfinishedTasks - tasks either waiting, ready or in progress.
- * This collection is introduced to fix the race condition in {@link #take()},
- * where a task is taken from readyTask, and later put into tasksInProgress and the method cannot be synchronized</li>
+ * <li>unfinishedTasks - tasks either waiting, ready or in progress, indexed both by the task id and by the id and revision
+ * of the audited build configuration. All the lookups and the "already submitted" checks are served from these indexes,
+ * so they don't depend on the queue length.</li>
  * </ul>
  *
+ * All the collections are concurrent, the queue doesn't use a global monitor.
+ * Tasks removed while they are still in readyTasks are not searched for in the queue,
+ * they are dropped by {@link #take()} as soon as they reach the head of the queue.
+ * The hand-over of a single task between readyTasks and tasksInProgress is guarded by the monitor of the task itself.
+ *
  * TODO: 1. taskSets can probably be removed <br>
  * TODO: 2. Currently it throttles the number of tasks in progress. Is this necessary?
  * <p/>
@@ -73,12 +79,13 @@ public class BuildQueue {
 
     private Configuration configuration;
 
-    private final Set<BuildTask> unfinishedTasks = new HashSet<>();
+    private final Map<Integer, BuildTask> unfinishedTasksById = new ConcurrentHashMap<>();
+    private final Map<IdRev, BuildTask> unfinishedTasksByConfig = new ConcurrentHashMap<>();
 
-    private final BlockingQueue<BuildTask> readyTasks = new LinkedBlockingQueue<>();
-    private final Map<BuildTask, Runnable> waitingTasksWithCallbacks = new HashMap<>();
+    private volatile ReadyTaskQueue readyTasks = ReadyTaskQueuePolicy.FIFO.createQueue();
+    private final Map<BuildTask, Runnable> waitingTasksWithCallbacks = new ConcurrentHashMap<>();
     private final Set<BuildTask> tasksInProgress = ConcurrentHashMap.newKeySet();
-    private final Set<BuildSetTask> taskSets = new HashSet<>();
+    private final Set<BuildSetTask> taskSets = ConcurrentHashMap.newKeySet();
 
     private final Semaphore availableBuildSlots = new Semaphore(0);
 
@@ -99,11 +106,11 @@ public class BuildQueue {
      *
      * @param task task to be enqueued
      */
-    public synchronized boolean addReadyTask(BuildTask task) {
+    public boolean addReadyTask(BuildTask task) {
         if (!task.readyToBuild()) {
             throw new IllegalArgumentException("a not ready task added to the queue: " + task);
         }
-        unfinishedTasks.add(task);
+        addUnfinishedTask(task);
         log.debug("adding task: {}", task);
         readyTasks.add(task);
         return true;
@@ -114,10 +121,14 @@ public class BuildQueue {
      * @param task task that is not ready to build
      * @param taskReadyCallback a callback to be invoked when the task becomes ready
      */
-    public synchronized void addWaitingTask(BuildTask task, Runnable taskReadyCallback) {
-        unfinishedTasks.add(task);
+    public void addWaitingTask(BuildTask task, Runnable taskReadyCallback) {
+        addUnfinishedTask(task);
         log.debug("adding waiting task: {}", task);
         waitingTasksWithCallbacks.put(task, taskReadyCallback);
+        // the last dependency could have finished before the task was put to waiting tasks
+        if (task.readyToBuild()) {
+            moveToReadyTasks(task);
+        }
     }
 
     /**
@@ -125,7 +136,7 @@ public class BuildQueue {
      *
      * @param taskSet task set to be built
      */
-    public synchronized void enqueueTaskSet(BuildSetTask taskSet) {
+    public void enqueueTaskSet(BuildSetTask taskSet) {
         log.debug("adding task set: {}", taskSet);
         taskSets.add(taskSet);
     }
@@ -135,7 +146,7 @@ public class BuildQueue {
      *
      * @param taskSet processed task set
      */
-    public synchronized void removeSet(BuildSetTask taskSet) {
+    public void removeSet(BuildSetTask taskSet) {
         log.debug("removing task set: {}", taskSet);
         taskSets.remove(taskSet);
     }
@@ -144,34 +155,42 @@ public class BuildQueue {
      * remove task from the queue.
      * This method should be invoked if the task is completed, either successfully, or with error (including rejected build)
      *
+     * If the task is still in readyTasks, it stays there and it is dropped once {@link #take()} reaches it.
+     *
      * @param task task to be removed
+     * @return true if the task was in the queue
      */
-    public synchronized void removeTask(BuildTask task) {
+    public boolean removeTask(BuildTask task) {
         log.debug("removing task: {}", task);
-        if (tasksInProgress.remove(task)) {
-            availableBuildSlots.release();
-        }
-        if (readyTasks.remove(task)) {
-            log.debug("The task {} has been removed from readyTasks.", task);
+        boolean removed;
+        synchronized (task) {
+            if (tasksInProgress.remove(task)) {
+                availableBuildSlots.release();
+            }
+            removed = removeUnfinishedTask(task);
+            if (removed) {
+                log.debug("The task {} has been removed from unfinishedTasks.", task);
+            }
         }
 
         if (waitingTasksWithCallbacks.remove(task) != null) {
             log.debug("The task {} has been removed from waitingTasks.", task);
         }
-
-        if (unfinishedTasks.remove(task)) {
-            log.debug("The task {} has been removed from unfinishedTasks.", task);
-        }
+        return removed;
     }
 
     /**
-     * Trigger searching for ready tasks in the waiting queue.
-     * This method should be invoked if one task has finished and there's a possibility that other tasks became ready to be built.
+     * Move the dependants of a finished task to ready tasks if it was the last dependency they were waiting for.
+     * This method should be invoked once, after a task has finished successfully.
+     *
+     * @param finishedTask successfully finished task
      */
-    public synchronized void executeNewReadyTasks() {
-        List<BuildTask> newReadyTasks = extractReadyTasks();
+    public void executeNewReadyTasks(BuildTask finishedTask) {
+        List<BuildTask> newReadyTasks = finishedTask.getDependants().stream()
+                .filter(BuildTask::dependencyCompleted)
+                .filter(this::moveToReadyTasks)
+                .collect(Collectors.toList());
         log.debug("starting new ready tasks. New ready tasks: {}", newReadyTasks);
-        readyTasks.addAll(newReadyTasks);
     }
 
     /**
@@ -180,11 +199,33 @@ public class BuildQueue {
      * @param buildConfigAudited build configuration
      * @return Optional.of(build task for the configuration) if build task is enqueued/in progress, Optional.empty() otherwise
      */
-    public synchronized Optional<BuildTask> getTask(BuildConfigurationAudited buildConfigAudited) {
-        Optional<BuildTask> ready = readyTasks.stream().filter(bt -> bt.getBuildConfigurationAudited().equals(buildConfigAudited)).findAny();
-        Optional<BuildTask> waiting = waitingTasksWithCallbacks.keySet().stream().filter(bt -> bt.getBuildConfigurationAudited().equals(buildConfigAudited)).findAny();
-        Optional<BuildTask> inProgress = tasksInProgress.stream().filter(bt -> bt.getBuildConfigurationAudited().equals(buildConfigAudited)).findAny();
-        return ready.isPresent() ? ready : waiting.isPresent() ? waiting : inProgress;
+    public Optional<BuildTask> getTask(BuildConfigurationAudited buildConfigAudited) {
+        if (buildConfigAudited == null || buildConfigAudited.getId() == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(unfinishedTasksByConfig.get(buildConfigAudited.getId()));
+    }
+
+    /**
+     * Get build task with the given id from the queue.
+     *
+     * @param buildTaskId id of the build task
+     * @return Optional.of(build task) if the task is enqueued/in progress, Optional.empty() otherwise
+     */
+    public Optional<BuildTask> getTask(int buildTaskId) {
+        return Optional.ofNullable(unfinishedTasksById.get(buildTaskId));
+    }
+
+    /**
+     * Get task set with the given build config set record id from the queue.
+     *
+     * @param buildConfigSetRecordId id of the build config set record
+     * @return Optional.of(task set) if the set is being processed, Optional.empty() otherwise
+     */
+    public Optional<BuildSetTask> getTaskSet(int buildConfigSetRecordId) {
+        return taskSets.stream()
+                .filter(taskSet -> Integer.valueOf(buildConfigSetRecordId).equals(taskSet.getId()))
+                .findAny();
     }
 
     /**
@@ -192,81 +233,134 @@ public class BuildQueue {
      *
      * @return list of all build tasks in the queue
      */
-    public synchronized List<BuildTask> getSubmittedBuildTasks() {
-        ArrayList<BuildTask> result = new ArrayList<>();
-        result.addAll(waitingTasksWithCallbacks.keySet());
-        result.addAll(readyTasks);
-        result.addAll(tasksInProgress);
-        return result;
+    public List<BuildTask> getSubmittedBuildTasks() {
+        return new ArrayList<>(unfinishedTasksById.values());
     }
 
     public BuildTask take() throws InterruptedException {
         availableBuildSlots.acquire();
         log.info("Consumer is ready to go, waiting for task");
-        BuildTask task = readyTasks.take();
-        log.info("Got task: {}, will start processing", task);
-        tasksInProgress.add(task);
-        return task;
+        while (true) {
+            BuildTask task = readyTasks.take();
+            synchronized (task) {
+                if (isUnfinished(task)) {
+                    log.info("Got task: {}, will start processing", task);
+                    tasksInProgress.add(task);
+                    return task;
+                }
+            }
+            log.debug("Dropping task {}, it has been removed from the queue before it was started.", task.getId());
+        }
     }
 
 
-    public synchronized boolean isBuildAlreadySubmitted(BuildTask buildTask) {
-        return unfinishedTasks.contains(buildTask);
+    public boolean isBuildAlreadySubmitted(BuildTask buildTask) {
+        IdRev idRev = configIdRev(buildTask);
+        return idRev != null && unfinishedTasksByConfig.containsKey(idRev);
     }
 
-    private List<BuildTask> extractReadyTasks() {
-        List<BuildTask> noLongerWaitingTasks = waitingTasksWithCallbacks.keySet().stream()
-                .filter(BuildTask::readyToBuild)
-                .collect(Collectors.toList());
+    /**
+     * Only the thread that removes the task from the waiting tasks moves it to the ready ones.
+     *
+     * @return true if the task has been moved
+     */
+    private boolean moveToReadyTasks(BuildTask task) {
+        Runnable callback = waitingTasksWithCallbacks.remove(task);
+        if (callback == null) {
+            return false;
+        }
+        callback.run();
+        readyTasks.add(task);
+        return true;
+    }
 
-        noLongerWaitingTasks.forEach(task -> {
-            waitingTasksWithCallbacks.get(task).run();
-            waitingTasksWithCallbacks.remove(task);
-        });
+    private void addUnfinishedTask(BuildTask task) {
+        unfinishedTasksById.put(task.getId(), task);
+        IdRev idRev = configIdRev(task);
+        if (idRev != null) {
+            unfinishedTasksByConfig.put(idRev, task);
+        }
+    }
+
+    private boolean removeUnfinishedTask(BuildTask task) {
+        IdRev idRev = configIdRev(task);
+        if (idRev != null) {
+            unfinishedTasksByConfig.remove(idRev, task);
+        }
+        return unfinishedTasksById.remove(task.getId(), task);
+    }
 
-        return noLongerWaitingTasks;
+    private boolean isUnfinished(BuildTask task) {
+        return unfinishedTasksById.get(task.getId()) == task;
+    }
+
+    private IdRev configIdRev(BuildTask task) {
+        BuildConfigurationAudited buildConfigurationAudited = task.getBuildConfigurationAudited();
+        return buildConfigurationAudited == null ? null : buildConfigurationAudited.getId();
     }
 
     @PostConstruct
     public void initSemaphore()  {
         int maxConcurrentBuilds = 10;
+        ReadyTaskQueuePolicy readyQueuePolicy = ReadyTaskQueuePolicy.FIFO;
         try {
             SystemConfig systemConfig = configuration.getModuleConfig(new PncConfigProvider<>(SystemConfig.class));
 
             maxConcurrentBuilds = systemConfig.getCoordinatorMaxConcurrentBuilds();
+            readyQueuePolicy = toReadyQueuePolicy(systemConfig.getCoordinatorReadyQueuePolicy());
         } catch (ConfigurationParseException e) {
-            log.error("Error parsing configuration, using 10 max concurrent builds in BuildQueue", e);
+            log.error("Error parsing configuration, using 10 max concurrent builds and FIFO ready queue in BuildQueue", e);
         }
+        log.info("Using {} ready queue policy.", readyQueuePolicy);
+        readyTasks = readyQueuePolicy.createQueue();
         availableBuildSlots.release(maxConcurrentBuilds);
     }
 
+    private ReadyTaskQueuePolicy toReadyQueuePolicy(String policyName) {
+        if (policyName == null) {
+            return ReadyTaskQueuePolicy.FIFO;
+        }
+        try {
+            return ReadyTaskQueuePolicy.valueOf(policyName);
+        } catch (IllegalArgumentException e) {
+            log.warn("Unknown ready queue policy: {}. Will use FIFO.", policyName);
+            return ReadyTaskQueuePolicy.FIFO;
+        }
+    }
+
     @Override
-    public synchronized String toString() {
+    public String toString() {
         return "BuildQueue{" +
-                "readyTasks=" + readyTasks +
+                "readyTasks=" + getReadyTasks() +
                 ", waitingTasks=" + waitingTasksWithCallbacks +
                 ", tasksInProgress=" + tasksInProgress +
                 ", taskSets=" + taskSets +
                 '}';
     }
 
-    public synchronized boolean isEmpty() {
-        return tasksInProgress.isEmpty() && waitingTasksWithCallbacks.isEmpty() && readyTasks.isEmpty()
-                && unfinishedTasks.isEmpty() && taskSets.isEmpty();
+    public boolean isEmpty() {
+        return tasksInProgress.isEmpty() && waitingTasksWithCallbacks.isEmpty()
+                && unfinishedTasksById.isEmpty() && taskSets.isEmpty();
+    }
+
+    private List<BuildTask> getReadyTasks() {
+        return readyTasks.getTasks().stream()
+                .filter(this::isUnfinished)
+                .collect(Collectors.toList());
     }
 
-    public synchronized String getDebugInfo() {
+    public String getDebugInfo() {
         String info = "=====================\nQUEUE STATE:\n=====================\n" +
                 "Available build slots: " + availableBuildSlots.availablePermits() + "\n" +
                 "Queue length:" + availableBuildSlots.getQueueLength() + "\n" +
                 "\n=====================\nTASKS IN PROGRESS:\n=====================\n" +
                 tasksInProgress +
                 "\n=====================\nREADY TASKS:\n=====================\n" +
-                readyTasks +
+                getReadyTasks() +
                 "\n=====================\nWAITING TASKS:\n=====================\n" +
                 waitingTasksWithCallbacks.keySet() +
                 "\n=====================\nALL UNFINISHED TASKS:\n=====================\n" +
-                unfinishedTasks +
+                unfinishedTasksById.values() +
                 "\n=====================\nTASK SETS:\n=====================\n" +
                 taskSets;
 
@@ -33,10 +33,19 @@ import org.jboss.pnc.spi.exception.CoreException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.function.Supplier;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
 
 /**
  * @author <a href="mailto:matejonnet@gmail.com">Matej Lazar</a>
@@ -56,7 +65,7 @@ public class BuildTasksInitializer {
             User user,
             BuildScope scope,
             boolean keepAfterFailure,
-            Supplier<Integer> buildTaskIdProvider) throws CoreException {
+            IntFunction<List<Integer>> buildTaskIdsProvider) throws CoreException {
         BuildSetTask buildSetTask =
                 BuildSetTask.Builder.newBuilder()
                         .forceRebuildAll(scope.isForceRebuild())
@@ -66,7 +75,7 @@ public class BuildTasksInitializer {
 
         Set<BuildConfiguration> buildTasks = new HashSet<>();
         createBuildTasks(configuration, scope, buildTasks);
-        fillBuildTaskSet(buildSetTask, user, buildTaskIdProvider, configuration.getCurrentProductMilestone(), buildTasks);
+        fillBuildTaskSet(buildSetTask, user, buildTaskIdsProvider, configuration.getCurrentProductMilestone(), buildTasks);
         return buildSetTask;
     }
 
@@ -78,20 +87,28 @@ public class BuildTasksInitializer {
         }
         configs.add(configuration);
         if (scope.isRecursive()) {
-            configuration.getDependencies().forEach(c -> createDependencyBuildTasks(c, configs, visited));
+            Set<Integer> dependencyIds = configuration.getAllDependencies().stream()
+                    .map(BuildConfiguration::getId)
+                    .collect(Collectors.toSet());
+            Set<Integer> requiringRebuild = datastoreAdapter.getIdsRequiringRebuild(dependencyIds);
+            configuration.getDependencies().forEach(c -> createDependencyBuildTasks(c, requiringRebuild, configs, visited));
         }
     }
 
-    private boolean createDependencyBuildTasks(BuildConfiguration configuration, Set<BuildConfiguration> toBuild, Set<BuildConfiguration> visited) {
+    private boolean createDependencyBuildTasks(
+            BuildConfiguration configuration,
+            Set<Integer> requiringRebuild,
+            Set<BuildConfiguration> toBuild,
+            Set<BuildConfiguration> visited) {
         if (visited.contains(configuration)) {
             return toBuild.contains(configuration);
         }
 
         visited.add(configuration);
 
-        boolean requiresRebuild = datastoreAdapter.requiresRebuild(configuration);
+        boolean requiresRebuild = requiringRebuild.contains(configuration.getId());
         for (BuildConfiguration dependency : configuration.getDependencies()) {
-            requiresRebuild |= createDependencyBuildTasks(dependency, toBuild, visited);
+            requiresRebuild |= createDependencyBuildTasks(dependency, requiringRebuild, toBuild, visited);
         }
         if (requiresRebuild) {
             toBuild.add(configuration);
@@ -106,7 +123,7 @@ public class BuildTasksInitializer {
             User user,
             boolean rebuildAll,
             boolean keepAfterFailure,
-            Supplier<Integer> buildTaskIdProvider) throws CoreException {
+            IntFunction<List<Integer>> buildTaskIdsProvider) throws CoreException {
         BuildConfigSetRecord buildConfigSetRecord = BuildConfigSetRecord.Builder.newBuilder()
                 .buildConfigurationSet(buildConfigurationSet)
                 .user(user)
@@ -131,7 +148,7 @@ public class BuildTasksInitializer {
         initializeBuildTasksInSet(
                 buildSetTask,
                 user,
-                buildTaskIdProvider,
+                buildTaskIdsProvider,
                 buildConfigurationSet.getCurrentProductMilestone());
 
         return buildSetTask;
@@ -146,20 +163,23 @@ public class BuildTasksInitializer {
     private void initializeBuildTasksInSet(
             BuildSetTask buildSetTask,
             User user,
-            Supplier<Integer> buildTaskIdProvider,
+            IntFunction<List<Integer>> buildTaskIdsProvider,
             ProductMilestone productMilestone) {
         // Loop to create the build tasks
         Set<BuildConfiguration> toBuild =
                 buildSetTask.getBuildConfigurationSet().getBuildConfigurations();
 
-        fillBuildTaskSet(buildSetTask, user, buildTaskIdProvider, productMilestone, toBuild);
+        fillBuildTaskSet(buildSetTask, user, buildTaskIdsProvider, productMilestone, toBuild);
     }
 
     private void fillBuildTaskSet(BuildSetTask buildSetTask,
                                   User user,
-                                  Supplier<Integer> buildTaskIdProvider,
+                                  IntFunction<List<Integer>> buildTaskIdsProvider,
                                   ProductMilestone productMilestone,
                                   Set<BuildConfiguration> toBuild) {
+        List<BuildTask> tasks = new ArrayList<>(toBuild.size());
+        Map<BuildConfiguration, Integer> taskIndexes = new HashMap<>();
+        Iterator<Integer> buildTaskIds = buildTaskIdsProvider.apply(toBuild.size()).iterator();
         for (BuildConfiguration buildConfig : toBuild) {
             BuildConfigurationAudited buildConfigAudited =
                     datastoreAdapter.getLatestBuildConfigurationAudited(buildConfig.getId());
@@ -170,21 +190,78 @@ public class BuildTasksInitializer {
                     buildSetTask.isKeepAfterFailure(),
                     buildSetTask.getForceRebuildAll(),
                     user,
-                    buildTaskIdProvider.get(),
+                    buildTaskIds.next(),
                     buildSetTask,
                     buildSetTask.getStartTime(), productMilestone);
 
             buildSetTask.addBuildTask(buildTask);
+            taskIndexes.put(buildConfig, tasks.size());
+            tasks.add(buildTask);
+        }
+
+        // Set dependencies, a task depends on every task in the set its configuration depends on, directly or indirectly
+        Map<BuildConfiguration, BitSet> inSetDependencies = new HashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            BuildTask buildTask = tasks.get(i);
+            BitSet dependencies = collectInSetDependencies(buildTask.getBuildConfiguration(), taskIndexes, inSetDependencies);
+            for (int j = dependencies.nextSetBit(0); j >= 0; j = dependencies.nextSetBit(j + 1)) {
+                if (j != i) {
+                    buildTask.addDependency(tasks.get(j));
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects the indexes of the tasks the given configuration depends on, directly or through configurations which
+     * are not part of the set. The dependency graph is traversed only once for all the tasks of the set, the result
+     * for each visited configuration is kept in inSetDependencies.
+     *
+     * @param configuration configuration to collect the dependencies of
+     * @param taskIndexes indexes of the tasks by their configuration
+     * @param inSetDependencies already collected dependencies by configuration
+     * @return indexes of the tasks the configuration depends on
+     */
+    private BitSet collectInSetDependencies(BuildConfiguration configuration,
+                                            Map<BuildConfiguration, Integer> taskIndexes,
+                                            Map<BuildConfiguration, BitSet> inSetDependencies) {
+        BitSet collected = inSetDependencies.get(configuration);
+        if (collected != null) {
+            return collected;
         }
 
-        // Loop again to set dependencies
-        for (BuildTask buildTask : buildSetTask.getBuildTasks()) {
-            for (BuildTask checkDepBuildTask : buildSetTask.getBuildTasks()) {
-                if (buildTask.hasConfigDependencyOn(checkDepBuildTask)) {
-                    buildTask.addDependency(checkDepBuildTask);
+        // iterative post-order traversal, deep dependency chains would overflow the stack otherwise
+        Deque<BuildConfiguration> stack = new ArrayDeque<>();
+        Set<BuildConfiguration> expanded = new HashSet<>();
+        stack.push(configuration);
+        while (!stack.isEmpty()) {
+            BuildConfiguration current = stack.peek();
+            if (inSetDependencies.containsKey(current)) {
+                stack.pop();
+            } else if (expanded.add(current)) {
+                for (BuildConfiguration dependency : current.getDependencies()) {
+                    // a dependency already expanded but not collected yet is on a cycle, it is skipped
+                    if (!expanded.contains(dependency)) {
+                        stack.push(dependency);
+                    }
+                }
+            } else {
+                stack.pop();
+                BitSet dependencies = new BitSet(taskIndexes.size());
+                for (BuildConfiguration dependency : current.getDependencies()) {
+                    BitSet transitive = inSetDependencies.get(dependency);
+                    if (transitive != null) {
+                        dependencies.or(transitive);
+                    }
+                    Integer index = taskIndexes.get(dependency);
+                    if (index != null) {
+                        dependencies.set(index);
+                    }
                 }
+                inSetDependencies.put(current, dependencies);
             }
         }
+        return inSetDependencies.get(configuration);
     }
 
     /**
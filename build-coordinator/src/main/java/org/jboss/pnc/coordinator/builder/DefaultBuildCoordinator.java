@@ -62,6 +62,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -87,6 +88,9 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
 
     private BuildTasksInitializer buildTasksInitializer;
 
+    private MakespanEstimator makespanEstimator;
+
+    private final AtomicLong modificationCount = new AtomicLong(System.currentTimeMillis());
 
     @Deprecated
     public DefaultBuildCoordinator(){} //workaround for CDI constructor parameter injection
@@ -103,6 +107,7 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
         this.configuration = configuration;
         this.buildQueue = buildQueue;
         this.buildTasksInitializer = new BuildTasksInitializer(datastoreAdapter);
+        this.makespanEstimator = new MakespanEstimator(datastoreAdapter);
     }
 
     /**
@@ -131,8 +136,9 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
         }
 
         BuildSetTask buildSetTask =
-                buildTasksInitializer.createBuildSetTask(buildConfiguration, user, scope, keepPodAliveAfterFailure, this::buildRecordIdSupplier);
+                buildTasksInitializer.createBuildSetTask(buildConfiguration, user, scope, keepPodAliveAfterFailure, datastoreAdapter::getNextBuildRecordIds);
 
+        makespanEstimator.estimate(buildSetTask);
         buildQueue.enqueueTaskSet(buildSetTask);
         List<BuildTask> readyTasks = buildSetTask.getBuildTasks().stream().filter(BuildTask::readyToBuild).collect(Collectors.toList());
         List<BuildTask> waitingTasks = new ArrayList<>(buildSetTask.getBuildTasks());
@@ -144,10 +150,6 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
         return buildSetTask;
     }
 
-    private Integer buildRecordIdSupplier() {
-        return datastoreAdapter.getNextBuildRecordId();
-    }
-
     /**
      * Run a set of builds.  Only the current/latest version of builds in the given set will be executed.  The
      * order of execution is determined by the dependency relations between the build configurations.
@@ -172,7 +174,7 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
                 user,
                 forceRebuildAll,
                 keepPodAliveAfterFailure,
-                this::buildRecordIdSupplier);
+                datastoreAdapter::getNextBuildRecordIds);
         updateBuildSetTaskStatus(buildSetTask, BuildSetStatus.NEW);
         checkForEmptyBuildSetTask(buildSetTask);
         checkForCyclicDependencies(buildSetTask);
@@ -182,6 +184,7 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
 
     private void build(BuildSetTask buildSetTask) {
         if (!BuildSetStatus.REJECTED.equals(buildSetTask.getStatus())) {
+            makespanEstimator.estimate(buildSetTask);
             buildQueue.enqueueTaskSet(buildSetTask);
             buildSetTask.getBuildTasks().stream()
                     .filter(this::rejectAlreadySubmitted)
@@ -197,13 +200,12 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
             updateBuildTaskStatus(task, BuildCoordinationStatus.WAITING_FOR_DEPENDENCIES);
             buildQueue.addWaitingTask(task, () -> updateBuildTaskStatus(task, BuildCoordinationStatus.ENQUEUED));
         }
+        modificationCount.incrementAndGet();
     }
 
     @Override
     public boolean cancel(int buildTaskId) throws CoreException {
-        Optional<BuildTask> taskOptional = getSubmittedBuildTasks().stream()
-                    .filter(buildTask -> buildTask.getId() == buildTaskId)
-                    .findAny();
+        Optional<BuildTask> taskOptional = getSubmittedBuildTask(buildTaskId);
         if (taskOptional.isPresent()) {
             log.debug("Cancelling task {}.", taskOptional.get());
             try {
@@ -228,7 +230,7 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
         PullingMonitor monitor = new PullingMonitor();
 
         Runnable invokeCancelInternal = () -> {
-            if (!getSubmittedBuildTasks().contains(buildTask)) {
+            if (!buildQueue.isBuildAlreadySubmitted(buildTask)) {
                 log.debug("Task {} cancellation already completed.", buildTask.getId());
                 return;
             }
@@ -311,6 +313,7 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
             task.setStatus(status);
             task.setStatusDescription(statusDescription);
         }
+        modificationCount.incrementAndGet();
         buildStatusChangedEventNotifier.fire(buildStatusChanged);
         log.debug("Fired buildStatusChangedEventNotifier after task {} status update to {}.", task.getId(), status);
     }
@@ -435,11 +438,13 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
         task.setStatus(status);
         task.setStatusDescription(statusDescription);
         log.debug("Finishing buildTask {} ...", task);
-        buildQueue.removeTask(task);
+        boolean removedFromQueue = buildQueue.removeTask(task);
         switch (status) {
             case DONE:
             case REJECTED_ALREADY_BUILT:
-                buildQueue.executeNewReadyTasks();
+                if (removedFromQueue) {
+                    buildQueue.executeNewReadyTasks(task);
+                }
                 break;
             case REJECTED:
             case REJECTED_FAILED_DEPENDENCIES:
@@ -469,23 +474,12 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
         BuildSetTask taskSet = failedTask.getBuildSetTask();
         if (taskSet != null) {
             log.debug("Finishing tasks in set {}, after failedTask {}.", taskSet, failedTask);
-            taskSet.getBuildTasks().stream()
-                    .filter(t -> isDependentOn(failedTask, t))
+            new ArrayList<>(failedTask.getDependants()).stream()
                     .filter(t -> !t.getStatus().isCompleted())
                     .forEach(t -> finishDueToFailedDependency(failedTask, t));
         }
     }
 
-    /**
-     * checks if the possible dependant depends on the possible dependency
-     * @param dependency - possible dependency
-     * @param dependant - task to be checked
-     * @return true if dependant indeed depends on the dependency
-     */
-    private boolean isDependentOn(BuildTask dependency, BuildTask dependant) {
-        return dependant.getDependencies().contains(dependency);
-    }
-
     private void storeRejectedTask(BuildTask buildTask) {
         try {
             log.debug("Storing rejected task {}", buildTask);
@@ -524,6 +518,21 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
         return buildQueue.getSubmittedBuildTasks();
     }
 
+    @Override
+    public long getModificationCount() {
+        return modificationCount.get();
+    }
+
+    @Override
+    public Optional<BuildTask> getSubmittedBuildTask(int buildTaskId) {
+        return buildQueue.getTask(buildTaskId);
+    }
+
+    @Override
+    public Optional<BuildSetTask> getSubmittedBuildSetTask(int buildConfigSetRecordId) {
+        return buildQueue.getTaskSet(buildConfigSetRecordId);
+    }
+
     @PostConstruct
     public void start() {
         startThreads();
@@ -0,0 +1,200 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.builder;
+
+import org.jboss.pnc.coordinator.builder.datastore.DatastoreAdapter;
+import org.jboss.pnc.spi.coordinator.BuildSetTask;
+import org.jboss.pnc.spi.coordinator.BuildTask;
+import org.jboss.pnc.spi.coordinator.MakespanEstimate;
+import org.jboss.pnc.spi.coordinator.MakespanEstimate.TaskEstimate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Estimates how long a build set takes using the average durations of the previous successful builds of its
+ * configurations and the dependencies between its tasks.
+ *
+ * The estimate also sets {@link BuildTask#setCriticalPathLength(long)}, so the ready queue can start the longest
+ * chains first.
+ */
+public class MakespanEstimator {
+
+    /**
+     * Expected duration of a configuration which has never been built successfully, used when there is no
+     * history for any configuration of the set.
+     */
+    static final long DEFAULT_BUILD_DURATION = TimeUnit.MINUTES.toMillis(10);
+
+    private final Logger log = LoggerFactory.getLogger(MakespanEstimator.class);
+
+    private DatastoreAdapter datastoreAdapter;
+
+    public MakespanEstimator(DatastoreAdapter datastoreAdapter) {
+        this.datastoreAdapter = datastoreAdapter;
+    }
+
+    /**
+     * Estimates the build set and stores the result to {@link BuildSetTask#setMakespanEstimate(MakespanEstimate)}.
+     *
+     * @param buildSetTask submitted build set
+     * @return the estimate
+     */
+    public MakespanEstimate estimate(BuildSetTask buildSetTask) {
+        Set<Integer> configurationIds = buildSetTask.getBuildTasks().stream()
+                .map(task -> task.getBuildConfiguration().getId())
+                .collect(Collectors.toSet());
+        Map<Integer, Long> averageDurations;
+        try {
+            averageDurations = datastoreAdapter.getAverageBuildDurations(configurationIds);
+        } catch (RuntimeException e) {
+            log.warn("Unable to load build durations, estimating build set " + buildSetTask.getId() + " without history.", e);
+            averageDurations = Collections.emptyMap();
+        }
+
+        MakespanEstimate estimate = estimate(buildSetTask.getBuildTasks(), averageDurations);
+        estimate.setBuildConfigSetRecordId(buildSetTask.getId());
+        buildSetTask.setMakespanEstimate(estimate);
+        log.debug("Build set {} estimated to take {} ms, critical path: {}.",
+                buildSetTask.getId(), estimate.getMakespan(), estimate.getCriticalPath());
+        return estimate;
+    }
+
+    /**
+     * Computes the earliest and latest start of each task in one pass over the dependency graph in each direction.
+     * Only the dependencies within the given tasks are taken into account.
+     * Tasks on a dependency cycle are left out of the estimate.
+     *
+     * @param tasks tasks of a build set
+     * @param averageDurations average build duration in milliseconds by build configuration id
+     * @return the estimate
+     */
+    public static MakespanEstimate estimate(Collection<BuildTask> tasks, Map<Integer, Long> averageDurations) {
+        long defaultDuration = (long) averageDurations.values().stream()
+                .mapToLong(Long::longValue)
+                .average()
+                .orElse(DEFAULT_BUILD_DURATION);
+
+        Map<BuildTask, TaskEstimate> estimates = new LinkedHashMap<>();
+        Map<BuildTask, Integer> unresolvedDependencies = new LinkedHashMap<>();
+        for (BuildTask task : tasks) {
+            Integer configurationId = task.getBuildConfiguration().getId();
+            Long averageDuration = averageDurations.get(configurationId);
+            TaskEstimate taskEstimate = new TaskEstimate();
+            taskEstimate.setBuildTaskId(task.getId());
+            taskEstimate.setBuildConfigurationId(configurationId);
+            taskEstimate.setBuildConfigurationName(task.getBuildConfiguration().getName());
+            taskEstimate.setBasedOnHistory(averageDuration != null);
+            taskEstimate.setExpectedDuration(averageDuration != null ? averageDuration : defaultDuration);
+            estimates.put(task, taskEstimate);
+        }
+        for (BuildTask task : tasks) {
+            long dependencies = task.getDependencies().stream().filter(estimates::containsKey).count();
+            unresolvedDependencies.put(task, (int) dependencies);
+        }
+
+        // forward pass, the dependencies of a task are ordered before it
+        List<BuildTask> ordered = new ArrayList<>(tasks.size());
+        Deque<BuildTask> resolved = new ArrayDeque<>();
+        unresolvedDependencies.forEach((task, dependencies) -> {
+            if (dependencies == 0) {
+                resolved.add(task);
+            }
+        });
+        long makespan = 0;
+        while (!resolved.isEmpty()) {
+            BuildTask task = resolved.poll();
+            ordered.add(task);
+            TaskEstimate taskEstimate = estimates.get(task);
+            long earliestStart = task.getDependencies().stream()
+                    .map(estimates::get)
+                    .filter(e -> e != null)
+                    .mapToLong(MakespanEstimator::earliestFinish)
+                    .max()
+                    .orElse(0);
+            taskEstimate.setEarliestStart(earliestStart);
+            makespan = Math.max(makespan, earliestFinish(taskEstimate));
+
+            for (BuildTask dependant : task.getDependants()) {
+                Integer remaining = unresolvedDependencies.get(dependant);
+                if (remaining != null) {
+                    unresolvedDependencies.put(dependant, remaining - 1);
+                    if (remaining == 1) {
+                        resolved.add(dependant);
+                    }
+                }
+            }
+        }
+
+        // tasks on a cycle were never resolved
+        estimates.keySet().retainAll(new HashSet<>(ordered));
+
+        // backward pass, the dependants of a task are visited before it
+        for (int i = ordered.size() - 1; i >= 0; i--) {
+            BuildTask task = ordered.get(i);
+            TaskEstimate taskEstimate = estimates.get(task);
+            long latestFinish = makespan;
+            for (BuildTask dependant : task.getDependants()) {
+                TaskEstimate dependantEstimate = estimates.get(dependant);
+                if (dependantEstimate != null) {
+                    latestFinish = Math.min(latestFinish, dependantEstimate.getLatestStart());
+                }
+            }
+            taskEstimate.setLatestStart(latestFinish - taskEstimate.getExpectedDuration());
+            taskEstimate.setSlack(taskEstimate.getLatestStart() - taskEstimate.getEarliestStart());
+            task.setCriticalPathLength(makespan - taskEstimate.getLatestStart());
+        }
+
+        List<TaskEstimate> taskEstimates = ordered.stream().map(estimates::get).collect(Collectors.toList());
+        return new MakespanEstimate(null, new Date(), makespan, criticalPath(ordered, estimates), taskEstimates);
+    }
+
+    private static List<Integer> criticalPath(List<BuildTask> ordered, Map<BuildTask, TaskEstimate> estimates) {
+        Comparator<BuildTask> byEarliestFinish = Comparator.comparingLong(task -> earliestFinish(estimates.get(task)));
+        Deque<Integer> path = new ArrayDeque<>();
+        BuildTask current = ordered.stream().max(byEarliestFinish).orElse(null);
+        while (current != null) {
+            path.addFirst(current.getId());
+            long start = estimates.get(current).getEarliestStart();
+            current = current.getDependencies().stream()
+                    .filter(estimates::containsKey)
+                    .filter(dependency -> earliestFinish(estimates.get(dependency)) == start)
+                    .findFirst()
+                    .orElse(null);
+        }
+        return new ArrayList<>(path);
+    }
+
+    private static long earliestFinish(TaskEstimate taskEstimate) {
+        return taskEstimate.getEarliestStart() + taskEstimate.getExpectedDuration();
+    }
+}
@@ -29,19 +29,27 @@ import org.jboss.pnc.spi.BuildExecutionStatus;
 import org.jboss.pnc.spi.BuildResult;
 import org.jboss.pnc.spi.builddriver.BuildDriverResult;
 import org.jboss.pnc.spi.coordinator.BuildTask;
+import org.jboss.pnc.spi.datastore.BuildLogStore;
 import org.jboss.pnc.spi.datastore.Datastore;
 import org.jboss.pnc.spi.datastore.DatastoreException;
 import org.jboss.pnc.spi.executor.BuildExecutionConfiguration;
 import org.jboss.pnc.spi.repositorymanager.RepositoryManagerResult;
 
 import javax.inject.Inject;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Date;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.jboss.pnc.model.BuildStatus.CANCELLED;
 import static org.jboss.pnc.model.BuildStatus.FAILED;
@@ -56,6 +64,8 @@ public class DatastoreAdapter {
 
     private Datastore datastore;
 
+    private BuildLogStore buildLogStore;
+
     private static final Logger log = Logger.getLogger(DatastoreAdapter.class);
 
     // needed for EJB/CDI
@@ -64,8 +74,9 @@ public class DatastoreAdapter {
     }
 
     @Inject
-    public DatastoreAdapter(Datastore datastore) {
+    public DatastoreAdapter(Datastore datastore, BuildLogStore buildLogStore) {
         this.datastore = datastore;
+        this.buildLogStore = buildLogStore;
     }
 
     public BuildConfigSetRecord saveBuildConfigSetRecord(BuildConfigSetRecord buildConfigSetRecord) throws DatastoreException {
@@ -93,6 +104,7 @@ public class DatastoreAdapter {
     }
 
     public void storeResult(BuildTask buildTask, BuildResult buildResult) throws DatastoreException {
+        boolean resultLogsStored = false;
         try {
             BuildStatus buildRecordStatus = UNKNOWN;
 
@@ -110,7 +122,6 @@ public class DatastoreAdapter {
 
             if (buildResult.getBuildDriverResult().isPresent()) {
                 BuildDriverResult buildDriverResult = buildResult.getBuildDriverResult().get();
-                buildRecordBuilder.appendLog(buildDriverResult.getBuildLog());
                 buildRecordStatus = buildDriverResult.getBuildStatus();
             } else if (!buildResult.hasFailed()) {
                 storeResult(buildTask, Optional.of(buildResult), new BuildCoordinationException("Trying to store success build with incomplete result. Missing BuildDriverResult."));
@@ -120,7 +131,6 @@ public class DatastoreAdapter {
             if (buildResult.getRepositoryManagerResult().isPresent()) {
                 RepositoryManagerResult repositoryManagerResult = buildResult.getRepositoryManagerResult().get();
 
-                buildRecordBuilder.appendLog(repositoryManagerResult.getLog());
                 if (repositoryManagerResult.getStatus().hasFailed()) {
                     buildRecordStatus = FAILED; //TODO, do not mix statuses
                 }
@@ -135,7 +145,7 @@ public class DatastoreAdapter {
                 }
                 buildRecordBuilder.builtArtifacts(repositoryManagerResult.getBuiltArtifacts());
 
-                Map<Artifact, String> depConflicts = datastore.checkForConflictingArtifacts(builtArtifacts);
+                Map<Artifact, String> depConflicts = datastore.checkForConflictingArtifacts(repositoryManagerResult.getDependencies());
                 if (depConflicts.size() > 0) {
                     storeResult(buildTask, Optional.of(buildResult), new BuildCoordinationException("Trying to store success build with invalid repository manager result. Conflicting artifact data found: " + depConflicts.toString()));
                     return;
@@ -165,14 +175,18 @@ public class DatastoreAdapter {
             }
 
             log.debugf("Storing results of buildTask [%s] to datastore.", buildTask.getId());
+            storeLog(buildTask.getId(),
+                    buildResult.getBuildDriverResult().map(BuildDriverResult::getBuildLog).orElse(null),
+                    buildResult.getRepositoryManagerResult().map(RepositoryManagerResult::getLog).orElse(null));
+            resultLogsStored = true;
             datastore.storeCompletedBuild(buildRecordBuilder);
         } catch (Exception e) {
-            storeResult(buildTask, Optional.of(buildResult), e);
+            storeResult(buildTask, Optional.of(buildResult), e, !resultLogsStored);
         }
     }
 
     /**
-     * Store build result along with error information appended to the build log
+     * Store build result along with error information appended to the build log.
      *
      * @param buildTask task
      * @param buildResult result of running the task
@@ -180,39 +194,67 @@ public class DatastoreAdapter {
      * @throws DatastoreException on failure to store data
      */
     public void storeResult(BuildTask buildTask, Optional<BuildResult> buildResult, Throwable e) throws DatastoreException {
+        storeResult(buildTask, buildResult, e, true);
+    }
+
+    /**
+     * @param storeResultLogs false if the logs of the build result were stored before the error occurred
+     */
+    private void storeResult(BuildTask buildTask, Optional<BuildResult> buildResult, Throwable e, boolean storeResultLogs)
+            throws DatastoreException {
         BuildRecord.Builder buildRecordBuilder = initBuildRecordBuilder(buildTask);
         buildRecordBuilder.status(SYSTEM_ERROR);
 
-        StringBuilder errorLog = new StringBuilder();
+        List<String> logParts = new ArrayList<>();
 
         buildResult.ifPresent(r -> {
 
             r.getExecutionRootName().ifPresent(buildRecordBuilder::executionRootName);
             r.getExecutionRootVersion().ifPresent(buildRecordBuilder::executionRootVersion);
 
-            r.getBuildDriverResult().ifPresent(
-                buildDriverResult -> {
-                    errorLog.append(buildDriverResult.getBuildLog());
-                    errorLog.append("\n---- End Build Log ----\n");
-            });
-            r.getRepositoryManagerResult().ifPresent(
-                rmr -> {
-                    errorLog.append(rmr.getLog());
-                    errorLog.append("\n---- End Repository Manager Log ----\n");
-            });
+            if (storeResultLogs) {
+                r.getBuildDriverResult().ifPresent(
+                    buildDriverResult -> {
+                        logParts.add(buildDriverResult.getBuildLog());
+                        logParts.add("\n---- End Build Log ----\n");
+                });
+                r.getRepositoryManagerResult().ifPresent(
+                    rmr -> {
+                        logParts.add(rmr.getLog());
+                        logParts.add("\n---- End Repository Manager Log ----\n");
+                });
+            }
         });
 
+        StringBuilder errorLog = new StringBuilder();
         errorLog.append("Last build status: ").append(getLastBuildStatus(buildResult)).append("\n");
         errorLog.append("Caught exception: ").append(e.toString()).append("\n");
         StringWriter stackTraceWriter = new StringWriter();
         e.printStackTrace(new PrintWriter(stackTraceWriter));
         errorLog.append(stackTraceWriter.getBuffer());
-        buildRecordBuilder.buildLog(errorLog.toString());
+        logParts.add(errorLog.toString());
+        storeLog(buildTask.getId(), logParts.toArray(new String[logParts.size()]));
 
         log.debugf("Storing ERROR result of %s to datastore. Error: %s", buildTask.getBuildConfigurationAudited().getName() + "\n\n\n Exception: " + errorLog, e);
         datastore.storeCompletedBuild(buildRecordBuilder);
     }
 
+    /**
+     * Append the parts to the build log through a single stream, so that they are stored in as few chunks as possible.
+     * A failure to store the log is logged and does not prevent storing the build record.
+     */
+    private void storeLog(Integer buildRecordId, String... logParts) {
+        try (Writer writer = new OutputStreamWriter(buildLogStore.openAppendStream(buildRecordId), StandardCharsets.UTF_8)) {
+            for (String logPart : logParts) {
+                if (logPart != null) {
+                    writer.write(logPart);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.errorf(e, "Cannot store the log of build record %d.", buildRecordId);
+        }
+    }
+
     private BuildExecutionStatus getLastBuildStatus(Optional<BuildResult> buildResult) {
         Optional<BuildExecutionStatus> status = buildResult.flatMap(BuildResult::getFailedReasonStatus);
 
@@ -222,7 +264,7 @@ public class DatastoreAdapter {
     public void storeRejected(BuildTask buildTask) throws DatastoreException {
         BuildRecord.Builder buildRecordBuilder = initBuildRecordBuilder(buildTask);
         buildRecordBuilder.status(REJECTED);
-        buildRecordBuilder.buildLog(buildTask.getStatusDescription());
+        storeLog(buildTask.getId(), buildTask.getStatusDescription());
 
         log.debugf("Storing REJECTED build of %s to datastore. Reason: %s", buildTask.getBuildConfigurationAudited().getName(), buildTask.getStatusDescription());
         datastore.storeCompletedBuild(buildRecordBuilder);
@@ -269,6 +311,10 @@ public class DatastoreAdapter {
         return datastore.getNextBuildRecordId();
     }
 
+    public List<Integer> getNextBuildRecordIds(int count) {
+        return datastore.getNextBuildRecordIds(count);
+    }
+
     public boolean requiresRebuild(BuildConfiguration configuration) {
         return datastore.requiresRebuild(configuration);
     }
@@ -276,4 +322,12 @@ public class DatastoreAdapter {
     public boolean requiresRebuild(BuildTask task) {
         return datastore.requiresRebuild(task);
     }
+
+    public Set<Integer> getIdsRequiringRebuild(Collection<Integer> buildConfigurationIds) {
+        return datastore.getIdsRequiringRebuild(buildConfigurationIds);
+    }
+
+    public Map<Integer, Long> getAverageBuildDurations(Collection<Integer> buildConfigurationIds) {
+        return datastore.getAverageBuildDurations(buildConfigurationIds);
+    }
 }
@@ -0,0 +1,107 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.builder.queue;
+
+import org.jboss.pnc.spi.coordinator.BuildTask;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Shares the build slots between the owners of the tasks (users or build sets) using start-time fair queuing.
+ *
+ * Each owner has a virtual time which grows by 1/weight with every started task.
+ * The next task is taken from the owner with the lowest virtual time.
+ * An owner that has no ready tasks is forgotten, when it comes back it starts from the current virtual time,
+ * so a single build of a new owner is started right after the running ones, even if another owner has hundreds of tasks ready.
+ * Tasks of a single owner are ordered by their critical path length.
+ */
+public class FairShareReadyTaskQueue implements ReadyTaskQueue {
+
+    private final Function<BuildTask, Object> ownerExtractor;
+    private final ToDoubleFunction<Object> ownerWeight;
+
+    private final Map<Object, Owner> owners = new HashMap<>();
+    private int size = 0;
+    private double virtualTime = 0;
+
+    /**
+     * @param ownerExtractor the owner of a task, tasks of one owner share one slice of the build slots
+     * @param ownerWeight weight of an owner, an owner with weight 2 gets twice as many tasks started as an owner with weight 1
+     */
+    public FairShareReadyTaskQueue(Function<BuildTask, Object> ownerExtractor, ToDoubleFunction<Object> ownerWeight) {
+        this.ownerExtractor = ownerExtractor;
+        this.ownerWeight = ownerWeight;
+    }
+
+    @Override
+    public synchronized void add(BuildTask task) {
+        Object ownerKey = ownerExtractor.apply(task);
+        Owner owner = owners.computeIfAbsent(ownerKey, key -> new Owner(key, virtualTime));
+        owner.tasks.add(task);
+        size++;
+        notifyAll();
+    }
+
+    @Override
+    public synchronized BuildTask take() throws InterruptedException {
+        while (size == 0) {
+            wait();
+        }
+        Owner next = null;
+        for (Owner owner : owners.values()) {
+            if (next == null || owner.virtualTime < next.virtualTime) {
+                next = owner;
+            }
+        }
+        BuildTask task = next.tasks.poll();
+        size--;
+        virtualTime = next.virtualTime;
+        next.virtualTime += 1 / next.weight;
+        if (next.tasks.isEmpty()) {
+            owners.remove(next.key);
+        }
+        return task;
+    }
+
+    @Override
+    public synchronized List<BuildTask> getTasks() {
+        List<BuildTask> snapshot = new ArrayList<>(size);
+        owners.values().forEach(owner -> snapshot.addAll(owner.tasks));
+        return snapshot;
+    }
+
+    private class Owner {
+        private final Object key;
+        private final double weight;
+        private final PriorityQueue<BuildTask> tasks = new PriorityQueue<>(CriticalPathReadyTaskQueue.LONGEST_CRITICAL_PATH_FIRST);
+        private double virtualTime;
+
+        private Owner(Object key, double virtualTime) {
+            this.key = key;
+            this.virtualTime = virtualTime;
+            double weight = ownerWeight.applyAsDouble(key);
+            this.weight = weight > 0 ? weight : 1;
+        }
+    }
+}
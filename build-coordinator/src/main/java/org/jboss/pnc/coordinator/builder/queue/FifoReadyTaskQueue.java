@@ -0,0 +1,48 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.builder.queue;
+
+import org.jboss.pnc.spi.coordinator.BuildTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Starts the tasks in the order they became ready.
+ */
+public class FifoReadyTaskQueue implements ReadyTaskQueue {
+
+    private final BlockingQueue<BuildTask> tasks = new LinkedBlockingQueue<>();
+
+    @Override
+    public void add(BuildTask task) {
+        tasks.add(task);
+    }
+
+    @Override
+    public BuildTask take() throws InterruptedException {
+        return tasks.take();
+    }
+
+    @Override
+    public List<BuildTask> getTasks() {
+        return new ArrayList<>(tasks);
+    }
+}
@@ -0,0 +1,40 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.builder.queue;
+
+import org.jboss.pnc.spi.coordinator.BuildTask;
+
+import java.util.List;
+
+/**
+ * Queue of build tasks that are ready to be built. The implementation decides in which order the tasks are started.
+ */
+public interface ReadyTaskQueue {
+
+    void add(BuildTask task);
+
+    /**
+     * Remove the next task to be started, waiting if necessary until a task becomes available.
+     */
+    BuildTask take() throws InterruptedException;
+
+    /**
+     * @return a snapshot of the queued tasks
+     */
+    List<BuildTask> getTasks();
+}
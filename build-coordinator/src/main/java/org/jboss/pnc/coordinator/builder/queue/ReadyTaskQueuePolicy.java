@@ -0,0 +1,70 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.builder.queue;
+
+import org.jboss.pnc.model.User;
+import org.jboss.pnc.spi.coordinator.BuildTask;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Order in which the ready build tasks are started, configured by <code>coordinatorReadyQueuePolicy</code> in system config.
+ */
+public enum ReadyTaskQueuePolicy {
+
+    /**
+     * In the order the tasks became ready.
+     */
+    FIFO(FifoReadyTaskQueue::new),
+
+    /**
+     * Tasks with the longest chain of dependants first.
+     */
+    CRITICAL_PATH(CriticalPathReadyTaskQueue::new),
+
+    /**
+     * Build slots are shared evenly between the users that triggered the tasks.
+     */
+    FAIR_SHARE_PER_USER(() -> new FairShareReadyTaskQueue(ReadyTaskQueuePolicy::userId, owner -> 1)),
+
+    /**
+     * Build slots are shared evenly between the build sets, a single build is a build set of its own.
+     */
+    FAIR_SHARE_PER_BUILD_SET(() -> new FairShareReadyTaskQueue(ReadyTaskQueuePolicy::buildSet, owner -> 1));
+
+    private static final String NO_USER = "";
+
+    private final Supplier<ReadyTaskQueue> queueFactory;
+
+    ReadyTaskQueuePolicy(Supplier<ReadyTaskQueue> queueFactory) {
+        this.queueFactory = queueFactory;
+    }
+
+    public ReadyTaskQueue createQueue() {
+        return queueFactory.get();
+    }
+
+    private static Object userId(BuildTask task) {
+        return Optional.ofNullable(task.getUser()).<Object>map(User::getId).orElse(NO_USER);
+    }
+
+    private static Object buildSet(BuildTask task) {
+        return task.getBuildSetTask() != null ? task.getBuildSetTask() : task;
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.builder;
+
+import org.jboss.pnc.common.json.ConfigurationParseException;
+import org.jboss.pnc.spi.coordinator.BuildTask;
+import org.jboss.pnc.test.category.DebugTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jboss.pnc.coordinator.builder.BuildQueueTest.mockConfiguration;
+import static org.jboss.pnc.coordinator.builder.BuildQueueTest.task;
+
+/**
+ * Measures trigger and lookup latency of {@link BuildQueue} with a large number of queued tasks.
+ * Run with -Pdebug-tests -Dtest=BuildQueueBenchmarkTest
+ */
+@Category(DebugTest.class)
+public class BuildQueueBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BuildQueueBenchmarkTest.class);
+
+    private static final int QUEUED_TASKS = 10_000;
+    private static final int ROUNDS = 5;
+
+    @Test
+    public void measureTriggerAndLookupLatency() throws ConfigurationParseException {
+        for (int round = 0; round < ROUNDS; round++) {
+            BuildQueue buildQueue = new BuildQueue(mockConfiguration(10));
+            buildQueue.initSemaphore();
+
+            List<BuildTask> tasks = new ArrayList<>(QUEUED_TASKS);
+            for (int i = 0; i < QUEUED_TASKS; i++) {
+                tasks.add(task(i, i, 1));
+            }
+
+            long triggerNanos = 0;
+            for (BuildTask task : tasks) {
+                long start = System.nanoTime();
+                if (!buildQueue.isBuildAlreadySubmitted(task)) {
+                    buildQueue.addReadyTask(task);
+                }
+                triggerNanos += System.nanoTime() - start;
+            }
+
+            long lookupNanos = 0;
+            for (BuildTask task : tasks) {
+                long start = System.nanoTime();
+                assertThat(buildQueue.getTask(task.getBuildConfigurationAudited()).isPresent()).isTrue();
+                assertThat(buildQueue.getTask(task.getId()).isPresent()).isTrue();
+                lookupNanos += System.nanoTime() - start;
+            }
+
+            long removeNanos = 0;
+            for (BuildTask task : tasks) {
+                long start = System.nanoTime();
+                buildQueue.removeTask(task);
+                removeNanos += System.nanoTime() - start;
+            }
+            assertThat(buildQueue.isEmpty()).isTrue();
+
+            log.info("Round {}: {} queued tasks, avg trigger {} us, avg lookup {} us, avg removal {} us.",
+                    round,
+                    QUEUED_TASKS,
+                    micros(triggerNanos),
+                    micros(lookupNanos),
+                    micros(removeNanos));
+        }
+    }
+
+    private static double micros(long totalNanos) {
+        return (double) totalNanos / QUEUED_TASKS / 1000;
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.builder;
+
+import org.jboss.pnc.common.Configuration;
+import org.jboss.pnc.common.json.ConfigurationParseException;
+import org.jboss.pnc.common.json.moduleconfig.SystemConfig;
+import org.jboss.pnc.model.BuildConfiguration;
+import org.jboss.pnc.model.BuildConfigurationAudited;
+import org.jboss.pnc.model.IdRev;
+import org.jboss.pnc.model.Project;
+import org.jboss.pnc.spi.BuildCoordinationStatus;
+import org.jboss.pnc.spi.coordinator.BuildTask;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BuildQueueTest {
+
+    private BuildQueue buildQueue;
+
+    @Before
+    public void setUp() throws ConfigurationParseException {
+        buildQueue = new BuildQueue(mockConfiguration(2));
+        buildQueue.initSemaphore();
+    }
+
+    @Test
+    public void shouldFindEnqueuedTaskByIdAndConfiguration() {
+        BuildTask task = task(1, 10, 1);
+        buildQueue.addReadyTask(task);
+
+        assertThat(buildQueue.getTask(1).get()).isSameAs(task);
+        assertThat(buildQueue.getTask(task.getBuildConfigurationAudited()).get()).isSameAs(task);
+        assertThat(buildQueue.isBuildAlreadySubmitted(task(2, 10, 1))).isTrue();
+        assertThat(buildQueue.isBuildAlreadySubmitted(task(3, 10, 2))).isFalse();
+        assertThat(buildQueue.getSubmittedBuildTasks()).containsOnly(task);
+    }
+
+    @Test
+    public void shouldForgetRemovedTask() {
+        BuildTask task = task(1, 10, 1);
+        buildQueue.addReadyTask(task);
+
+        buildQueue.removeTask(task);
+
+        assertThat(buildQueue.getTask(1).isPresent()).isFalse();
+        assertThat(buildQueue.getTask(task.getBuildConfigurationAudited()).isPresent()).isFalse();
+        assertThat(buildQueue.isBuildAlreadySubmitted(task)).isFalse();
+        assertThat(buildQueue.isEmpty()).isTrue();
+    }
+
+    @Test(timeout = 5000)
+    public void shouldNotTakeTaskRemovedWhileReady() throws InterruptedException {
+        BuildTask removed = task(1, 10, 1);
+        BuildTask kept = task(2, 11, 1);
+        buildQueue.addReadyTask(removed);
+        buildQueue.addReadyTask(kept);
+
+        buildQueue.removeTask(removed);
+
+        assertThat(buildQueue.take()).isSameAs(kept);
+    }
+
+    @Test(timeout = 5000)
+    public void shouldReleaseBuildSlotOfRemovedTaskInProgress() throws InterruptedException {
+        buildQueue.addReadyTask(task(1, 10, 1));
+        buildQueue.addReadyTask(task(2, 11, 1));
+        BuildTask third = task(3, 12, 1);
+        buildQueue.addReadyTask(third);
+
+        BuildTask first = buildQueue.take();
+        buildQueue.take();
+        buildQueue.removeTask(first);
+
+        assertThat(buildQueue.take()).isSameAs(third);
+    }
+
+    @Test(timeout = 5000)
+    public void shouldMoveDependantToReadyTasksWhenLastDependencyFinishes() throws InterruptedException {
+        BuildTask dependency1 = task(1, 10, 1);
+        BuildTask dependency2 = task(2, 11, 1);
+        BuildTask dependant = task(3, 12, 1);
+        dependant.addDependency(dependency1);
+        dependant.addDependency(dependency2);
+        AtomicBoolean callbackInvoked = new AtomicBoolean(false);
+
+        buildQueue.addReadyTask(dependency1);
+        buildQueue.addReadyTask(dependency2);
+        buildQueue.addWaitingTask(dependant, () -> callbackInvoked.set(true));
+
+        finish(buildQueue.take());
+        assertThat(callbackInvoked.get()).isFalse();
+        assertThat(dependant.readyToBuild()).isFalse();
+
+        finish(buildQueue.take());
+        assertThat(callbackInvoked.get()).isTrue();
+        assertThat(buildQueue.take()).isSameAs(dependant);
+    }
+
+    @Test
+    public void shouldNotReleaseDependantsOfTaskFinishedTwice() {
+        BuildTask dependency1 = task(1, 10, 1);
+        BuildTask dependency2 = task(2, 11, 1);
+        BuildTask dependant = task(3, 12, 1);
+        dependant.addDependency(dependency1);
+        dependant.addDependency(dependency2);
+
+        buildQueue.addReadyTask(dependency1);
+        buildQueue.addReadyTask(dependency2);
+        buildQueue.addWaitingTask(dependant, () -> {});
+
+        finish(dependency1);
+        finish(dependency1);
+
+        assertThat(dependant.readyToBuild()).isFalse();
+    }
+
+    private void finish(BuildTask task) {
+        task.setStatus(BuildCoordinationStatus.DONE);
+        if (buildQueue.removeTask(task)) {
+            buildQueue.executeNewReadyTasks(task);
+        }
+    }
+
+    static Configuration mockConfiguration(int maxConcurrentBuilds) throws ConfigurationParseException {
+        Configuration configuration = mock(Configuration.class);
+        SystemConfig systemConfig = mock(SystemConfig.class);
+        when(systemConfig.getCoordinatorMaxConcurrentBuilds()).thenReturn(maxConcurrentBuilds);
+        when(configuration.getModuleConfig(any())).thenReturn(systemConfig);
+        return configuration;
+    }
+
+    static BuildTask task(int taskId, int configId, int rev) {
+        Project project = new Project();
+        project.setName("project-" + configId);
+        BuildConfiguration configuration = BuildConfiguration.Builder.newBuilder()
+                .id(configId)
+                .name("config-" + configId)
+                .project(project)
+                .build();
+        BuildConfigurationAudited configurationAudited = new BuildConfigurationAudited();
+        configurationAudited.setIdRev(new IdRev(configId, rev));
+        configurationAudited.setName(configuration.getName());
+        configurationAudited.setProject(project);
+        return BuildTask.build(configuration, configurationAudited, false, false, null, taskId, null, new Date(), null);
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.builder;
+
+import org.jboss.pnc.model.BuildConfiguration;
+import org.jboss.pnc.spi.coordinator.BuildSetTask;
+import org.jboss.pnc.spi.coordinator.BuildTask;
+import org.jboss.pnc.test.category.DebugTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jboss.pnc.coordinator.builder.BuildTasksInitializerTest.configuration;
+import static org.jboss.pnc.coordinator.builder.BuildTasksInitializerTest.createBuildSetTask;
+
+/**
+ * Measures the creation of the build tasks of a set and the wiring of their dependencies on synthetic DAGs.
+ * Node i depends on nodes (i - 1) / 2 and (i - 1) / 3.
+ * Run with -Pdebug-tests -Dtest=BuildTasksInitializerBenchmarkTest
+ */
+@Category(DebugTest.class)
+public class BuildTasksInitializerBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BuildTasksInitializerBenchmarkTest.class);
+
+    private static final int ROUNDS = 5;
+
+    /**
+     * The pairwise dependency check is measured for comparison on the smaller graphs only.
+     */
+    private static final int MAX_PAIRWISE_NODES = 1_000;
+
+    @Test
+    public void measureDependencyWiring() throws Exception {
+        for (int nodes : new int[] {100, 1_000, 5_000}) {
+            BuildConfiguration[] configurations = dag(nodes);
+
+            long totalNanos = 0;
+            long edges = 0;
+            BuildSetTask buildSetTask = null;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                buildSetTask = createBuildSetTask(configurations);
+                totalNanos += System.nanoTime() - start;
+            }
+            for (BuildTask task : buildSetTask.getBuildTasks()) {
+                edges += task.getDependencies().size();
+            }
+            assertThat(buildSetTask.getBuildTasks()).hasSize(nodes);
+            log.info("{} nodes, {} edges: build set task created in {} ms on average.",
+                    nodes, edges, (double) totalNanos / ROUNDS / 1_000_000);
+
+            if (nodes <= MAX_PAIRWISE_NODES) {
+                long start = System.nanoTime();
+                long pairwiseEdges = 0;
+                for (BuildTask task : buildSetTask.getBuildTasks()) {
+                    for (BuildTask other : buildSetTask.getBuildTasks()) {
+                        if (task.hasConfigDependencyOn(other)) {
+                            pairwiseEdges++;
+                        }
+                    }
+                }
+                assertThat(pairwiseEdges).isEqualTo(edges);
+                log.info("{} nodes: pairwise dependency check took {} ms.", nodes, (double) (System.nanoTime() - start) / 1_000_000);
+            }
+        }
+    }
+
+    private BuildConfiguration[] dag(int nodes) {
+        BuildConfiguration[] configurations = new BuildConfiguration[nodes];
+        configurations[0] = configuration(1);
+        for (int i = 1; i < nodes; i++) {
+            configurations[i] = configuration(i + 1, configurations[(i - 1) / 2], configurations[(i - 1) / 3]);
+        }
+        return configurations;
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.builder;
+
+import org.jboss.pnc.coordinator.builder.datastore.DatastoreAdapter;
+import org.jboss.pnc.model.BuildConfigSetRecord;
+import org.jboss.pnc.model.BuildConfiguration;
+import org.jboss.pnc.model.BuildConfigurationAudited;
+import org.jboss.pnc.model.BuildConfigurationSet;
+import org.jboss.pnc.model.IdRev;
+import org.jboss.pnc.model.Project;
+import org.jboss.pnc.spi.coordinator.BuildSetTask;
+import org.jboss.pnc.spi.coordinator.BuildTask;
+import org.jboss.pnc.spi.datastore.DatastoreException;
+import org.jboss.pnc.spi.exception.CoreException;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BuildTasksInitializerTest {
+
+    @Test
+    public void shouldWireDirectAndIndirectDependenciesInSet() throws Exception {
+        BuildConfiguration a = configuration(1);
+        BuildConfiguration notInSet = configuration(2, a);
+        BuildConfiguration b = configuration(3, notInSet);
+        BuildConfiguration c = configuration(4, b);
+        BuildConfiguration d = configuration(5);
+
+        BuildSetTask buildSetTask = createBuildSetTask(a, b, c, d);
+
+        assertThat(buildSetTask.getBuildTasks()).hasSize(4);
+        assertThat(task(buildSetTask, a).getDependencies()).isEmpty();
+        assertThat(task(buildSetTask, b).getDependencies()).containsOnly(task(buildSetTask, a));
+        assertThat(task(buildSetTask, c).getDependencies()).containsOnly(task(buildSetTask, a), task(buildSetTask, b));
+        assertThat(task(buildSetTask, d).getDependencies()).isEmpty();
+        assertThat(task(buildSetTask, a).getDependants()).containsOnly(task(buildSetTask, b), task(buildSetTask, c));
+    }
+
+    static BuildSetTask createBuildSetTask(BuildConfiguration... configurations) throws DatastoreException, CoreException {
+        BuildConfigurationSet.Builder setBuilder = BuildConfigurationSet.Builder.newBuilder().id(1).name("set");
+        for (BuildConfiguration configuration : configurations) {
+            setBuilder.buildConfiguration(configuration);
+        }
+        AtomicInteger taskIds = new AtomicInteger(1);
+        return new BuildTasksInitializer(mockDatastoreAdapter())
+                .createBuildSetTask(setBuilder.build(), null, true, false, count -> IntStream.range(0, count).mapToObj(i -> taskIds.getAndIncrement()).collect(Collectors.toList()));
+    }
+
+    static BuildConfiguration configuration(int id, BuildConfiguration... dependencies) {
+        Project project = new Project();
+        project.setName("project-" + id);
+        BuildConfiguration.Builder builder = BuildConfiguration.Builder.newBuilder()
+                .id(id)
+                .name("config-" + id)
+                .project(project);
+        for (BuildConfiguration dependency : dependencies) {
+            builder.dependency(dependency);
+        }
+        return builder.build();
+    }
+
+    private static DatastoreAdapter mockDatastoreAdapter() throws DatastoreException {
+        DatastoreAdapter datastoreAdapter = mock(DatastoreAdapter.class);
+        when(datastoreAdapter.saveBuildConfigSetRecord(any())).thenAnswer(invocation -> {
+            BuildConfigSetRecord record = (BuildConfigSetRecord) invocation.getArguments()[0];
+            record.setId(1);
+            return record;
+        });
+        when(datastoreAdapter.getLatestBuildConfigurationAudited(anyInt())).thenAnswer(invocation -> {
+            Integer id = (Integer) invocation.getArguments()[0];
+            BuildConfigurationAudited configurationAudited = new BuildConfigurationAudited();
+            configurationAudited.setIdRev(new IdRev(id, 1));
+            configurationAudited.setName("config-" + id);
+            Project project = new Project();
+            project.setName("project-" + id);
+            configurationAudited.setProject(project);
+            return configurationAudited;
+        });
+        return datastoreAdapter;
+    }
+
+    private BuildTask task(BuildSetTask buildSetTask, BuildConfiguration configuration) {
+        return buildSetTask.getBuildTask(configuration);
+    }
+}
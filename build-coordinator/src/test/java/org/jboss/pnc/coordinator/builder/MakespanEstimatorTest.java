@@ -0,0 +1,119 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.builder;
+
+import org.jboss.pnc.coordinator.builder.datastore.DatastoreAdapter;
+import org.jboss.pnc.spi.coordinator.BuildSetTask;
+import org.jboss.pnc.spi.coordinator.BuildTask;
+import org.jboss.pnc.spi.coordinator.MakespanEstimate;
+import org.jboss.pnc.spi.coordinator.MakespanEstimate.TaskEstimate;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jboss.pnc.coordinator.builder.BuildQueueTest.task;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MakespanEstimatorTest {
+
+    @Test
+    public void shouldComputeMakespanSlackAndCriticalPath() {
+        BuildTask a = task(1, 1, 1);
+        BuildTask b = task(2, 2, 1);
+        BuildTask c = task(3, 3, 1);
+        BuildTask d = task(4, 4, 1);
+        // d -> b -> a, d -> c -> a
+        b.addDependency(a);
+        c.addDependency(a);
+        d.addDependency(b);
+        d.addDependency(c);
+        Map<Integer, Long> durations = new HashMap<>();
+        durations.put(1, 10L);
+        durations.put(2, 30L);
+        durations.put(3, 5L);
+        durations.put(4, 5L);
+
+        MakespanEstimate estimate = MakespanEstimator.estimate(Arrays.asList(a, b, c, d), durations);
+
+        assertThat(estimate.getMakespan()).isEqualTo(45);
+        assertThat(estimate.getCriticalPath()).containsExactly(1, 2, 4);
+        Map<Integer, TaskEstimate> tasks = byTaskId(estimate);
+        assertThat(tasks.get(3).getEarliestStart()).isEqualTo(10);
+        assertThat(tasks.get(3).getLatestStart()).isEqualTo(35);
+        assertThat(tasks.get(3).getSlack()).isEqualTo(25);
+        assertThat(tasks.get(2).getSlack()).isEqualTo(0);
+        assertThat(tasks.get(4).getEarliestStart()).isEqualTo(40);
+
+        assertThat(a.getCriticalPathLength()).isEqualTo(45);
+        assertThat(b.getCriticalPathLength()).isEqualTo(35);
+        assertThat(c.getCriticalPathLength()).isEqualTo(10);
+        assertThat(d.getCriticalPathLength()).isEqualTo(5);
+    }
+
+    @Test
+    public void shouldUseAverageDurationOfTheSetWithoutHistory() {
+        BuildTask a = task(1, 1, 1);
+        BuildTask b = task(2, 2, 1);
+        BuildTask c = task(3, 3, 1);
+        c.addDependency(a);
+        Map<Integer, Long> durations = new HashMap<>();
+        durations.put(1, 10L);
+        durations.put(2, 20L);
+
+        MakespanEstimate estimate = MakespanEstimator.estimate(Arrays.asList(a, b, c), durations);
+
+        TaskEstimate withoutHistory = byTaskId(estimate).get(3);
+        assertThat(withoutHistory.isBasedOnHistory()).isFalse();
+        assertThat(withoutHistory.getExpectedDuration()).isEqualTo(15);
+        assertThat(estimate.getMakespan()).isEqualTo(25);
+    }
+
+    @Test
+    public void shouldUseDefaultDurationWithoutAnyHistory() {
+        BuildTask a = task(1, 1, 1);
+
+        MakespanEstimate estimate = MakespanEstimator.estimate(Collections.singletonList(a), Collections.emptyMap());
+
+        assertThat(estimate.getMakespan()).isEqualTo(MakespanEstimator.DEFAULT_BUILD_DURATION);
+    }
+
+    @Test
+    public void shouldStoreEstimateToBuildSetTask() {
+        DatastoreAdapter datastoreAdapter = mock(DatastoreAdapter.class);
+        when(datastoreAdapter.getAverageBuildDurations(any())).thenReturn(Collections.singletonMap(1, 10L));
+        BuildSetTask buildSetTask = BuildSetTask.Builder.newBuilder().build();
+        buildSetTask.addBuildTask(task(1, 1, 1));
+
+        MakespanEstimate estimate = new MakespanEstimator(datastoreAdapter).estimate(buildSetTask);
+
+        assertThat(buildSetTask.getMakespanEstimate()).isSameAs(estimate);
+        assertThat(estimate.getMakespan()).isEqualTo(10);
+    }
+
+    private Map<Integer, TaskEstimate> byTaskId(MakespanEstimate estimate) {
+        return estimate.getTasks().stream().collect(Collectors.toMap(TaskEstimate::getBuildTaskId, Function.identity()));
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.builder.queue;
+
+import org.jboss.pnc.model.BuildConfiguration;
+import org.jboss.pnc.model.BuildConfigurationAudited;
+import org.jboss.pnc.model.IdRev;
+import org.jboss.pnc.model.Project;
+import org.jboss.pnc.model.User;
+import org.jboss.pnc.spi.coordinator.BuildSetTask;
+import org.jboss.pnc.spi.coordinator.BuildTask;
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReadyTaskQueueTest {
+
+    @Test
+    public void shouldStartLongestChainFirst() throws InterruptedException {
+        ReadyTaskQueue queue = ReadyTaskQueuePolicy.CRITICAL_PATH.createQueue();
+        BuildTask shortChain = task(1, null, null);
+        BuildTask longChain = task(2, null, null);
+        longChain.setCriticalPathLength(5);
+
+        queue.add(shortChain);
+        queue.add(longChain);
+
+        assertThat(queue.take()).isSameAs(longChain);
+        assertThat(queue.take()).isSameAs(shortChain);
+    }
+
+    @Test
+    public void shouldShareSlotsBetweenUsers() throws InterruptedException {
+        ReadyTaskQueue queue = ReadyTaskQueuePolicy.FAIR_SHARE_PER_USER.createQueue();
+        User bigSetUser = user(1);
+        User singleBuildUser = user(2);
+        for (int i = 0; i < 10; i++) {
+            queue.add(task(i, bigSetUser, null));
+        }
+        assertThat(queue.take().getUser()).isSameAs(bigSetUser);
+        assertThat(queue.take().getUser()).isSameAs(bigSetUser);
+
+        BuildTask singleBuild = task(100, singleBuildUser, null);
+        queue.add(singleBuild);
+
+        assertThat(queue.take()).isSameAs(singleBuild);
+        assertThat(queue.getTasks()).hasSize(8);
+    }
+
+    @Test
+    public void shouldAlternateBetweenBuildSets() throws InterruptedException {
+        ReadyTaskQueue queue = ReadyTaskQueuePolicy.FAIR_SHARE_PER_BUILD_SET.createQueue();
+        BuildSetTask set1 = BuildSetTask.Builder.newBuilder().build();
+        BuildSetTask set2 = BuildSetTask.Builder.newBuilder().build();
+        for (int i = 0; i < 4; i++) {
+            queue.add(task(i, null, set1));
+            queue.add(task(10 + i, null, set2));
+        }
+
+        BuildSetTask previous = null;
+        for (int i = 0; i < 8; i++) {
+            BuildSetTask current = queue.take().getBuildSetTask();
+            assertThat(current).isNotSameAs(previous);
+            previous = current;
+        }
+    }
+
+    private User user(int id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private BuildTask task(int id, User user, BuildSetTask buildSetTask) {
+        Project project = new Project();
+        project.setName("project-" + id);
+        BuildConfiguration configuration = BuildConfiguration.Builder.newBuilder()
+                .id(id)
+                .name("config-" + id)
+                .project(project)
+                .build();
+        BuildConfigurationAudited configurationAudited = new BuildConfigurationAudited();
+        configurationAudited.setIdRev(new IdRev(id, 1));
+        configurationAudited.setName(configuration.getName());
+        configurationAudited.setProject(project);
+        return BuildTask.build(configuration, configurationAudited, false, false, user, id, buildSetTask, new Date(), null);
+    }
+}
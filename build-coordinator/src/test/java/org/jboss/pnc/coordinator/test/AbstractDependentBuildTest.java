@@ -26,7 +26,10 @@ import org.jboss.pnc.coordinator.builder.BuildScheduler;
 import org.jboss.pnc.coordinator.builder.BuildSchedulerFactory;
 import org.jboss.pnc.coordinator.builder.DefaultBuildCoordinator;
 import org.jboss.pnc.coordinator.builder.datastore.DatastoreAdapter;
+import org.jboss.pnc.datastore.DefaultBuildConfigurationDependencyGraph;
 import org.jboss.pnc.datastore.DefaultDatastore;
+import org.jboss.pnc.datastore.PooledIdAllocator;
+import org.jboss.pnc.mock.datastore.BuildLogStoreMock;
 import org.jboss.pnc.mock.repository.ArtifactRepositoryMock;
 import org.jboss.pnc.mock.repository.BuildConfigSetRecordRepositoryMock;
 import org.jboss.pnc.mock.repository.BuildConfigurationAuditedRepositoryMock;
@@ -62,6 +65,7 @@ import org.mockito.MockitoAnnotations;
 import javax.enterprise.event.Event;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -86,7 +90,6 @@ import static org.mockito.Mockito.when;
 public abstract class AbstractDependentBuildTest {
     private static final AtomicInteger configIdSequence = new AtomicInteger(0);
     private static final AtomicInteger configAuditedIdSequence = new AtomicInteger(0);
-    private static final AtomicInteger buildRecordIdSequence = new AtomicInteger(0);
 
     private List<BuildTask> builtTasks;
 
@@ -96,6 +99,8 @@ public abstract class AbstractDependentBuildTest {
 
     private BuildQueue buildQueue;
 
+    private DefaultDatastore datastore;
+
     protected BuildCoordinator coordinator;
     protected BuildRecordRepositoryMock buildRecordRepository;
 
@@ -117,16 +122,19 @@ public abstract class AbstractDependentBuildTest {
         buildConfigurationRepository = new BuildConfigurationRepositoryMock();
         buildRecordRepository = new BuildRecordRepositoryMock();
         buildConfigurationAuditedRepository = new BuildConfigurationAuditedRepositoryMock();
-        DefaultDatastore datastore = new DefaultDatastore(
+        SequenceHandlerRepositoryMock sequenceHandlerRepository = new SequenceHandlerRepositoryMock();
+        sequenceHandlerRepository.createSequence(BuildRecord.SEQUENCE_NAME, PooledIdAllocator.BLOCK_SIZE);
+        datastore = new DefaultDatastore(
                 new ArtifactRepositoryMock(),
                 buildRecordRepository,
                 buildConfigurationRepository,
                 buildConfigurationAuditedRepository,
                 new BuildConfigSetRecordRepositoryMock(),
                 new UserRepositoryMock(),
-                new SequenceHandlerRepositoryMock()
+                new PooledIdAllocator(sequenceHandlerRepository),
+                new DefaultBuildConfigurationDependencyGraph(buildConfigurationRepository)
         );
-        DatastoreAdapter datastoreAdapter = new DatastoreAdapter(datastore);
+        DatastoreAdapter datastoreAdapter = new DatastoreAdapter(datastore, new BuildLogStoreMock());
 
         coordinator = new DefaultBuildCoordinator(datastoreAdapter, mock(Event.class), mock(Event.class),
                 new MockBuildSchedulerFactory(),
@@ -139,7 +147,7 @@ public abstract class AbstractDependentBuildTest {
 
     protected void markAsAlreadyBuilt(BuildConfiguration... configs) {
         Stream.of(configs).forEach(
-                c -> c.addBuildRecord(buildRecord(c))
+                c -> buildRecordRepository.save(buildRecord(c))
         );
     }
 
@@ -147,8 +155,9 @@ public abstract class AbstractDependentBuildTest {
         BuildConfigurationAudited configurationAudited =
                 buildConfigurationAuditedRepository.findAllByIdOrderByRevDesc(config.getId()).iterator().next();
         return BuildRecord.Builder.newBuilder()
-                .id(buildRecordIdSequence.getAndIncrement())
+                .id(datastore.getNextBuildRecordId())
                 .status(BuildStatus.SUCCESS)
+                .submitTime(new Date())
                 .latestBuildConfiguration(config)
                 .buildConfigurationAudited(configurationAudited)
                 .build();
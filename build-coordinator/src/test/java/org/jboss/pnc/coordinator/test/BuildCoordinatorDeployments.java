@@ -28,6 +28,7 @@ import org.jboss.pnc.coordinator.notifications.buildSetTask.BuildSetStatusNotifi
 import org.jboss.pnc.coordinator.notifications.buildTask.BuildCallBack;
 import org.jboss.pnc.coordinator.test.event.TestCDIBuildStatusChangedReceiver;
 import org.jboss.pnc.executor.DefaultBuildExecutor;
+import org.jboss.pnc.mock.datastore.BuildLogStoreMock;
 import org.jboss.pnc.mock.datastore.DatastoreMock;
 import org.jboss.pnc.mock.executor.BuildExecutorMock;
 import org.jboss.pnc.mock.model.builders.TestEntitiesFactory;
@@ -119,6 +120,7 @@ public class BuildCoordinatorDeployments {
     private static JavaArchive datastoreArchive() {
         return ShrinkWrap.create(JavaArchive.class)
                 .addClass(DatastoreMock.class)
+                .addClass(BuildLogStoreMock.class)
                 .addPackages(true, DatastoreAdapter.class.getPackage());
     }
 
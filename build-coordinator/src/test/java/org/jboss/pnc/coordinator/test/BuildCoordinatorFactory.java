@@ -26,6 +26,7 @@ import org.jboss.pnc.coordinator.builder.BuildQueue;
 import org.jboss.pnc.coordinator.builder.BuildSchedulerFactory;
 import org.jboss.pnc.coordinator.builder.DefaultBuildCoordinator;
 import org.jboss.pnc.coordinator.builder.datastore.DatastoreAdapter;
+import org.jboss.pnc.mock.datastore.BuildLogStoreMock;
 import org.jboss.pnc.mock.datastore.DatastoreMock;
 import org.jboss.pnc.spi.coordinator.BuildCoordinator;
 import org.jboss.pnc.spi.events.BuildCoordinationStatusChangedEvent;
@@ -52,8 +53,11 @@ public class BuildCoordinatorFactory {
     @Inject
     BuildSchedulerFactory buildSchedulerFactory;
 
+    @Inject
+    BuildLogStoreMock buildLogStore;
+
     public BuildCoordinatorBeans createBuildCoordinator(DatastoreMock datastore) {
-        DatastoreAdapter datastoreAdapter = new DatastoreAdapter(datastore);
+        DatastoreAdapter datastoreAdapter = new DatastoreAdapter(datastore, buildLogStore);
 
         Configuration configuration = createConfiguration();
         BuildQueue queue = new BuildQueue(configuration);
@@ -67,7 +71,7 @@ public class BuildCoordinatorFactory {
     private Configuration createConfiguration() {
         try {
             Configuration configuration = mock(Configuration.class);
-            doReturn(new SystemConfig("ProperDriver", "local-build-scheduler", "NO_AUTH", "10", "10", "10", "10")).when(configuration)
+            doReturn(new SystemConfig("ProperDriver", "local-build-scheduler", "NO_AUTH", "10", "10", "10", "10", null, null, null, null, null)).when(configuration)
                     .getModuleConfig(any(PncConfigProvider.class));
             return configuration;
         } catch (ConfigurationParseException e) {
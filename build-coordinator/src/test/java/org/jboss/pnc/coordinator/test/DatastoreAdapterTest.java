@@ -19,6 +19,7 @@
 package org.jboss.pnc.coordinator.test;
 
 import org.jboss.pnc.coordinator.builder.datastore.DatastoreAdapter;
+import org.jboss.pnc.mock.datastore.BuildLogStoreMock;
 import org.jboss.pnc.mock.datastore.DatastoreMock;
 import org.jboss.pnc.model.BuildRecord;
 import org.jboss.pnc.model.BuildStatus;
@@ -45,12 +46,14 @@ public class DatastoreAdapterTest {
 
     private static final String REPOSITORY_MANAGER_LOG = "Repository manager log.";
     private static final String BUILD_LOG = "Build Driver log.";;
+    private static final int BUILD_TASK_ID = 123;
 
     @Test
     public void shouldStoreRepositoryManagerSuccessResult() throws DatastoreException {
         //given
         DatastoreMock datastore = new DatastoreMock();
-        DatastoreAdapter datastoreAdapter = new DatastoreAdapter(datastore);
+        BuildLogStoreMock buildLogStore = new BuildLogStoreMock();
+        DatastoreAdapter datastoreAdapter = new DatastoreAdapter(datastore, buildLogStore);
 
         BuildStatus buildStatus = BuildStatus.SUCCESS;
         RepositoryManagerStatus repositoryManagerStatus = RepositoryManagerStatus.SUCCESS;
@@ -64,15 +67,16 @@ public class DatastoreAdapterTest {
         BuildRecord buildRecord = buildRecords.get(0);
 
         Assert.assertEquals(buildRecord.getStatus(), BuildStatus.SUCCESS);
-        Assert.assertTrue(buildRecord.getBuildLog().contains(BUILD_LOG));
-        Assert.assertTrue(buildRecord.getBuildLog().contains(REPOSITORY_MANAGER_LOG));
+        Assert.assertTrue(buildLogStore.getLog(buildRecord.getId()).contains(BUILD_LOG));
+        Assert.assertTrue(buildLogStore.getLog(buildRecord.getId()).contains(REPOSITORY_MANAGER_LOG));
     }
 
     @Test
     public void shouldStoreRepositoryManagerError() throws DatastoreException {
         //given
         DatastoreMock datastore = new DatastoreMock();
-        DatastoreAdapter datastoreAdapter = new DatastoreAdapter(datastore);
+        BuildLogStoreMock buildLogStore = new BuildLogStoreMock();
+        DatastoreAdapter datastoreAdapter = new DatastoreAdapter(datastore, buildLogStore);
 
         BuildStatus buildStatus = BuildStatus.SUCCESS;
         RepositoryManagerStatus repositoryManagerStatus = RepositoryManagerStatus.VALIDATION_ERROR;
@@ -86,14 +90,36 @@ public class DatastoreAdapterTest {
         BuildRecord buildRecord = buildRecords.get(0);
 
         Assert.assertEquals(buildRecord.getStatus(), BuildStatus.FAILED);
-        Assert.assertTrue(buildRecord.getBuildLog().contains(BUILD_LOG));
-        Assert.assertTrue(buildRecord.getBuildLog().contains(REPOSITORY_MANAGER_LOG));
+        Assert.assertTrue(buildLogStore.getLog(buildRecord.getId()).contains(BUILD_LOG));
+        Assert.assertTrue(buildLogStore.getLog(buildRecord.getId()).contains(REPOSITORY_MANAGER_LOG));
+    }
+
+    @Test
+    public void shouldAppendRepositoryManagerLogToStreamedBuildLog() throws DatastoreException {
+        //given
+        DatastoreMock datastore = new DatastoreMock();
+        BuildLogStoreMock buildLogStore = new BuildLogStoreMock();
+        DatastoreAdapter datastoreAdapter = new DatastoreAdapter(datastore, buildLogStore);
+        buildLogStore.append(BUILD_TASK_ID, BUILD_LOG);
+
+        //when
+        storeResult(datastoreAdapter, BuildStatus.SUCCESS, RepositoryManagerStatus.SUCCESS, null);
+
+        //then
+        List<BuildRecord> buildRecords = datastore.getBuildRecords();
+        Assert.assertEquals(1, buildRecords.size());
+        Assert.assertEquals(BUILD_LOG + REPOSITORY_MANAGER_LOG, buildLogStore.getLog(buildRecords.get(0).getId()));
     }
 
     private void storeResult(DatastoreAdapter datastoreAdapter, BuildStatus buildStatus, RepositoryManagerStatus repositoryManagerStatus) throws DatastoreException {
+        storeResult(datastoreAdapter, buildStatus, repositoryManagerStatus, BUILD_LOG);
+    }
+
+    private void storeResult(DatastoreAdapter datastoreAdapter, BuildStatus buildStatus,
+            RepositoryManagerStatus repositoryManagerStatus, String buildLog) throws DatastoreException {
         BuildDriverResult buildDriverResult = mock(BuildDriverResult.class);
         when(buildDriverResult.getBuildStatus()).thenReturn(buildStatus);
-        when(buildDriverResult.getBuildLog()).thenReturn(BUILD_LOG);
+        when(buildDriverResult.getBuildLog()).thenReturn(buildLog);
 
         RepositoryManagerResult repositoryManagerResult = mock(RepositoryManagerResult.class);
         when(repositoryManagerResult.getStatus()).thenReturn(repositoryManagerStatus);
@@ -101,7 +127,7 @@ public class DatastoreAdapterTest {
 
 
         BuildTask buildTask = mock(BuildTask.class);
-        when(buildTask.getId()).thenReturn(123);
+        when(buildTask.getId()).thenReturn(BUILD_TASK_ID);
 
         BuildExecutionConfiguration buildExecutionConfiguration = mock(BuildExecutionConfiguration.class);
 
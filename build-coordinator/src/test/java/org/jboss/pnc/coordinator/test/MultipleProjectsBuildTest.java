@@ -99,7 +99,7 @@ public class MultipleProjectsBuildTest extends ProjectBuilder {
         Assert.assertEquals("Wrong datastore results count.", N_PROJECTS, buildRecords.size());
 
         BuildRecord buildRecord = buildRecords.get(0);
-        String buildLog = buildRecord.getBuildLog();
+        String buildLog = buildLogStore.getLog(buildRecord.getId());
         Assert.assertTrue("Invalid build log: " + buildLog, buildLog.contains("Finished: SUCCESS"));
 
         assertArtifactsPresent(buildRecord.getBuiltArtifacts());
@@ -85,6 +85,6 @@ public class OutsideGroupDependentConfigsTest extends AbstractDependentBuildTest
     }
 
     private void createNewVersion(BuildConfiguration config1) {
-        config1.getBuildRecords().add(buildRecord(config1));
+        buildRecordRepository.save(buildRecord(config1));
     }
 }
\ No newline at end of file
@@ -19,6 +19,7 @@ package org.jboss.pnc.coordinator.test;
 
 import org.jboss.pnc.coordinator.test.event.TestCDIBuildSetStatusChangedReceiver;
 import org.jboss.pnc.coordinator.test.event.TestCDIBuildStatusChangedReceiver;
+import org.jboss.pnc.mock.datastore.BuildLogStoreMock;
 import org.jboss.pnc.mock.datastore.DatastoreMock;
 import org.jboss.pnc.mock.model.MockUser;
 import org.jboss.pnc.mock.model.builders.ArtifactBuilder;
@@ -74,6 +75,9 @@ public class ProjectBuilder {
     @Inject
     DatastoreMock datastore;
 
+    @Inject
+    BuildLogStoreMock buildLogStore;
+
     @Inject
     TestProjectConfigurationBuilder configurationBuilder;
 
@@ -84,7 +84,7 @@ public class ProjectWithDependenciesBuildTest extends ProjectBuilder {
         Assert.assertEquals("Wrong datastore results count.", 5, buildRecords.size());
 
         BuildRecord buildRecord = buildRecords.get(0);
-        String buildLog = buildRecord.getBuildLog();
+        String buildLog = buildLogStore.getLog(buildRecord.getId());
         Assert.assertTrue("Invalid build log.", buildLog.contains("Finished: SUCCESS"));
 
         assertArtifactsPresent(buildRecord.getBuiltArtifacts());
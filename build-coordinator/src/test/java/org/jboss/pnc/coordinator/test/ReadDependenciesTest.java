@@ -36,6 +36,8 @@ import org.junit.runner.RunWith;
 import javax.enterprise.event.Event;
 import javax.inject.Inject;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Created by <a href="mailto:matejonnet@gmail.com">Matej Lazar</a> on 2015-01-06.
@@ -79,6 +81,6 @@ public class ReadDependenciesTest extends ProjectBuilder {
                 user,
                 true,
                 false,
-                atomicInteger::getAndIncrement);
+                count -> IntStream.range(0, count).mapToObj(i -> atomicInteger.getAndIncrement()).collect(Collectors.toList()));
     }
 }
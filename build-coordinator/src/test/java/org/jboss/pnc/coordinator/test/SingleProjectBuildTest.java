@@ -59,7 +59,7 @@ public class SingleProjectBuildTest extends ProjectBuilder {
         Assert.assertEquals("Wrong datastore results count.", 1, buildRecords.size());
 
         BuildRecord buildRecord = buildRecords.get(0);
-        String buildLog = buildRecord.getBuildLog();
+        String buildLog = buildLogStore.getLog(buildRecord.getId());
         Assert.assertTrue("Invalid build log.", buildLog.contains(BuildDriverResultMock.BUILD_LOG));
 
         assertArtifactsPresent(buildRecord.getBuiltArtifacts());
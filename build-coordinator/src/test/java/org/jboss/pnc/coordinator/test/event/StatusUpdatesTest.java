@@ -62,6 +62,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * @author <a href="mailto:matejonnet@gmail.com">Matej Lazar</a>
@@ -167,7 +168,7 @@ public class StatusUpdatesTest {
                 user,
                 true,
                 false,
-                () -> atomicInteger.getAndIncrement());
+                count -> IntStream.range(0, count).mapToObj(i -> atomicInteger.getAndIncrement()).collect(Collectors.toList()));
     }
 
 
@@ -27,6 +27,7 @@ import org.jboss.pnc.spi.environment.RunningEnvironment;
 import org.jboss.pnc.spi.events.BuildExecutionStatusChangedEvent;
 import org.jboss.pnc.spi.executor.BuildExecutionConfiguration;
 import org.jboss.pnc.spi.executor.BuildExecutionSession;
+import org.jboss.pnc.spi.executor.LiveLog;
 import org.jboss.pnc.spi.executor.exceptions.ExecutorException;
 import org.jboss.pnc.spi.repositorymanager.RepositoryManagerResult;
 import org.slf4j.Logger;
@@ -49,6 +50,7 @@ public class DefaultBuildExecutionSession implements BuildExecutionSession {
     private BuildExecutionStatus status;
     private ExecutorException executorException;
     private Optional<URI> liveLogsUri;
+    private final LiveLog liveLog = new LiveLog();
     private Date startTime;
     private RunningEnvironment runningEnvironment;
     private Date endTime;
@@ -80,6 +82,11 @@ public class DefaultBuildExecutionSession implements BuildExecutionSession {
         this.liveLogsUri = liveLogsUri;
     }
 
+    @Override
+    public LiveLog getLiveLog() {
+        return liveLog;
+    }
+
     @Override
     public void getEventLog() {
 
@@ -22,7 +22,7 @@ import org.jboss.pnc.common.Configuration;
 import org.jboss.pnc.common.json.ConfigurationParseException;
 import org.jboss.pnc.common.json.moduleconfig.SystemConfig;
 import org.jboss.pnc.common.json.moduleprovider.PncConfigProvider;
-import org.jboss.pnc.common.util.NamedThreadFactory;
+import org.jboss.pnc.common.util.MonitoredThreadPoolExecutor;
 import org.jboss.pnc.executor.exceptions.BuildProcessException;
 import org.jboss.pnc.executor.servicefactories.BuildDriverFactory;
 import org.jboss.pnc.executor.servicefactories.EnvironmentDriverFactory;
@@ -62,7 +62,6 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 
 /**
@@ -73,7 +72,20 @@ public class DefaultBuildExecutor implements BuildExecutor {
 
     private final Logger log = LoggerFactory.getLogger(DefaultBuildExecutor.class);
 
-    private ExecutorService executor;
+    /**
+     * Runs the calls to the repository manager.
+     */
+    private ExecutorService repositoryExecutor;
+
+    /**
+     * Runs the calls to the environment and build drivers.
+     */
+    private ExecutorService environmentExecutor;
+
+    /**
+     * Processes the results of the build driver.
+     */
+    private ExecutorService processingExecutor;
 
     private RepositoryManagerFactory repositoryManagerFactory;
     private BuildDriverFactory buildDriverFactory;
@@ -94,19 +106,39 @@ public class DefaultBuildExecutor implements BuildExecutor {
         this.buildDriverFactory = buildDriverFactory;
         this.environmentDriverFactory = environmentDriverFactory;
 
-        int executorThreadPoolSize = 12;
+        int repositoryThreadPoolSize = 12;
+        int environmentThreadPoolSize = 12;
+        int processingThreadPoolSize = Runtime.getRuntime().availableProcessors();
+        int queueCapacity = 1000;
         try {
-            String executorThreadPoolSizeStr = configuration.getModuleConfig(new PncConfigProvider<>(SystemConfig.class)).getExecutorThreadPoolSize();
-            if (executorThreadPoolSizeStr != null) {
-                executorThreadPoolSize = Integer.parseInt(executorThreadPoolSizeStr);
-            }
+            SystemConfig systemConfig = configuration.getModuleConfig(new PncConfigProvider<>(SystemConfig.class));
+            repositoryThreadPoolSize = positiveOrDefault(systemConfig.getExecutorRepositoryThreadPoolSize(),
+                    repositoryThreadPoolSize);
+            environmentThreadPoolSize = positiveOrDefault(systemConfig.getExecutorEnvironmentThreadPoolSize(),
+                    environmentThreadPoolSize);
+            processingThreadPoolSize = positiveOrDefault(systemConfig.getExecutorProcessingThreadPoolSize(),
+                    processingThreadPoolSize);
+            queueCapacity = positiveOrDefault(systemConfig.getThreadPoolQueueCapacity(), queueCapacity);
         } catch (ConfigurationParseException e) {
             log.warn("Unable parse config. Using defaults.");
         }
 
-        executor = Executors.newFixedThreadPool(executorThreadPoolSize, new NamedThreadFactory("default-build-executor"));
+        // separate pools, so that a slow repository manager does not hold up the environments and vice versa
+        repositoryExecutor = new MonitoredThreadPoolExecutor("build-executor-repository", repositoryThreadPoolSize,
+                queueCapacity);
+        environmentExecutor = new MonitoredThreadPoolExecutor("build-executor-environment", environmentThreadPoolSize,
+                queueCapacity);
+        processingExecutor = new MonitoredThreadPoolExecutor("build-executor-processing", processingThreadPoolSize,
+                queueCapacity);
     }
 
+    private int positiveOrDefault(int value, int defaultValue) {
+        if (value > 0) {
+            return value;
+        }
+        log.warn("Invalid thread pool size or queue capacity: {}. Using default: {}.", value, defaultValue);
+        return defaultValue;
+    }
 
     @Override
     public BuildExecutionSession startBuilding(
@@ -123,15 +155,16 @@ public class DefaultBuildExecutor implements BuildExecutor {
 
         DebugData debugData = new DebugData(buildExecutionConfiguration.isPodKeptOnFailure());
 
-        CompletableFuture.supplyAsync(() -> configureRepository(buildExecutionSession), executor)
-                .thenApplyAsync(repositoryConfiguration -> setUpEnvironment(buildExecutionSession, repositoryConfiguration, debugData), executor)
-                .thenComposeAsync(startedEnvironment -> waitForEnvironmentInitialization(buildExecutionSession, startedEnvironment), executor)
-                .thenComposeAsync(runningBuild -> runTheBuild(buildExecutionSession), executor)
+        CompletableFuture.supplyAsync(() -> configureRepository(buildExecutionSession), repositoryExecutor)
+                .thenApplyAsync(repositoryConfiguration -> setUpEnvironment(buildExecutionSession, repositoryConfiguration, debugData), environmentExecutor)
+                .thenComposeAsync(startedEnvironment -> waitForEnvironmentInitialization(buildExecutionSession, startedEnvironment), environmentExecutor)
+                .thenComposeAsync(runningBuild -> runTheBuild(buildExecutionSession), environmentExecutor)
                 //no cancellation after this point
-                .thenApplyAsync(completedBuild -> optionallyEnableSsh(buildExecutionSession, completedBuild), executor)
-                .thenApplyAsync(completedBuild -> retrieveBuildDriverResults(buildExecutionSession, completedBuild), executor)
-                .thenApplyAsync(nul -> retrieveRepositoryManagerResults(buildExecutionSession), executor)
-                .handleAsync((nul, e) -> completeExecution(buildExecutionSession, e), executor);
+                .thenApplyAsync(completedBuild -> optionallyEnableSsh(buildExecutionSession, completedBuild), environmentExecutor)
+                .thenApplyAsync(completedBuild -> retrieveBuildDriverResults(buildExecutionSession, completedBuild), processingExecutor)
+                .thenApplyAsync(nul -> retrieveRepositoryManagerResults(buildExecutionSession), repositoryExecutor)
+                .handleAsync((nul, e) -> tearDownEnvironment(buildExecutionSession, e), environmentExecutor)
+                .thenApplyAsync(e -> completeExecution(buildExecutionSession, e), repositoryExecutor);
 
         //TODO re-connect running instances in case of crash
         return buildExecutionSession;
@@ -333,7 +366,12 @@ public class DefaultBuildExecutor implements BuildExecutor {
         }
     }
 
-    private Void completeExecution(DefaultBuildExecutionSession buildExecutionSession, Throwable e) {
+    /**
+     * Stops or destroys the build environment.
+     *
+     * @return the exception the execution failed with, null if it succeeded
+     */
+    private Throwable tearDownEnvironment(DefaultBuildExecutionSession buildExecutionSession, Throwable e) {
         if (e != null) {
             log.debug("Finalizing FAILED execution. Exception: {}", e.getMessage());
         } else {
@@ -354,7 +392,14 @@ public class DefaultBuildExecutor implements BuildExecutor {
                 e = destroyException;
             }
         }
+        return e;
+    }
 
+    /**
+     * Closes the repository manager session and sets the final status. Runs on the repository executor, as closing the
+     * session calls the repository manager.
+     */
+    private Void completeExecution(DefaultBuildExecutionSession buildExecutionSession, Throwable e) {
         if (e != null) {
             buildExecutionSession.setException(new ExecutorException(e));
         }
@@ -382,6 +427,8 @@ public class DefaultBuildExecutor implements BuildExecutor {
             buildExecutionSession.setStatus(BuildExecutionStatus.DONE);
         }
 
+        buildExecutionSession.getLiveLog().close();
+
         log.debug("Removing buildExecutionTask [" + buildExecutionSession.getId() + "] from list of running tasks.");
         runningExecutions.remove(buildExecutionSession.getId());
 
@@ -420,6 +467,8 @@ public class DefaultBuildExecutor implements BuildExecutor {
     @Override
     @PreDestroy
     public void shutdown() {
-        executor.shutdown();
+        repositoryExecutor.shutdown();
+        environmentExecutor.shutdown();
+        processingExecutor.shutdown();
     }
 }
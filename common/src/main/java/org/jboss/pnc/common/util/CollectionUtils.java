@@ -20,6 +20,7 @@ package org.jboss.pnc.common.util;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
@@ -72,4 +73,23 @@ public class CollectionUtils {
     public static <T> Collection<T> nullSafeCollection(Collection<T> source) {
         return source == null ? Collections.emptyList() : source;
     }
+
+    /**
+     * Split the collection into consecutive lists of at most the given size, e.g. to keep IN clauses of queries short.
+     */
+    public static <T> List<List<T>> partition(Collection<T> source, int size) {
+        List<List<T>> partitions = new ArrayList<>();
+        List<T> partition = new ArrayList<>(Math.min(size, source.size()));
+        for (T element : source) {
+            if (partition.size() == size) {
+                partitions.add(partition);
+                partition = new ArrayList<>(size);
+            }
+            partition.add(element);
+        }
+        if (!partition.isEmpty()) {
+            partitions.add(partition);
+        }
+        return partitions;
+    }
 }
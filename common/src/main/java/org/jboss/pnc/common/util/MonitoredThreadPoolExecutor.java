@@ -0,0 +1,170 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.common.util;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed size thread pool with a bounded queue, which keeps track of how long the tasks wait in the queue. A task
+ * submitted when the queue is full blocks the submitting thread until there is space in the queue, which slows down
+ * the submitter while keeping the work on the threads of the pool. The task is rejected with
+ * {@link RejectedExecutionException} if the queue stays full for the submit timeout, or if the pool was shut down.
+ * <p>
+ * The running pools are listed by {@link #getPools()}, so that their state can be inspected in one place.
+ */
+public class MonitoredThreadPoolExecutor extends ThreadPoolExecutor {
+
+    public static final long DEFAULT_SUBMIT_TIMEOUT_MILLIS = 60_000;
+
+    private static final Set<MonitoredThreadPoolExecutor> pools = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    private final String name;
+
+    private final int queueCapacity;
+
+    private final LongAdder waitedTasks = new LongAdder();
+
+    private final LongAdder waitNanos = new LongAdder();
+
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+    private final LongAdder rejectedTasks = new LongAdder();
+
+    /**
+     * @param name name of the pool, used to name its threads
+     * @param threads number of threads of the pool
+     * @param queueCapacity number of tasks which can wait for a thread
+     */
+    public MonitoredThreadPoolExecutor(String name, int threads, int queueCapacity) {
+        this(name, threads, queueCapacity, DEFAULT_SUBMIT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param name name of the pool, used to name its threads
+     * @param threads number of threads of the pool
+     * @param queueCapacity number of tasks which can wait for a thread
+     * @param submitTimeoutMillis how long a submitting thread waits for space in a full queue
+     */
+    public MonitoredThreadPoolExecutor(String name, int threads, int queueCapacity, long submitTimeoutMillis) {
+        super(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(queueCapacity),
+                new NamedThreadFactory(name));
+        this.name = name;
+        this.queueCapacity = queueCapacity;
+        setRejectedExecutionHandler((task, executor) -> {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Task " + task + " rejected, pool " + name + " is shut down.");
+            }
+            try {
+                if (executor.getQueue().offer(task, submitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            rejectedTasks.increment();
+            throw new RejectedExecutionException("Task " + task + " rejected, queue of pool " + name + " is full.");
+        });
+        pools.add(this);
+    }
+
+    /**
+     * @return the pools which have not terminated yet
+     */
+    public static Collection<MonitoredThreadPoolExecutor> getPools() {
+        return Collections.unmodifiableSet(pools);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        long submitted = System.nanoTime();
+        super.execute(new Runnable() {
+            @Override
+            public void run() {
+                recordWait(System.nanoTime() - submitted);
+                command.run();
+            }
+
+            @Override
+            public String toString() {
+                return command.toString();
+            }
+        });
+    }
+
+    @Override
+    protected void terminated() {
+        pools.remove(this);
+        super.terminated();
+    }
+
+    private void recordWait(long nanos) {
+        waitedTasks.increment();
+        waitNanos.add(nanos);
+        maxWaitNanos.accumulate(nanos);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getQueueDepth() {
+        return getQueue().size();
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * @return average time the tasks waited for a thread, in milliseconds
+     */
+    public double getAverageWaitMillis() {
+        long tasks = waitedTasks.sum();
+        return tasks == 0 ? 0 : waitNanos.sum() / (tasks * 1_000_000.0);
+    }
+
+    /**
+     * @return the longest time a task waited for a thread, in milliseconds
+     */
+    public long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+
+    /**
+     * @return number of tasks rejected because the queue stayed full
+     */
+    public long getRejectedTaskCount() {
+        return rejectedTasks.sum();
+    }
+
+    public String getDebugInfo() {
+        return String.format("%s: threads %d/%d active, queue %d/%d, completed %d, rejected %d,"
+                        + " wait avg %.1f ms max %d ms",
+                name, getActiveCount(), getMaximumPoolSize(), getQueueDepth(), queueCapacity,
+                getCompletedTaskCount(), getRejectedTaskCount(), getAverageWaitMillis(), getMaxWaitMillis());
+    }
+}
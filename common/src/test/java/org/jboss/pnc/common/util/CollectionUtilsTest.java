@@ -25,6 +25,7 @@ import java.util.List;
 import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.jboss.pnc.common.util.CollectionUtils.hasCycle;
+import static org.jboss.pnc.common.util.CollectionUtils.partition;
 
 /**
  * Author: Michal Szynkiewicz, michal.l.szynkiewicz@gmail.com
@@ -116,6 +117,12 @@ public class CollectionUtilsTest {
         assertThat(hasCycle(list, this::extractChildren)).isTrue();
     }
 
+    @Test
+    public void shouldPartitionIntoListsOfGivenSize() {
+        assertThat(partition(asList(1, 2, 3, 4, 5), 2)).containsExactly(asList(1, 2), asList(3, 4), asList(5));
+        assertThat(partition(asList(1, 2, 3, 4), 2)).containsExactly(asList(1, 2), asList(3, 4));
+        assertThat(partition(new ArrayList<Integer>(), 2)).isEmpty();
+    }
 
     private List<ListContainer> extractChildren(ListContainer container) {
         return container.children;
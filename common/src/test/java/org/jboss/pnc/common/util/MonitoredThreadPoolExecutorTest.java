@@ -0,0 +1,162 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.common.util;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MonitoredThreadPoolExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final MonitoredThreadPoolExecutor executor = new MonitoredThreadPoolExecutor("monitored-test", 1, 1);
+
+    @After
+    public void tearDown() throws Exception {
+        release.countDown();
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void shouldReportQueueDepthAndActiveThreads() throws Exception {
+        //given
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        started.await(5, TimeUnit.SECONDS);
+
+        //when
+        executor.execute(() -> { });
+
+        //then
+        assertThat(executor.getActiveCount()).isEqualTo(1);
+        assertThat(executor.getQueueDepth()).isEqualTo(1);
+        assertThat(MonitoredThreadPoolExecutor.getPools()).contains(executor);
+    }
+
+    @Test(timeout = 5_000)
+    public void shouldBlockSubmittingThreadUntilQueueHasSpace() throws Exception {
+        //given
+        MonitoredThreadPoolExecutor blockingExecutor = new MonitoredThreadPoolExecutor("monitored-test", 1, 1, 5_000);
+        try {
+            blockingExecutor.execute(() -> await(release));
+            blockingExecutor.execute(() -> { });
+            AtomicReference<Thread> runner = new AtomicReference<>();
+            CountDownLatch done = new CountDownLatch(1);
+            CountDownLatch submitted = new CountDownLatch(1);
+            Thread submitter = new Thread(() -> {
+                blockingExecutor.execute(() -> {
+                    runner.set(Thread.currentThread());
+                    done.countDown();
+                });
+                submitted.countDown();
+            });
+
+            //when
+            submitter.start();
+
+            //then
+            assertThat(submitted.await(200, TimeUnit.MILLISECONDS)).isFalse();
+            release.countDown();
+            assertThat(done.await(2, TimeUnit.SECONDS)).isTrue();
+            assertThat(runner.get()).isNotSameAs(submitter);
+            assertThat(blockingExecutor.getRejectedTaskCount()).isZero();
+        } finally {
+            blockingExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldRejectTaskWhenQueueStaysFull() throws Exception {
+        //given
+        MonitoredThreadPoolExecutor blockingExecutor = new MonitoredThreadPoolExecutor("monitored-test", 1, 1, 10);
+        try {
+            blockingExecutor.execute(() -> await(release));
+            blockingExecutor.execute(() -> { });
+
+            //when
+            Throwable thrown = null;
+            try {
+                blockingExecutor.execute(() -> { });
+            } catch (RejectedExecutionException e) {
+                thrown = e;
+            }
+
+            //then
+            assertThat(thrown).isInstanceOf(RejectedExecutionException.class);
+            assertThat(blockingExecutor.getRejectedTaskCount()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            blockingExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldMeasureWaitForThread() throws Exception {
+        //given
+        CountDownLatch done = new CountDownLatch(1);
+        executor.execute(() -> await(release));
+        executor.execute(done::countDown);
+
+        //when
+        Thread.sleep(50);
+        release.countDown();
+        done.await(5, TimeUnit.SECONDS);
+
+        //then
+        assertThat(executor.getMaxWaitMillis()).isGreaterThanOrEqualTo(50);
+        assertThat(executor.getAverageWaitMillis()).isGreaterThan(0);
+    }
+
+    @Test
+    public void shouldUnregisterTerminatedPool() throws Exception {
+        //when
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+
+        //then
+        assertThat(MonitoredThreadPoolExecutor.getPools()).doesNotContain(executor);
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void shouldRejectTaskAfterShutdown() throws Exception {
+        //given
+        executor.shutdown();
+
+        //when
+        executor.execute(() -> { });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
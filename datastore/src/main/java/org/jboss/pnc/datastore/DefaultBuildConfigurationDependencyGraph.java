@@ -0,0 +1,312 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore;
+
+import org.jboss.pnc.spi.datastore.BuildConfigurationDependencyGraph;
+import org.jboss.pnc.spi.datastore.events.BuildConfigurationDependencyChangedEvent;
+import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the dependency graph of the build configurations as int adjacency bit sets. The transitive dependencies of
+ * a build configuration are computed on the first query and kept until a dependency on the way changes.
+ *
+ * The graph is loaded from the database on the first query after the application start or {@link #invalidate()}.
+ * Every query compares the generation of the dependencies in the database with the generation the graph was loaded
+ * at and loads it again when another node changed the dependencies since.
+ */
+@ApplicationScoped
+public class DefaultBuildConfigurationDependencyGraph implements BuildConfigurationDependencyGraph {
+
+    private final Logger log = LoggerFactory.getLogger(DefaultBuildConfigurationDependencyGraph.class);
+
+    private BuildConfigurationRepository buildConfigurationRepository;
+
+    private boolean loaded = false;
+
+    /**
+     * Generation of the dependencies the graph holds, it may hold later changes too.
+     */
+    private long loadedGeneration;
+
+    private final Map<Integer, Integer> nodesById = new HashMap<>();
+
+    private final List<Integer> ids = new ArrayList<>();
+
+    /**
+     * Direct dependencies by node.
+     */
+    private final List<BitSet> dependencies = new ArrayList<>();
+
+    /**
+     * Direct and indirect dependencies by node, null if not computed yet.
+     */
+    private final List<BitSet> reachable = new ArrayList<>();
+
+    @Deprecated //CDI workaround
+    public DefaultBuildConfigurationDependencyGraph() {
+    }
+
+    @Inject
+    public DefaultBuildConfigurationDependencyGraph(BuildConfigurationRepository buildConfigurationRepository) {
+        this.buildConfigurationRepository = buildConfigurationRepository;
+    }
+
+    @Override
+    public boolean dependsOn(Integer configurationId, Integer dependencyId) {
+        long generation = buildConfigurationRepository.getDependencyGeneration();
+        synchronized (this) {
+            ensureLoaded(generation);
+            return reaches(configurationId, dependencyId);
+        }
+    }
+
+    @Override
+    public boolean dependsOnAny(Integer configurationId, Collection<Integer> dependencyIds) {
+        long generation = buildConfigurationRepository.getDependencyGeneration();
+        synchronized (this) {
+            ensureLoaded(generation);
+            Integer node = nodesById.get(configurationId);
+            if (node == null) {
+                return false;
+            }
+            BitSet reachable = reachable(node);
+            for (Integer dependencyId : dependencyIds) {
+                Integer dependencyNode = nodesById.get(dependencyId);
+                if (dependencyNode != null && reachable.get(dependencyNode)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public Set<Integer> getAllDependencyIds(Integer configurationId) {
+        long generation = buildConfigurationRepository.getDependencyGeneration();
+        synchronized (this) {
+            ensureLoaded(generation);
+            Integer node = nodesById.get(configurationId);
+            if (node == null) {
+                return Collections.emptySet();
+            }
+            BitSet reachable = reachable(node);
+            Set<Integer> dependencyIds = new HashSet<>();
+            for (int i = reachable.nextSetBit(0); i >= 0; i = reachable.nextSetBit(i + 1)) {
+                dependencyIds.add(ids.get(i));
+            }
+            return dependencyIds;
+        }
+    }
+
+    /**
+     * Takes the lock of the dependency changes in the database, so that no other node can add a dependency closing
+     * a cycle before the current transaction commits.
+     */
+    @Override
+    public boolean wouldCreateCycle(Integer configurationId, Integer dependencyId) {
+        if (configurationId.equals(dependencyId)) {
+            return true;
+        }
+        long generation = buildConfigurationRepository.lockDependencyGeneration();
+        synchronized (this) {
+            ensureLoaded(generation);
+            return reaches(dependencyId, configurationId);
+        }
+    }
+
+    /**
+     * Counts the change in the transaction making it, the other nodes see their graph is stale once it commits.
+     */
+    public void onDependencyChanging(@Observes BuildConfigurationDependencyChangedEvent event) {
+        event.setGeneration(buildConfigurationRepository.incrementDependencyGeneration());
+    }
+
+    /**
+     * Applies the change once it is committed, the graph would keep it after a rollback otherwise and a concurrent load
+     * could read the rows as they were before the change. The graph is loaded again if it misses any change before
+     * this one.
+     */
+    public synchronized void onDependencyChanged(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS) BuildConfigurationDependencyChangedEvent event) {
+        Long generation = event.getGeneration();
+        if (!loaded || generation == null || generation != loadedGeneration + 1) {
+            log.trace("Dropping the graph of generation {} on {}.", loadedGeneration, event);
+            invalidate();
+            return;
+        }
+        log.trace("Applying {}.", event);
+        switch (event.getChange()) {
+            case ADDED:
+                dependencyAdded(event.getConfigurationId(), event.getDependencyId());
+                break;
+            case REMOVED:
+                dependencyRemoved(event.getConfigurationId(), event.getDependencyId());
+                break;
+            default:
+                invalidate();
+                return;
+        }
+        loadedGeneration = generation;
+    }
+
+    @Override
+    public synchronized void dependencyAdded(Integer configurationId, Integer dependencyId) {
+        if (!loaded) {
+            return;
+        }
+        int node = node(configurationId);
+        int dependencyNode = node(dependencyId);
+        dependencies.get(node).set(dependencyNode);
+
+        // the node and everything depending on it gains the dependency and its dependencies
+        BitSet gained = (BitSet) reachable(dependencyNode).clone();
+        gained.set(dependencyNode);
+        for (int i = 0; i < reachable.size(); i++) {
+            BitSet computed = reachable.get(i);
+            if (computed != null && (i == node || computed.get(node))) {
+                computed.or(gained);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void dependencyRemoved(Integer configurationId, Integer dependencyId) {
+        if (!loaded) {
+            return;
+        }
+        Integer node = nodesById.get(configurationId);
+        Integer dependencyNode = nodesById.get(dependencyId);
+        if (node == null || dependencyNode == null) {
+            return;
+        }
+        dependencies.get(node).clear(dependencyNode);
+
+        // the dependency may still be reachable another way, the affected nodes are computed again when needed
+        for (int i = 0; i < reachable.size(); i++) {
+            BitSet computed = reachable.get(i);
+            if (computed != null && (i == node || computed.get(node))) {
+                reachable.set(i, null);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void invalidate() {
+        loaded = false;
+        nodesById.clear();
+        ids.clear();
+        dependencies.clear();
+        reachable.clear();
+    }
+
+    /**
+     * @param generation generation of the dependencies read before loading them, so that the graph is never older
+     *         than the generation it claims
+     */
+    private void ensureLoaded(long generation) {
+        if (loaded && generation <= loadedGeneration) {
+            return;
+        }
+        invalidate();
+        Map<Integer, Set<Integer>> dependencyIds = buildConfigurationRepository.getDependencyIds();
+        dependencyIds.forEach((configurationId, configurationDependencyIds) -> {
+            BitSet configurationDependencies = dependencies.get(node(configurationId));
+            configurationDependencyIds.forEach(dependencyId -> configurationDependencies.set(node(dependencyId)));
+        });
+        loaded = true;
+        loadedGeneration = generation;
+        log.debug("Loaded dependency graph of {} build configurations at generation {}.", ids.size(), generation);
+    }
+
+    private boolean reaches(Integer configurationId, Integer dependencyId) {
+        Integer node = nodesById.get(configurationId);
+        Integer dependencyNode = nodesById.get(dependencyId);
+        return node != null && dependencyNode != null && reachable(node).get(dependencyNode);
+    }
+
+    private int node(Integer configurationId) {
+        Integer node = nodesById.get(configurationId);
+        if (node == null) {
+            node = ids.size();
+            nodesById.put(configurationId, node);
+            ids.add(configurationId);
+            dependencies.add(new BitSet());
+            reachable.add(null);
+        }
+        return node;
+    }
+
+    /**
+     * Computes the direct and indirect dependencies of the node and of all the nodes on the way.
+     * Iterative post-order traversal, deep dependency chains would overflow the stack otherwise.
+     */
+    private BitSet reachable(int node) {
+        BitSet computed = reachable.get(node);
+        if (computed != null) {
+            return computed;
+        }
+
+        Deque<Integer> stack = new ArrayDeque<>();
+        BitSet expanded = new BitSet(ids.size());
+        stack.push(node);
+        while (!stack.isEmpty()) {
+            int current = stack.peek();
+            BitSet currentDependencies = dependencies.get(current);
+            if (reachable.get(current) != null) {
+                stack.pop();
+            } else if (!expanded.get(current)) {
+                expanded.set(current);
+                for (int i = currentDependencies.nextSetBit(0); i >= 0; i = currentDependencies.nextSetBit(i + 1)) {
+                    // a dependency already expanded but not computed yet is on a cycle, it is skipped
+                    if (!expanded.get(i)) {
+                        stack.push(i);
+                    }
+                }
+            } else {
+                stack.pop();
+                BitSet currentReachable = (BitSet) currentDependencies.clone();
+                for (int i = currentDependencies.nextSetBit(0); i >= 0; i = currentDependencies.nextSetBit(i + 1)) {
+                    BitSet transitive = reachable.get(i);
+                    if (transitive != null) {
+                        currentReachable.or(transitive);
+                    }
+                }
+                reachable.set(current, currentReachable);
+            }
+        }
+        return reachable.get(node);
+    }
+}
@@ -0,0 +1,408 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore;
+
+import com.google.common.io.ByteStreams;
+import org.jboss.pnc.model.BuildLogChunk;
+import org.jboss.pnc.spi.datastore.BuildLogMatch;
+import org.jboss.pnc.spi.datastore.BuildLogStore;
+import org.jboss.pnc.spi.datastore.repositories.BuildLogChunkRepository;
+
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.inject.Inject;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores build logs as gzip compressed chunks of {@link #CHUNK_SIZE} bytes. Runs without a transaction, so that each
+ * chunk is stored as soon as it is full and only one chunk at a time is held in memory when reading.
+ * <p>
+ * Each chunk is stored with a filter of its trigrams, a search only decompresses the logs whose filters contain all
+ * the trigrams of the searched text. The deadline of a search is checked while matching a line as well, so that a
+ * regular expression with catastrophic backtracking cannot hold the search.
+ */
+@Stateless
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class DefaultBuildLogStore implements BuildLogStore {
+
+    /**
+     * Number of uncompressed bytes of a full chunk.
+     */
+    static final int CHUNK_SIZE = 1024 * 1024;
+
+    /**
+     * Lines longer than this are matched by their beginning only.
+     */
+    static final int MAX_LINE_LENGTH = 64 * 1024;
+
+    private BuildLogChunkRepository buildLogChunkRepository;
+
+    /**
+     * @deprecated Created for CDI.
+     */
+    @Deprecated
+    public DefaultBuildLogStore() {
+    }
+
+    @Inject
+    public DefaultBuildLogStore(BuildLogChunkRepository buildLogChunkRepository) {
+        this.buildLogChunkRepository = buildLogChunkRepository;
+    }
+
+    @Override
+    public void append(Integer buildRecordId, String text) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        try (Writer writer = new OutputStreamWriter(openAppendStream(buildRecordId), StandardCharsets.UTF_8)) {
+            writer.write(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to the log of build record " + buildRecordId, e);
+        }
+    }
+
+    @Override
+    public OutputStream openAppendStream(Integer buildRecordId) {
+        long length = getLength(buildRecordId);
+        ByteArrayOutputStream tail = new ByteArrayOutputStream(2);
+        if (length > 0) {
+            try {
+                read(buildRecordId, Math.max(0, length - 2), 2, tail);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read the log of build record " + buildRecordId, e);
+            }
+        }
+        return new ChunkOutputStream(buildLogChunkRepository, buildRecordId, length, tail.toByteArray());
+    }
+
+    @Override
+    public long getLength(Integer buildRecordId) {
+        return buildLogChunkRepository.getLogLength(buildRecordId);
+    }
+
+    @Override
+    public void read(Integer buildRecordId, long offset, long length, OutputStream outputStream) throws IOException {
+        length = Math.min(length, Long.MAX_VALUE - offset);
+        for (Integer chunkId : buildLogChunkRepository.getChunkIds(buildRecordId, offset, length)) {
+            BuildLogChunk chunk = buildLogChunkRepository.queryById(chunkId);
+            long skip = Math.max(0, offset - chunk.getStartOffset());
+            long end = Math.min(chunk.getLength(), offset + length - chunk.getStartOffset());
+            try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(chunk.getContent()))) {
+                ByteStreams.skipFully(inputStream, skip);
+                ByteStreams.copy(ByteStreams.limit(inputStream, end - skip), outputStream);
+            }
+        }
+    }
+
+    @Override
+    public Map<Integer, List<BuildLogMatch>> search(List<Integer> buildRecordIds, String text, Pattern pattern,
+            int maxMatchesPerBuild, long deadline) throws TimeoutException {
+        if (text == null && pattern == null) {
+            throw new IllegalArgumentException("Either text or pattern has to be given.");
+        }
+        List<Pattern> patterns = new ArrayList<>(2);
+        if (text != null) {
+            patterns.add(Pattern.compile(Pattern.quote(text), Pattern.CASE_INSENSITIVE));
+        }
+        if (pattern != null) {
+            patterns.add(pattern);
+        }
+        Set<Integer> trigrams = text == null ? Collections.emptySet() : LogTrigrams.of(text);
+
+        Map<Integer, List<BuildLogMatch>> matches = new LinkedHashMap<>();
+        try {
+            for (Integer buildRecordId : buildRecordIds) {
+                checkDeadline(deadline);
+                if (mayContainAll(buildRecordId, trigrams)) {
+                    List<BuildLogMatch> logMatches = searchLog(buildRecordId, patterns, maxMatchesPerBuild, deadline);
+                    if (!logMatches.isEmpty()) {
+                        matches.put(buildRecordId, logMatches);
+                    }
+                }
+            }
+        } catch (DeadlineExceededException e) {
+            throw new TimeoutException("Log search did not finish in time.");
+        }
+        return matches;
+    }
+
+    /**
+     * Reads the filters of one log at a time, so that only the filters of a single log are held in memory.
+     *
+     * @return false if the log certainly does not contain all the trigrams
+     */
+    private boolean mayContainAll(Integer buildRecordId, Set<Integer> trigrams) {
+        if (trigrams.isEmpty()) {
+            return true;
+        }
+        return LogTrigrams.mayContainAll(buildLogChunkRepository.getTrigramFilters(buildRecordId), trigrams);
+    }
+
+    private List<BuildLogMatch> searchLog(Integer buildRecordId, List<Pattern> patterns, int maxMatches,
+            long deadline) {
+        LineMatcher lineMatcher = new LineMatcher(patterns, maxMatches, deadline);
+        for (Integer chunkId : buildLogChunkRepository.getChunkIds(buildRecordId, 0, Long.MAX_VALUE)) {
+            BuildLogChunk chunk = buildLogChunkRepository.queryById(chunkId);
+            try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(chunk.getContent()))) {
+                ByteStreams.copy(inputStream, lineMatcher);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read the log of build record " + buildRecordId, e);
+            }
+            if (lineMatcher.isDone()) {
+                break;
+            }
+            checkDeadline(deadline);
+        }
+        lineMatcher.close();
+        return lineMatcher.getMatches();
+    }
+
+    private static void checkDeadline(long deadline) {
+        if (System.currentTimeMillis() > deadline) {
+            throw new DeadlineExceededException();
+        }
+    }
+
+    @Override
+    public void delete(Integer buildRecordId) {
+        buildLogChunkRepository.getChunkIds(buildRecordId, 0, Long.MAX_VALUE)
+                .forEach(buildLogChunkRepository::delete);
+    }
+
+    /**
+     * Buffers the written bytes and stores them as a chunk when the buffer is full, on flush and on close.
+     */
+    private static class ChunkOutputStream extends OutputStream {
+
+        private final BuildLogChunkRepository buildLogChunkRepository;
+
+        private final Integer buildRecordId;
+
+        private final byte[] buffer = new byte[CHUNK_SIZE];
+
+        private final LogTrigrams.Collector trigrams;
+
+        private int buffered;
+
+        private long offset;
+
+        ChunkOutputStream(BuildLogChunkRepository buildLogChunkRepository, Integer buildRecordId, long offset,
+                byte[] tail) {
+            this.buildLogChunkRepository = buildLogChunkRepository;
+            this.buildRecordId = buildRecordId;
+            this.offset = offset;
+            this.trigrams = new LogTrigrams.Collector(tail);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            buffer[buffered++] = (byte) b;
+            if (buffered == CHUNK_SIZE) {
+                storeChunk();
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int off, int len) throws IOException {
+            while (len > 0) {
+                int copied = Math.min(len, CHUNK_SIZE - buffered);
+                System.arraycopy(bytes, off, buffer, buffered, copied);
+                buffered += copied;
+                off += copied;
+                len -= copied;
+                if (buffered == CHUNK_SIZE) {
+                    storeChunk();
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            storeChunk();
+        }
+
+        @Override
+        public void close() throws IOException {
+            storeChunk();
+        }
+
+        private void storeChunk() throws IOException {
+            if (buffered == 0) {
+                return;
+            }
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(buffered / 4);
+            try (OutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(buffer, 0, buffered);
+            }
+            trigrams.add(buffer, 0, buffered);
+            buildLogChunkRepository.save(new BuildLogChunk(buildRecordId, offset, buffered, compressed.toByteArray(),
+                    trigrams.toFilter()));
+            offset += buffered;
+            buffered = 0;
+        }
+    }
+
+    /**
+     * Splits the written log into lines and collects the lines matching all the patterns.
+     */
+    private static class LineMatcher extends OutputStream {
+
+        private final List<Pattern> patterns;
+
+        private final int maxMatches;
+
+        private final long deadline;
+
+        private final List<BuildLogMatch> matches = new ArrayList<>();
+
+        private final byte[] line = new byte[MAX_LINE_LENGTH];
+
+        private int lineLength;
+
+        private long lineNumber = 1;
+
+        private long lineOffset;
+
+        private long position;
+
+        LineMatcher(List<Pattern> patterns, int maxMatches, long deadline) {
+            this.patterns = patterns;
+            this.maxMatches = maxMatches;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void write(int b) {
+            if (isDone()) {
+                return;
+            }
+            position++;
+            if (b == '\n') {
+                matchLine();
+            } else if (lineLength < MAX_LINE_LENGTH) {
+                line[lineLength++] = (byte) b;
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(bytes[i]);
+            }
+        }
+
+        /**
+         * Matches the last line if the log does not end with a new line.
+         */
+        @Override
+        public void close() {
+            if (!isDone() && position > lineOffset) {
+                matchLine();
+            }
+        }
+
+        boolean isDone() {
+            return matches.size() >= maxMatches;
+        }
+
+        List<BuildLogMatch> getMatches() {
+            return matches;
+        }
+
+        private void matchLine() {
+            CharSequence text = new DeadlineCharSequence(new String(line, 0, lineLength, StandardCharsets.UTF_8),
+                    deadline);
+            if (patterns.stream().allMatch(pattern -> pattern.matcher(text).find())) {
+                matches.add(new BuildLogMatch(lineNumber, lineOffset));
+            }
+            lineNumber++;
+            lineOffset = position;
+            lineLength = 0;
+        }
+    }
+
+    /**
+     * Text checking the deadline of the search as it is read by the regular expression matcher, the matcher has no
+     * other way to be interrupted.
+     */
+    private static class DeadlineCharSequence implements CharSequence {
+
+        private static final int READS_PER_CHECK = 4096;
+
+        private final CharSequence text;
+
+        private final long deadline;
+
+        private int reads;
+
+        DeadlineCharSequence(CharSequence text, long deadline) {
+            this.text = text;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (++reads == READS_PER_CHECK) {
+                reads = 0;
+                checkDeadline(deadline);
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new DeadlineCharSequence(text.subSequence(start, end), deadline);
+        }
+
+        @Override
+        public String toString() {
+            return text.toString();
+        }
+    }
+
+    private static class DeadlineExceededException extends RuntimeException {
+
+        DeadlineExceededException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -22,18 +22,18 @@ import org.jboss.pnc.model.BuildConfigSetRecord;
 import org.jboss.pnc.model.BuildConfiguration;
 import org.jboss.pnc.model.BuildConfigurationAudited;
 import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.IdRev;
 import org.jboss.pnc.model.User;
 import org.jboss.pnc.spi.BuildCoordinationStatus;
 import org.jboss.pnc.spi.coordinator.BuildSetTask;
 import org.jboss.pnc.spi.coordinator.BuildTask;
+import org.jboss.pnc.spi.datastore.BuildConfigurationDependencyGraph;
 import org.jboss.pnc.spi.datastore.Datastore;
-import org.jboss.pnc.spi.datastore.predicates.UserPredicates;
 import org.jboss.pnc.spi.datastore.repositories.ArtifactRepository;
 import org.jboss.pnc.spi.datastore.repositories.BuildConfigSetRecordRepository;
 import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationAuditedRepository;
 import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationRepository;
 import org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository;
-import org.jboss.pnc.spi.datastore.repositories.SequenceHandlerRepository;
 import org.jboss.pnc.spi.datastore.repositories.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,18 +43,20 @@ import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import javax.inject.Inject;
 import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import static org.jboss.pnc.common.util.CollectionUtils.ofNullableCollection;
-import static org.jboss.pnc.common.util.StreamCollectors.toFlatList;
-import static org.jboss.pnc.spi.datastore.predicates.ArtifactPredicates.withIdentifierAndSha256;
-import static org.jboss.pnc.spi.datastore.predicates.ArtifactPredicates.withOriginUrl;
+import static org.jboss.pnc.common.util.CollectionUtils.partition;
+import static org.jboss.pnc.spi.datastore.predicates.ArtifactPredicates.withOriginUrlIn;
+import static org.jboss.pnc.spi.datastore.predicates.ArtifactPredicates.withSha256In;
 
 @Stateless
 public class DefaultDatastore implements Datastore {
@@ -73,7 +75,9 @@ public class DefaultDatastore implements Datastore {
 
     private UserRepository userRepository;
 
-    private SequenceHandlerRepository sequenceHandlerRepository;
+    private PooledIdAllocator idAllocator;
+
+    private BuildConfigurationDependencyGraph dependencyGraph;
 
     public DefaultDatastore() {
     }
@@ -85,32 +89,49 @@ public class DefaultDatastore implements Datastore {
                             BuildConfigurationAuditedRepository buildConfigurationAuditedRepository,
                             BuildConfigSetRecordRepository buildConfigSetRecordRepository,
                             UserRepository userRepository,
-                            SequenceHandlerRepository sequenceHandlerRepository) {
+                            PooledIdAllocator idAllocator,
+                            BuildConfigurationDependencyGraph dependencyGraph) {
         this.artifactRepository = artifactRepository;
         this.buildRecordRepository = buildRecordRepository;
         this.buildConfigurationRepository = buildConfigurationRepository;
         this.buildConfigurationAuditedRepository = buildConfigurationAuditedRepository;
         this.buildConfigSetRecordRepository = buildConfigSetRecordRepository;
         this.userRepository = userRepository;
-        this.sequenceHandlerRepository = sequenceHandlerRepository;
+        this.idAllocator = idAllocator;
+        this.dependencyGraph = dependencyGraph;
     }
 
     private static final String ARITFACT_ORIGIN_URL_IDENTIFIER_CONFLICT_MESSAGE = "Another artifact with the same originUrl but a different identifier already exists";
     private static final String ARITFACT_ORIGIN_URL_CHECKSUM_CONFLICT_MESSAGE = "Another artifact with the same originUrl but a different checksum already exists";
 
+    /**
+     * Maximal number of values in the IN clause of a single query.
+     */
+    private static final int MAX_IN_CLAUSE_SIZE = 1000;
+
     @Override
     public Map<Artifact, String> checkForConflictingArtifacts(Collection<Artifact> artifacts) {
+        Set<String> originUrls = artifacts.stream()
+                .map(Artifact::getOriginUrl)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, Artifact> artifactsFromDb = new HashMap<>();
+        for (List<String> originUrlsPartition : partition(originUrls, MAX_IN_CLAUSE_SIZE)) {
+            artifactRepository.queryWithPredicates(withOriginUrlIn(originUrlsPartition))
+                    .forEach(a -> artifactsFromDb.put(a.getOriginUrl(), a));
+        }
+
         Map<Artifact, String> conflicts = new HashMap<>();
         for (Artifact artifact : artifacts) {
             // Check for matching URL with different identifier or checksum
-            if (artifact.getOriginUrl() != null) {
-                Artifact artifactFromDb = artifactRepository.queryByPredicates(withOriginUrl(artifact.getOriginUrl()));
-                if (artifactFromDb.getIdentifier().equals(artifact.getIdentifier())) {
-                    conflicts.put(artifact, ARITFACT_ORIGIN_URL_IDENTIFIER_CONFLICT_MESSAGE);
-                }
-                if (artifactFromDb.getSha256().equals(artifact.getSha256())) {
-                    conflicts.put(artifact, ARITFACT_ORIGIN_URL_CHECKSUM_CONFLICT_MESSAGE);
-                }
+            Artifact artifactFromDb = artifactsFromDb.get(artifact.getOriginUrl());
+            if (artifact.getOriginUrl() == null || artifactFromDb == null) {
+                continue;
+            }
+            if (!artifactFromDb.getIdentifier().equals(artifact.getIdentifier())) {
+                conflicts.put(artifact, ARITFACT_ORIGIN_URL_IDENTIFIER_CONFLICT_MESSAGE);
+            } else if (!artifactFromDb.getSha256().equals(artifact.getSha256())) {
+                conflicts.put(artifact, ARITFACT_ORIGIN_URL_CHECKSUM_CONFLICT_MESSAGE);
             }
         }
         return conflicts;
@@ -136,22 +157,36 @@ public class DefaultDatastore implements Datastore {
      * @return Set of up to date JPA artifact entities
      */
     private Set<Artifact> saveArtifacts(Collection<Artifact> artifacts) {
+        Set<String> checksums = artifacts.stream()
+                .map(Artifact::getSha256)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<List<String>, Artifact> artifactsFromDb = new HashMap<>();
+        for (List<String> checksumsPartition : partition(checksums, MAX_IN_CLAUSE_SIZE)) {
+            artifactRepository.queryWithPredicates(withSha256In(checksumsPartition))
+                    .forEach(a -> artifactsFromDb.put(identifierAndSha256(a), a));
+        }
+
+        // new artifacts are inserted in JDBC batches when the transaction is flushed
         Set<Artifact> savedArtifacts = new HashSet<>();
         for (Artifact artifact : artifacts) {
-
-            Artifact artifactFromDb = artifactRepository
-                    .queryByPredicates(withIdentifierAndSha256(artifact.getIdentifier(), artifact.getSha256()));
+            Artifact artifactFromDb = artifactsFromDb.get(identifierAndSha256(artifact));
             if (artifactFromDb == null) {
                 artifactFromDb = artifactRepository.save(artifact);
+                artifactsFromDb.put(identifierAndSha256(artifact), artifactFromDb);
             }
             savedArtifacts.add(artifactFromDb);
         }
         return savedArtifacts;
     }
 
+    private static List<String> identifierAndSha256(Artifact artifact) {
+        return Arrays.asList(artifact.getIdentifier(), artifact.getSha256());
+    }
+
     @Override
     public User retrieveUserByUsername(String username) {
-        return userRepository.queryByPredicates(UserPredicates.withUserName(username));
+        return userRepository.queryByUsername(username);
     }
 
     private void refreshBuildConfiguration(BuildRecord buildRecord) {
@@ -170,10 +205,18 @@ public class DefaultDatastore implements Datastore {
     @Override
     public int getNextBuildRecordId() {
 
-        Long nextId = sequenceHandlerRepository.getNextID(BuildRecord.SEQUENCE_NAME);
+        int nextId = idAllocator.nextId(BuildRecord.SEQUENCE_NAME);
         logger.debug("Build Record nextId: {}", nextId);
 
-        return nextId.intValue();
+        return nextId;
+    }
+
+    @Override
+    public List<Integer> getNextBuildRecordIds(int count) {
+        List<Integer> nextIds = idAllocator.nextIds(BuildRecord.SEQUENCE_NAME, count);
+        logger.debug("Build Record nextIds: {}", nextIds);
+
+        return nextIds;
     }
 
     /**
@@ -195,12 +238,8 @@ public class DefaultDatastore implements Datastore {
      */
     @Override
     public BuildConfigurationAudited getLatestBuildConfigurationAudited(Integer buildConfigurationId) {
-        List<BuildConfigurationAudited> buildConfigRevs = buildConfigurationAuditedRepository.findAllByIdOrderByRevDesc(buildConfigurationId);
-        if (buildConfigRevs.isEmpty()) {
-            // TODO should we throw an exception?  In theory, this should never happen.
-            return null;
-        }
-        return buildConfigRevs.get(0);
+        // TODO should we throw an exception if there is none?  In theory, this should never happen.
+        return buildConfigurationAuditedRepository.findLatestById(buildConfigurationId);
     }
 
     @Override
@@ -211,19 +250,30 @@ public class DefaultDatastore implements Datastore {
     @Override
     @TransactionAttribute(TransactionAttributeType.REQUIRED)
     public boolean requiresRebuild(BuildConfiguration configuration) {
-        BuildConfiguration refreshedConfig = buildConfigurationRepository.queryById(configuration.getId());
+        return getIdsRequiringRebuild(Collections.singleton(configuration.getId())).contains(configuration.getId());
+    }
 
-        BuildRecord record = refreshedConfig.getLatestSuccesfulBuildRecord();
-        if (record == null) {
-            return true;
+    @Override
+    @TransactionAttribute(TransactionAttributeType.REQUIRED)
+    public Set<Integer> getIdsRequiringRebuild(Collection<Integer> buildConfigurationIds) {
+        if (buildConfigurationIds.isEmpty()) {
+            return Collections.emptySet();
         }
-        BuildConfigurationAudited configurationAudited = record.getBuildConfigurationAudited();
-        BuildConfigurationAudited latestConfigurationAudited = getLatestBuildConfigurationAudited(configuration.getId());
-
-        boolean hasModifiedConfiguration = !configurationAudited.equals(latestConfigurationAudited);
-        boolean requiresRebuild = hasModifiedConfiguration || hasARebuiltDependency(refreshedConfig);
-        logger.debug("Checked {} hasModifiedConfiguration: {}, requiresRebuild: {}", refreshedConfig, hasModifiedConfiguration, requiresRebuild);
-        return requiresRebuild;
+        Map<Integer, IdRev> builtRevisions = buildRecordRepository.getLatestSuccessfulBuildRevisions(buildConfigurationIds);
+        Map<Integer, Integer> latestRevisions = buildConfigurationAuditedRepository.getLatestRevisions(buildConfigurationIds);
+        Set<Integer> withRebuiltDependency = buildRecordRepository.getIdsWithRebuiltDependencies(buildConfigurationIds);
+
+        Set<Integer> requiringRebuild = new HashSet<>();
+        for (Integer id : buildConfigurationIds) {
+            IdRev builtRevision = builtRevisions.get(id);
+            boolean hasModifiedConfiguration = builtRevision == null || !builtRevision.getRev().equals(latestRevisions.get(id));
+            boolean requiresRebuild = hasModifiedConfiguration || withRebuiltDependency.contains(id);
+            logger.debug("Checked build configuration {} hasModifiedConfiguration: {}, requiresRebuild: {}", id, hasModifiedConfiguration, requiresRebuild);
+            if (requiresRebuild) {
+                requiringRebuild.add(id);
+            }
+        }
+        return requiringRebuild;
     }
     @Override
     @TransactionAttribute(TransactionAttributeType.REQUIRED)
@@ -236,11 +286,11 @@ public class DefaultDatastore implements Datastore {
             return true;
         }
         if (taskSet != null) {
-            List<BuildConfiguration> nonRejectedBuildsInGroup = taskSet.getBuildTasks().stream()
+            List<Integer> nonRejectedBuildsInGroup = taskSet.getBuildTasks().stream()
                     .filter(t -> t.getStatus() != BuildCoordinationStatus.REJECTED_ALREADY_BUILT)
-                    .map(BuildTask::getBuildConfiguration)
+                    .map(t -> t.getBuildConfiguration().getId())
                     .collect(Collectors.toList());
-            boolean hasInGroupDependency = refreshedConfig.dependsOnAny(nonRejectedBuildsInGroup);
+            boolean hasInGroupDependency = dependencyGraph.dependsOnAny(refreshedConfig.getId(), nonRejectedBuildsInGroup);
             if (hasInGroupDependency) {
                 return true;
             }
@@ -248,29 +298,9 @@ public class DefaultDatastore implements Datastore {
         return false;
     }
 
-    private boolean hasARebuiltDependency(BuildConfiguration config) {
-        BuildRecord record = config.getLatestSuccesfulBuildRecord();
-        if (record == null) {
-            return false;
-        }
-
-        Collection<BuildRecord> lastBuiltFrom = getRecordsUsedFor(record);
-
-        return lastBuiltFrom.stream()
-                .anyMatch(this::hasNewerVersion);
-    }
-
-    private boolean hasNewerVersion(BuildRecord record) {
-        BuildConfiguration buildConfig = record.getLatestBuildConfiguration();
-        BuildRecord newestRecord = buildConfig.getLatestSuccesfulBuildRecord();
-        return !record.getId().equals(newestRecord.getId());
-    }
-
-    private Collection<BuildRecord> getRecordsUsedFor(BuildRecord record) {
-        return ofNullableCollection(record.getDependencies())
-                .stream()
-                .map(Artifact::getBuildRecords)
-                .collect(toFlatList());
+    @Override
+    public Map<Integer, Long> getAverageBuildDurations(Collection<Integer> buildConfigurationIds) {
+        return buildRecordRepository.getAverageSuccessfulBuildDurations(buildConfigurationIds);
     }
 
 }
@@ -0,0 +1,177 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Case insensitive byte trigrams of the logs, kept per chunk in a bloom filter so that a search only reads the logs
+ * which may contain the searched text. Only ASCII letters are folded, which matches the case insensitive matching of
+ * {@link java.util.regex.Pattern} without the unicode flag.
+ */
+class LogTrigrams {
+
+    /**
+     * Probability that a filter reports a trigram the chunk does not contain.
+     */
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.05;
+
+    /**
+     * Chunks with more distinct trigrams are not indexed, their filter would not fit
+     * {@link org.jboss.pnc.model.BuildLogChunk#MAX_TRIGRAM_FILTER_LENGTH} and would hardly exclude anything.
+     */
+    private static final int MAX_TRIGRAMS = 1024 * 1024;
+
+    private LogTrigrams() {
+    }
+
+    /**
+     * @return distinct trigrams of the text, empty if the text is too short to be looked up by trigrams
+     */
+    static Set<Integer> of(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        Set<Integer> trigrams = new HashSet<>();
+        for (int i = 2; i < bytes.length; i++) {
+            trigrams.add(trigram(bytes[i - 2], bytes[i - 1], bytes[i]));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Stops at the first trigram none of the filters contains, the filters are deserialized only when needed.
+     *
+     * @param filters serialized filters of all the chunks of a log, a null filter stands for a chunk stored before
+     *        logs were indexed
+     * @return false if the log certainly does not contain all the trigrams
+     */
+    static boolean mayContainAll(List<byte[]> filters, Set<Integer> trigrams) {
+        if (trigrams.isEmpty() || filters.contains(null)) {
+            return true;
+        }
+        List<BloomFilter<Integer>> bloomFilters = new ArrayList<>(Collections.nCopies(filters.size(), null));
+        for (Integer trigram : trigrams) {
+            boolean found = false;
+            for (int i = 0; i < filters.size() && !found; i++) {
+                if (bloomFilters.get(i) == null) {
+                    bloomFilters.set(i, read(filters.get(i)));
+                }
+                found = bloomFilters.get(i).mightContain(trigram);
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static BloomFilter<Integer> read(byte[] filter) {
+        try {
+            return BloomFilter.readFrom(new ByteArrayInputStream(filter), Funnels.integerFunnel());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read trigram filter.", e);
+        }
+    }
+
+    private static int trigram(byte first, byte second, byte third) {
+        return fold(first) << 16 | fold(second) << 8 | fold(third);
+    }
+
+    private static int fold(byte b) {
+        return b >= 'A' && b <= 'Z' ? b + ('a' - 'A') : b & 0xFF;
+    }
+
+    /**
+     * Collects the trigrams of a log written in parts. The last two bytes of a part are kept, so that the trigrams
+     * spanning two chunks are added to the filter of the later one.
+     */
+    static class Collector {
+
+        private final byte[] previous = new byte[2];
+
+        private int previousCount;
+
+        private int[] trigrams = new int[16];
+
+        private int trigramsCount;
+
+        /**
+         * @param tail up to two last bytes of the log written before
+         */
+        Collector(byte[] tail) {
+            add(tail, 0, tail.length);
+            trigramsCount = 0;
+        }
+
+        void add(byte[] bytes, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (previousCount == 2) {
+                    if (trigramsCount == trigrams.length) {
+                        trigrams = Arrays.copyOf(trigrams, trigrams.length * 2);
+                    }
+                    trigrams[trigramsCount++] = trigram(previous[0], previous[1], bytes[i]);
+                    previous[0] = previous[1];
+                    previous[1] = bytes[i];
+                } else {
+                    previous[previousCount++] = bytes[i];
+                }
+            }
+        }
+
+        /**
+         * @return serialized filter of the trigrams added since the last call, null if there are too many of them
+         */
+        byte[] toFilter() {
+            Arrays.sort(trigrams, 0, trigramsCount);
+            int distinct = 0;
+            for (int i = 0; i < trigramsCount; i++) {
+                if (distinct == 0 || trigrams[i] != trigrams[distinct - 1]) {
+                    trigrams[distinct++] = trigrams[i];
+                }
+            }
+            trigramsCount = 0;
+            if (distinct > MAX_TRIGRAMS) {
+                return null;
+            }
+            BloomFilter<Integer> filter = BloomFilter.create(Funnels.integerFunnel(), Math.max(1, distinct),
+                    FALSE_POSITIVE_PROBABILITY);
+            for (int i = 0; i < distinct; i++) {
+                filter.put(trigrams[i]);
+            }
+            ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+            try {
+                filter.writeTo(serialized);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write trigram filter.", e);
+            }
+            return serialized.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore;
+
+import org.jboss.pnc.spi.datastore.repositories.SequenceHandlerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out ids from blocks reserved in the database sequences. The sequences are incremented by
+ * {@link #BLOCK_SIZE}, a single sequence value <code>hi</code> reserves the ids
+ * <code>(hi - BLOCK_SIZE, hi]</code>, so the database is only hit once per {@link #BLOCK_SIZE} ids and the ids keep
+ * following the sequence.
+ *
+ * The ids of a block that is not used up before a restart are lost.
+ */
+@ApplicationScoped
+public class PooledIdAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(PooledIdAllocator.class);
+
+    public static final int BLOCK_SIZE = 100;
+
+    private SequenceHandlerRepository sequenceHandlerRepository;
+
+    private final Map<String, Block> blocks = new HashMap<>();
+
+    @Deprecated //CDI workaround
+    public PooledIdAllocator() {
+    }
+
+    @Inject
+    public PooledIdAllocator(SequenceHandlerRepository sequenceHandlerRepository) {
+        this.sequenceHandlerRepository = sequenceHandlerRepository;
+    }
+
+    public int nextId(String sequenceName) {
+        return nextIds(sequenceName, 1).get(0);
+    }
+
+    /**
+     * Allocates <code>count</code> ids. All blocks missing to satisfy the request are reserved in a single call to
+     * the database.
+     *
+     * @param sequenceName name of the database sequence backing the ids
+     * @param count number of ids to allocate
+     * @return ascending list of allocated ids
+     */
+    public synchronized List<Integer> nextIds(String sequenceName, int count) {
+        List<Integer> ids = new ArrayList<>(count);
+        Block block = blocks.get(sequenceName);
+        if (block != null) {
+            block.drainTo(ids, count);
+        }
+
+        int missing = count - ids.size();
+        if (missing > 0) {
+            int blocksToReserve = (missing + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            List<Long> his = sequenceHandlerRepository.getNextIDs(sequenceName, blocksToReserve);
+            log.debug("Reserved id blocks {} of sequence {}.", his, sequenceName);
+
+            Iterator<Long> hiIterator = his.iterator();
+            while (ids.size() < count) {
+                block = new Block(hiIterator.next());
+                block.drainTo(ids, count - ids.size());
+            }
+            blocks.put(sequenceName, block);
+        }
+        return ids;
+    }
+
+    private static class Block {
+        private long next;
+        private final long end;
+
+        Block(long hi) {
+            this.next = hi - BLOCK_SIZE + 1;
+            this.end = hi + 1;
+        }
+
+        void drainTo(List<Integer> ids, int max) {
+            for (int i = 0; i < max && next < end; i++) {
+                ids.add(Math.toIntExact(next++));
+            }
+        }
+    }
+}
@@ -17,6 +17,7 @@
  */
 package org.jboss.pnc.datastore.configuration;
 
+import org.jboss.pnc.datastore.PooledIdAllocator;
 import org.jboss.pnc.datastore.repositories.DefaultSequenceHandlerRepository;
 import org.jboss.pnc.model.BuildRecord;
 import org.slf4j.Logger;
@@ -56,7 +57,7 @@ public class CustomSequenceConfiguration {
 
             try {
                 logger.info("Creating sequence {} ...", BuildRecord.SEQUENCE_NAME);
-                sequenceHandlerRepository.createSequence(BuildRecord.SEQUENCE_NAME);
+                sequenceHandlerRepository.createSequence(BuildRecord.SEQUENCE_NAME, PooledIdAllocator.BLOCK_SIZE);
             } catch (Exception e) {
                 logger.error(e.getMessage());
             }
@@ -68,7 +69,7 @@ public class CustomSequenceConfiguration {
 
             try {
                 logger.info("Updating sequence {} ...", BuildRecord.SEQUENCE_NAME);
-                sequenceHandlerRepository.createSequence(BuildRecord.SEQUENCE_NAME);
+                sequenceHandlerRepository.createSequence(BuildRecord.SEQUENCE_NAME, PooledIdAllocator.BLOCK_SIZE);
             } catch (Exception e) {
                 logger.debug("Error encountered when creating sequence {} in 'update' schema phase. This can be safely ignored, as is due to sequence already existing.", BuildRecord.SEQUENCE_NAME);
             }
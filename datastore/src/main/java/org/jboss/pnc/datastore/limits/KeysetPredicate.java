@@ -0,0 +1,158 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.limits;
+
+import org.jboss.pnc.spi.datastore.repositories.api.KeysetCursor;
+import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
+import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Selects the entities following a {@link KeysetCursor}, i.e. the ones with a greater (or lower for the descending
+ * order) sort key, or with the same sort key and a greater (lower) id.
+ *
+ * The entities without a sort key come last in both directions. They are paged as a separate {@link Range} ordered
+ * by the id, so that neither range needs a null ordering and an index on the sort key and the id serves the order.
+ */
+public class KeysetPredicate<T> implements Predicate<T> {
+
+    public enum Range {
+        WITH_SORT_KEY, WITHOUT_SORT_KEY;
+
+        /**
+         * @param after cursor, null for the first page
+         * @return the range the entities following the cursor start in
+         */
+        public static Range of(KeysetCursor after) {
+            return after == null || after.getSortKey() != null ? WITH_SORT_KEY : WITHOUT_SORT_KEY;
+        }
+    }
+
+    private final KeysetCursor after;
+    private final SortInfo sortInfo;
+    private final Range range;
+
+    /**
+     * @param after cursor, null to select the whole range
+     * @param sortInfo sorting by at most one field
+     * @param range the range to select, ignored when sorting by the id
+     */
+    public KeysetPredicate(KeysetCursor after, SortInfo sortInfo, Range range) {
+        this.after = after;
+        this.sortInfo = sortInfo;
+        this.range = range;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public javax.persistence.criteria.Predicate apply(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        boolean ascending = sortInfo.getDirection() == SortInfo.SortingDirection.ASC;
+        String sortField = KeysetCursor.getSortField(sortInfo);
+
+        javax.persistence.criteria.Predicate idFollows = after == null ? cb.conjunction()
+                : follows(cb, root.<Integer>get(KeysetCursor.ID_FIELD), after.getId(), ascending);
+        if (KeysetCursor.ID_FIELD.equals(sortField)) {
+            return idFollows;
+        }
+
+        Path sortKeyPath = getPath(root, sortField);
+        if (range == Range.WITHOUT_SORT_KEY) {
+            // the whole range follows a cursor with a sort key
+            return after == null || after.getSortKey() != null ? cb.isNull(sortKeyPath)
+                    : cb.and(cb.isNull(sortKeyPath), idFollows);
+        }
+        if (after == null) {
+            return cb.isNotNull(sortKeyPath);
+        }
+        if (after.getSortKey() == null) {
+            // nothing with a sort key follows a cursor without one
+            return cb.disjunction();
+        }
+        Comparable sortKey = parseSortKey(after.getSortKey(), sortKeyPath.getJavaType());
+        return cb.or(
+                follows(cb, sortKeyPath, sortKey, ascending),
+                cb.and(cb.equal(sortKeyPath, sortKey), idFollows));
+    }
+
+    /**
+     * Order matching the keyset of the range: the sort field followed by the id, or just the id for the entities
+     * without a sort key.
+     */
+    public static List<Order> getOrder(Root<?> root, CriteriaBuilder cb, SortInfo sortInfo, Range range) {
+        boolean ascending = sortInfo.getDirection() == SortInfo.SortingDirection.ASC;
+        String sortField = KeysetCursor.getSortField(sortInfo);
+
+        List<Order> order = new ArrayList<>();
+        if (!KeysetCursor.ID_FIELD.equals(sortField) && range == Range.WITH_SORT_KEY) {
+            Path<?> sortKeyPath = getPath(root, sortField);
+            order.add(ascending ? cb.asc(sortKeyPath) : cb.desc(sortKeyPath));
+        }
+        Path<?> idPath = root.get(KeysetCursor.ID_FIELD);
+        order.add(ascending ? cb.asc(idPath) : cb.desc(idPath));
+        return order;
+    }
+
+    private static <Y extends Comparable<? super Y>> javax.persistence.criteria.Predicate follows(
+            CriteriaBuilder cb, Expression<? extends Y> path, Y value, boolean ascending) {
+        return ascending ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+    }
+
+    private static Path<?> getPath(Root<?> root, String field) {
+        Path<?> path = root;
+        for (String property : field.split("\\.")) {
+            path = path.get(property);
+        }
+        return path;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable parseSortKey(String sortKey, Class<?> type) {
+        if (String.class.equals(type)) {
+            return sortKey;
+        }
+        try {
+            if (Integer.class.equals(type) || int.class.equals(type)) {
+                return Integer.valueOf(sortKey);
+            }
+            if (Long.class.equals(type) || long.class.equals(type)) {
+                return Long.valueOf(sortKey);
+            }
+            if (Date.class.isAssignableFrom(type)) {
+                return new Date(Long.parseLong(sortKey));
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor sort key: " + sortKey, e);
+        }
+        if (Boolean.class.equals(type) || boolean.class.equals(type)) {
+            return Boolean.valueOf(sortKey);
+        }
+        if (type.isEnum()) {
+            return Enum.valueOf((Class<Enum>) type, sortKey);
+        }
+        throw new IllegalArgumentException("Keyset pagination is not supported for fields of type " + type.getSimpleName());
+    }
+}
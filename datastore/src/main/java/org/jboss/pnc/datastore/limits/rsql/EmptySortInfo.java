@@ -39,4 +39,9 @@ public class EmptySortInfo implements SortInfo {
     public <T> Comparator<T> getComparator() {
         return (x, y) -> 0;
     }
+
+    @Override
+    public <T> Comparator<T> getComparator(Class<T> sortedClass) {
+        return (x, y) -> 0;
+    }
 }
@@ -17,6 +17,9 @@
  */
 package org.jboss.pnc.datastore.predicates;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import cz.jirutka.rsql.parser.RSQLParserException;
 import org.jboss.pnc.datastore.predicates.rsql.EmptyRSQLPredicate;
 import org.jboss.pnc.datastore.predicates.rsql.RSQLNodeTravellerPredicate;
 import org.jboss.pnc.model.GenericEntity;
@@ -24,20 +27,29 @@ import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
 import org.jboss.pnc.spi.datastore.repositories.api.RSQLPredicateProducer;
 
 import javax.ejb.Stateless;
+import java.util.Objects;
 
 /**
  * Entry point for converting RSQL to Criteria.
+ *
+ * Parsed queries are cached by the query and the selecting class, clients repeat the same few queries over and over.
  */
 @Stateless
 public class SpringDataRSQLPredicateProducer implements RSQLPredicateProducer {
 
+    private static final long MAX_CACHED_QUERIES = 1000;
+
+    private static final Cache<QueryKey, RSQLNodeTravellerPredicate<?>> parsedQueries = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_QUERIES)
+            .build();
+
     @Override
     public <T extends GenericEntity<? extends Number>> Predicate<T> getPredicate(Class<T> selectingClass, String rsql) {
         try {
             if(rsql == null || rsql.isEmpty()) {
                 return new EmptyRSQLPredicate();
             }
-            return new RSQLNodeTravellerPredicate<>(selectingClass, rsql).getEntityPredicate();
+            return getParsedQuery(selectingClass, rsql).getEntityPredicate();
         } catch (Exception e) {
             throw new IllegalArgumentException("Could not parse query: " + rsql, e);
         }
@@ -50,10 +62,48 @@ public class SpringDataRSQLPredicateProducer implements RSQLPredicateProducer {
             if(rsql == null || rsql.isEmpty()) {
                 return x -> true;
             }
-            return new RSQLNodeTravellerPredicate<>(selectingClass, rsql).getStreamPredicate();
+            return getParsedQuery(selectingClass, rsql).getStreamPredicate();
         } catch (Exception e) {
             throw new IllegalArgumentException("Could not parse query: " + rsql, e);
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private static <T> RSQLNodeTravellerPredicate<T> getParsedQuery(Class<T> selectingClass, String rsql)
+            throws RSQLParserException {
+        QueryKey key = new QueryKey(selectingClass, rsql);
+        RSQLNodeTravellerPredicate<T> parsedQuery = (RSQLNodeTravellerPredicate<T>) parsedQueries.getIfPresent(key);
+        if (parsedQuery == null) {
+            parsedQuery = new RSQLNodeTravellerPredicate<>(selectingClass, rsql);
+            parsedQueries.put(key, parsedQuery);
+        }
+        return parsedQuery;
+    }
+
+    private static class QueryKey {
+        private final Class<?> selectingClass;
+        private final String rsql;
+
+        private QueryKey(Class<?> selectingClass, String rsql) {
+            this.selectingClass = selectingClass;
+            this.rsql = rsql;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            QueryKey queryKey = (QueryKey) o;
+            return selectingClass.equals(queryKey.selectingClass) && rsql.equals(queryKey.rsql);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(selectingClass, rsql);
+        }
+    }
 }
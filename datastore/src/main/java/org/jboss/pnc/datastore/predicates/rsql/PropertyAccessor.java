@@ -0,0 +1,122 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.predicates.rsql;
+
+import org.apache.commons.beanutils.BeanUtils;
+import org.apache.commons.beanutils.NestedNullException;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a (nested) property selected in RSQL, for example <code>buildConfigurationAudited.name</code>. The getters
+ * are resolved once from the declared types and invoked through method handles.
+ *
+ * Properties which can not be resolved statically, like the ones declared only in a subtype of the declared type, are
+ * read by {@link BeanUtils} the same way as any property used to be.
+ */
+class PropertyAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final String propertyPath;
+
+    /**
+     * Getters along the path, null if the path has to be resolved by BeanUtils
+     */
+    private final MethodHandle[] getters;
+
+    PropertyAccessor(Class<?> selectingClass, String propertyPath) {
+        this.propertyPath = propertyPath;
+        this.getters = resolve(selectingClass, propertyPath);
+    }
+
+    /**
+     * @return value of the property
+     * @throws NestedNullException if a nested property on the path is null
+     */
+    Object get(Object instance) {
+        if (getters == null) {
+            return getByBeanUtils(instance);
+        }
+        Object value = instance;
+        for (int i = 0; i < getters.length; i++) {
+            if (value == null) {
+                throw new NestedNullException("Null property value for '" + propertyPath + "'");
+            }
+            try {
+                value = getters[i].invokeExact(value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Reflections exception", e);
+            }
+        }
+        return value;
+    }
+
+    private Object getByBeanUtils(Object instance) {
+        try {
+            return BeanUtils.getProperty(instance, propertyPath);
+        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
+            throw new IllegalStateException("Reflections exception", e);
+        }
+    }
+
+    private static MethodHandle[] resolve(Class<?> selectingClass, String propertyPath) {
+        if (propertyPath.contains("[") || propertyPath.contains("(")) {
+            // indexed and mapped properties
+            return null;
+        }
+        List<MethodHandle> getters = new ArrayList<>();
+        Class<?> type = selectingClass;
+        for (String property : propertyPath.split("\\.")) {
+            PropertyDescriptor descriptor = findProperty(type, property);
+            if (descriptor == null || descriptor.getReadMethod() == null) {
+                return null;
+            }
+            try {
+                getters.add(MethodHandles.publicLookup().unreflect(descriptor.getReadMethod()).asType(GETTER_TYPE));
+            } catch (IllegalAccessException e) {
+                return null;
+            }
+            type = descriptor.getPropertyType();
+        }
+        return getters.toArray(new MethodHandle[getters.size()]);
+    }
+
+    private static PropertyDescriptor findProperty(Class<?> type, String property) {
+        try {
+            for (PropertyDescriptor descriptor : Introspector.getBeanInfo(type).getPropertyDescriptors()) {
+                if (descriptor.getName().equals(property)) {
+                    return descriptor;
+                }
+            }
+        } catch (IntrospectionException e) {
+            return null;
+        }
+        return null;
+    }
+}
@@ -33,8 +33,6 @@ import cz.jirutka.rsql.parser.ast.Node;
 import cz.jirutka.rsql.parser.ast.NotEqualNode;
 import cz.jirutka.rsql.parser.ast.NotInNode;
 import cz.jirutka.rsql.parser.ast.OrNode;
-import org.apache.commons.beanutils.BeanUtils;
-import org.apache.commons.beanutils.NestedNullException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,9 +41,6 @@ import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import java.lang.invoke.MethodHandles;
-import java.lang.reflect.InvocationTargetException;
-import java.text.NumberFormat;
-import java.text.ParseException;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -65,6 +60,8 @@ public class RSQLNodeTravellerPredicate<Entity> {
 
     private final Map<Class<? extends ComparisonNode>, Transformer<Entity>> operations = new HashMap<>();
 
+    private volatile java.util.function.Predicate<Entity> streamPredicate;
+
     private final static Pattern likePattern = Pattern.compile("(\\%[a-zA-Z0-9\\s]+\\%)");
     private String UNKNOWN_PART_PLACEHOLDER = "_";
 
@@ -138,116 +135,16 @@ public class RSQLNodeTravellerPredicate<Entity> {
         };
     }
 
+    /**
+     * @return predicate testing java objects, compiled on the first call and shared afterwards
+     */
     public java.util.function.Predicate<Entity> getStreamPredicate() {
-        return instance -> {
-            RSQLNodeTraveller<Boolean> visitor = new RSQLNodeTraveller<Boolean>() {
-
-                public Boolean visit(LogicalNode node) {
-                    logger.trace("Parsing LogicalNode {}", node);
-                    Iterator<Node> iterator = node.iterator();
-                    if (node instanceof AndNode) {
-                        boolean result = true;
-                        while (iterator.hasNext()) {
-                            Node next = iterator.next();
-                            result &= visit(next);
-                        }
-                        return result;
-                    } else if (node instanceof OrNode) {
-                        boolean result = false;
-                        while (iterator.hasNext()) {
-                            Node next = iterator.next();
-                            result |= visit(next);
-                        }
-                        return result;
-                    } else {
-                        throw new UnsupportedOperationException("Logical operation not supported");
-                    }
-                }
-
-                public Boolean visit(ComparisonNode node) {
-                    logger.trace("Parsing ComparisonNode {}", node);
-
-                    String fieldName = node.getSelector();
-                    String argument = node.getArguments().get(0);
-
-                    try {
-                        String propertyValue = BeanUtils.getProperty(instance, fieldName);
-
-
-                        if (node.getOperator().equals(IsNullNode.OPERATOR)) {
-                            return Boolean.valueOf(propertyValue == null).equals(Boolean.valueOf(argument));
-                        }
-
-                        if (propertyValue == null) {
-                            // Null values are considered not equal
-                            return false;
-                        }
-
-                        switch (node.getOperator()) {
-                            case "==": {
-                                return propertyValue.equals(argument);
-                            }
-                            case "!=": {
-                                return !propertyValue.equals(argument);
-                            }
-                            case ">":
-                            case "=gt=": {
-                                NumberFormat numberFormat = NumberFormat.getInstance();
-                                Number argumentNumber = numberFormat.parse(argument);
-                                return numberFormat.parse(propertyValue).intValue() < argumentNumber.intValue();
-                            }
-
-                            case ">=":
-                            case "=ge=": {
-                                NumberFormat numberFormat = NumberFormat.getInstance();
-                                Number argumentNumber = numberFormat.parse(argument);
-                                return numberFormat.parse(propertyValue).intValue() <= argumentNumber.intValue();
-                            }
-
-                            case "<":
-                            case "=lt=": {
-                                NumberFormat numberFormat = NumberFormat.getInstance();
-                                Number argumentNumber = numberFormat.parse(argument);
-                                return numberFormat.parse(propertyValue).intValue() > argumentNumber.intValue();
-                            }
-
-                            case "<=":
-                            case "=le=": {
-                                NumberFormat numberFormat = NumberFormat.getInstance();
-                                Number argumentNumber = numberFormat.parse(argument);
-                                return numberFormat.parse(propertyValue).intValue() >= argumentNumber.intValue();
-                            }
-
-                            case "=like=": {
-                                argument = argument.replaceAll(UNKNOWN_PART_PLACEHOLDER, ".*").replaceAll("%", ".*");
-                                return propertyValue.matches(argument);
-                            }
-
-                            case "=in=": {
-                                return node.getArguments().contains(propertyValue);
-                            }
-
-                            case "=out=": {
-                                return !node.getArguments().contains(propertyValue);
-                            }
-
-                            default: {
-                                throw new UnsupportedOperationException("Not Implemented yet!");
-                            }
-                        }
-                    } catch (NestedNullException e) {
-                        // If a nested property is null (i.e. idRev.id is null), it is considered a false equality
-                        return false;
-                    } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
-                        throw new IllegalStateException("Reflections exception", e);
-                    } catch (ParseException e) {
-                        throw new IllegalStateException("RSQL parse exception", e);
-                    }
-                }
-            };
-
-            return rootNode.accept(visitor);
-        };
+        java.util.function.Predicate<Entity> predicate = streamPredicate;
+        if (predicate == null) {
+            predicate = new StreamPredicateCompiler<>(selectingClass).compile(rootNode);
+            streamPredicate = predicate;
+        }
+        return predicate;
     }
 
     private String preprocessRSQL(String rsql) {
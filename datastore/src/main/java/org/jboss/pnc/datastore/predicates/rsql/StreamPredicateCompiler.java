@@ -0,0 +1,165 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.predicates.rsql;
+
+import cz.jirutka.rsql.parser.ast.AndNode;
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.EqualNode;
+import cz.jirutka.rsql.parser.ast.GreaterThanNode;
+import cz.jirutka.rsql.parser.ast.GreaterThanOrEqualNode;
+import cz.jirutka.rsql.parser.ast.InNode;
+import cz.jirutka.rsql.parser.ast.LessThanNode;
+import cz.jirutka.rsql.parser.ast.LessThanOrEqualNode;
+import cz.jirutka.rsql.parser.ast.LogicalNode;
+import cz.jirutka.rsql.parser.ast.Node;
+import cz.jirutka.rsql.parser.ast.NotEqualNode;
+import cz.jirutka.rsql.parser.ast.NotInNode;
+import cz.jirutka.rsql.parser.ast.OrNode;
+import org.apache.commons.beanutils.NestedNullException;
+
+import java.lang.reflect.Array;
+import java.text.NumberFormat;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles a parsed RSQL query into a tree of predicates evaluated on java objects. Everything that does not depend on
+ * the tested object, property accessors, numeric arguments, like patterns and the sets of in arguments, is prepared
+ * once when the query is compiled.
+ */
+class StreamPredicateCompiler<Entity> extends RSQLNodeTraveller<Predicate<Object>> {
+
+    private static final String UNKNOWN_PART_PLACEHOLDER = "_";
+
+    private final Class<Entity> selectingClass;
+
+    StreamPredicateCompiler(Class<Entity> selectingClass) {
+        this.selectingClass = selectingClass;
+    }
+
+    @SuppressWarnings("unchecked")
+    Predicate<Entity> compile(Node rootNode) {
+        Predicate<Object> predicate = rootNode.accept(this);
+        return (Predicate<Entity>) (Predicate<?>) predicate;
+    }
+
+    @Override
+    public Predicate<Object> visit(LogicalNode node) {
+        List<Predicate<Object>> children = new ArrayList<>();
+        for (Node child : node) {
+            children.add(visit(child));
+        }
+        if (node instanceof AndNode) {
+            return children.stream().reduce(Predicate::and).orElse(instance -> true);
+        } else if (node instanceof OrNode) {
+            return children.stream().reduce(Predicate::or).orElse(instance -> false);
+        } else {
+            throw new UnsupportedOperationException("Logical operation not supported");
+        }
+    }
+
+    @Override
+    public Predicate<Object> visit(ComparisonNode node) {
+        PropertyAccessor accessor = new PropertyAccessor(selectingClass, node.getSelector());
+        String argument = node.getArguments().get(0);
+
+        if (node instanceof IsNullNode) {
+            boolean expectNull = Boolean.valueOf(argument);
+            return instance -> {
+                try {
+                    return (accessor.get(instance) == null) == expectNull;
+                } catch (NestedNullException e) {
+                    return false;
+                }
+            };
+        }
+
+        Predicate<Object> valuePredicate;
+        if (node instanceof EqualNode) {
+            valuePredicate = value -> asString(value).equals(argument);
+        } else if (node instanceof NotEqualNode) {
+            valuePredicate = value -> !asString(value).equals(argument);
+        } else if (node instanceof GreaterThanNode) {
+            valuePredicate = compareTo(argument, comparison -> comparison < 0);
+        } else if (node instanceof GreaterThanOrEqualNode) {
+            valuePredicate = compareTo(argument, comparison -> comparison <= 0);
+        } else if (node instanceof LessThanNode) {
+            valuePredicate = compareTo(argument, comparison -> comparison > 0);
+        } else if (node instanceof LessThanOrEqualNode) {
+            valuePredicate = compareTo(argument, comparison -> comparison >= 0);
+        } else if (node instanceof LikeNode) {
+            Pattern pattern = Pattern.compile(argument.replaceAll(UNKNOWN_PART_PLACEHOLDER, ".*").replaceAll("%", ".*"));
+            valuePredicate = value -> pattern.matcher(asString(value)).matches();
+        } else if (node instanceof InNode) {
+            Set<String> arguments = new HashSet<>(node.getArguments());
+            valuePredicate = value -> arguments.contains(asString(value));
+        } else if (node instanceof NotInNode) {
+            Set<String> arguments = new HashSet<>(node.getArguments());
+            valuePredicate = value -> !arguments.contains(asString(value));
+        } else {
+            throw new UnsupportedOperationException("Not Implemented yet!");
+        }
+
+        return instance -> {
+            try {
+                Object value = accessor.get(instance);
+                if (value != null && value.getClass().isArray()) {
+                    // as BeanUtils, compare the first element of arrays
+                    value = Array.getLength(value) == 0 ? null : Array.get(value, 0);
+                }
+                // Null values are considered not equal
+                return value != null && valuePredicate.test(value);
+            } catch (NestedNullException e) {
+                // If a nested property is null (i.e. idRev.id is null), it is considered a false equality
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @param comparisonResult tests the result of comparing the argument with the property value, both as integers
+     */
+    private static Predicate<Object> compareTo(String argument, IntPredicate comparisonResult) {
+        int argumentNumber = parseNumber(argument).intValue();
+        return value -> {
+            int valueNumber = value instanceof Number ? ((Number) value).intValue() : parseNumber(asString(value)).intValue();
+            return comparisonResult.test(Integer.compare(argumentNumber, valueNumber));
+        };
+    }
+
+    private static Number parseNumber(String number) {
+        try {
+            return NumberFormat.getInstance().parse(number);
+        } catch (ParseException e) {
+            throw new IllegalStateException("RSQL parse exception", e);
+        }
+    }
+
+    /**
+     * String form of a property value as BeanUtils would return it.
+     */
+    private static String asString(Object value) {
+        return value instanceof String ? (String) value : value.toString();
+    }
+}
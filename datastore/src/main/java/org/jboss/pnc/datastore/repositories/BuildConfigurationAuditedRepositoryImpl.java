@@ -25,7 +25,10 @@ import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationAuditedReposit
 
 import javax.ejb.Stateless;
 import javax.inject.Inject;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Stateless
 public class BuildConfigurationAuditedRepositoryImpl extends AbstractRepository<BuildConfigurationAudited, IdRev> implements
@@ -51,4 +54,18 @@ public class BuildConfigurationAuditedRepositoryImpl extends AbstractRepository<
     public List<BuildConfigurationAudited> findAllByIdOrderByRevDesc(Integer id) {
         return repository.findAllByIdOrderByRevDesc(id);
     }
+
+    @Override
+    public BuildConfigurationAudited findLatestById(Integer id) {
+        return repository.findLatestById(id);
+    }
+
+    @Override
+    public Map<Integer, Integer> getLatestRevisions(Collection<Integer> ids) {
+        Map<Integer, Integer> revisions = new HashMap<>();
+        for (Object[] row : repository.findLatestRevisions(ids)) {
+            revisions.put((Integer) row[0], (Integer) row[1]);
+        }
+        return revisions;
+    }
 }
@@ -20,15 +20,27 @@ package org.jboss.pnc.datastore.repositories;
 import org.jboss.pnc.datastore.repositories.internal.AbstractRepository;
 import org.jboss.pnc.datastore.repositories.internal.BuildConfigurationSpringRepository;
 import org.jboss.pnc.model.BuildConfiguration;
+import org.jboss.pnc.model.BuildConfigurationDependencyGeneration;
 import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationRepository;
 
 import javax.ejb.Stateless;
 import javax.inject.Inject;
+import javax.persistence.LockModeType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Stateless
 public class BuildConfigurationRepositoryImpl extends AbstractRepository<BuildConfiguration, Integer> implements
         BuildConfigurationRepository {
 
+    private BuildConfigurationSpringRepository repository;
+
     /**
      * @deprecated Created for CDI.
      */
@@ -40,7 +52,72 @@ public class BuildConfigurationRepositoryImpl extends AbstractRepository<BuildCo
     @Inject
     public BuildConfigurationRepositoryImpl(BuildConfigurationSpringRepository buildConfigurationSpringRepository) {
         super(buildConfigurationSpringRepository, buildConfigurationSpringRepository);
+        repository = buildConfigurationSpringRepository;
+    }
+
+    @Override
+    public Map<Integer, Set<Integer>> getDependencyIds() {
+        Map<Integer, Set<Integer>> dependencyIds = new HashMap<>();
+        for (Object[] pair : repository.findAllDependencyIds()) {
+            dependencyIds.computeIfAbsent((Integer) pair[0], id -> new HashSet<>()).add((Integer) pair[1]);
+        }
+        return dependencyIds;
+    }
+
+    @Override
+    public long getDependencyGeneration() {
+        List<Long> generation = entityManager
+                .createQuery("select g.generation from BuildConfigurationDependencyGeneration g where g.id = :id",
+                        Long.class)
+                .setParameter("id", BuildConfigurationDependencyGeneration.ID)
+                .getResultList();
+        return generation.isEmpty() ? 0L : generation.get(0);
+    }
+
+    @Override
+    public long lockDependencyGeneration() {
+        return lockedDependencyGeneration().getGeneration();
     }
 
+    @Override
+    public long incrementDependencyGeneration() {
+        BuildConfigurationDependencyGeneration generation = lockedDependencyGeneration();
+        generation.setGeneration(generation.getGeneration() + 1);
+        return generation.getGeneration();
+    }
+
+    private BuildConfigurationDependencyGeneration lockedDependencyGeneration() {
+        BuildConfigurationDependencyGeneration generation = entityManager.find(
+                BuildConfigurationDependencyGeneration.class, BuildConfigurationDependencyGeneration.ID,
+                LockModeType.PESSIMISTIC_WRITE);
+        if (generation == null) {
+            // the row is created by the first change, a concurrent first change fails on the primary key
+            generation = new BuildConfigurationDependencyGeneration(0L);
+            entityManager.persist(generation);
+            entityManager.flush();
+        }
+        return generation;
+    }
+
+    @Override
+    public Date getLastModificationTime(Integer id) {
+        return repository.findLastModificationTime(id);
+    }
+
+    @Override
+    public List<Object> getEmbeddedProjectAndEnvironmentState(Integer id) {
+        List<Object> state = new ArrayList<>();
+        for (Object[] fields : repository.findProjectAndEnvironmentFields(id)) {
+            state.addAll(Arrays.asList(fields));
+        }
+        if (state.isEmpty()) {
+            return state;
+        }
+        state.addAll(repository.findProjectConfigurationIds(id));
+        for (Object[] attribute : repository.findEnvironmentAttributes(id)) {
+            state.addAll(Arrays.asList(attribute));
+        }
+        return state;
+    }
 
 }
@@ -0,0 +1,65 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.repositories;
+
+import org.jboss.pnc.datastore.repositories.internal.AbstractRepository;
+import org.jboss.pnc.datastore.repositories.internal.BuildLogChunkSpringRepository;
+import org.jboss.pnc.model.BuildLogChunk;
+import org.jboss.pnc.spi.datastore.repositories.BuildLogChunkRepository;
+
+import javax.ejb.Stateless;
+import javax.inject.Inject;
+import java.util.List;
+
+@Stateless
+public class BuildLogChunkRepositoryImpl extends AbstractRepository<BuildLogChunk, Integer> implements
+        BuildLogChunkRepository {
+
+    private BuildLogChunkSpringRepository repository;
+
+    /**
+     * @deprecated Created for CDI.
+     */
+    @Deprecated
+    public BuildLogChunkRepositoryImpl() {
+        super(null, null);
+    }
+
+    @Inject
+    public BuildLogChunkRepositoryImpl(BuildLogChunkSpringRepository buildLogChunkSpringRepository) {
+        super(buildLogChunkSpringRepository, buildLogChunkSpringRepository);
+        repository = buildLogChunkSpringRepository;
+    }
+
+    @Override
+    public long getLogLength(Integer buildRecordId) {
+        Long length = repository.findLogLength(buildRecordId);
+        return length == null ? 0 : length;
+    }
+
+    @Override
+    public List<Integer> getChunkIds(Integer buildRecordId, long offset, long length) {
+        long end = length > Long.MAX_VALUE - offset ? Long.MAX_VALUE : offset + length;
+        return repository.findChunkIdsInRange(buildRecordId, offset, end);
+    }
+
+    @Override
+    public List<byte[]> getTrigramFilters(Integer buildRecordId) {
+        return repository.findTrigramFilters(buildRecordId);
+    }
+}
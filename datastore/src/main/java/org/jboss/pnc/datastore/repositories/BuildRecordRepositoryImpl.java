@@ -19,17 +19,21 @@ package org.jboss.pnc.datastore.repositories;
 
 import org.jboss.pnc.datastore.repositories.internal.AbstractRepository;
 import org.jboss.pnc.datastore.repositories.internal.BuildRecordSpringRepository;
-import org.jboss.pnc.datastore.repositories.internal.PageableMapper;
-import org.jboss.pnc.datastore.repositories.internal.SpecificationsMapper;
 import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.BuildStatus;
+import org.jboss.pnc.model.IdRev;
 import org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository;
-import org.jboss.pnc.spi.datastore.repositories.api.PageInfo;
-import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
-import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
 
 import javax.ejb.Stateless;
 import javax.inject.Inject;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Stateless
 public class BuildRecordRepositoryImpl extends AbstractRepository<BuildRecord, Integer> implements BuildRecordRepository {
@@ -55,10 +59,63 @@ public class BuildRecordRepositoryImpl extends AbstractRepository<BuildRecord, I
         return repository.findByIdFetchAllProperties(id);
     }
 
+    @Override
+    public Integer getBuildLogLength(Integer id) {
+        return repository.findBuildLogLength(id);
+    }
+
+    @Override
+    public String getBuildLogPart(Integer id, int offset, int length) {
+        return repository.findBuildLogPart(id, offset + 1, length);
+    }
+
+    @Override
+    public Map<String, String> getAttributes(Integer id) {
+        List<Object[]> rows = repository.findAttributes(id);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Map<String, String> attributes = new HashMap<>();
+        for (Object[] row : rows) {
+            if (row[1] != null) {
+                attributes.put((String) row[1], (String) row[2]);
+            }
+        }
+        return attributes;
+    }
+
+
+    @Override
+    public Map<Integer, IdRev> getLatestSuccessfulBuildRevisions(Collection<Integer> buildConfigurationIds) {
+        Map<Integer, IdRev> revisions = new HashMap<>();
+        for (Object[] row : repository.findLatestRevisionsWithStatus(buildConfigurationIds, BuildStatus.SUCCESS)) {
+            Integer buildConfigurationId = (Integer) row[0];
+            revisions.put(buildConfigurationId, new IdRev(buildConfigurationId, (Integer) row[1]));
+        }
+        return revisions;
+    }
+
+    @Override
+    public Set<Integer> getIdsWithRebuiltDependencies(Collection<Integer> buildConfigurationIds) {
+        return new HashSet<>(repository.findIdsWithNewerDependencyBuilds(buildConfigurationIds, BuildStatus.SUCCESS));
+    }
 
     @Override
-    public List<BuildRecord> queryWithPredicatesUsingCursor(PageInfo pageInfo, SortInfo sortInfo, Predicate<BuildRecord>... predicates) {
-        return repository.findAll(SpecificationsMapper.map(predicates), PageableMapper.mapCursored(pageInfo, sortInfo)).getContent();
+    public Map<Integer, Long> getAverageSuccessfulBuildDurations(Collection<Integer> buildConfigurationIds) {
+        if (buildConfigurationIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        // timestamp arithmetic is not portable between the supported databases, only the two columns are read
+        Map<Integer, long[]> totals = new HashMap<>();
+        for (Object[] row : repository.findTimesWithStatus(buildConfigurationIds, BuildStatus.SUCCESS)) {
+            long duration = ((Date) row[2]).getTime() - ((Date) row[1]).getTime();
+            long[] total = totals.computeIfAbsent((Integer) row[0], id -> new long[2]);
+            total[0] += duration;
+            total[1]++;
+        }
+        Map<Integer, Long> averages = new HashMap<>();
+        totals.forEach((id, total) -> averages.put(id, total[0] / total[1]));
+        return averages;
     }
 
 
@@ -20,10 +20,9 @@ package org.jboss.pnc.datastore.repositories;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.jdbc.ReturningWork;
 import org.hibernate.jdbc.Work;
-import org.hibernate.service.jdbc.dialect.internal.StandardDialectResolver;
-import org.hibernate.service.jdbc.dialect.spi.DialectResolver;
 import org.jboss.pnc.spi.datastore.repositories.SequenceHandlerRepository;
 
 import javax.inject.Inject;
@@ -32,6 +31,8 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 public class DefaultSequenceHandlerRepository implements SequenceHandlerRepository {
@@ -61,42 +62,53 @@ public class DefaultSequenceHandlerRepository implements SequenceHandlerReposito
 
     @Override
     public Long getNextID(final String sequenceName) {
+        return getNextIDs(sequenceName, 1).get(0);
+    }
+
+    @Override
+    public List<Long> getNextIDs(final String sequenceName, final int count) {
 
-        ReturningWork<Long> maxReturningWork = new ReturningWork<Long>() {
+        ReturningWork<List<Long>> nextValuesReturningWork = new ReturningWork<List<Long>>() {
             @Override
-            public Long execute(Connection connection) throws SQLException {
-                DialectResolver dialectResolver = new StandardDialectResolver();
-                Dialect dialect = dialectResolver.resolveDialect(connection.getMetaData());
+            public List<Long> execute(Connection connection) throws SQLException {
+                Dialect dialect = getDialect();
+                List<Long> nextValues = new ArrayList<>(count);
                 PreparedStatement preparedStatement = null;
                 ResultSet resultSet = null;
                 try {
                     preparedStatement = connection.prepareStatement(dialect.getSequenceNextValString(sequenceName));
-                    resultSet = preparedStatement.executeQuery();
-                    resultSet.next();
-                    return resultSet.getLong(1);
+                    for (int i = 0; i < count; i++) {
+                        resultSet = preparedStatement.executeQuery();
+                        resultSet.next();
+                        nextValues.add(resultSet.getLong(1));
+                        resultSet.close();
+                        resultSet = null;
+                    }
+                    return nextValues;
                 } catch (SQLException e) {
                     throw e;
                 } finally {
-                    if (preparedStatement != null) {
-                        preparedStatement.close();
-                    }
                     if (resultSet != null) {
                         resultSet.close();
                     }
+                    if (preparedStatement != null) {
+                        preparedStatement.close();
+                    }
                 }
 
             }
         };
 
-        Session session = (Session) entityManager.getDelegate();
-        SessionFactory sessionFactory = session.getSessionFactory();
-
-        Long maxRecord = sessionFactory.getCurrentSession().doReturningWork(maxReturningWork);
-        return maxRecord;
+        return getSessionFactory().getCurrentSession().doReturningWork(nextValuesReturningWork);
     }
 
     @Override
     public void createSequence(final String sequenceName) {
+        createSequence(sequenceName, 1);
+    }
+
+    @Override
+    public void createSequence(final String sequenceName, final int incrementSize) {
 
         if (sequenceExists(sequenceName)) {
             return;
@@ -104,12 +116,11 @@ public class DefaultSequenceHandlerRepository implements SequenceHandlerReposito
         Work work = new Work() {
             @Override
             public void execute(Connection connection) throws SQLException {
-                DialectResolver dialectResolver = new StandardDialectResolver();
-                Dialect dialect = dialectResolver.resolveDialect(connection.getMetaData());
+                Dialect dialect = getDialect();
                 PreparedStatement preparedStatement = null;
                 ResultSet resultSet = null;
                 try {
-                    preparedStatement = connection.prepareStatement(dialect.getCreateSequenceStrings(sequenceName, 1, 1)[0]);
+                    preparedStatement = connection.prepareStatement(dialect.getCreateSequenceStrings(sequenceName, incrementSize, incrementSize)[0]);
                     preparedStatement.execute();
                 } catch (SQLException e) {
                     throw e;
@@ -125,9 +136,7 @@ public class DefaultSequenceHandlerRepository implements SequenceHandlerReposito
             }
         };
 
-        Session session = (Session) entityManager.getDelegate();
-        SessionFactory sessionFactory = session.getSessionFactory();
-        sessionFactory.getCurrentSession().doWork(work);
+        getSessionFactory().getCurrentSession().doWork(work);
     }
 
     @Override
@@ -135,8 +144,7 @@ public class DefaultSequenceHandlerRepository implements SequenceHandlerReposito
         ReturningWork<Boolean> work = new ReturningWork<Boolean>() {
             @Override
             public Boolean execute(Connection connection) throws SQLException {
-                DialectResolver dialectResolver = new StandardDialectResolver();
-                Dialect dialect = dialectResolver.resolveDialect(connection.getMetaData());
+                Dialect dialect = getDialect();
                 PreparedStatement preparedStatement = null;
                 ResultSet resultSet = null;
                 try {
@@ -162,9 +170,7 @@ public class DefaultSequenceHandlerRepository implements SequenceHandlerReposito
             }
         };
 
-        Session session = (Session) entityManager.getDelegate();
-        SessionFactory sessionFactory = session.getSessionFactory();
-        return sessionFactory.getCurrentSession().doReturningWork(work);
+        return getSessionFactory().getCurrentSession().doReturningWork(work);
     }
 
     @Override
@@ -173,8 +179,7 @@ public class DefaultSequenceHandlerRepository implements SequenceHandlerReposito
         Work work = new Work() {
             @Override
             public void execute(Connection connection) throws SQLException {
-                DialectResolver dialectResolver = new StandardDialectResolver();
-                Dialect dialect = dialectResolver.resolveDialect(connection.getMetaData());
+                Dialect dialect = getDialect();
                 PreparedStatement preparedStatement = null;
                 ResultSet resultSet = null;
                 try {
@@ -194,9 +199,19 @@ public class DefaultSequenceHandlerRepository implements SequenceHandlerReposito
             }
         };
 
+        getSessionFactory().getCurrentSession().doWork(work);
+    }
+
+    private SessionFactory getSessionFactory() {
         Session session = (Session) entityManager.getDelegate();
-        SessionFactory sessionFactory = session.getSessionFactory();
-        sessionFactory.getCurrentSession().doWork(work);
+        return session.getSessionFactory();
+    }
+
+    /**
+     * The dialect Hibernate was configured with, instead of resolving it from the connection metadata on every call.
+     */
+    private Dialect getDialect() {
+        return ((SessionFactoryImplementor) getSessionFactory()).getDialect();
     }
 
 }
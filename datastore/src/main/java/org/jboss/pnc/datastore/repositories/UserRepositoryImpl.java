@@ -28,6 +28,8 @@ import javax.inject.Inject;
 @Stateless
 public class UserRepositoryImpl extends AbstractRepository<User, Integer> implements UserRepository {
 
+    private UserSpringRepository repository;
+
     /**
      * @deprecated Created for CDI.
      */
@@ -39,5 +41,11 @@ public class UserRepositoryImpl extends AbstractRepository<User, Integer> implem
     @Inject
     public UserRepositoryImpl(UserSpringRepository springUserSpringRepository) {
         super(springUserSpringRepository, springUserSpringRepository);
+        repository = springUserSpringRepository;
+    }
+
+    @Override
+    public User queryByUsername(String username) {
+        return repository.findByUsername(username);
     }
 }
@@ -17,22 +17,53 @@
  */
 package org.jboss.pnc.datastore.repositories.internal;
 
+import com.google.common.collect.ObjectArrays;
+import org.jboss.pnc.datastore.limits.KeysetPredicate;
 import org.jboss.pnc.model.GenericEntity;
+import org.jboss.pnc.spi.datastore.repositories.api.FetchPlan;
+import org.jboss.pnc.spi.datastore.repositories.api.KeysetCursor;
 import org.jboss.pnc.spi.datastore.repositories.api.PageInfo;
 import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
+import org.jboss.pnc.spi.datastore.repositories.api.Projection;
 import org.jboss.pnc.spi.datastore.repositories.api.Repository;
 import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
+import org.jboss.pnc.spi.datastore.repositories.api.impl.DefaultSortInfo;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.query.QueryUtils;
 
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Fetch;
+import javax.persistence.criteria.FetchParent;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
 import java.io.Serializable;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 public class AbstractRepository<T extends GenericEntity<ID>, ID extends Serializable> implements Repository<T, ID> {
 
     protected JpaRepository<T, ID> springRepository;
     protected JpaSpecificationExecutor<T> springSpecificationsExecutor;
 
+    @Inject
+    protected EntityManager entityManager;
+
+    private Class<T> entityClass;
+
     public AbstractRepository() {
     }
 
@@ -84,8 +115,187 @@ public class AbstractRepository<T extends GenericEntity<ID>, ID extends Serializ
 
     @Override
     public List<T> queryWithPredicates(PageInfo pageInfo, SortInfo sortInfo, Predicate<T>... predicates) {
-        return springSpecificationsExecutor.findAll(SpecificationsMapper.map(predicates), PageableMapper.map(pageInfo, sortInfo)).getContent();
+        return queryPage(PageableMapper.map(pageInfo, sortInfo), null, predicates);
+    }
+
+    @Override
+    public List<T> queryWithPredicatesUsingCursor(PageInfo pageInfo, SortInfo sortInfo, Predicate<T>... predicates) {
+        return queryPage(PageableMapper.mapCursored(pageInfo, sortInfo), null, predicates);
     }
 
+    @Override
+    public List<T> queryWithPredicates(PageInfo pageInfo, SortInfo sortInfo, FetchPlan<T> fetchPlan,
+            Predicate<T>... predicates) {
+        return queryPage(PageableMapper.map(pageInfo, sortInfo), fetchPlan, predicates);
+    }
+
+    @Override
+    public List<T> queryWithPredicatesUsingCursor(PageInfo pageInfo, SortInfo sortInfo, FetchPlan<T> fetchPlan,
+            Predicate<T>... predicates) {
+        return queryPage(PageableMapper.mapCursored(pageInfo, sortInfo), fetchPlan, predicates);
+    }
+
+    @Override
+    public <P> List<P> queryProjectionWithPredicatesUsingCursor(PageInfo pageInfo, SortInfo sortInfo,
+            Projection<T, P> projection, Predicate<T>... predicates) {
+        Pageable pageable = PageableMapper.mapCursored(pageInfo, sortInfo);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(getEntityClass());
+        List<String> paths = projection.getPaths();
+        Map<String, Join<?, ?>> joins = new HashMap<>();
+        List<Selection<?>> selections = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            selections.add(select(root, path, joins));
+        }
+        query.multiselect(selections)
+                .where(SpecificationsMapper.map(predicates).toPredicate(root, query, cb));
+        if (pageable.getSort() != null) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        return entityManager.createQuery(query)
+                .setFirstResult(pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList()
+                .stream()
+                .map(tuple -> projection.map(new TupleRow(paths, tuple)))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<T> queryWithPredicatesAfter(KeysetCursor after, int pageSize, SortInfo sortInfo, Predicate<T>... predicates) {
+        if (sortInfo == null) {
+            sortInfo = new DefaultSortInfo();
+        }
+        KeysetPredicate.Range range = KeysetPredicate.Range.of(after);
+        List<T> page = queryRangeAfter(after, pageSize, sortInfo, range, predicates);
+        // the entities without a sort key follow the ones with it
+        if (page.size() < pageSize && range == KeysetPredicate.Range.WITH_SORT_KEY
+                && !KeysetCursor.ID_FIELD.equals(KeysetCursor.getSortField(sortInfo))) {
+            page = new ArrayList<>(page);
+            page.addAll(queryRangeAfter(null, pageSize - page.size(), sortInfo, KeysetPredicate.Range.WITHOUT_SORT_KEY,
+                    predicates));
+        }
+        return page;
+    }
+
+    private List<T> queryRangeAfter(KeysetCursor after, int pageSize, SortInfo sortInfo, KeysetPredicate.Range range,
+            Predicate<T>... predicates) {
+        Predicate<T>[] keysetPredicates = ObjectArrays.concat(predicates, new KeysetPredicate<>(after, sortInfo, range));
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(getEntityClass());
+        Root<T> root = query.from(getEntityClass());
+        query.where(SpecificationsMapper.map(keysetPredicates).toPredicate(root, query, cb))
+                .orderBy(KeysetPredicate.getOrder(root, cb, sortInfo, range));
 
+        return entityManager.createQuery(query)
+                .setMaxResults(pageSize)
+                .getResultList();
+    }
+
+    /**
+     * Runs the same query as the paged finders of the spring repositories, but without the count query they run along.
+     */
+    private List<T> queryPage(Pageable pageable, FetchPlan<T> fetchPlan, Predicate<T>... predicates) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(getEntityClass());
+        Root<T> root = query.from(getEntityClass());
+        if (fetchPlan != null) {
+            fetch(root, fetchPlan);
+        }
+        query.where(SpecificationsMapper.map(predicates).toPredicate(root, query, cb));
+        if (pageable.getSort() != null) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        return entityManager.createQuery(query)
+                .setFirstResult(pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    /**
+     * Left join fetches the paths of the fetch plan, a fetch is shared by all the paths it is a prefix of.
+     */
+    private void fetch(Root<T> root, FetchPlan<T> fetchPlan) {
+        Map<String, Fetch<?, ?>> fetches = new HashMap<>();
+        for (String path : fetchPlan.getPaths()) {
+            FetchParent<?, ?> parent = root;
+            String fetchedPath = null;
+            for (String attribute : path.split("\\.")) {
+                fetchedPath = fetchedPath == null ? attribute : fetchedPath + "." + attribute;
+                Fetch<?, ?> fetch = fetches.get(fetchedPath);
+                if (fetch == null) {
+                    fetch = parent.fetch(attribute, JoinType.LEFT);
+                    fetches.put(fetchedPath, fetch);
+                }
+                parent = fetch;
+            }
+        }
+    }
+
+    /**
+     * Resolves the attribute path of a projection, associations on the way are left joined, a join is shared by all
+     * the paths going through it.
+     */
+    private Path<?> select(Root<T> root, String path, Map<String, Join<?, ?>> joins) {
+        String[] attributes = path.split("\\.");
+        Path<?> current = root;
+        String joinedPath = null;
+        for (int i = 0; i < attributes.length - 1; i++) {
+            joinedPath = joinedPath == null ? attributes[i] : joinedPath + "." + attributes[i];
+            if (current instanceof From && isAssociation(current.getJavaType(), attributes[i])) {
+                Join<?, ?> join = joins.get(joinedPath);
+                if (join == null) {
+                    join = ((From<?, ?>) current).join(attributes[i], JoinType.LEFT);
+                    joins.put(joinedPath, join);
+                }
+                current = join;
+            } else {
+                current = current.get(attributes[i]);
+            }
+        }
+        return current.get(attributes[attributes.length - 1]);
+    }
+
+    private boolean isAssociation(Class<?> type, String attribute) {
+        return entityManager.getMetamodel().managedType(type).getAttribute(attribute).isAssociation();
+    }
+
+    private static class TupleRow implements Projection.Row {
+
+        private final List<String> paths;
+
+        private final Tuple tuple;
+
+        TupleRow(List<String> paths, Tuple tuple) {
+            this.paths = paths;
+            this.tuple = tuple;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <V> V get(String path) {
+            int index = paths.indexOf(path);
+            if (index < 0) {
+                throw new IllegalArgumentException("Path " + path + " is not selected by the projection " + paths);
+            }
+            return (V) tuple.get(index);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Class<T> getEntityClass() {
+        if (entityClass == null) {
+            Class<?> repositoryClass = getClass();
+            while (repositoryClass.getSuperclass() != AbstractRepository.class) {
+                repositoryClass = repositoryClass.getSuperclass();
+            }
+            ParameterizedType superclass = (ParameterizedType) repositoryClass.getGenericSuperclass();
+            entityClass = (Class<T>) superclass.getActualTypeArguments()[0];
+        }
+        return entityClass;
+    }
 }
@@ -21,7 +21,9 @@ import org.jboss.pnc.model.BuildConfigurationAudited;
 import org.jboss.pnc.model.IdRev;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface BuildConfigurationAuditedSpringRepository extends JpaRepository<BuildConfigurationAudited, IdRev>,
@@ -35,4 +37,23 @@ public interface BuildConfigurationAuditedSpringRepository extends JpaRepository
      */
     List<BuildConfigurationAudited> findAllByIdOrderByRevDesc(Integer id);
 
+    /**
+     * Get the latest revision of a specific build configuration.
+     *
+     * @param id of the build configuration
+     * @return The latest revision of this build config or null if there is none
+     */
+    @Query("select bca from BuildConfigurationAudited bca where bca.id = ?1"
+            + " and bca.rev = (select max(b.rev) from BuildConfigurationAudited b where b.id = ?1)")
+    BuildConfigurationAudited findLatestById(Integer id);
+
+    /**
+     * Get the latest revision of each of the given build configurations.
+     *
+     * @param ids of the build configurations
+     * @return pairs of build configuration id and its latest revision
+     */
+    @Query("select bca.id, max(bca.rev) from BuildConfigurationAudited bca where bca.id in ?1 group by bca.id")
+    List<Object[]> findLatestRevisions(Collection<Integer> ids);
+
 }
@@ -20,8 +20,36 @@ package org.jboss.pnc.datastore.repositories.internal;
 import org.jboss.pnc.model.BuildConfiguration;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Date;
+import java.util.List;
 
 public interface BuildConfigurationSpringRepository extends JpaRepository<BuildConfiguration, Integer>,
         JpaSpecificationExecutor<BuildConfiguration> {
 
+    /**
+     * Get all the dependency relations without loading the build configurations.
+     *
+     * @return pairs of [build configuration id, dependency id]
+     */
+    @Query("select bc.id, dependency.id from BuildConfiguration bc join bc.dependencies dependency")
+    List<Object[]> findAllDependencyIds();
+
+    @Query("select bc.lastModificationTime from BuildConfiguration bc where bc.id = ?1")
+    Date findLastModificationTime(Integer id);
+
+    @Query("select p.id, p.name, p.description, p.issueTrackerUrl, p.projectUrl, license.id, e.id, e.name,"
+            + " e.description, e.systemImageRepositoryUrl, e.systemImageId, e.systemImageType"
+            + " from BuildConfiguration bc left join bc.project p left join p.license license"
+            + " left join bc.buildEnvironment e where bc.id = ?1")
+    List<Object[]> findProjectAndEnvironmentFields(Integer id);
+
+    @Query("select other.id from BuildConfiguration bc join bc.project p join p.buildConfigurations other"
+            + " where bc.id = ?1 order by other.id")
+    List<Integer> findProjectConfigurationIds(Integer id);
+
+    @Query("select key(attribute), value(attribute) from BuildConfiguration bc join bc.buildEnvironment e"
+            + " join e.attributes attribute where bc.id = ?1 order by key(attribute)")
+    List<Object[]> findEnvironmentAttributes(Integer id);
 }
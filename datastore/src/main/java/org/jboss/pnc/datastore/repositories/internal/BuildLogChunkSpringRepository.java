@@ -0,0 +1,39 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.repositories.internal;
+
+import org.jboss.pnc.model.BuildLogChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface BuildLogChunkSpringRepository extends JpaRepository<BuildLogChunk, Integer>,
+        JpaSpecificationExecutor<BuildLogChunk> {
+
+    @Query("select max(c.startOffset + c.length) from BuildLogChunk c where c.buildRecordId = ?1")
+    Long findLogLength(Integer buildRecordId);
+
+    @Query("select c.id from BuildLogChunk c where c.buildRecordId = ?1 and c.startOffset + c.length > ?2"
+            + " and c.startOffset < ?3 order by c.startOffset")
+    List<Integer> findChunkIdsInRange(Integer buildRecordId, long from, long to);
+
+    @Query("select c.trigramFilter from BuildLogChunk c where c.buildRecordId = ?1 order by c.startOffset")
+    List<byte[]> findTrigramFilters(Integer buildRecordId);
+}
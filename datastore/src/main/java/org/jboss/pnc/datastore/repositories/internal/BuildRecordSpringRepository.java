@@ -18,13 +18,48 @@
 package org.jboss.pnc.datastore.repositories.internal;
 
 import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.BuildStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface BuildRecordSpringRepository
         extends JpaRepository<BuildRecord, Integer>, JpaSpecificationExecutor<BuildRecord> {
 
     @Query("select br from BuildRecord br fetch all properties where br.id = ?1")
     BuildRecord findByIdFetchAllProperties(Integer id);
-}
\ No newline at end of file
+
+    @Query("select length(br.buildLog) from BuildRecord br where br.id = ?1")
+    Integer findBuildLogLength(Integer id);
+
+    @Query("select substring(br.buildLog, ?2, ?3) from BuildRecord br where br.id = ?1")
+    String findBuildLogPart(Integer id, int start, int length);
+
+    @Query("select br.id, key(attribute), value(attribute) from BuildRecord br left join br.attributes attribute"
+            + " where br.id = ?1")
+    List<Object[]> findAttributes(Integer id);
+
+    // ids are reserved in blocks by every node, the submit time orders the builds across the nodes
+    @Query("select br.latestBuildConfiguration.id, bca.rev from BuildRecord br join br.buildConfigurationAudited bca"
+            + " where br.status = ?2 and br.latestBuildConfiguration.id in ?1"
+            + " and br.submitTime = (select max(r.submitTime) from BuildRecord r where r.status = ?2"
+            + " and r.latestBuildConfiguration = br.latestBuildConfiguration)")
+    List<Object[]> findLatestRevisionsWithStatus(Collection<Integer> buildConfigurationIds, BuildStatus status);
+
+    @Query("select distinct br.latestBuildConfiguration.id from BuildRecord br"
+            + " join br.dependencies dependency join dependency.buildRecords producer"
+            + " where br.status = ?2 and br.latestBuildConfiguration.id in ?1"
+            + " and br.submitTime = (select max(r.submitTime) from BuildRecord r where r.status = ?2"
+            + " and r.latestBuildConfiguration = br.latestBuildConfiguration)"
+            + " and exists (select newer.id from BuildRecord newer where newer.status = ?2"
+            + " and newer.latestBuildConfiguration = producer.latestBuildConfiguration"
+            + " and newer.submitTime > producer.submitTime)")
+    List<Integer> findIdsWithNewerDependencyBuilds(Collection<Integer> buildConfigurationIds, BuildStatus status);
+
+    @Query("select br.latestBuildConfiguration.id, br.startTime, br.endTime from BuildRecord br where br.status = ?2"
+            + " and br.latestBuildConfiguration.id in ?1 and br.startTime is not null and br.endTime is not null")
+    List<Object[]> findTimesWithStatus(Collection<Integer> buildConfigurationIds, BuildStatus status);
+}
@@ -20,8 +20,13 @@ package org.jboss.pnc.datastore.repositories.internal;
 import org.jboss.pnc.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import javax.persistence.QueryHint;
 
 public interface UserSpringRepository extends JpaRepository<User, Integer>, JpaSpecificationExecutor<User> {
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    User findByUsername(String username);
 }
 
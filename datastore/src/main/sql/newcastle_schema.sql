@@ -74,7 +74,7 @@ COMMENT ON TABLE artifact IS 'Build Artifacts';
 
 CREATE SEQUENCE artifact_id_seq
     START WITH 1
-    INCREMENT BY 1
+    INCREMENT BY 50
     NO MINVALUE
     NO MAXVALUE
     CACHE 1;
@@ -22,3 +22,9 @@ ALTER TABLE build_configuration
 	ALTER COLUMN project_id SET NOT NULL;
 
 COMMENT ON COLUMN build_configuration.name IS 'Descriptive name of this configuration';
+
+-- the artifact ids are reserved in blocks of 50 by the pooled optimizer
+ALTER SEQUENCE artifact_id_seq INCREMENT BY 50;
+
+-- the build record ids are reserved in blocks of 100, see PooledIdAllocator
+ALTER SEQUENCE build_record_id_seq INCREMENT BY 100;
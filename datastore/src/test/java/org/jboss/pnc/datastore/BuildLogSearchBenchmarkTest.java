@@ -0,0 +1,178 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.arquillian.junit.InSequence;
+import org.jboss.pnc.spi.datastore.BuildLogMatch;
+import org.jboss.pnc.spi.datastore.BuildLogStore;
+import org.jboss.pnc.test.category.DebugTest;
+import org.jboss.shrinkwrap.api.Archive;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the ingest throughput of 100000 synthetic build logs into the log store and the latency of searching them
+ * in batches of the size used by the log search endpoint. One in a hundred logs contains a rare error.
+ * Run with -Pdebug-tests -Dtest=BuildLogSearchBenchmarkTest
+ */
+@RunWith(Arquillian.class)
+@Category(DebugTest.class)
+public class BuildLogSearchBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BuildLogSearchBenchmarkTest.class);
+
+    /**
+     * Build record ids of the logs, the log store does not require the build records to exist.
+     */
+    private static final int FIRST_BUILD_RECORD_ID = 10_000_000;
+
+    private static final int LOGS = 100_000;
+
+    private static final int RARE_ERROR_EVERY = 100;
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final String RARE_ERROR = "java.lang.OutOfMemoryError: Metaspace";
+
+    @Inject
+    BuildLogStore buildLogStore;
+
+    @Deployment
+    public static Archive<?> getDeployment() {
+        return DeploymentFactory.createDatastoreDeployment();
+    }
+
+    @Test
+    @InSequence(1)
+    public void ingestLogs() {
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < LOGS; i++) {
+            String buildLog = buildLog(i);
+            buildLogStore.append(FIRST_BUILD_RECORD_ID + i, buildLog);
+            bytes += buildLog.length();
+        }
+        long nanos = System.nanoTime() - start;
+
+        log.info("Ingested {} logs ({} MB) in {} ms: {} logs/s, {} MB/s", LOGS, bytes / 1_000_000, nanos / 1_000_000,
+                LOGS * 1_000_000_000L / nanos, bytes * 1_000L / nanos);
+    }
+
+    @Test
+    @InSequence(2)
+    public void searchRareText() throws Exception {
+        Map<Integer, List<BuildLogMatch>> matches = timedSearch("rare text", RARE_ERROR, null);
+
+        assertThat(matches).hasSize(LOGS / RARE_ERROR_EVERY);
+    }
+
+    @Test
+    @InSequence(3)
+    public void searchMissingText() throws Exception {
+        Map<Integer, List<BuildLogMatch>> matches = timedSearch("missing text", "NoClassDefFoundError", null);
+
+        assertThat(matches).isEmpty();
+    }
+
+    @Test
+    @InSequence(4)
+    public void searchRareTextRefinedByRegex() throws Exception {
+        Map<Integer, List<BuildLogMatch>> matches = timedSearch("rare text and regex", "OutOfMemoryError",
+                Pattern.compile("Error: \\w+$"));
+
+        assertThat(matches).hasSize(LOGS / RARE_ERROR_EVERY);
+    }
+
+    @Test
+    @InSequence(5)
+    public void searchRegexOnly() throws Exception {
+        Map<Integer, List<BuildLogMatch>> matches = timedSearch("regex only", null, Pattern.compile("OutOfMemory"),
+                LOGS / 10);
+
+        assertThat(matches).hasSize(LOGS / 10 / RARE_ERROR_EVERY);
+    }
+
+    private Map<Integer, List<BuildLogMatch>> timedSearch(String description, String text, Pattern pattern)
+            throws TimeoutException {
+        return timedSearch(description, text, pattern, LOGS);
+    }
+
+    /**
+     * Searches the given number of the newest logs, newest first in batches, as the log search endpoint does.
+     */
+    private Map<Integer, List<BuildLogMatch>> timedSearch(String description, String text, Pattern pattern,
+            int logs) throws TimeoutException {
+        List<Long> batchNanos = new ArrayList<>();
+        Map<Integer, List<BuildLogMatch>> matches = new LinkedHashMap<>();
+        for (int searched = 0; searched < logs; searched += BATCH_SIZE) {
+            int batchNewestId = FIRST_BUILD_RECORD_ID + LOGS - 1 - searched;
+            List<Integer> ids = IntStream.range(0, Math.min(BATCH_SIZE, logs - searched))
+                    .mapToObj(i -> batchNewestId - i)
+                    .collect(Collectors.toList());
+            long start = System.nanoTime();
+            matches.putAll(buildLogStore.search(ids, text, pattern, 10, Long.MAX_VALUE));
+            batchNanos.add(System.nanoTime() - start);
+        }
+        batchNanos.sort(null);
+        log.info("Search of {} logs ({}): total {} ms, batch of {} median {} ms, p99 {} ms", logs, description,
+                batchNanos.stream().mapToLong(Long::longValue).sum() / 1_000_000, BATCH_SIZE,
+                batchNanos.get(batchNanos.size() / 2) / 1_000_000,
+                batchNanos.get(batchNanos.size() * 99 / 100) / 1_000_000);
+        return matches;
+    }
+
+    /**
+     * About 2.5 KB of a Maven build output, the rare error is added to every {@link #RARE_ERROR_EVERY}th log.
+     */
+    private static String buildLog(int i) {
+        StringBuilder buildLog = new StringBuilder(3200);
+        buildLog.append("[INFO] Scanning for projects...\n")
+                .append("[INFO] Building benchmark-module-").append(i).append(" 1.0.").append(i % 97).append('\n');
+        for (int dependency = 0; dependency < 25; dependency++) {
+            buildLog.append("[INFO] Downloaded: http://repository/org/jboss/dependency-").append((i + dependency) % 500)
+                    .append("/1.").append(dependency).append("/dependency.jar (")
+                    .append(dependency * 13 + i % 7).append(" KB)\n");
+        }
+        buildLog.append("[INFO] Compiling ").append(i % 300).append(" source files to target/classes\n");
+        if (i % RARE_ERROR_EVERY == 0) {
+            buildLog.append("[ERROR] ").append(RARE_ERROR).append('\n')
+                    .append("[INFO] BUILD FAILURE\n");
+        } else {
+            buildLog.append("[INFO] Tests run: ").append(i % 1000).append(", Failures: 0, Errors: 0, Skipped: 0\n")
+                    .append("[INFO] BUILD SUCCESS\n");
+        }
+        return buildLog.toString();
+    }
+}
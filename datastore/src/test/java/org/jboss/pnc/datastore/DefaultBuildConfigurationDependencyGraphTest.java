@@ -0,0 +1,177 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore;
+
+import org.jboss.pnc.spi.datastore.events.BuildConfigurationDependencyChangedEvent;
+import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationRepository;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DefaultBuildConfigurationDependencyGraphTest {
+
+    private BuildConfigurationRepository repository;
+
+    private DefaultBuildConfigurationDependencyGraph graph;
+
+    @Before
+    public void setUp() {
+        // 1 -> 2 -> 3, 1 -> 4
+        Map<Integer, Set<Integer>> dependencyIds = new HashMap<>();
+        dependencyIds.put(1, new HashSet<>(Arrays.asList(2, 4)));
+        dependencyIds.put(2, Collections.singleton(3));
+        repository = mock(BuildConfigurationRepository.class);
+        when(repository.getDependencyIds()).thenReturn(dependencyIds);
+        graph = new DefaultBuildConfigurationDependencyGraph(repository);
+    }
+
+    @Test
+    public void shouldFindIndirectDependencies() {
+        assertThat(graph.dependsOn(1, 3)).isTrue();
+        assertThat(graph.dependsOn(3, 1)).isFalse();
+        assertThat(graph.dependsOn(4, 2)).isFalse();
+        assertThat(graph.dependsOnAny(2, Arrays.asList(4, 3))).isTrue();
+        assertThat(graph.getAllDependencyIds(1)).containsOnly(2, 3, 4);
+        assertThat(graph.getAllDependencyIds(5)).isEmpty();
+        verify(repository, times(1)).getDependencyIds();
+    }
+
+    @Test
+    public void shouldDetectCycles() {
+        assertThat(graph.wouldCreateCycle(3, 1)).isTrue();
+        assertThat(graph.wouldCreateCycle(2, 2)).isTrue();
+        assertThat(graph.wouldCreateCycle(4, 3)).isFalse();
+    }
+
+    @Test
+    public void shouldUpdateCachedDependenciesOnChange() {
+        assertThat(graph.getAllDependencyIds(1)).containsOnly(2, 3, 4);
+
+        graph.dependencyAdded(3, 5);
+        assertThat(graph.dependsOn(1, 5)).isTrue();
+        assertThat(graph.wouldCreateCycle(5, 1)).isTrue();
+
+        graph.dependencyRemoved(2, 3);
+        assertThat(graph.getAllDependencyIds(1)).containsOnly(2, 4);
+        assertThat(graph.dependsOn(3, 5)).isTrue();
+        verify(repository, times(1)).getDependencyIds();
+    }
+
+    @Test
+    public void shouldReloadAfterInvalidation() {
+        graph.dependsOn(1, 2);
+        graph.invalidate();
+        graph.dependsOn(1, 2);
+        verify(repository, times(2)).getDependencyIds();
+    }
+
+    @Test
+    public void shouldApplyCommittedDependencyChanges() {
+        assertThat(graph.dependsOn(4, 3)).isFalse();
+
+        graph.onDependencyChanged(counted(BuildConfigurationDependencyChangedEvent.added(4, 3), 1L));
+        when(repository.getDependencyGeneration()).thenReturn(1L);
+        assertThat(graph.dependsOn(4, 3)).isTrue();
+
+        graph.onDependencyChanged(counted(BuildConfigurationDependencyChangedEvent.removed(4, 3), 2L));
+        when(repository.getDependencyGeneration()).thenReturn(2L);
+        assertThat(graph.dependsOn(4, 3)).isFalse();
+
+        graph.onDependencyChanged(counted(BuildConfigurationDependencyChangedEvent.unknown(), 3L));
+        graph.dependsOn(4, 3);
+        verify(repository, times(2)).getDependencyIds();
+    }
+
+    @Test
+    public void shouldReloadWhenDependenciesChangedOnAnotherNode() {
+        //given
+        assertThat(graph.dependsOn(4, 3)).isFalse();
+        Map<Integer, Set<Integer>> changedDependencyIds = new HashMap<>(repository.getDependencyIds());
+        changedDependencyIds.put(4, Collections.singleton(3));
+        when(repository.getDependencyIds()).thenReturn(changedDependencyIds);
+        when(repository.getDependencyGeneration()).thenReturn(1L);
+
+        //when
+        boolean dependsOn = graph.dependsOn(4, 3);
+
+        //then
+        assertThat(dependsOn).isTrue();
+    }
+
+    @Test
+    public void shouldReloadWhenChangeOfAnotherNodeIsMissed() {
+        //given
+        graph.dependsOn(1, 2);
+
+        //when
+        graph.onDependencyChanged(counted(BuildConfigurationDependencyChangedEvent.added(4, 3), 2L));
+        when(repository.getDependencyGeneration()).thenReturn(2L);
+        graph.dependsOn(4, 3);
+
+        //then
+        verify(repository, times(2)).getDependencyIds();
+    }
+
+    @Test
+    public void shouldValidateCyclesUnderTheDatabaseLock() {
+        //given
+        assertThat(graph.wouldCreateCycle(4, 2)).isFalse();
+        Map<Integer, Set<Integer>> changedDependencyIds = new HashMap<>(repository.getDependencyIds());
+        changedDependencyIds.put(3, Collections.singleton(4));
+        when(repository.getDependencyIds()).thenReturn(changedDependencyIds);
+        when(repository.lockDependencyGeneration()).thenReturn(1L);
+
+        //when
+        boolean wouldCreateCycle = graph.wouldCreateCycle(4, 2);
+
+        //then
+        assertThat(wouldCreateCycle).isTrue();
+        verify(repository, times(2)).lockDependencyGeneration();
+    }
+
+    @Test
+    public void shouldCountChangeInTheChangingTransaction() {
+        //given
+        when(repository.incrementDependencyGeneration()).thenReturn(7L);
+        BuildConfigurationDependencyChangedEvent event = BuildConfigurationDependencyChangedEvent.added(4, 3);
+
+        //when
+        graph.onDependencyChanging(event);
+
+        //then
+        assertThat(event.getGeneration()).isEqualTo(7L);
+    }
+
+    private static BuildConfigurationDependencyChangedEvent counted(BuildConfigurationDependencyChangedEvent event,
+            long generation) {
+        event.setGeneration(generation);
+        return event;
+    }
+}
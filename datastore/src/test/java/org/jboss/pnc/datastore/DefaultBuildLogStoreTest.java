@@ -0,0 +1,266 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore;
+
+import org.jboss.pnc.model.BuildLogChunk;
+import org.jboss.pnc.spi.datastore.BuildLogMatch;
+import org.jboss.pnc.spi.datastore.repositories.BuildLogChunkRepository;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DefaultBuildLogStoreTest {
+
+    private static final Integer BUILD_RECORD_ID = 1;
+
+    private static final Integer OTHER_BUILD_RECORD_ID = 2;
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final List<BuildLogChunk> chunks = new ArrayList<>();
+
+    private BuildLogChunkRepository repository;
+
+    private DefaultBuildLogStore buildLogStore;
+
+    @Before
+    public void setUp() {
+        repository = mock(BuildLogChunkRepository.class);
+        when(repository.save(any(BuildLogChunk.class))).then(invocation -> {
+            BuildLogChunk chunk = (BuildLogChunk) invocation.getArguments()[0];
+            chunk.setId(chunks.size());
+            chunks.add(chunk);
+            return chunk;
+        });
+        when(repository.queryById(anyInt())).then(invocation -> chunks.get((Integer) invocation.getArguments()[0]));
+        when(repository.getLogLength(any())).then(invocation -> chunks.stream()
+                .filter(chunk -> chunk.getBuildRecordId().equals(invocation.getArguments()[0]))
+                .mapToLong(chunk -> chunk.getStartOffset() + chunk.getLength())
+                .max()
+                .orElse(0));
+        when(repository.getChunkIds(any(), anyLong(), anyLong())).then(invocation -> {
+            long from = (Long) invocation.getArguments()[1];
+            long to = from + (Long) invocation.getArguments()[2];
+            return chunks.stream()
+                    .filter(chunk -> chunk.getBuildRecordId().equals(invocation.getArguments()[0]))
+                    .filter(chunk -> chunk.getStartOffset() < to && chunk.getStartOffset() + chunk.getLength() > from)
+                    .map(BuildLogChunk::getId)
+                    .collect(Collectors.toList());
+        });
+        when(repository.getTrigramFilters(any())).then(invocation -> chunks.stream()
+                .filter(chunk -> chunk.getBuildRecordId().equals(invocation.getArguments()[0]))
+                .map(BuildLogChunk::getTrigramFilter)
+                .collect(Collectors.toList()));
+        buildLogStore = new DefaultBuildLogStore(repository);
+    }
+
+    @Test
+    public void shouldSplitLongLogIntoCompressedChunks() throws Exception {
+        //given
+        String log = repeat("[INFO] Building module\n", DefaultBuildLogStore.CHUNK_SIZE / 10);
+
+        //when
+        buildLogStore.append(BUILD_RECORD_ID, log);
+
+        //then
+        assertThat(chunks).hasSize(3);
+        assertThat(chunks.get(0).getLength()).isEqualTo(DefaultBuildLogStore.CHUNK_SIZE);
+        assertThat(chunks.get(0).getContent().length).isLessThan(DefaultBuildLogStore.CHUNK_SIZE / 10);
+        assertThat(buildLogStore.getLength(BUILD_RECORD_ID)).isEqualTo(log.length());
+        assertThat(read(0, Long.MAX_VALUE)).isEqualTo(log);
+    }
+
+    @Test
+    public void shouldReadRangeSpanningChunks() throws Exception {
+        //given
+        String log = repeat("0123456789", DefaultBuildLogStore.CHUNK_SIZE / 5);
+        buildLogStore.append(BUILD_RECORD_ID, log);
+        long offset = DefaultBuildLogStore.CHUNK_SIZE - 5;
+
+        //when
+        String range = read(offset, 20);
+
+        //then
+        assertThat(range).isEqualTo(log.substring((int) offset, (int) offset + 20));
+    }
+
+    @Test
+    public void shouldContinueLogAfterFlush() throws Exception {
+        //given
+        OutputStream appendStream = buildLogStore.openAppendStream(BUILD_RECORD_ID);
+        appendStream.write("first line\n".getBytes(StandardCharsets.UTF_8));
+        appendStream.flush();
+
+        //when
+        appendStream.write("second line\n".getBytes(StandardCharsets.UTF_8));
+        appendStream.close();
+        buildLogStore.append(BUILD_RECORD_ID, "third line\n");
+
+        //then
+        assertThat(chunks).hasSize(3);
+        assertThat(read(0, Long.MAX_VALUE)).isEqualTo("first line\nsecond line\nthird line\n");
+        assertThat(read(buildLogStore.getLength(BUILD_RECORD_ID) - 5, 5)).isEqualTo("line\n");
+    }
+
+    @Test
+    public void shouldFindLinesContainingTextIgnoringCase() throws Exception {
+        //given
+        buildLogStore.append(BUILD_RECORD_ID, "[INFO] Compiling\n[ERROR] Compilation failure\n[INFO] BUILD FAILURE\n");
+        buildLogStore.append(OTHER_BUILD_RECORD_ID, "[INFO] Compiling\n[INFO] BUILD SUCCESS\n");
+
+        //when
+        Map<Integer, List<BuildLogMatch>> matches = buildLogStore.search(
+                Arrays.asList(BUILD_RECORD_ID, OTHER_BUILD_RECORD_ID), "failure", null, 10, NO_DEADLINE);
+
+        //then
+        assertThat(matches).containsOnlyKeys(BUILD_RECORD_ID);
+        assertThat(matches.get(BUILD_RECORD_ID)).containsExactly(new BuildLogMatch(2, 17), new BuildLogMatch(3, 45));
+        assertThat(read(17, 27)).isEqualTo("[ERROR] Compilation failure");
+    }
+
+    @Test
+    public void shouldNotReadLogsWithoutTheTrigramsOfText() throws Exception {
+        //given
+        buildLogStore.append(BUILD_RECORD_ID, repeat("[INFO] Downloading artifact\n", 1000));
+
+        //when
+        Map<Integer, List<BuildLogMatch>> matches = buildLogStore.search(Arrays.asList(BUILD_RECORD_ID),
+                "OutOfMemoryError", null, 10, NO_DEADLINE);
+
+        //then
+        assertThat(matches).isEmpty();
+        verify(repository, never()).queryById(anyInt());
+    }
+
+    @Test
+    public void shouldSkipLogsMissingAnyTrigramOfText() throws Exception {
+        //given
+        buildLogStore.append(BUILD_RECORD_ID, "[INFO] Out of disk space\n");
+        buildLogStore.append(OTHER_BUILD_RECORD_ID, "[ERROR] OutOfMemoryError\n");
+
+        //when
+        Map<Integer, List<BuildLogMatch>> matches = buildLogStore.search(
+                Arrays.asList(BUILD_RECORD_ID, OTHER_BUILD_RECORD_ID), "OutOfMemory", null, 10, NO_DEADLINE);
+
+        //then
+        assertThat(matches).containsOnlyKeys(OTHER_BUILD_RECORD_ID);
+        verify(repository).getTrigramFilters(BUILD_RECORD_ID);
+        verify(repository).getTrigramFilters(OTHER_BUILD_RECORD_ID);
+        verify(repository, never()).queryById(chunks.get(0).getId());
+    }
+
+    @Test
+    public void shouldFindTextSpanningChunks() throws Exception {
+        //given
+        int lines = DefaultBuildLogStore.CHUNK_SIZE / 16;
+        String log = repeat("0123456789abcde\n", lines - 1) + "0123456789abcOutOfMemoryError\n";
+        buildLogStore.append(BUILD_RECORD_ID, log);
+
+        //when
+        Map<Integer, List<BuildLogMatch>> matches = buildLogStore.search(Arrays.asList(BUILD_RECORD_ID),
+                "outofmemoryerror", null, 10, NO_DEADLINE);
+
+        //then
+        assertThat(chunks).hasSize(2);
+        assertThat(matches.get(BUILD_RECORD_ID))
+                .containsExactly(new BuildLogMatch(lines, DefaultBuildLogStore.CHUNK_SIZE - 16));
+    }
+
+    @Test
+    public void shouldIndexTrigramsSpanningAppends() throws Exception {
+        //given
+        buildLogStore.append(BUILD_RECORD_ID, "[ERROR] Out");
+        buildLogStore.append(BUILD_RECORD_ID, "OfMemoryError\n");
+
+        //when
+        Map<Integer, List<BuildLogMatch>> matches = buildLogStore.search(Arrays.asList(BUILD_RECORD_ID),
+                "OutOfMemory", null, 10, NO_DEADLINE);
+
+        //then
+        assertThat(matches.get(BUILD_RECORD_ID)).containsExactly(new BuildLogMatch(1, 0));
+    }
+
+    @Test
+    public void shouldFilterLinesByPatternAndLimitMatches() throws Exception {
+        //given
+        buildLogStore.append(BUILD_RECORD_ID, "Downloaded a.jar\nDownloaded b.pom\nDownloaded c.jar\nDownloaded d.jar");
+
+        //when
+        Map<Integer, List<BuildLogMatch>> matches = buildLogStore.search(Arrays.asList(BUILD_RECORD_ID),
+                "downloaded", Pattern.compile("\\.jar$"), 2, NO_DEADLINE);
+
+        //then
+        assertThat(matches.get(BUILD_RECORD_ID)).containsExactly(new BuildLogMatch(1, 0), new BuildLogMatch(3, 34));
+    }
+
+    @Test
+    public void shouldMatchLastLineWithoutNewLine() throws Exception {
+        //given
+        buildLogStore.append(BUILD_RECORD_ID, "first\nlast");
+
+        //when
+        Map<Integer, List<BuildLogMatch>> matches = buildLogStore.search(Arrays.asList(BUILD_RECORD_ID), null,
+                Pattern.compile("^l"), 10, NO_DEADLINE);
+
+        //then
+        assertThat(matches.get(BUILD_RECORD_ID)).containsExactly(new BuildLogMatch(2, 6));
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void shouldAbandonBacktrackingRegexAtDeadline() throws Exception {
+        //given
+        buildLogStore.append(BUILD_RECORD_ID, repeat("a", 40) + "!\n");
+        Pattern backtracking = Pattern.compile("(\\w|a)+(a+)+\\2b");
+
+        //when
+        buildLogStore.search(Arrays.asList(BUILD_RECORD_ID), null, backtracking, 10, System.currentTimeMillis() + 100);
+    }
+
+    private String read(long offset, long length) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        buildLogStore.read(BUILD_RECORD_ID, offset, length, outputStream);
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static String repeat(String text, int times) {
+        StringBuilder builder = new StringBuilder(text.length() * times);
+        for (int i = 0; i < times; i++) {
+            builder.append(text);
+        }
+        return builder.toString();
+    }
+}
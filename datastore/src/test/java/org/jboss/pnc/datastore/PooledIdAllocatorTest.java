@@ -0,0 +1,78 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore;
+
+import org.jboss.pnc.spi.datastore.repositories.SequenceHandlerRepository;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PooledIdAllocatorTest {
+
+    private static final String SEQUENCE = "test_seq";
+
+    private SequenceHandlerRepository repository;
+
+    private PooledIdAllocator allocator;
+
+    @Before
+    public void setUp() {
+        repository = mock(SequenceHandlerRepository.class);
+        allocator = new PooledIdAllocator(repository);
+    }
+
+    @Test
+    public void shouldHitDatabaseOncePerBlock() {
+        when(repository.getNextIDs(SEQUENCE, 1)).thenReturn(Collections.singletonList(700L));
+
+        assertThat(allocator.nextId(SEQUENCE)).isEqualTo(601);
+        for (int i = 1; i < PooledIdAllocator.BLOCK_SIZE; i++) {
+            assertThat(allocator.nextId(SEQUENCE)).isEqualTo(601 + i);
+        }
+
+        verify(repository, times(1)).getNextIDs(SEQUENCE, 1);
+    }
+
+    @Test
+    public void shouldReserveAllMissingBlocksInOneCall() {
+        when(repository.getNextIDs(SEQUENCE, 1)).thenReturn(Collections.singletonList(100L));
+        when(repository.getNextIDs(SEQUENCE, 2)).thenReturn(Arrays.asList(500L, 600L));
+
+        assertThat(allocator.nextIds(SEQUENCE, 90)).startsWith(1).endsWith(90);
+        List<Integer> ids = allocator.nextIds(SEQUENCE, 150);
+
+        assertThat(ids).hasSize(150);
+        assertThat(ids.get(0)).isEqualTo(91);
+        assertThat(ids.get(9)).isEqualTo(100);
+        assertThat(ids.get(10)).isEqualTo(401);
+        assertThat(ids.get(149)).isEqualTo(540);
+        verify(repository, times(1)).getNextIDs(SEQUENCE, 2);
+
+        when(repository.getNextIDs(SEQUENCE, 1)).thenReturn(Collections.singletonList(800L));
+        assertThat(allocator.nextIds(SEQUENCE, 61)).startsWith(541).endsWith(701);
+    }
+}
@@ -0,0 +1,255 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.arquillian.junit.InSequence;
+import org.jboss.arquillian.transaction.api.annotation.Transactional;
+import org.jboss.pnc.model.Artifact;
+import org.jboss.pnc.model.ArtifactRepo;
+import org.jboss.pnc.model.BuildConfiguration;
+import org.jboss.pnc.model.BuildConfigurationAudited;
+import org.jboss.pnc.model.BuildEnvironment;
+import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.BuildStatus;
+import org.jboss.pnc.model.License;
+import org.jboss.pnc.model.Project;
+import org.jboss.pnc.model.SystemImageType;
+import org.jboss.pnc.model.User;
+import org.jboss.pnc.spi.datastore.Datastore;
+import org.jboss.pnc.spi.datastore.repositories.ArtifactRepository;
+import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationAuditedRepository;
+import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationRepository;
+import org.jboss.pnc.spi.datastore.repositories.BuildEnvironmentRepository;
+import org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository;
+import org.jboss.pnc.spi.datastore.repositories.LicenseRepository;
+import org.jboss.pnc.spi.datastore.repositories.ProjectRepository;
+import org.jboss.pnc.spi.datastore.repositories.UserRepository;
+import org.jboss.pnc.test.category.DebugTest;
+import org.jboss.shrinkwrap.api.Archive;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jboss.pnc.spi.datastore.predicates.BuildConfigurationPredicates.withName;
+import static org.jboss.pnc.spi.datastore.predicates.UserPredicates.withUserName;
+
+/**
+ * Compares the per-configuration rebuild check with the set-based one on a chain of configurations with a few
+ * thousand build records each. The per-configuration check runs only once as the persistence context keeps the
+ * loaded records for any following round.
+ * Run with -Pdebug-tests -Dtest=RequiresRebuildBenchmarkTest
+ */
+@RunWith(Arquillian.class)
+@Category(DebugTest.class)
+public class RequiresRebuildBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(RequiresRebuildBenchmarkTest.class);
+
+    private static final String NAME_PREFIX = "requires-rebuild-benchmark-";
+
+    private static final int CONFIGURATIONS = 10;
+
+    private static final int RECORDS_PER_CONFIGURATION = 3000;
+
+    private static final int ROUNDS = 5;
+
+    @Inject
+    ArtifactRepository artifactRepository;
+
+    @Inject
+    BuildConfigurationRepository buildConfigurationRepository;
+
+    @Inject
+    BuildConfigurationAuditedRepository buildConfigurationAuditedRepository;
+
+    @Inject
+    BuildEnvironmentRepository buildEnvironmentRepository;
+
+    @Inject
+    BuildRecordRepository buildRecordRepository;
+
+    @Inject
+    LicenseRepository licenseRepository;
+
+    @Inject
+    ProjectRepository projectRepository;
+
+    @Inject
+    UserRepository userRepository;
+
+    @Inject
+    Datastore datastore;
+
+    @Deployment
+    public static Archive<?> getDeployment() {
+        return DeploymentFactory.createDatastoreDeployment();
+    }
+
+    /**
+     * Each configuration depends on the previous one.
+     */
+    @Test
+    @InSequence(1)
+    @Transactional
+    public void initBuildConfigurations() {
+        License license = licenseRepository.save(
+                License.Builder.newBuilder().fullName(NAME_PREFIX + "license").fullContent("benchmark license").build());
+        Project project = projectRepository.save(
+                Project.Builder.newBuilder().name(NAME_PREFIX + "project").description("Benchmark").license(license).build());
+        BuildEnvironment buildEnvironment = buildEnvironmentRepository.save(BuildEnvironment.Builder.newBuilder()
+                .name(NAME_PREFIX + "environment").systemImageId("12345").systemImageType(SystemImageType.DOCKER_IMAGE).build());
+        userRepository.save(User.Builder.newBuilder().username(NAME_PREFIX + "user").email("benchmark@redhat.com").build());
+
+        BuildConfiguration previous = null;
+        for (int i = 0; i < CONFIGURATIONS; i++) {
+            BuildConfiguration configuration = BuildConfiguration.Builder.newBuilder()
+                    .name(NAME_PREFIX + i)
+                    .buildScript("mvn deploy")
+                    .project(project)
+                    .buildEnvironment(buildEnvironment)
+                    .build();
+            if (previous != null) {
+                configuration.addDependency(previous);
+            }
+            previous = buildConfigurationRepository.save(configuration);
+        }
+    }
+
+    /**
+     * The latest build of each configuration depends on the artifact of the latest build of the previous one. The
+     * first configuration is built once more afterwards so that its dependant has a rebuilt dependency.
+     */
+    @Test
+    @InSequence(2)
+    @Transactional
+    public void initBuildRecords() {
+        User user = userRepository.queryByPredicates(withUserName(NAME_PREFIX + "user"));
+        Artifact previousArtifact = null;
+        for (int i = 0; i < CONFIGURATIONS; i++) {
+            BuildConfiguration configuration = buildConfigurationRepository.queryByPredicates(withName(NAME_PREFIX + i));
+            BuildConfigurationAudited configurationAudited =
+                    buildConfigurationAuditedRepository.findAllByIdOrderByRevDesc(configuration.getId()).get(0);
+            for (int j = 0; j < RECORDS_PER_CONFIGURATION - 1; j++) {
+                buildRecordRepository.save(buildRecord(configuration, configurationAudited, user).build());
+            }
+            Artifact artifact = artifactRepository.save(artifact(i));
+            BuildRecord.Builder latestRecord = buildRecord(configuration, configurationAudited, user).builtArtifact(artifact);
+            if (previousArtifact != null) {
+                latestRecord.dependency(previousArtifact);
+            }
+            buildRecordRepository.save(latestRecord.build());
+            previousArtifact = artifact;
+        }
+
+        BuildConfiguration first = buildConfigurationRepository.queryByPredicates(withName(NAME_PREFIX + 0));
+        buildRecordRepository.save(buildRecord(
+                first,
+                buildConfigurationAuditedRepository.findAllByIdOrderByRevDesc(first.getId()).get(0),
+                user).build());
+    }
+
+    @Test
+    @InSequence(3)
+    @Transactional
+    public void compareRebuildChecks() {
+        List<BuildConfiguration> configurations = new ArrayList<>();
+        for (int i = 0; i < CONFIGURATIONS; i++) {
+            configurations.add(buildConfigurationRepository.queryByPredicates(withName(NAME_PREFIX + i)));
+        }
+        Set<Integer> ids = configurations.stream().map(BuildConfiguration::getId).collect(Collectors.toSet());
+
+        long start = System.nanoTime();
+        Set<Integer> perConfiguration = new HashSet<>();
+        for (BuildConfiguration configuration : configurations) {
+            if (requiresRebuildPerConfiguration(configuration)) {
+                perConfiguration.add(configuration.getId());
+            }
+        }
+        long perConfigurationNanos = System.nanoTime() - start;
+
+        Set<Integer> setBased = null;
+        long setBasedNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            start = System.nanoTime();
+            setBased = datastore.getIdsRequiringRebuild(ids);
+            setBasedNanos += System.nanoTime() - start;
+        }
+
+        log.info("{} configurations with {} build records each: per configuration {} ms, set based {} ms",
+                CONFIGURATIONS, RECORDS_PER_CONFIGURATION, perConfigurationNanos / 1_000_000, setBasedNanos / ROUNDS / 1_000_000);
+
+        assertThat(setBased).isEqualTo(perConfiguration).containsOnly(configurations.get(1).getId());
+    }
+
+    /**
+     * The check as done by {@link DefaultDatastore#requiresRebuild} before the set-based queries.
+     */
+    private boolean requiresRebuildPerConfiguration(BuildConfiguration configuration) {
+        BuildConfiguration refreshedConfig = buildConfigurationRepository.queryById(configuration.getId());
+        BuildRecord record = refreshedConfig.getLatestSuccesfulBuildRecord();
+        if (record == null) {
+            return true;
+        }
+        BuildConfigurationAudited latestConfigurationAudited =
+                buildConfigurationAuditedRepository.findAllByIdOrderByRevDesc(configuration.getId()).get(0);
+        if (!record.getBuildConfigurationAudited().equals(latestConfigurationAudited)) {
+            return true;
+        }
+        return record.getDependencies().stream()
+                .flatMap(artifact -> artifact.getBuildRecords().stream())
+                .anyMatch(r -> !r.getId().equals(r.getLatestBuildConfiguration().getLatestSuccesfulBuildRecord().getId()));
+    }
+
+    private BuildRecord.Builder buildRecord(BuildConfiguration configuration, BuildConfigurationAudited configurationAudited, User user) {
+        Date now = Date.from(Instant.now());
+        return BuildRecord.Builder.newBuilder()
+                .id(datastore.getNextBuildRecordId())
+                .latestBuildConfiguration(configuration)
+                .buildConfigurationAudited(configurationAudited)
+                .status(BuildStatus.SUCCESS)
+                .submitTime(now)
+                .startTime(now)
+                .endTime(now)
+                .user(user);
+    }
+
+    private Artifact artifact(int i) {
+        return Artifact.Builder.newBuilder()
+                .identifier("org.jboss.test:" + NAME_PREFIX + i)
+                .md5("md-fake-" + NAME_PREFIX + i)
+                .sha1("sha1-fake-" + NAME_PREFIX + i)
+                .sha256("sha256-fake-" + NAME_PREFIX + i)
+                .size(100L)
+                .repoType(ArtifactRepo.Type.MAVEN)
+                .build();
+    }
+}
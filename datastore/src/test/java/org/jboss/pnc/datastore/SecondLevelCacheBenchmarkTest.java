@@ -0,0 +1,227 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.stat.Statistics;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.arquillian.junit.InSequence;
+import org.jboss.arquillian.transaction.api.annotation.Transactional;
+import org.jboss.pnc.model.BuildConfiguration;
+import org.jboss.pnc.model.BuildEnvironment;
+import org.jboss.pnc.model.License;
+import org.jboss.pnc.model.Product;
+import org.jboss.pnc.model.ProductVersion;
+import org.jboss.pnc.model.Project;
+import org.jboss.pnc.model.SystemImageType;
+import org.jboss.pnc.model.User;
+import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationRepository;
+import org.jboss.pnc.spi.datastore.repositories.BuildEnvironmentRepository;
+import org.jboss.pnc.spi.datastore.repositories.LicenseRepository;
+import org.jboss.pnc.spi.datastore.repositories.ProductRepository;
+import org.jboss.pnc.spi.datastore.repositories.ProductVersionRepository;
+import org.jboss.pnc.spi.datastore.repositories.ProjectRepository;
+import org.jboss.pnc.spi.datastore.repositories.UserRepository;
+import org.jboss.pnc.spi.datastore.repositories.api.impl.DefaultPageInfo;
+import org.jboss.pnc.spi.datastore.repositories.api.impl.DefaultSortInfo;
+import org.jboss.pnc.test.category.DebugTest;
+import org.jboss.shrinkwrap.api.Archive;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jboss.pnc.spi.datastore.predicates.BuildConfigurationPredicates.withName;
+
+/**
+ * Compares the lookups of a build trigger and of the project and build configuration listings with the second-level
+ * cache bypassed and in use. The persistence context is cleared before each lookup, as it is for each request.
+ * Run with -Pdebug-tests -Dtest=SecondLevelCacheBenchmarkTest
+ */
+@RunWith(Arquillian.class)
+@Category(DebugTest.class)
+public class SecondLevelCacheBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SecondLevelCacheBenchmarkTest.class);
+
+    private static final String NAME_PREFIX = "second-level-cache-benchmark-";
+
+    private static final int PROJECTS = 50;
+
+    private static final int CONFIGURATIONS_PER_PROJECT = 4;
+
+    private static final int ROUNDS = 20;
+
+    @Inject
+    BuildConfigurationRepository buildConfigurationRepository;
+
+    @Inject
+    BuildEnvironmentRepository buildEnvironmentRepository;
+
+    @Inject
+    LicenseRepository licenseRepository;
+
+    @Inject
+    ProductRepository productRepository;
+
+    @Inject
+    ProductVersionRepository productVersionRepository;
+
+    @Inject
+    ProjectRepository projectRepository;
+
+    @Inject
+    UserRepository userRepository;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Deployment
+    public static Archive<?> getDeployment() {
+        return DeploymentFactory.createDatastoreDeployment();
+    }
+
+    @Test
+    @InSequence(1)
+    @Transactional
+    public void initReferenceData() {
+        License license = licenseRepository.save(
+                License.Builder.newBuilder().fullName(NAME_PREFIX + "license").fullContent("benchmark license").build());
+        BuildEnvironment buildEnvironment = buildEnvironmentRepository.save(BuildEnvironment.Builder.newBuilder()
+                .name(NAME_PREFIX + "environment")
+                .systemImageId("12345")
+                .systemImageType(SystemImageType.DOCKER_IMAGE)
+                .attributes(Collections.singletonMap("JDK", "1.8"))
+                .build());
+        Product product = productRepository.save(
+                Product.Builder.newBuilder().name(NAME_PREFIX + "product").abbreviation("SLCB").build());
+        ProductVersion productVersion = productVersionRepository.save(
+                ProductVersion.Builder.newBuilder().version("1.0").product(product).build());
+        userRepository.save(User.Builder.newBuilder().username(NAME_PREFIX + "user").email("benchmark@redhat.com").build());
+
+        for (int i = 0; i < PROJECTS; i++) {
+            Project project = projectRepository.save(Project.Builder.newBuilder()
+                    .name(NAME_PREFIX + "project-" + i)
+                    .description("Benchmark")
+                    .license(license)
+                    .build());
+            for (int j = 0; j < CONFIGURATIONS_PER_PROJECT; j++) {
+                buildConfigurationRepository.save(BuildConfiguration.Builder.newBuilder()
+                        .name(NAME_PREFIX + i + "-" + j)
+                        .buildScript("mvn deploy")
+                        .project(project)
+                        .buildEnvironment(buildEnvironment)
+                        .productVersion(productVersion)
+                        .build());
+            }
+        }
+    }
+
+    @Test
+    @InSequence(2)
+    @Transactional
+    public void compareWithAndWithoutCache() {
+        Integer configurationId = buildConfigurationRepository.queryByPredicates(withName(NAME_PREFIX + "0-0")).getId();
+
+        Session session = entityManager.unwrap(Session.class);
+        Statistics statistics = session.getSessionFactory().getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            long[] bypassed = measure(session, statistics, CacheMode.IGNORE, configurationId);
+            long[] cached = measure(session, statistics, CacheMode.NORMAL, configurationId);
+
+            log.info("Trigger lookups: {} statements, {} us without cache; {} statements, {} us with cache",
+                    bypassed[0], bypassed[1] / 1000, cached[0], cached[1] / 1000);
+            log.info("Listing of {} projects and {} configurations: {} statements, {} us without cache; "
+                            + "{} statements, {} us with cache", PROJECTS, PROJECTS * CONFIGURATIONS_PER_PROJECT,
+                    bypassed[2], bypassed[3] / 1000, cached[2], cached[3] / 1000);
+
+            assertThat(cached[0]).isLessThan(bypassed[0]);
+            assertThat(cached[2]).isLessThan(bypassed[2]);
+        } finally {
+            session.setCacheMode(CacheMode.NORMAL);
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    /**
+     * @return statements and nanoseconds per round of the trigger lookups followed by the ones of the listings
+     */
+    private long[] measure(Session session, Statistics statistics, CacheMode cacheMode, Integer configurationId) {
+        session.setCacheMode(cacheMode);
+        // the first round fills the cache
+        trigger(configurationId);
+        list();
+
+        long triggerStatements = 0;
+        long triggerNanos = 0;
+        long listStatements = 0;
+        long listNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            statistics.clear();
+            long start = System.nanoTime();
+            trigger(configurationId);
+            triggerNanos += System.nanoTime() - start;
+            triggerStatements += statistics.getPrepareStatementCount();
+
+            statistics.clear();
+            start = System.nanoTime();
+            list();
+            listNanos += System.nanoTime() - start;
+            listStatements += statistics.getPrepareStatementCount();
+        }
+        return new long[] { triggerStatements / ROUNDS, triggerNanos / ROUNDS, listStatements / ROUNDS,
+                listNanos / ROUNDS };
+    }
+
+    /**
+     * The reference data a build trigger reads besides the build configuration itself.
+     */
+    private void trigger(Integer configurationId) {
+        entityManager.clear();
+        assertThat(userRepository.queryByUsername(NAME_PREFIX + "user")).isNotNull();
+        BuildConfiguration configuration = buildConfigurationRepository.queryById(configurationId);
+        assertThat(configuration.getProject().getLicense().getFullName()).isNotNull();
+        assertThat(configuration.getBuildEnvironment().getAttributes()).isNotEmpty();
+        assertThat(configuration.getProductVersion().getProduct().getName()).isNotNull();
+    }
+
+    private void list() {
+        entityManager.clear();
+        List<Project> projects = projectRepository.queryWithPredicates(new DefaultPageInfo(0, PROJECTS),
+                new DefaultSortInfo());
+        projects.forEach(project -> assertThat(project.getLicense().getFullName()).isNotNull());
+
+        entityManager.clear();
+        List<BuildConfiguration> configurations = buildConfigurationRepository.queryWithPredicates(
+                new DefaultPageInfo(0, PROJECTS * CONFIGURATIONS_PER_PROJECT), new DefaultSortInfo());
+        configurations.forEach(configuration -> {
+            assertThat(configuration.getProject().getName()).isNotNull();
+            assertThat(configuration.getBuildEnvironment().getName()).isNotNull();
+        });
+    }
+}
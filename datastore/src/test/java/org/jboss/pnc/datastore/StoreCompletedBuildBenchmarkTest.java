@@ -0,0 +1,190 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.arquillian.junit.InSequence;
+import org.jboss.arquillian.transaction.api.annotation.Transactional;
+import org.jboss.pnc.model.Artifact;
+import org.jboss.pnc.model.ArtifactRepo;
+import org.jboss.pnc.model.BuildConfiguration;
+import org.jboss.pnc.model.BuildConfigurationAudited;
+import org.jboss.pnc.model.BuildEnvironment;
+import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.BuildStatus;
+import org.jboss.pnc.model.License;
+import org.jboss.pnc.model.Project;
+import org.jboss.pnc.model.SystemImageType;
+import org.jboss.pnc.model.User;
+import org.jboss.pnc.spi.datastore.Datastore;
+import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationAuditedRepository;
+import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationRepository;
+import org.jboss.pnc.spi.datastore.repositories.BuildEnvironmentRepository;
+import org.jboss.pnc.spi.datastore.repositories.LicenseRepository;
+import org.jboss.pnc.spi.datastore.repositories.ProjectRepository;
+import org.jboss.pnc.spi.datastore.repositories.UserRepository;
+import org.jboss.pnc.test.category.DebugTest;
+import org.jboss.shrinkwrap.api.Archive;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jboss.pnc.spi.datastore.predicates.BuildConfigurationPredicates.withName;
+import static org.jboss.pnc.spi.datastore.predicates.UserPredicates.withUserName;
+
+/**
+ * Measures storing a build result with 5000 downloaded dependencies, first when none of the artifacts is known yet
+ * and then when all of them are already stored.
+ * Run with -Pdebug-tests -Dtest=StoreCompletedBuildBenchmarkTest
+ */
+@RunWith(Arquillian.class)
+@Category(DebugTest.class)
+public class StoreCompletedBuildBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(StoreCompletedBuildBenchmarkTest.class);
+
+    private static final String NAME_PREFIX = "store-completed-build-benchmark-";
+
+    private static final int DEPENDENCIES = 5000;
+
+    private static final int BUILT_ARTIFACTS = 20;
+
+    @Inject
+    BuildConfigurationRepository buildConfigurationRepository;
+
+    @Inject
+    BuildConfigurationAuditedRepository buildConfigurationAuditedRepository;
+
+    @Inject
+    BuildEnvironmentRepository buildEnvironmentRepository;
+
+    @Inject
+    LicenseRepository licenseRepository;
+
+    @Inject
+    ProjectRepository projectRepository;
+
+    @Inject
+    UserRepository userRepository;
+
+    @Inject
+    Datastore datastore;
+
+    @Deployment
+    public static Archive<?> getDeployment() {
+        return DeploymentFactory.createDatastoreDeployment();
+    }
+
+    @Test
+    @InSequence(1)
+    @Transactional
+    public void initBuildConfiguration() {
+        License license = licenseRepository.save(
+                License.Builder.newBuilder().fullName(NAME_PREFIX + "license").fullContent("benchmark license").build());
+        Project project = projectRepository.save(
+                Project.Builder.newBuilder().name(NAME_PREFIX + "project").description("Benchmark").license(license).build());
+        BuildEnvironment buildEnvironment = buildEnvironmentRepository.save(BuildEnvironment.Builder.newBuilder()
+                .name(NAME_PREFIX + "environment").systemImageId("12345").systemImageType(SystemImageType.DOCKER_IMAGE).build());
+        userRepository.save(User.Builder.newBuilder().username(NAME_PREFIX + "user").email("benchmark@redhat.com").build());
+        buildConfigurationRepository.save(BuildConfiguration.Builder.newBuilder()
+                .name(NAME_PREFIX + "config")
+                .buildScript("mvn deploy")
+                .project(project)
+                .buildEnvironment(buildEnvironment)
+                .build());
+    }
+
+    @Test
+    @InSequence(2)
+    public void storeBuildWithNewArtifacts() {
+        BuildRecord buildRecord = timedStore(0, "new");
+
+        assertThat(buildRecord.getDependencies()).hasSize(DEPENDENCIES);
+        assertThat(buildRecord.getBuiltArtifacts()).hasSize(BUILT_ARTIFACTS);
+    }
+
+    @Test
+    @InSequence(3)
+    public void storeBuildWithKnownArtifacts() {
+        BuildRecord buildRecord = timedStore(1, "known");
+
+        assertThat(buildRecord.getDependencies()).hasSize(DEPENDENCIES);
+    }
+
+    private BuildRecord timedStore(int round, String description) {
+        List<Artifact> dependencies = new ArrayList<>();
+        for (int i = 0; i < DEPENDENCIES; i++) {
+            dependencies.add(artifact("dependency-" + i, "http://test/dependency-" + i + ".jar"));
+        }
+        List<Artifact> builtArtifacts = new ArrayList<>();
+        for (int i = 0; i < BUILT_ARTIFACTS; i++) {
+            builtArtifacts.add(artifact("built-" + round + "-" + i, null));
+        }
+
+        long start = System.nanoTime();
+        assertThat(datastore.checkForConflictingArtifacts(dependencies)).isEmpty();
+        long conflictCheckNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        BuildRecord buildRecord = datastore.storeCompletedBuild(buildRecord()
+                .dependencies(dependencies)
+                .builtArtifacts(builtArtifacts));
+        long storeNanos = System.nanoTime() - start;
+
+        log.info("{} dependencies ({}): conflict check {} ms, store {} ms",
+                DEPENDENCIES, description, conflictCheckNanos / 1_000_000, storeNanos / 1_000_000);
+        return buildRecord;
+    }
+
+    private BuildRecord.Builder buildRecord() {
+        BuildConfiguration configuration = buildConfigurationRepository.queryByPredicates(withName(NAME_PREFIX + "config"));
+        BuildConfigurationAudited configurationAudited =
+                buildConfigurationAuditedRepository.findLatestById(configuration.getId());
+        Date now = new Date();
+        return BuildRecord.Builder.newBuilder()
+                .id(datastore.getNextBuildRecordId())
+                .latestBuildConfiguration(configuration)
+                .buildConfigurationAudited(configurationAudited)
+                .status(BuildStatus.SUCCESS)
+                .submitTime(now)
+                .startTime(now)
+                .endTime(now)
+                .user(userRepository.queryByPredicates(withUserName(NAME_PREFIX + "user")));
+    }
+
+    private Artifact artifact(String name, String originUrl) {
+        return Artifact.Builder.newBuilder()
+                .identifier("org.jboss.test:" + NAME_PREFIX + name)
+                .md5("md-fake-" + name)
+                .sha1("sha1-fake-" + name)
+                .sha256("sha256-fake-" + name)
+                .size(100L)
+                .originUrl(originUrl)
+                .repoType(ArtifactRepo.Type.MAVEN)
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.limits;
+
+import org.jboss.pnc.datastore.limits.SortInfoTest.SortTester;
+import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
+import org.jboss.pnc.test.category.DebugTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares sorting ten thousand objects with a comparator invoking the getters by reflection on every comparison, as
+ * the SortInfo comparator used to, with the precompiled one.
+ * Run with -Pdebug-tests -Dtest=SortComparatorBenchmarkTest
+ */
+@Category(DebugTest.class)
+public class SortComparatorBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SortComparatorBenchmarkTest.class);
+
+    private static final int INSTANCES = 10000;
+
+    private static final int WARM_UP_ROUNDS = 20;
+
+    private static final int ROUNDS = 50;
+
+    private final SortInfo sortInfo = new DefaultSortInfoProducer().getSortInfo("=desc=(field1,field2)");
+
+    @Test
+    public void compareComparators() throws Exception {
+        Random random = new Random(42);
+        List<SortTester> instances = new ArrayList<>();
+        for (int i = 0; i < INSTANCES; i++) {
+            instances.add(new SortTester("field-" + random.nextInt(100), "field-" + random.nextInt(INSTANCES)));
+        }
+        Comparator<SortTester> reflective = reflectiveComparator();
+
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            assertThat(sort(instances, sortInfo.getComparator(SortTester.class))).isEqualTo(sort(instances, reflective));
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            sort(instances, reflective);
+        }
+        long reflectiveNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            sort(instances, sortInfo.getComparator(SortTester.class));
+        }
+        long compiledNanos = System.nanoTime() - start;
+
+        log.info("Sorting {} instances took {}ms with the reflective comparator and {}ms with the precompiled one.",
+                INSTANCES, reflectiveNanos / ROUNDS / 1000000, compiledNanos / ROUNDS / 1000000);
+    }
+
+    private List<SortTester> sort(List<SortTester> instances, Comparator<SortTester> comparator) {
+        List<SortTester> sorted = new ArrayList<>(instances);
+        sorted.sort(comparator);
+        return sorted;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Comparator<SortTester> reflectiveComparator() {
+        return (x, y) -> {
+            try {
+                for (String field : sortInfo.getFields()) {
+                    Method getter = x.getClass().getDeclaredMethod(
+                            "get" + Character.toString(field.charAt(0)).toUpperCase() + field.substring(1));
+                    int result = ((Comparable<Object>) getter.invoke(y)).compareTo(getter.invoke(x));
+                    if (result != 0) {
+                        return result;
+                    }
+                }
+                return 0;
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException(e);
+            }
+        };
+    }
+}
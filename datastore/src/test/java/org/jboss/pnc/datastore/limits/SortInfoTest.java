@@ -21,6 +21,7 @@ import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -164,6 +165,45 @@ public class SortInfoTest {
         assertThat(sorted).containsExactly("b", "a");
     }
 
+    @Test
+    public void shouldSortNullsLastAscendingAndFirstDescending() throws Exception {
+        //given
+        List<SortTester> tester = new ArrayList<>();
+        tester.add(new SortTester(null, "a"));
+        tester.add(new SortTester("b", "b"));
+        tester.add(new SortTester("a", "c"));
+
+        //when
+        List<String> ascending = tester.stream()
+                .sorted(defaultSortInfoProducer.getSortInfo("=asc=(field1)").getComparator(SortTester.class))
+                .map(value -> value.getField2())
+                .collect(Collectors.toList());
+        List<String> descending = tester.stream()
+                .sorted(defaultSortInfoProducer.getSortInfo("=desc=(field1)").getComparator())
+                .map(value -> value.getField2())
+                .collect(Collectors.toList());
+
+        //then
+        assertThat(ascending).containsExactly("c", "b", "a");
+        assertThat(descending).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    public void shouldReuseComparatorOfTheSameClassAndSorting() throws Exception {
+        //when
+        Comparator<SortTester> first = defaultSortInfoProducer.getSortInfo("=asc=(field1,field2)").getComparator(SortTester.class);
+        Comparator<SortTester> second = defaultSortInfoProducer.getSortInfo("=asc=(field1,field2)").getComparator(SortTester.class);
+
+        //then
+        assertThat(first).isSameAs(second);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailOnFieldWithoutGetter() throws Exception {
+        //when
+        defaultSortInfoProducer.getSortInfo("=asc=(missing)").getComparator(SortTester.class);
+    }
+
     public static class SortTester {
         String field1;
         String field2;
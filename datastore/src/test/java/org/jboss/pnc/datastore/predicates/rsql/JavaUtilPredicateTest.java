@@ -188,6 +188,63 @@ public class JavaUtilPredicateTest {
         Assertions.assertThat(numberOfInstances).isEqualTo(1);
     }
 
+    @Test
+    public void shouldCompareValueWithArgument() throws Exception {
+        //given
+        List<TestClass> testedList = new ArrayList<>();
+        testedList.add(new TestClass("test1", 1));
+        testedList.add(new TestClass("test2", 2));
+        testedList.add(new TestClass("test3", 3));
+
+        //when
+        List<String> greater = filter(testedList, "id>2");
+        List<String> greaterOrEqual = filter(testedList, "id=ge=2");
+        List<String> less = filter(testedList, "id<2");
+        List<String> lessOrEqual = filter(testedList, "id=le=2");
+
+        //then
+        Assertions.assertThat(greater).containsExactly("test3");
+        Assertions.assertThat(greaterOrEqual).containsExactly("test2", "test3");
+        Assertions.assertThat(less).containsExactly("test1");
+        Assertions.assertThat(lessOrEqual).containsExactly("test1", "test2");
+    }
+
+    @Test
+    public void shouldNotSelectInstanceWithNullNestedProperty() throws Exception {
+        //given
+        List<TestClass> testedList = new ArrayList<>();
+        TestClass withParent = new TestClass("child", 2);
+        withParent.setParent(new TestClass("parent", 1));
+        testedList.add(withParent);
+        testedList.add(new TestClass("orphan", 3));
+
+        //when
+        List<String> selected = filter(testedList, "parent.field==parent");
+        List<String> notSelected = filter(testedList, "parent.field!=parent");
+
+        //then
+        Assertions.assertThat(selected).containsExactly("child");
+        Assertions.assertThat(notSelected).isEmpty();
+    }
+
+    @Test
+    public void shouldReuseCompiledPredicate() throws Exception {
+        //given
+        RSQLNodeTravellerPredicate rsqlNodeTravellerPredicate = new RSQLNodeTravellerPredicate(TestClass.class, "field=like=te%");
+
+        //when //then
+        Assertions.assertThat(rsqlNodeTravellerPredicate.getStreamPredicate())
+                .isSameAs(rsqlNodeTravellerPredicate.getStreamPredicate());
+    }
+
+    private List<String> filter(List<TestClass> testedList, String rsql) throws RSQLParserException {
+        RSQLNodeTravellerPredicate<TestClass> rsqlNodeTravellerPredicate = new RSQLNodeTravellerPredicate<>(TestClass.class, rsql);
+        return testedList.stream()
+                .filter(rsqlNodeTravellerPredicate.getStreamPredicate())
+                .map(TestClass::getField)
+                .collect(Collectors.toList());
+    }
+
     @Test(expected = RSQLParserException.class)
     public void shouldThrowExceptionOnIncorrectSyntax() throws Exception {
         //given
@@ -201,6 +258,7 @@ public class JavaUtilPredicateTest {
 
         private String field;
         private Integer id;
+        private TestClass parent;
 
         public TestClass(String field) {
             this.field = field;
@@ -228,6 +286,14 @@ public class JavaUtilPredicateTest {
         public void setField(String field) {
             this.field = field;
         }
+
+        public TestClass getParent() {
+            return parent;
+        }
+
+        public void setParent(TestClass parent) {
+            this.parent = parent;
+        }
     }
 
 }
@@ -0,0 +1,149 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.predicates.rsql;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.LogicalNode;
+import cz.jirutka.rsql.parser.ast.Node;
+import org.apache.commons.beanutils.BeanUtils;
+import org.apache.commons.beanutils.NestedNullException;
+import org.jboss.pnc.datastore.predicates.SpringDataRSQLPredicateProducer;
+import org.jboss.pnc.datastore.predicates.rsql.JavaUtilPredicateTest.TestClass;
+import org.jboss.pnc.spi.datastore.repositories.api.RSQLPredicateProducer;
+import org.jboss.pnc.test.category.DebugTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares filtering a few thousand in-memory objects with a query parsed and evaluated by reflection for every
+ * request, as the stream predicates used to be, with the cached and compiled stream predicates.
+ * Run with -Pdebug-tests -Dtest=StreamPredicateBenchmarkTest
+ */
+@Category(DebugTest.class)
+public class StreamPredicateBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamPredicateBenchmarkTest.class);
+
+    private static final String QUERY = "field=like=task-1%;id>100;parent.field!=none";
+
+    private static final int INSTANCES = 5000;
+
+    private static final int WARM_UP_ROUNDS = 200;
+
+    private static final int ROUNDS = 1000;
+
+    @Test
+    public void compareStreamPredicates() throws Exception {
+        List<TestClass> instances = new ArrayList<>();
+        TestClass parent = new TestClass("parent", 0);
+        for (int i = 0; i < INSTANCES; i++) {
+            TestClass instance = new TestClass("task-" + i, i);
+            instance.setParent(i % 2 == 0 ? parent : null);
+            instances.add(instance);
+        }
+        RSQLPredicateProducer producer = new SpringDataRSQLPredicateProducer();
+
+        long reflective = 0;
+        long compiled = 0;
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            reflective = countReflective(instances);
+            compiled = countCompiled(producer, instances);
+        }
+        assertThat(compiled).isEqualTo(reflective);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            countReflective(instances);
+        }
+        long reflectiveNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            countCompiled(producer, instances);
+        }
+        long compiledNanos = System.nanoTime() - start;
+
+        log.info("Filtering {} instances by '{}' took {}us per request when parsed and evaluated by reflection, " +
+                        "{}us when cached and compiled.",
+                INSTANCES, QUERY, reflectiveNanos / ROUNDS / 1000, compiledNanos / ROUNDS / 1000);
+    }
+
+    private long countCompiled(RSQLPredicateProducer producer, List<TestClass> instances) {
+        return instances.stream().filter(producer.getStreamPredicate(TestClass.class, QUERY)).count();
+    }
+
+    private long countReflective(List<TestClass> instances) throws Exception {
+        Node rootNode = new RSQLParser(new ExtendedRSQLNodesFactory()).parse(QUERY);
+        return instances.stream().filter(instance -> rootNode.accept(new ReflectiveEvaluation(instance))).count();
+    }
+
+    /**
+     * Evaluation of the operators used in the benchmarked query by BeanUtils, as it was done before compiling.
+     */
+    private static class ReflectiveEvaluation extends RSQLNodeTraveller<Boolean> {
+
+        private final Object instance;
+
+        private ReflectiveEvaluation(Object instance) {
+            this.instance = instance;
+        }
+
+        @Override
+        public Boolean visit(LogicalNode node) {
+            boolean result = true;
+            for (Node child : node) {
+                result &= visit(child);
+            }
+            return result;
+        }
+
+        @Override
+        public Boolean visit(ComparisonNode node) {
+            String argument = node.getArguments().get(0);
+            try {
+                String propertyValue = BeanUtils.getProperty(instance, node.getSelector());
+                if (propertyValue == null) {
+                    return false;
+                }
+                switch (node.getOperator()) {
+                    case "!=":
+                        return !propertyValue.equals(argument);
+                    case "=gt=":
+                    case ">":
+                        return Integer.parseInt(propertyValue) > Integer.parseInt(argument);
+                    case "=like=":
+                        return propertyValue.matches(argument.replaceAll("_", ".*").replaceAll("%", ".*"));
+                    default:
+                        throw new UnsupportedOperationException(node.getOperator());
+                }
+            } catch (NestedNullException e) {
+                return false;
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,361 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.repositories;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.hibernate.CacheMode;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.stat.Statistics;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.arquillian.transaction.api.annotation.Transactional;
+import org.jboss.pnc.datastore.DeploymentFactory;
+import org.jboss.pnc.model.BuildConfiguration;
+import org.jboss.pnc.model.BuildConfigurationAudited;
+import org.jboss.pnc.model.BuildEnvironment;
+import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.BuildStatus;
+import org.jboss.pnc.model.Project;
+import org.jboss.pnc.model.SystemImageType;
+import org.jboss.pnc.model.User;
+import org.jboss.pnc.spi.datastore.Datastore;
+import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationAuditedRepository;
+import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationRepository;
+import org.jboss.pnc.spi.datastore.repositories.BuildEnvironmentRepository;
+import org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository;
+import org.jboss.pnc.spi.datastore.repositories.ProjectRepository;
+import org.jboss.pnc.spi.datastore.repositories.UserRepository;
+import org.jboss.pnc.spi.datastore.repositories.api.FetchPlan;
+import org.jboss.pnc.spi.datastore.repositories.api.KeysetCursor;
+import org.jboss.pnc.spi.datastore.repositories.api.Projection;
+import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
+import org.jboss.pnc.spi.datastore.repositories.api.impl.DefaultPageInfo;
+import org.jboss.pnc.spi.datastore.repositories.api.impl.DefaultSortInfo;
+import org.jboss.pnc.test.category.ContainerTest;
+import org.jboss.shrinkwrap.api.Archive;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.apache.commons.lang3.RandomStringUtils.randomAlphabetic;
+import static org.apache.commons.lang3.RandomStringUtils.randomNumeric;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates.withBuildConfigurationId;
+
+@RunWith(Arquillian.class)
+@Category(ContainerTest.class)
+public class BuildRecordRepositoryImplTest {
+    @Inject
+    private BuildRecordRepository repository;
+    @Inject
+    private BuildConfigurationRepository configurationRepository;
+    @Inject
+    private BuildConfigurationAuditedRepository configurationAuditedRepository;
+    @Inject
+    private BuildEnvironmentRepository environmentRepository;
+    @Inject
+    private ProjectRepository projectRepository;
+    @Inject
+    private UserRepository userRepository;
+    @Inject
+    private Datastore datastore;
+    @Inject
+    private EntityManager entityManager;
+
+    @Deployment
+    public static Archive<?> getDeployment() {
+        return DeploymentFactory.createDatastoreDeployment();
+    }
+
+    @Test
+    public void shouldFindLatestRevision() {
+        BuildConfiguration configuration = configurationRepository.save(createValidBuildConfiguration());
+        configuration.setDescription(randomAlphabetic(20));
+        configurationRepository.save(configuration);
+
+        BuildConfigurationAudited latest = configurationAuditedRepository.findLatestById(configuration.getId());
+
+        assertThat(latest).isEqualTo(configurationAuditedRepository.findAllByIdOrderByRevDesc(configuration.getId()).get(0));
+        assertThat(configurationAuditedRepository.findLatestById(-1)).isNull();
+    }
+
+    @Test
+    public void shouldFindRevisionOfLatestSuccessfulBuild() {
+        BuildConfiguration configuration = configurationRepository.save(createValidBuildConfiguration());
+        BuildConfigurationAudited builtRevision = configurationAuditedRepository.findLatestById(configuration.getId());
+        User user = userRepository.save(User.Builder.newBuilder().username(randomAlphabetic(10)).email("pnc@redhat.com").build());
+        Set<Integer> ids = Collections.singleton(configuration.getId());
+
+        assertThat(repository.getLatestSuccessfulBuildRevisions(ids)).isEmpty();
+
+        repository.save(buildRecord(configuration, builtRevision, user, BuildStatus.SUCCESS));
+        configuration.setDescription(randomAlphabetic(20));
+        configurationRepository.save(configuration);
+        BuildConfigurationAudited failedRevision = configurationAuditedRepository.findLatestById(configuration.getId());
+        repository.save(buildRecord(configuration, failedRevision, user, BuildStatus.FAILED));
+
+        assertThat(repository.getLatestSuccessfulBuildRevisions(ids))
+                .containsOnly(entry(configuration.getId(), builtRevision.getIdRev()));
+    }
+
+    @Test
+    public void shouldFindRevisionOfLastSubmittedBuildWhenIdsAreNotInSubmitOrder() {
+        BuildConfiguration configuration = configurationRepository.save(createValidBuildConfiguration());
+        BuildConfigurationAudited oldRevision = configurationAuditedRepository.findLatestById(configuration.getId());
+        User user = userRepository.save(User.Builder.newBuilder().username(randomAlphabetic(10)).email("pnc@redhat.com").build());
+        configuration.setDescription(randomAlphabetic(20));
+        configurationRepository.save(configuration);
+        BuildConfigurationAudited newRevision = configurationAuditedRepository.findLatestById(configuration.getId());
+
+        // another node submitted the newer build with an id from a lower block
+        long now = System.currentTimeMillis();
+        BuildRecord newer = buildRecord(configuration, newRevision, user, BuildStatus.SUCCESS);
+        newer.setSubmitTime(new Date(now));
+        BuildRecord older = buildRecord(configuration, oldRevision, user, BuildStatus.SUCCESS);
+        older.setSubmitTime(new Date(now - 1000));
+        repository.save(newer);
+        repository.save(older);
+
+        assertThat(older.getId()).isGreaterThan(newer.getId());
+        assertThat(repository.getLatestSuccessfulBuildRevisions(Collections.singleton(configuration.getId())))
+                .containsOnly(entry(configuration.getId(), newRevision.getIdRev()));
+    }
+
+    @Test
+    public void shouldAverageDurationsOfSuccessfulBuilds() {
+        BuildConfiguration configuration = configurationRepository.save(createValidBuildConfiguration());
+        BuildConfigurationAudited configurationAudited = configurationAuditedRepository.findLatestById(configuration.getId());
+        User user = userRepository.save(User.Builder.newBuilder().username(randomAlphabetic(10)).email("pnc@redhat.com").build());
+
+        long start = System.currentTimeMillis();
+        repository.save(timedBuildRecord(configuration, configurationAudited, user, BuildStatus.SUCCESS, start, 1000));
+        repository.save(timedBuildRecord(configuration, configurationAudited, user, BuildStatus.SUCCESS, start, 3000));
+        repository.save(timedBuildRecord(configuration, configurationAudited, user, BuildStatus.FAILED, start, 10000));
+
+        Map<Integer, Long> averages = repository.getAverageSuccessfulBuildDurations(Collections.singleton(configuration.getId()));
+
+        assertThat(averages).containsOnly(entry(configuration.getId(), 2000L));
+    }
+
+    @Test
+    public void shouldWalkKeysetPagesInSortOrder() {
+        BuildConfiguration configuration = configurationRepository.save(createValidBuildConfiguration());
+        BuildConfigurationAudited configurationAudited = configurationAuditedRepository.findLatestById(configuration.getId());
+        User user = userRepository.save(User.Builder.newBuilder().username(randomAlphabetic(10)).email("pnc@redhat.com").build());
+
+        long start = System.currentTimeMillis() / 1000 * 1000;
+        List<BuildRecord> records = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            BuildRecord record = buildRecord(configuration, configurationAudited, user, BuildStatus.SUCCESS);
+            // pairs of records share the submit time, the id decides their order
+            record.setSubmitTime(new Date(start + i / 2 * 1000));
+            records.add(repository.save(record));
+        }
+        List<Integer> expectedIds = records.stream()
+                .sorted(Comparator.comparing(BuildRecord::getSubmitTime).thenComparing(BuildRecord::getId).reversed())
+                .map(BuildRecord::getId)
+                .collect(Collectors.toList());
+
+        SortInfo sortInfo = new DefaultSortInfo(SortInfo.SortingDirection.DESC, "submitTime");
+        List<Integer> walkedIds = new ArrayList<>();
+        KeysetCursor cursor = null;
+        List<BuildRecord> page;
+        do {
+            page = repository.queryWithPredicatesAfter(cursor, 3, sortInfo, withBuildConfigurationId(configuration.getId()));
+            page.forEach(r -> walkedIds.add(r.getId()));
+            if (!page.isEmpty()) {
+                cursor = KeysetCursor.after(page.get(page.size() - 1), sortInfo);
+            }
+        } while (page.size() == 3);
+
+        assertThat(walkedIds).isEqualTo(expectedIds);
+    }
+
+    @Test
+    public void shouldWalkKeysetPagesOverNullSortKeys() {
+        BuildConfiguration configuration = configurationRepository.save(createValidBuildConfiguration());
+        BuildConfigurationAudited configurationAudited = configurationAuditedRepository.findLatestById(configuration.getId());
+        User user = userRepository.save(User.Builder.newBuilder().username(randomAlphabetic(10)).email("pnc@redhat.com").build());
+
+        long start = System.currentTimeMillis() / 1000 * 1000;
+        List<BuildRecord> records = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            BuildRecord record = buildRecord(configuration, configurationAudited, user, BuildStatus.SUCCESS);
+            // every other record is still running without an end time
+            record.setEndTime(i % 2 == 0 ? new Date(start + i * 1000) : null);
+            records.add(repository.save(record));
+        }
+        List<Integer> expectedIds = records.stream()
+                .sorted(Comparator.comparing(BuildRecord::getEndTime, Comparator.nullsLast(Comparator.<Date>reverseOrder()))
+                        .thenComparing(BuildRecord::getId, Comparator.reverseOrder()))
+                .map(BuildRecord::getId)
+                .collect(Collectors.toList());
+
+        SortInfo sortInfo = new DefaultSortInfo(SortInfo.SortingDirection.DESC, "endTime");
+        List<Integer> walkedIds = new ArrayList<>();
+        KeysetCursor cursor = null;
+        List<BuildRecord> page;
+        do {
+            page = repository.queryWithPredicatesAfter(cursor, 3, sortInfo, withBuildConfigurationId(configuration.getId()));
+            page.forEach(r -> walkedIds.add(r.getId()));
+            if (!page.isEmpty()) {
+                // the textual form is what the clients send back
+                cursor = KeysetCursor.parse(KeysetCursor.after(page.get(page.size() - 1), sortInfo).toString());
+            }
+        } while (page.size() == 3);
+
+        assertThat(walkedIds).isEqualTo(expectedIds);
+    }
+
+    @Test
+    @Transactional
+    public void shouldLoadPlannedAssociationsOfPageInFewerStatementsThanRecords() {
+        BuildConfiguration configuration = configurationRepository.save(createValidBuildConfiguration());
+        BuildConfigurationAudited configurationAudited = configurationAuditedRepository.findLatestById(configuration.getId());
+        int records = 12;
+        for (int i = 0; i < records; i++) {
+            // every record has its own user to be loaded along
+            User user = userRepository.save(User.Builder.newBuilder().username(randomAlphabetic(10)).email("pnc@redhat.com").build());
+            repository.save(buildRecord(configuration, configurationAudited, user, BuildStatus.SUCCESS));
+        }
+        entityManager.flush();
+        FetchPlan<BuildRecord> fetchPlan = FetchPlan.of("buildConfigurationAudited.project",
+                "buildConfigurationAudited.buildEnvironment", "user", "buildEnvironment", "productMilestone",
+                "buildConfigSetRecord");
+
+        // neither the persistence context nor the second level cache may serve the associations
+        Session session = entityManager.unwrap(Session.class);
+        session.setCacheMode(CacheMode.IGNORE);
+        try {
+            long plannedStatements = countStatements(() -> loadPageAndNavigatePlannedAssociations(
+                    records, fetchPlan, configuration));
+            long unplannedStatements = countStatements(() -> loadPageAndNavigatePlannedAssociations(
+                    records, null, configuration));
+
+            assertThat(plannedStatements).isLessThan(records);
+            assertThat(unplannedStatements).isGreaterThan(plannedStatements);
+        } finally {
+            session.setCacheMode(CacheMode.NORMAL);
+        }
+    }
+
+    @Test
+    public void shouldReadProjectionWithAttributesOfMissingAssociationsAsNull() {
+        BuildConfiguration configuration = configurationRepository.save(createValidBuildConfiguration());
+        BuildConfigurationAudited configurationAudited = configurationAuditedRepository.findLatestById(configuration.getId());
+        User user = userRepository.save(User.Builder.newBuilder().username(randomAlphabetic(10)).email("pnc@redhat.com").build());
+        BuildRecord record = repository.save(buildRecord(configuration, configurationAudited, user, BuildStatus.SUCCESS));
+        Projection<BuildRecord, Object[]> projection = Projection.of(
+                row -> new Object[] { row.get("id"), row.get("user.username"), row.get("buildConfigurationAudited.project.name"),
+                        row.get("productMilestone.id") },
+                "id", "user.username", "buildConfigurationAudited.project.name", "productMilestone.id");
+
+        List<Object[]> rows = repository.queryProjectionWithPredicatesUsingCursor(new DefaultPageInfo(0, 10),
+                new DefaultSortInfo(), projection, withBuildConfigurationId(configuration.getId()));
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0)).containsExactly(record.getId(), user.getUsername(),
+                configuration.getProject().getName(), null);
+    }
+
+    private long countStatements(Supplier<List<BuildRecord>> query) {
+        Statistics statistics = entityManager.unwrap(Session.class).getSessionFactory().getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            assertThat(query.get()).isNotEmpty();
+            return statistics.getPrepareStatementCount();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    private List<BuildRecord> loadPageAndNavigatePlannedAssociations(int pageSize, FetchPlan<BuildRecord> fetchPlan,
+            BuildConfiguration configuration) {
+        entityManager.clear();
+        List<BuildRecord> page = repository.queryWithPredicates(new DefaultPageInfo(0, pageSize), new DefaultSortInfo(),
+                fetchPlan, withBuildConfigurationId(configuration.getId()));
+        for (BuildRecord record : page) {
+            Hibernate.initialize(record.getBuildConfigurationAudited().getProject());
+            Hibernate.initialize(record.getBuildConfigurationAudited().getBuildEnvironment());
+            Hibernate.initialize(record.getUser());
+            Hibernate.initialize(record.getBuildEnvironment());
+            Hibernate.initialize(record.getProductMilestone());
+            Hibernate.initialize(record.getBuildConfigSetRecord());
+        }
+        return page;
+    }
+
+    private BuildRecord buildRecord(BuildConfiguration configuration, BuildConfigurationAudited configurationAudited,
+            User user, BuildStatus status) {
+        return BuildRecord.Builder.newBuilder()
+                .id(datastore.getNextBuildRecordId())
+                .latestBuildConfiguration(configuration)
+                .buildConfigurationAudited(configurationAudited)
+                .status(status)
+                .submitTime(new Date())
+                .user(user)
+                .build();
+    }
+
+    private BuildRecord timedBuildRecord(BuildConfiguration configuration, BuildConfigurationAudited configurationAudited,
+            User user, BuildStatus status, long startTime, long duration) {
+        BuildRecord record = buildRecord(configuration, configurationAudited, user, status);
+        record.setStartTime(new Date(startTime));
+        record.setEndTime(new Date(startTime + duration));
+        return record;
+    }
+
+    private BuildConfiguration createValidBuildConfiguration() {
+        return BuildConfiguration.Builder.newBuilder()
+                .buildEnvironment(buildEnv())
+                .project(project())
+                .name(randomAlphabetic(10))
+                .build();
+    }
+
+    private Project project() {
+        Project project = Project.Builder.newBuilder().name(randomAlphabetic(20)).build();
+        projectRepository.save(project);
+        return project;
+    }
+
+    private BuildEnvironment buildEnv() {
+        BuildEnvironment environment = BuildEnvironment.Builder.newBuilder()
+                .name(randomAlphabetic(10))
+                .systemImageType(SystemImageType.DOCKER_IMAGE)
+                .systemImageId(randomNumeric(10))
+                .build();
+        environmentRepository.save(environment);
+        return environment;
+    }
+
+}
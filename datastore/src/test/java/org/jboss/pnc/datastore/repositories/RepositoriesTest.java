@@ -23,7 +23,9 @@ import org.jboss.arquillian.container.test.api.Deployment;
 import org.jboss.arquillian.junit.Arquillian;
 import org.jboss.pnc.datastore.DeploymentFactory;
 import org.jboss.pnc.model.Product;
+import org.jboss.pnc.model.User;
 import org.jboss.pnc.spi.datastore.repositories.ProductRepository;
+import org.jboss.pnc.spi.datastore.repositories.UserRepository;
 import org.jboss.pnc.test.category.ContainerTest;
 import org.jboss.shrinkwrap.api.Archive;
 import org.junit.Assert;
@@ -38,6 +40,9 @@ public class RepositoriesTest {
     @Inject
     ProductRepository productRepository;
 
+    @Inject
+    UserRepository userRepository;
+
     @Deployment
     public static Archive<?> getDeployment() {
         return DeploymentFactory.createDatastoreDeployment();
@@ -57,4 +62,33 @@ public class RepositoriesTest {
         Assert.assertNotNull(product.getId());
     }
 
+    /**
+     * Users are cached and looked up through the query cache, each repository call commits on its own so the
+     * lookups have to see the changes of the previous saves.
+     */
+    @Test
+    public void testCachedUserLookupSeesUpdates() throws Exception {
+
+        // given
+        User user = userRepository.save(
+                User.Builder.newBuilder().username("cached-user").email("cached-user@redhat.com").build());
+        Assert.assertEquals("cached-user@redhat.com", userRepository.queryByUsername("cached-user").getEmail());
+
+        // when
+        user.setEmail("cached-user-updated@redhat.com");
+        userRepository.save(user);
+
+        // then
+        Assert.assertEquals("cached-user-updated@redhat.com", userRepository.queryByUsername("cached-user").getEmail());
+
+        // when
+        user = userRepository.queryById(user.getId());
+        user.setUsername("cached-user-renamed");
+        userRepository.save(user);
+
+        // then
+        Assert.assertNull(userRepository.queryByUsername("cached-user"));
+        Assert.assertEquals(user.getId(), userRepository.queryByUsername("cached-user-renamed").getId());
+    }
+
 }
@@ -56,7 +56,9 @@ import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.ws.rs.core.StreamingOutput;
+import java.io.ByteArrayOutputStream;
 import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.Date;
@@ -248,6 +250,21 @@ public class BuildRecordsTest {
         assertThat(logs).isNotNull();
     }
 
+    @Test
+    public void shouldStreamLogsForSpecificBuildRecord() throws Exception {
+        // given
+        String buildRecordLog = buildRecordProvider.getBuildRecordLog(buildRecord2Id);
+        Integer logLength = buildRecordProvider.getBuildRecordLogLength(buildRecord2Id);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // when
+        buildRecordProvider.getLogsForBuild(buildRecord2Id, logLength).write(output);
+
+        // then
+        assertThat(logLength).isEqualTo(buildRecordLog.length());
+        assertThat(output.toString(StandardCharsets.UTF_8.name())).isEqualTo(buildRecordLog);
+    }
+
     @Test
     public void shouldGetArtifactsForSpecificBuildRecord() {
         // when
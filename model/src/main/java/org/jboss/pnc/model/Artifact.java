@@ -19,16 +19,16 @@ package org.jboss.pnc.model;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.ManyToMany;
-import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.NotNull;
@@ -56,9 +56,19 @@ public class Artifact implements GenericEntity<Integer> {
 
     public static final String SEQUENCE_NAME = "artifact_id_seq";
 
+    /**
+     * Ids reserved by a single value of the sequence, the artifacts of a build result are inserted in bulk. It has to
+     * match the increment of the sequence, see upgrade_schema.sql.
+     */
+    private static final String ID_BLOCK_SIZE = "50";
+
+    // the pooled optimizer hands out the ids up to the sequence value, the ids keep following the sequence
     @Id
-    @SequenceGenerator(name = SEQUENCE_NAME, sequenceName = SEQUENCE_NAME, allocationSize = 1)
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = SEQUENCE_NAME)
+    @GenericGenerator(name = SEQUENCE_NAME, strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+            @Parameter(name = "sequence_name", value = SEQUENCE_NAME),
+            @Parameter(name = "increment_size", value = ID_BLOCK_SIZE),
+            @Parameter(name = "optimizer", value = "pooled") })
+    @GeneratedValue(generator = SEQUENCE_NAME)
     private Integer id;
 
     /**
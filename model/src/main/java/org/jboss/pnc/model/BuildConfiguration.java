@@ -35,9 +35,12 @@ import javax.validation.constraints.Size;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -383,17 +386,15 @@ public class BuildConfiguration implements GenericEntity<Integer>, Cloneable {
      */
     public Set<BuildConfiguration> getIndirectDependencies() {
         Set<BuildConfiguration> indirectDependencies = new HashSet<BuildConfiguration>();
-        List<BuildConfiguration> configsToCheck = new ArrayList<BuildConfiguration>();
+        Deque<BuildConfiguration> configsToCheck = new ArrayDeque<BuildConfiguration>();
         configsToCheck.addAll(getDependencies());
         while (!configsToCheck.isEmpty()) {
-            BuildConfiguration nextConfig = configsToCheck.get(0);
+            BuildConfiguration nextConfig = configsToCheck.poll();
             for (BuildConfiguration nextDep : nextConfig.getDependencies()) {
-                if (!indirectDependencies.contains(nextDep)) {
-                    indirectDependencies.add(nextDep);
+                if (indirectDependencies.add(nextDep)) {
                     configsToCheck.add(nextDep);
                 }
             }
-            configsToCheck.remove(nextConfig);
         }
         return indirectDependencies;
     }
@@ -647,11 +648,17 @@ public class BuildConfiguration implements GenericEntity<Integer>, Cloneable {
         return otherList.stream().anyMatch(this::dependsOn);
     }
 
+    /**
+     * Initializes all the build records of this configuration, prefer the build record repository queries when they
+     * are not loaded yet.
+     *
+     * @return the successful build record submitted last or null if there is none
+     */
     public BuildRecord getLatestSuccesfulBuildRecord() {
         return buildRecords.stream()
                 .filter(b -> b.getStatus() == BuildStatus.SUCCESS)
-                .sorted((o1, o2) -> -o1.getId().compareTo(o2.getId()))
-                .findFirst().orElse(null);
+                .max(Comparator.comparing(BuildRecord::getSubmitTime).thenComparing(BuildRecord::getId))
+                .orElse(null);
     }
 
     public static class Builder {
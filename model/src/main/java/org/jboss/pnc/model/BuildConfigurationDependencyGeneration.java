@@ -0,0 +1,69 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.model;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Single row counting the changes of the dependencies between the build configurations. Every transaction changing
+ * the dependencies increments it, so that the nodes caching the dependency graph can tell their copy is stale.
+ */
+@Entity
+public class BuildConfigurationDependencyGeneration implements GenericEntity<Integer> {
+
+    private static final long serialVersionUID = 3526107284652871640L;
+
+    /**
+     * Id of the only row.
+     */
+    public static final Integer ID = 1;
+
+    @Id
+    private Integer id;
+
+    @NotNull
+    private Long generation;
+
+    public BuildConfigurationDependencyGeneration() {
+    }
+
+    public BuildConfigurationDependencyGeneration(Long generation) {
+        this.id = ID;
+        this.generation = generation;
+    }
+
+    @Override
+    public Integer getId() {
+        return id;
+    }
+
+    @Override
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Long getGeneration() {
+        return generation;
+    }
+
+    public void setGeneration(Long generation) {
+        this.generation = generation;
+    }
+}
@@ -17,6 +17,8 @@
  */
 package org.jboss.pnc.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Index;
 import org.hibernate.annotations.Type;
 
@@ -33,6 +35,8 @@ import javax.validation.constraints.Size;
  * @author avibelli
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.TRANSACTIONAL)
 public class BuildEnvironment implements GenericEntity<Integer> {
 
     private static final long serialVersionUID = 3170247997550146257L;
@@ -76,6 +80,7 @@ public class BuildEnvironment implements GenericEntity<Integer> {
     private SystemImageType systemImageType;
 
     @ElementCollection(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.TRANSACTIONAL)
     @CollectionTable(name="build_environment_attributes", joinColumns=@JoinColumn(name="build_environment_id"))
     @MapKeyColumn(name="name")
     @Column(name="value")
@@ -0,0 +1,165 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.model;
+
+import org.hibernate.annotations.Type;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.validation.constraints.NotNull;
+
+/**
+ * A compressed part of the log of a build. Build logs are stored outside of the build record row as a sequence of
+ * chunks, so that they can be appended to while the build runs and read by byte ranges without loading the whole log.
+ */
+@Entity
+@Table(uniqueConstraints = { @UniqueConstraint(name = "uk_buildlogchunk_buildrecord_offset",
+        columnNames = { "buildRecordId", "startOffset" }) })
+public class BuildLogChunk implements GenericEntity<Integer> {
+
+    private static final long serialVersionUID = -4172843364932567341L;
+
+    public static final String SEQUENCE_NAME = "build_log_chunk_id_seq";
+
+    /**
+     * Maximal size of the compressed content of a chunk.
+     */
+    public static final int MAX_CONTENT_LENGTH = 4 * 1024 * 1024;
+
+    /**
+     * Maximal size of the trigram filter of a chunk.
+     */
+    public static final int MAX_TRIGRAM_FILTER_LENGTH = 1024 * 1024;
+
+    @Id
+    @SequenceGenerator(name = SEQUENCE_NAME, sequenceName = SEQUENCE_NAME, allocationSize = 1)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = SEQUENCE_NAME)
+    private Integer id;
+
+    /**
+     * Id of the build record the log belongs to. It is not a foreign key as the log is written before the build record
+     * is stored.
+     */
+    @NotNull
+    private Integer buildRecordId;
+
+    /**
+     * Position of the first byte of the chunk in the uncompressed log.
+     */
+    @NotNull
+    private Long startOffset;
+
+    /**
+     * Number of bytes of the uncompressed chunk.
+     */
+    @NotNull
+    private Integer length;
+
+    /**
+     * The gzip compressed bytes of the chunk.
+     */
+    @NotNull
+    @Type(type = "org.hibernate.type.BinaryType")
+    @Column(length = MAX_CONTENT_LENGTH)
+    private byte[] content;
+
+    /**
+     * Serialized bloom filter of the case insensitive trigrams of the chunk, used to skip the chunks which cannot
+     * contain a searched text. Null for chunks stored before logs were indexed.
+     */
+    @Type(type = "org.hibernate.type.BinaryType")
+    @Column(length = MAX_TRIGRAM_FILTER_LENGTH)
+    private byte[] trigramFilter;
+
+    public BuildLogChunk() {
+    }
+
+    public BuildLogChunk(Integer buildRecordId, Long startOffset, Integer length, byte[] content) {
+        this(buildRecordId, startOffset, length, content, null);
+    }
+
+    public BuildLogChunk(Integer buildRecordId, Long startOffset, Integer length, byte[] content, byte[] trigramFilter) {
+        this.buildRecordId = buildRecordId;
+        this.startOffset = startOffset;
+        this.length = length;
+        this.content = content;
+        this.trigramFilter = trigramFilter;
+    }
+
+    @Override
+    public Integer getId() {
+        return id;
+    }
+
+    @Override
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Integer getBuildRecordId() {
+        return buildRecordId;
+    }
+
+    public void setBuildRecordId(Integer buildRecordId) {
+        this.buildRecordId = buildRecordId;
+    }
+
+    public Long getStartOffset() {
+        return startOffset;
+    }
+
+    public void setStartOffset(Long startOffset) {
+        this.startOffset = startOffset;
+    }
+
+    public Integer getLength() {
+        return length;
+    }
+
+    public void setLength(Integer length) {
+        this.length = length;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public void setContent(byte[] content) {
+        this.content = content;
+    }
+
+    public byte[] getTrigramFilter() {
+        return trigramFilter;
+    }
+
+    public void setTrigramFilter(byte[] trigramFilter) {
+        this.trigramFilter = trigramFilter;
+    }
+
+    @Override
+    public String toString() {
+        return "BuildLogChunk [buildRecordId=" + buildRecordId + ", startOffset=" + startOffset + ", length=" + length
+                + "]";
+    }
+}
@@ -21,6 +21,7 @@ import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.ForeignKey;
 import org.hibernate.annotations.Index;
+import org.hibernate.annotations.Table;
 import org.hibernate.annotations.Type;
 
 import javax.persistence.Basic;
@@ -60,6 +61,10 @@ import java.util.Set;
  * the set of buildRecord that compose a Product
  */
 @Entity
+@Table(appliesTo = "BuildRecord", indexes = {
+        @Index(name = "idx_buildrecord_buildconfiguration_status_submittime",
+                columnNames = { "buildconfiguration_id", "status", "submitTime" }),
+        @Index(name = "idx_buildrecord_submittime", columnNames = { "submitTime", "id" }) })
 public class BuildRecord implements GenericEntity<Integer> {
 
     private static final long serialVersionUID = -5472083609387609797L;
@@ -17,6 +17,8 @@
  */
 package org.jboss.pnc.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.ForeignKey;
 import org.hibernate.annotations.Index;
 
@@ -39,6 +41,8 @@ import lombok.Setter;
  * @author avibelli
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.TRANSACTIONAL)
 @Table(uniqueConstraints = {
         @UniqueConstraint(columnNames = {"version", "product_id"})
 })
@@ -85,6 +89,7 @@ public class ProductVersion implements GenericEntity<Integer> {
     private Set<BuildConfiguration> buildConfigurations;
 
     @ElementCollection(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.TRANSACTIONAL)
     @CollectionTable(name="product_version_attributes", joinColumns=@JoinColumn(name="product_version_id"))
     @MapKeyColumn(name="key")
     @Column(name="value")
@@ -33,13 +33,37 @@ public class SystemConfig extends AbstractModuleConfig {
     private final String authenticationProviderId;
 
     /**
-     * Number of threads that are used to run executor operations
-     * (setting up the repos, configuring the build, triggering the build, collecting the results)
+     * Default number of threads of the executor pools calling the repository manager and the environment driver,
+     * see executorRepositoryThreadPoolSize and executorEnvironmentThreadPoolSize
      */
     private String executorThreadPoolSize;
 
+    /**
+     * number of threads of the executor calling the repository manager
+     * (setting up the build repository, collecting the built artifacts)
+     */
+    private int executorRepositoryThreadPoolSize;
+
+    /**
+     * number of threads of the executor calling the environment and the build driver
+     * (starting and destroying the environment, starting the build)
+     */
+    private int executorEnvironmentThreadPoolSize;
+
+    /**
+     * number of threads of the executor processing the results of the build driver
+     */
+    private int executorProcessingThreadPoolSize;
+
+    /**
+     * maximum number of tasks waiting for a thread in each of the executor and builder thread pools,
+     * tasks submitted to a full pool wait for space in it for a limited time and are rejected afterwards
+     */
+    private int threadPoolQueueCapacity;
+
     /**
      * Number of threads that are used to run the build and listen for completion.
+     * The same number of threads stores the output of the running builds.
      */
     private String builderThreadPoolSize;
 
@@ -55,6 +79,12 @@ public class SystemConfig extends AbstractModuleConfig {
      */
     private int coordinatorMaxConcurrentBuilds;
 
+    /**
+     * order in which the build tasks that are ready to be built are started:
+     * FIFO (default), CRITICAL_PATH, FAIR_SHARE_PER_USER or FAIR_SHARE_PER_BUILD_SET
+     */
+    private String coordinatorReadyQueuePolicy;
+
     public SystemConfig(
             @JsonProperty("buildDriverId") String buildDriverId,
             @JsonProperty("buildSchedulerId") String buildSchedulerId,
@@ -62,7 +92,12 @@ public class SystemConfig extends AbstractModuleConfig {
             @JsonProperty("executorThreadPoolSize") String executorThreadPoolSize,
             @JsonProperty("builderThreadPoolSize") String builderThreadPoolSize,
             @JsonProperty("coordinatorThreadPoolSize") String coordinatorThreadPoolSize,
-            @JsonProperty("coordinatorMaxConcurrentBuilds") String coordinatorMaxConcurrentBuilds) {
+            @JsonProperty("coordinatorMaxConcurrentBuilds") String coordinatorMaxConcurrentBuilds,
+            @JsonProperty("coordinatorReadyQueuePolicy") String coordinatorReadyQueuePolicy,
+            @JsonProperty("executorRepositoryThreadPoolSize") String executorRepositoryThreadPoolSize,
+            @JsonProperty("executorEnvironmentThreadPoolSize") String executorEnvironmentThreadPoolSize,
+            @JsonProperty("executorProcessingThreadPoolSize") String executorProcessingThreadPoolSize,
+            @JsonProperty("threadPoolQueueCapacity") String threadPoolQueueCapacity) {
         this.buildDriverId = buildDriverId;
         this.buildSchedulerId = buildSchedulerId;
         this.authenticationProviderId = authenticationProviderId;
@@ -70,6 +105,15 @@ public class SystemConfig extends AbstractModuleConfig {
         this.builderThreadPoolSize = builderThreadPoolSize;
         this.coordinatorThreadPoolSize = toIntWithDefault("coordinatorThreadPoolSize", coordinatorThreadPoolSize, 1);
         this.coordinatorMaxConcurrentBuilds = toIntWithDefault("coordinatorMaxConcurrentBuilds", coordinatorMaxConcurrentBuilds, 10);
+        this.coordinatorReadyQueuePolicy = coordinatorReadyQueuePolicy;
+        int executorPoolSize = toIntWithDefault("executorThreadPoolSize", executorThreadPoolSize, 12);
+        this.executorRepositoryThreadPoolSize = toIntWithDefault("executorRepositoryThreadPoolSize",
+                executorRepositoryThreadPoolSize, executorPoolSize);
+        this.executorEnvironmentThreadPoolSize = toIntWithDefault("executorEnvironmentThreadPoolSize",
+                executorEnvironmentThreadPoolSize, executorPoolSize);
+        this.executorProcessingThreadPoolSize = toIntWithDefault("executorProcessingThreadPoolSize",
+                executorProcessingThreadPoolSize, Runtime.getRuntime().availableProcessors());
+        this.threadPoolQueueCapacity = toIntWithDefault("threadPoolQueueCapacity", threadPoolQueueCapacity, 1000);
     }
 
     public String getBuildDriverId() {
@@ -84,6 +128,22 @@ public class SystemConfig extends AbstractModuleConfig {
         return executorThreadPoolSize;
     }
 
+    public int getExecutorRepositoryThreadPoolSize() {
+        return executorRepositoryThreadPoolSize;
+    }
+
+    public int getExecutorEnvironmentThreadPoolSize() {
+        return executorEnvironmentThreadPoolSize;
+    }
+
+    public int getExecutorProcessingThreadPoolSize() {
+        return executorProcessingThreadPoolSize;
+    }
+
+    public int getThreadPoolQueueCapacity() {
+        return threadPoolQueueCapacity;
+    }
+
     public String getBuilderThreadPoolSize() {
         return builderThreadPoolSize;
     }
@@ -100,6 +160,10 @@ public class SystemConfig extends AbstractModuleConfig {
         return coordinatorMaxConcurrentBuilds;
     }
 
+    public String getCoordinatorReadyQueuePolicy() {
+        return coordinatorReadyQueuePolicy;
+    }
+
     private int toIntWithDefault(String fieldName, String numberAsString, int defaultValue) {
         int result = defaultValue;
         if (numberAsString == null) {
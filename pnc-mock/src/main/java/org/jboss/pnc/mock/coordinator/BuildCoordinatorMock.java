@@ -55,6 +55,8 @@ import javax.enterprise.inject.Alternative;
 import java.lang.invoke.MethodHandles;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 @ApplicationScoped
 @Alternative
@@ -64,6 +66,8 @@ public class BuildCoordinatorMock implements BuildCoordinator {
 
     private List<BuildTask> activeTasks = new ArrayList<>();
 
+    private final AtomicLong modificationCount = new AtomicLong();
+
     @Deprecated
     public BuildCoordinatorMock() {
         super();
@@ -85,6 +89,21 @@ public class BuildCoordinatorMock implements BuildCoordinator {
         return activeTasks;
     }
 
+    @Override
+    public Optional<BuildTask> getSubmittedBuildTask(int buildTaskId) {
+        return activeTasks.stream()
+                .filter(task -> task.getId() == buildTaskId)
+                .findAny();
+    }
+
+    @Override
+    public Optional<BuildSetTask> getSubmittedBuildSetTask(int buildConfigSetRecordId) {
+        return activeTasks.stream()
+                .map(BuildTask::getBuildSetTask)
+                .filter(set -> set != null && Integer.valueOf(buildConfigSetRecordId).equals(set.getId()))
+                .findAny();
+    }
+
     @Override
     public void completeBuild(BuildTask buildTask, BuildResult buildResult) {
 
@@ -97,14 +116,22 @@ public class BuildCoordinatorMock implements BuildCoordinator {
 
     @Override
     public void updateBuildTaskStatus(BuildTask task, BuildCoordinationStatus status) {
+        modificationCount.incrementAndGet();
+    }
+
+    @Override
+    public long getModificationCount() {
+        return modificationCount.get();
     }
 
     public void addActiveTask(BuildTask task) {
         activeTasks.add(task);
+        modificationCount.incrementAndGet();
     }
 
     public void clearActiveTasks() {
         activeTasks.clear();
+        modificationCount.incrementAndGet();
     }
 
     @Override
@@ -0,0 +1,122 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mock.datastore;
+
+import org.jboss.pnc.spi.datastore.BuildLogMatch;
+import org.jboss.pnc.spi.datastore.BuildLogStore;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the build logs in memory, uncompressed.
+ */
+@ApplicationScoped
+public class BuildLogStoreMock implements BuildLogStore {
+
+    private final Map<Integer, ByteArrayOutputStream> logs = new ConcurrentHashMap<>();
+
+    @Override
+    public void append(Integer buildRecordId, String text) {
+        if (text != null) {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            getLogBytes(buildRecordId).write(bytes, 0, bytes.length);
+        }
+    }
+
+    @Override
+    public OutputStream openAppendStream(Integer buildRecordId) {
+        return getLogBytes(buildRecordId);
+    }
+
+    @Override
+    public long getLength(Integer buildRecordId) {
+        ByteArrayOutputStream log = logs.get(buildRecordId);
+        return log == null ? 0 : log.size();
+    }
+
+    @Override
+    public void read(Integer buildRecordId, long offset, long length, OutputStream outputStream) throws IOException {
+        byte[] log = logs.getOrDefault(buildRecordId, new ByteArrayOutputStream()).toByteArray();
+        int from = (int) Math.min(offset, log.length);
+        int to = (int) Math.min(log.length, from + Math.min(length, Integer.MAX_VALUE));
+        outputStream.write(log, from, to - from);
+    }
+
+    @Override
+    public Map<Integer, List<BuildLogMatch>> search(List<Integer> buildRecordIds, String text, Pattern pattern,
+            int maxMatchesPerBuild, long deadline) throws TimeoutException {
+        Pattern textPattern = text == null ? null : Pattern.compile(Pattern.quote(text), Pattern.CASE_INSENSITIVE);
+        Map<Integer, List<BuildLogMatch>> matches = new LinkedHashMap<>();
+        for (Integer buildRecordId : buildRecordIds) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new TimeoutException("Log search did not finish in time.");
+            }
+            String log = getLog(buildRecordId);
+            if (log == null) {
+                continue;
+            }
+            List<BuildLogMatch> logMatches = new ArrayList<>();
+            long offset = 0;
+            long lineNumber = 1;
+            String[] lines = log.split("\n", -1);
+            for (int i = 0; i < lines.length; i++) {
+                String line = lines[i];
+                boolean lastEmpty = i == lines.length - 1 && line.isEmpty();
+                if (logMatches.size() < maxMatchesPerBuild && !lastEmpty
+                        && (textPattern == null || textPattern.matcher(line).find())
+                        && (pattern == null || pattern.matcher(line).find())) {
+                    logMatches.add(new BuildLogMatch(lineNumber, offset));
+                }
+                offset += line.getBytes(StandardCharsets.UTF_8).length + 1;
+                lineNumber++;
+            }
+            if (!logMatches.isEmpty()) {
+                matches.put(buildRecordId, logMatches);
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    public void delete(Integer buildRecordId) {
+        logs.remove(buildRecordId);
+    }
+
+    /**
+     * @return the whole log of the build, null if no log is stored for the build
+     */
+    public String getLog(Integer buildRecordId) {
+        ByteArrayOutputStream log = logs.get(buildRecordId);
+        return log == null ? null : new String(log.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private ByteArrayOutputStream getLogBytes(Integer buildRecordId) {
+        return logs.computeIfAbsent(buildRecordId, id -> new ByteArrayOutputStream());
+    }
+}
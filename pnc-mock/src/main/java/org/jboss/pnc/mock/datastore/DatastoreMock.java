@@ -22,6 +22,7 @@ import org.jboss.pnc.model.BuildConfigSetRecord;
 import org.jboss.pnc.model.BuildConfiguration;
 import org.jboss.pnc.model.BuildConfigurationAudited;
 import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.BuildStatus;
 import org.jboss.pnc.model.IdRev;
 import org.jboss.pnc.model.User;
 import org.jboss.pnc.spi.coordinator.BuildTask;
@@ -35,9 +36,13 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Created by <a href="mailto:matejonnet@gmail.com">Matej Lazar</a> on 2014-11-24.
@@ -104,6 +109,13 @@ public class DatastoreMock implements Datastore {
         return buildRecordSequence.incrementAndGet();
     }
 
+    @Override
+    public List<Integer> getNextBuildRecordIds(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> buildRecordSequence.incrementAndGet())
+                .collect(Collectors.toList());
+    }
+
     @Override
     public BuildConfigSetRecord saveBuildConfigSetRecord(BuildConfigSetRecord buildConfigSetRecord) {
         if (buildConfigSetRecord.getId() == null) {
@@ -148,6 +160,24 @@ public class DatastoreMock implements Datastore {
         return true;
     }
 
+    @Override
+    public Set<Integer> getIdsRequiringRebuild(Collection<Integer> buildConfigurationIds) {
+        return new HashSet<>(buildConfigurationIds);
+    }
+
+    @Override
+    public Map<Integer, Long> getAverageBuildDurations(Collection<Integer> buildConfigurationIds) {
+        return getBuildRecords().stream()
+                .filter(r -> r.getStatus() == BuildStatus.SUCCESS)
+                .filter(r -> r.getStartTime() != null && r.getEndTime() != null)
+                .filter(r -> buildConfigurationIds.contains(r.getBuildConfigurationAudited().getId().getId()))
+                .collect(Collectors.groupingBy(
+                        r -> r.getBuildConfigurationAudited().getId().getId(),
+                        Collectors.collectingAndThen(
+                                Collectors.averagingLong(r -> r.getEndTime().getTime() - r.getStartTime().getTime()),
+                                Double::longValue)));
+    }
+
     public BuildConfiguration save(BuildConfiguration buildConfig) {
         return buildConfigurations.put(buildConfig.getId(), buildConfig);
     }
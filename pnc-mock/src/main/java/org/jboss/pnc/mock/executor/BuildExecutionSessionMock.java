@@ -25,6 +25,7 @@ import org.jboss.pnc.spi.environment.RunningEnvironment;
 import org.jboss.pnc.spi.events.BuildExecutionStatusChangedEvent;
 import org.jboss.pnc.spi.executor.BuildExecutionConfiguration;
 import org.jboss.pnc.spi.executor.BuildExecutionSession;
+import org.jboss.pnc.spi.executor.LiveLog;
 import org.jboss.pnc.spi.executor.exceptions.ExecutorException;
 import org.jboss.pnc.spi.repositorymanager.RepositoryManagerResult;
 import org.slf4j.Logger;
@@ -47,6 +48,7 @@ public class BuildExecutionSessionMock implements BuildExecutionSession {
     private BuildExecutionStatus status;
     private ExecutorException executorException;
     private Optional<URI> liveLogsUri;
+    private final LiveLog liveLog = new LiveLog();
     private Date startTime;
     private RunningEnvironment runningEnvironment;
     private Date endTime;
@@ -71,6 +73,11 @@ public class BuildExecutionSessionMock implements BuildExecutionSession {
         this.liveLogsUri = liveLogsUri;
     }
 
+    @Override
+    public LiveLog getLiveLog() {
+        return liveLog;
+    }
+
     @Override
     public void getEventLog() {
 
@@ -25,7 +25,9 @@ import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
 import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
@@ -94,6 +96,22 @@ public class BuildConfigurationAuditedRepositoryMock implements BuildConfigurati
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public BuildConfigurationAudited findLatestById(Integer id) {
+        return data.stream()
+                .filter(c -> c.getId().getId().equals(id))
+                .max((c1, c2) -> c1.getId().getRev().compareTo(c2.getId().getRev()))
+                .orElse(null);
+    }
+
+    @Override
+    public Map<Integer, Integer> getLatestRevisions(Collection<Integer> ids) {
+        return data.stream()
+                .map(BuildConfigurationAudited::getId)
+                .filter(idRev -> ids.contains(idRev.getId()))
+                .collect(Collectors.toMap(IdRev::getId, IdRev::getRev, Math::max));
+    }
+
     private Optional<BuildConfigurationAudited> getOptionalById(IdRev id) {
         return data.stream()
                 .filter(m -> id.equals(m.getId()))
@@ -18,12 +18,85 @@
 package org.jboss.pnc.mock.repository;
 
 import org.jboss.pnc.model.BuildConfiguration;
+import org.jboss.pnc.model.BuildEnvironment;
+import org.jboss.pnc.model.Project;
 import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationRepository;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
 /**
  * Author: Michal Szynkiewicz, michal.l.szynkiewicz@gmail.com
  * Date: 9/22/16
  * Time: 12:06 PM
  */
 public class BuildConfigurationRepositoryMock extends RepositoryMock<BuildConfiguration> implements BuildConfigurationRepository {
+
+    private final AtomicLong dependencyGeneration = new AtomicLong();
+
+    @Override
+    public Date getLastModificationTime(Integer id) {
+        BuildConfiguration buildConfiguration = queryById(id);
+        return buildConfiguration == null ? null : buildConfiguration.getLastModificationTime();
+    }
+
+    @Override
+    public List<Object> getEmbeddedProjectAndEnvironmentState(Integer id) {
+        BuildConfiguration buildConfiguration = queryById(id);
+        Project project = buildConfiguration.getProject();
+        BuildEnvironment environment = buildConfiguration.getBuildEnvironment();
+        List<Object> state = new ArrayList<>();
+        if (project != null) {
+            state.addAll(Arrays.asList(project.getId(), project.getName(), project.getDescription(),
+                    project.getIssueTrackerUrl(), project.getProjectUrl(),
+                    project.getLicense() == null ? null : project.getLicense().getId()));
+            project.getBuildConfigurations().stream()
+                    .map(BuildConfiguration::getId)
+                    .sorted()
+                    .forEach(state::add);
+        }
+        if (environment != null) {
+            state.addAll(Arrays.asList(environment.getId(), environment.getName(), environment.getDescription(),
+                    environment.getSystemImageRepositoryUrl(), environment.getSystemImageId(),
+                    environment.getSystemImageType()));
+            new TreeMap<>(environment.getAttributes()).forEach((key, value) -> {
+                state.add(key);
+                state.add(value);
+            });
+        }
+        return state;
+    }
+
+    @Override
+    public Map<Integer, Set<Integer>> getDependencyIds() {
+        return data.stream()
+                .filter(configuration -> !configuration.getDependencies().isEmpty())
+                .collect(Collectors.toMap(
+                        BuildConfiguration::getId,
+                        configuration -> configuration.getDependencies().stream()
+                                .map(BuildConfiguration::getId)
+                                .collect(Collectors.toSet())));
+    }
+
+    @Override
+    public long getDependencyGeneration() {
+        return dependencyGeneration.get();
+    }
+
+    @Override
+    public long lockDependencyGeneration() {
+        return dependencyGeneration.get();
+    }
+
+    @Override
+    public long incrementDependencyGeneration() {
+        return dependencyGeneration.incrementAndGet();
+    }
 }
@@ -19,12 +19,17 @@ package org.jboss.pnc.mock.repository;
 
 import org.jboss.pnc.model.BuildConfiguration;
 import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.BuildStatus;
+import org.jboss.pnc.model.IdRev;
 import org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository;
-import org.jboss.pnc.spi.datastore.repositories.api.PageInfo;
-import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
-import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
 
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BinaryOperator;
+import java.util.stream.Collectors;
 
 /**
  * Author: Michal Szynkiewicz, michal.l.szynkiewicz@gmail.com
@@ -32,15 +37,84 @@ import java.util.List;
  * Time: 12:04 PM
  */
 public class BuildRecordRepositoryMock extends RepositoryMock<BuildRecord> implements BuildRecordRepository {
+
+    private static final Comparator<BuildRecord> SUBMIT_ORDER = Comparator.comparing(BuildRecord::getSubmitTime)
+            .thenComparing(BuildRecord::getId);
+
     @Override
     public BuildRecord findByIdFetchAllProperties(Integer id) {
         return null;
     }
 
-    @SuppressWarnings("unchecked")
     @Override
-    public List<BuildRecord> queryWithPredicatesUsingCursor(PageInfo pageInfo, SortInfo sortInfo, Predicate<BuildRecord>... predicates) {
-        return null;
+    public Integer getBuildLogLength(Integer id) {
+        BuildRecord buildRecord = queryById(id);
+        return buildRecord == null || buildRecord.getBuildLog() == null ? null : buildRecord.getBuildLog().length();
+    }
+
+    @Override
+    public String getBuildLogPart(Integer id, int offset, int length) {
+        String buildLog = queryById(id).getBuildLog();
+        return buildLog.substring(offset, Math.min(buildLog.length(), offset + length));
+    }
+
+    @Override
+    public Map<String, String> getAttributes(Integer id) {
+        BuildRecord buildRecord = queryById(id);
+        return buildRecord == null ? null : buildRecord.getAttributes();
+    }
+
+    @Override
+    public Map<Integer, IdRev> getLatestSuccessfulBuildRevisions(Collection<Integer> buildConfigurationIds) {
+        return getLatestSuccessfulBuildRecords(buildConfigurationIds).stream()
+                .collect(Collectors.toMap(
+                        r -> r.getLatestBuildConfiguration().getId(),
+                        r -> r.getBuildConfigurationAudited().getIdRev()));
+    }
+
+    @Override
+    public Set<Integer> getIdsWithRebuiltDependencies(Collection<Integer> buildConfigurationIds) {
+        return getLatestSuccessfulBuildRecords(buildConfigurationIds).stream()
+                .filter(r -> r.getDependencies().stream()
+                        .flatMap(artifact -> artifact.getBuildRecords().stream())
+                        .anyMatch(this::hasNewerSuccessfulBuild))
+                .map(r -> r.getLatestBuildConfiguration().getId())
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public Map<Integer, Long> getAverageSuccessfulBuildDurations(Collection<Integer> buildConfigurationIds) {
+        return data.stream()
+                .filter(r -> r.getStatus() == BuildStatus.SUCCESS)
+                .filter(r -> r.getStartTime() != null && r.getEndTime() != null)
+                .filter(r -> r.getLatestBuildConfiguration() != null)
+                .filter(r -> buildConfigurationIds.contains(r.getLatestBuildConfiguration().getId()))
+                .collect(Collectors.groupingBy(
+                        r -> r.getLatestBuildConfiguration().getId(),
+                        Collectors.collectingAndThen(
+                                Collectors.averagingLong(r -> r.getEndTime().getTime() - r.getStartTime().getTime()),
+                                Double::longValue)));
+    }
+
+    private Collection<BuildRecord> getLatestSuccessfulBuildRecords(Collection<Integer> buildConfigurationIds) {
+        return data.stream()
+                .filter(r -> r.getStatus() == BuildStatus.SUCCESS)
+                .filter(r -> r.getLatestBuildConfiguration() != null)
+                .filter(r -> buildConfigurationIds.contains(r.getLatestBuildConfiguration().getId()))
+                .collect(Collectors.toMap(
+                        r -> r.getLatestBuildConfiguration().getId(),
+                        r -> r,
+                        BinaryOperator.maxBy(SUBMIT_ORDER)))
+                .values();
+    }
+
+    private boolean hasNewerSuccessfulBuild(BuildRecord record) {
+        Integer buildConfigurationId = record.getLatestBuildConfiguration().getId();
+        return data.stream()
+                .filter(r -> r.getStatus() == BuildStatus.SUCCESS)
+                .filter(r -> r.getLatestBuildConfiguration() != null)
+                .anyMatch(r -> buildConfigurationId.equals(r.getLatestBuildConfiguration().getId())
+                        && SUBMIT_ORDER.compare(r, record) > 0);
     }
 
     @Override
@@ -18,8 +18,11 @@
 package org.jboss.pnc.mock.repository;
 
 import org.jboss.pnc.model.GenericEntity;
+import org.jboss.pnc.spi.datastore.repositories.api.FetchPlan;
+import org.jboss.pnc.spi.datastore.repositories.api.KeysetCursor;
 import org.jboss.pnc.spi.datastore.repositories.api.PageInfo;
 import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
+import org.jboss.pnc.spi.datastore.repositories.api.Projection;
 import org.jboss.pnc.spi.datastore.repositories.api.Repository;
 import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
 
@@ -65,6 +68,34 @@ public class RepositoryMock<EntityType extends GenericEntity<Integer>> implement
         return null;
     }
 
+    @Override
+    public List<EntityType> queryWithPredicatesUsingCursor(PageInfo pageInfo, SortInfo sortInfo, Predicate<EntityType>... predicates) {
+        return null;
+    }
+
+    @Override
+    public List<EntityType> queryWithPredicates(PageInfo pageInfo, SortInfo sortInfo, FetchPlan<EntityType> fetchPlan,
+            Predicate<EntityType>... predicates) {
+        return queryWithPredicates(pageInfo, sortInfo, predicates);
+    }
+
+    @Override
+    public List<EntityType> queryWithPredicatesUsingCursor(PageInfo pageInfo, SortInfo sortInfo,
+            FetchPlan<EntityType> fetchPlan, Predicate<EntityType>... predicates) {
+        return queryWithPredicatesUsingCursor(pageInfo, sortInfo, predicates);
+    }
+
+    @Override
+    public <P> List<P> queryProjectionWithPredicatesUsingCursor(PageInfo pageInfo, SortInfo sortInfo,
+            Projection<EntityType, P> projection, Predicate<EntityType>... predicates) {
+        return null;
+    }
+
+    @Override
+    public List<EntityType> queryWithPredicatesAfter(KeysetCursor after, int pageSize, SortInfo sortInfo, Predicate<EntityType>... predicates) {
+        return null;
+    }
+
     @Override
     public List<EntityType> queryWithPredicates(Predicate<EntityType>... predicates) {
         return null;
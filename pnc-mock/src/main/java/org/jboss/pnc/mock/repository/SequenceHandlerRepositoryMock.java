@@ -19,7 +19,9 @@ package org.jboss.pnc.mock.repository;
 
 import org.jboss.pnc.spi.datastore.repositories.SequenceHandlerRepository;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 
@@ -31,6 +33,7 @@ import java.util.Map;
  */
 public class SequenceHandlerRepositoryMock implements SequenceHandlerRepository {
     private final Map<String, Long> sequences = new HashMap<>();
+    private final Map<String, Integer> increments = new HashMap<>();
 
     @Override
     public String getEntityManagerFactoryProperty(String propertyName) {
@@ -40,13 +43,29 @@ public class SequenceHandlerRepositoryMock implements SequenceHandlerRepository
     @Override
     public synchronized Long getNextID(String sequenceName) {
         init(sequenceName);
-        Long next = sequences.get(sequenceName);
-        sequences.put(sequenceName, ++next);
+        Long next = sequences.get(sequenceName) + increments.get(sequenceName);
+        sequences.put(sequenceName, next);
         return next;
     }
 
+    @Override
+    public synchronized List<Long> getNextIDs(String sequenceName, int count) {
+        List<Long> nextIDs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            nextIDs.add(getNextID(sequenceName));
+        }
+        return nextIDs;
+    }
+
     @Override
     public void createSequence(String sequenceName) {
+        createSequence(sequenceName, 1);
+    }
+
+    @Override
+    public synchronized void createSequence(String sequenceName, int incrementSize) {
+        sequences.put(sequenceName, 0L);
+        increments.put(sequenceName, incrementSize);
     }
 
     @Override
@@ -60,7 +79,7 @@ public class SequenceHandlerRepositoryMock implements SequenceHandlerRepository
 
     private void init(String sequenceName) {
         if (!sequences.containsKey(sequenceName)) {
-            sequences.put(sequenceName, 0L);
+            createSequence(sequenceName);
         }
     }
 }
@@ -26,4 +26,12 @@ import org.jboss.pnc.spi.datastore.repositories.UserRepository;
  * Time: 12:06 PM
  */
 public class UserRepositoryMock extends RepositoryMock<User> implements UserRepository {
+
+    @Override
+    public User queryByUsername(String username) {
+        return data.stream()
+                .filter(user -> user.getUsername().equals(username))
+                .findAny()
+                .orElse(null);
+    }
 }
@@ -32,12 +32,21 @@ public class CollectionInfo<T> {
     private final Integer pageSize;
     private final Integer totalPages;
     private final Collection<T> content;
+    private final Boolean hasNextPage;
+    private final String nextCursor;
 
     public CollectionInfo(Integer pageIndex, Integer pageSize, Integer totalPages, Collection<T> content) {
+        this(pageIndex, pageSize, totalPages, content, pageIndex + 1 < totalPages, null);
+    }
+
+    public CollectionInfo(Integer pageIndex, Integer pageSize, Integer totalPages, Collection<T> content, Boolean hasNextPage,
+            String nextCursor) {
         this.pageIndex = pageIndex;
         this.pageSize = pageSize;
         this.totalPages = totalPages;
         this.content = Collections.unmodifiableCollection(content);
+        this.hasNextPage = hasNextPage;
+        this.nextCursor = nextCursor;
     }
 
     public Integer getPageIndex() {
@@ -55,4 +64,18 @@ public class CollectionInfo<T> {
     public Collection<T> getContent() {
         return content;
     }
+
+    /**
+     * @return true if there are more results after this page, also known when the total number of pages is not
+     */
+    public Boolean getHasNextPage() {
+        return hasNextPage;
+    }
+
+    /**
+     * @return cursor of the next page in keyset pagination, null on the last page or with offset pagination
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
 }
@@ -0,0 +1,104 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.restmodel;
+
+import org.jboss.pnc.spi.datastore.BuildLogMatch;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import java.io.Serializable;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Lines of the log of a build matching a log search.
+ */
+@XmlRootElement(name = "buildLogSearchResult")
+public class BuildLogSearchResultRest implements Serializable {
+
+    private Integer buildRecordId;
+
+    private List<Match> matches;
+
+    public BuildLogSearchResultRest() {
+    }
+
+    public BuildLogSearchResultRest(Integer buildRecordId, List<BuildLogMatch> matches) {
+        this.buildRecordId = buildRecordId;
+        this.matches = matches.stream().map(Match::new).collect(Collectors.toList());
+    }
+
+    public Integer getBuildRecordId() {
+        return buildRecordId;
+    }
+
+    public void setBuildRecordId(Integer buildRecordId) {
+        this.buildRecordId = buildRecordId;
+    }
+
+    public List<Match> getMatches() {
+        return matches;
+    }
+
+    public void setMatches(List<Match> matches) {
+        this.matches = matches;
+    }
+
+    @Override
+    public String toString() {
+        return "BuildLogSearchResultRest [buildRecordId=" + buildRecordId + ", matches=" + matches + "]";
+    }
+
+    /**
+     * Matching line, the offset is the position of its first byte in the log and can be used in a Range request.
+     */
+    public static class Match implements Serializable {
+
+        private long lineNumber;
+
+        private long offset;
+
+        public Match() {
+        }
+
+        public Match(BuildLogMatch match) {
+            this.lineNumber = match.getLineNumber();
+            this.offset = match.getOffset();
+        }
+
+        public long getLineNumber() {
+            return lineNumber;
+        }
+
+        public void setLineNumber(long lineNumber) {
+            this.lineNumber = lineNumber;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public void setOffset(long offset) {
+            this.offset = offset;
+        }
+
+        @Override
+        public String toString() {
+            return "Match [lineNumber=" + lineNumber + ", offset=" + offset + "]";
+        }
+    }
+}
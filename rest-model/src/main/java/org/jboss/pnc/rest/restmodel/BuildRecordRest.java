@@ -124,7 +124,7 @@ public class BuildRecordRest implements GenericRestEntity<Integer> {
         performIfNotNull(buildRecord.getBuildConfigurationAudited(),
                 () -> projectId = buildRecord.getBuildConfigurationAudited().getProject().getId());
         performIfNotNull(buildRecord.getBuildConfigurationAudited(),
-                () -> projectName = buildRecord.getBuildConfigurationAudited().getName());
+                () -> projectName = buildRecord.getBuildConfigurationAudited().getProject().getName());
         performIfNotNull(buildRecord.getUser(), () -> userId = buildRecord.getUser().getId());
         performIfNotNull(buildRecord.getUser(), () -> username = buildRecord.getUser().getUsername());
         performIfNotNull(buildRecord.getBuildEnvironment(), () -> buildEnvironmentId = buildRecord.getBuildEnvironment().getId());
@@ -326,6 +326,10 @@ public class BuildRecordRest implements GenericRestEntity<Integer> {
         return buildConfigSetRecordId;
     }
 
+    public void setBuildConfigSetRecordId(Integer buildConfigSetRecordId) {
+        this.buildConfigSetRecordId = buildConfigSetRecordId;
+    }
+
     public String getBuildContentId() {
         return buildContentId;
     }
@@ -354,7 +358,15 @@ public class BuildRecordRest implements GenericRestEntity<Integer> {
         return projectId;
     }
 
+    public void setProjectId(Integer projectId) {
+        this.projectId = projectId;
+    }
+
     public String getProjectName() {
         return projectName;
     }
+
+    public void setProjectName(String projectName) {
+        this.projectName = projectName;
+    }
 }
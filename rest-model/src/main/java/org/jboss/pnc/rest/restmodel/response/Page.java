@@ -35,7 +35,7 @@ import java.util.Collections;
 @ApiModel(description = "Results with additional Paging information")
 public class Page<T> {
 
-    @ApiModelProperty("Page index")
+    @ApiModelProperty("Page index or -1 if the page was requested by a cursor")
     private Integer pageIndex;
 
     @ApiModelProperty("Number of records per page")
@@ -47,6 +47,12 @@ public class Page<T> {
     @ApiModelProperty("Embedded collection of data")
     private Collection<T> content;
 
+    @ApiModelProperty("True if there are more results after this page")
+    private Boolean hasNextPage;
+
+    @ApiModelProperty("Cursor of the next page for keyset pagination or null if there are no more results")
+    private String nextCursor;
+
     public Page() {
     }
 
@@ -55,6 +61,8 @@ public class Page<T> {
         this.pageSize = collectionInfo.getPageSize();
         this.totalPages = collectionInfo.getTotalPages();
         this.content = Collections.unmodifiableCollection(collectionInfo.getContent());
+        this.hasNextPage = collectionInfo.getHasNextPage();
+        this.nextCursor = collectionInfo.getNextCursor();
     }
 
     public Integer getPageIndex() {
@@ -89,6 +97,22 @@ public class Page<T> {
         this.content = content;
     }
 
+    public Boolean getHasNextPage() {
+        return hasNextPage;
+    }
+
+    public void setHasNextPage(Boolean hasNextPage) {
+        this.hasNextPage = hasNextPage;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
     @Override
     public String toString() {
         return "Page{" +
@@ -96,6 +120,8 @@ public class Page<T> {
                 ", pageSize=" + pageSize +
                 ", totalPages=" + totalPages +
                 ", content=" + content +
+                ", hasNextPage=" + hasNextPage +
+                ", nextCursor=" + nextCursor +
                 '}';
     }
 }
@@ -0,0 +1,65 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.configuration;
+
+import org.jboss.pnc.rest.provider.SummaryViewOption;
+import org.jboss.pnc.rest.provider.TotalCountOption;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebFilter;
+import java.io.IOException;
+
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.SUMMARY_QUERY_PARAM;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.TOTALS_QUERY_PARAM;
+
+/**
+ * Reads the query parameters tuning the collections, totals into {@link TotalCountOption} and summary into
+ * {@link SummaryViewOption}, for the duration of a REST request.
+ */
+@WebFilter("/rest/*")
+public class CollectionOptionsFilter implements Filter {
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        if ("false".equalsIgnoreCase(request.getParameter(TOTALS_QUERY_PARAM))) {
+            TotalCountOption.skip();
+        }
+        if ("true".equalsIgnoreCase(request.getParameter(SUMMARY_QUERY_PARAM))) {
+            SummaryViewOption.request();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TotalCountOption.clear();
+            SummaryViewOption.clear();
+        }
+    }
+
+    @Override
+    public void destroy() {
+    }
+}
@@ -50,6 +50,12 @@ public interface SwaggerConstants {
     public static final String NOT_FOUND_DESCRIPTION = "Can not find specified result";
     public static final int NOT_FOUND_CODE = 404;
 
+    public static final String PARTIAL_CONTENT_DESCRIPTION = "Success with the requested byte range";
+    public static final int PARTIAL_CONTENT_CODE = 206;
+
+    public static final String RANGE_NOT_SATISFIABLE_DESCRIPTION = "The requested byte range is beyond the content";
+    public static final int RANGE_NOT_SATISFIABLE_CODE = 416;
+
     public static final String PAGE_INDEX_DESCRIPTION = "Page Index";
     public static final String PAGE_INDEX_QUERY_PARAM = "pageIndex";
     public static final String PAGE_INDEX_DEFAULT_VALUE = "0";
@@ -58,6 +64,22 @@ public interface SwaggerConstants {
     public static final String PAGE_SIZE_QUERY_PARAM = "pageSize";
     public static final String PAGE_SIZE_DEFAULT_VALUE = "50";
 
+    public static final String AFTER_DESCRIPTION = "Keyset pagination cursor, nextCursor of the previous page " +
+            "or empty for the first page. The page index is ignored if present.";
+    public static final String AFTER_QUERY_PARAM = "after";
+
+    public static final String STREAM_DESCRIPTION = "Stream the whole collection as a single page, " +
+            "the page index and size are ignored.";
+    public static final String STREAM_QUERY_PARAM = "stream";
+
+    public static final String TOTALS_DESCRIPTION = "Set to false to skip counting the total number of pages, " +
+            "totalPages is -1 then and hasNextPage tells if there are more results.";
+    public static final String TOTALS_QUERY_PARAM = "totals";
+
+    public static final String SUMMARY_DESCRIPTION = "Set to true to get only the fields list views display, " +
+            "other fields are null.";
+    public static final String SUMMARY_QUERY_PARAM = "summary";
+
     public static final String SORTING_DESCRIPTION = "Sorting RSQL";
     public static final String SORTING_QUERY_PARAM = "sort";
 
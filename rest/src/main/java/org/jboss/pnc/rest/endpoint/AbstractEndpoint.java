@@ -20,15 +20,21 @@ package org.jboss.pnc.rest.endpoint;
 
 import org.jboss.pnc.model.GenericEntity;
 import org.jboss.pnc.rest.provider.AbstractProvider;
+import org.jboss.pnc.rest.provider.ResourceVersion;
 import org.jboss.pnc.rest.provider.collection.CollectionInfo;
 import org.jboss.pnc.rest.restmodel.GenericRestEntity;
 import org.jboss.pnc.rest.restmodel.response.Page;
 import org.jboss.pnc.rest.restmodel.response.Singleton;
+import org.jboss.pnc.rest.utils.CollectionStreamingOutput;
+import org.jboss.pnc.rest.validation.exceptions.InvalidEntityException;
 import org.jboss.pnc.rest.validation.exceptions.ValidationException;
 
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.core.UriInfo;
+import java.util.function.Supplier;
 
 /**
  * Abstract endpoint class providing common functionality
@@ -55,6 +61,14 @@ public class AbstractEndpoint<DBEntity extends GenericEntity<Integer>, RESTEntit
         return fromSingleton(basicProvider.getSpecific(id));
     }
 
+    /**
+     * Same as {@link #getSpecific(Integer)}, but answers a conditional request of a client that has the current version
+     * of the entity with 304 Not Modified, without loading the entity. See {@link AbstractProvider#getVersion(Integer)}.
+     */
+    public Response getSpecific(Integer id, Request request) {
+        return fromSingleton(request, basicProvider.getVersion(id), () -> basicProvider.getSpecific(id));
+    }
+
     public Response createNew(RESTEntity restEntity, UriInfo uriInfo) throws ValidationException {
         int id = basicProvider.store(restEntity);
         UriBuilder uriBuilder = UriBuilder.fromUri(uriInfo.getRequestUri()).path("{id}");
@@ -71,6 +85,20 @@ public class AbstractEndpoint<DBEntity extends GenericEntity<Integer>, RESTEntit
         return Response.ok().build();
     }
 
+    /**
+     * Streams the whole collection as a single page, see {@link CollectionStreamingOutput}.
+     *
+     * @param pageAfterCursor loads the keyset page following the cursor, or the first page for a null cursor
+     */
+    protected <T> Response fromCollectionStream(CollectionStreamingOutput.PageLoader<T> pageAfterCursor)
+            throws InvalidEntityException {
+        CollectionInfo<T> firstPage = pageAfterCursor.load(null);
+        if (firstPage.getContent().isEmpty()) {
+            return fromCollection(firstPage);
+        }
+        return Response.ok(new CollectionStreamingOutput<>(firstPage, pageAfterCursor), MediaType.APPLICATION_JSON_TYPE).build();
+    }
+
     protected <T> Response fromCollection(CollectionInfo<T> collection) {
         Page<T> pageForResponse = new Page<>(collection);
         if(collection == null || collection.getContent().size() == 0) {
@@ -79,6 +107,59 @@ public class AbstractEndpoint<DBEntity extends GenericEntity<Integer>, RESTEntit
         return Response.ok().entity(pageForResponse).build();
     }
 
+    /**
+     * Evaluates the If-None-Match and If-Modified-Since headers of the request against the version of the collection
+     * and loads the collection only if the client does not have its current version.
+     *
+     * @param version version of the collection, null to always load the collection
+     */
+    protected <T> Response fromCollection(Request request, ResourceVersion version, Supplier<CollectionInfo<T>> collection) {
+        if (version == null) {
+            return fromCollection(collection.get());
+        }
+        Response.ResponseBuilder notModified = evaluatePreconditions(request, version);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        return withVersion(Response.fromResponse(fromCollection(collection.get())), version).build();
+    }
+
+    /**
+     * Evaluates the If-None-Match and If-Modified-Since headers of the request against the version of the entity
+     * and loads the entity only if the client does not have its current version.
+     *
+     * @param version version of the entity, null to always load the entity
+     */
+    protected <T> Response fromSingleton(Request request, ResourceVersion version, Supplier<T> singleton) {
+        if (version == null) {
+            return fromSingleton(singleton.get());
+        }
+        Response.ResponseBuilder notModified = evaluatePreconditions(request, version);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        T entity = singleton.get();
+        if (entity == null) {
+            return fromSingleton(null);
+        }
+        return withVersion(Response.ok().entity(new Singleton(entity)), version).build();
+    }
+
+    private Response.ResponseBuilder evaluatePreconditions(Request request, ResourceVersion version) {
+        Response.ResponseBuilder notModified = version.getLastModified() == null
+                ? request.evaluatePreconditions(version.getEntityTag())
+                : request.evaluatePreconditions(version.getLastModified(), version.getEntityTag());
+        return notModified == null ? null : withVersion(notModified, version);
+    }
+
+    private Response.ResponseBuilder withVersion(Response.ResponseBuilder response, ResourceVersion version) {
+        response.tag(version.getEntityTag());
+        if (version.getLastModified() != null) {
+            response.lastModified(version.getLastModified());
+        }
+        return response;
+    }
+
     protected <T> Response fromSingleton(T singleton) {
         if(singleton == null) {
             return Response.status(Response.Status.NOT_FOUND).entity(new Singleton(null)).build();
@@ -29,6 +29,7 @@ import org.jboss.pnc.rest.restmodel.BuildConfigSetRecordRest;
 import org.jboss.pnc.rest.restmodel.response.error.ErrorResponseRest;
 import org.jboss.pnc.rest.swagger.response.BuildConfigSetRecordSingleton;
 import org.jboss.pnc.rest.swagger.response.BuildConfigurationSetRecordPage;
+import org.jboss.pnc.rest.swagger.response.MakespanEstimateSingleton;
 
 import javax.inject.Inject;
 import javax.validation.constraints.NotNull;
@@ -69,6 +70,8 @@ import static org.jboss.pnc.rest.configuration.SwaggerConstants.SUCCESS_DESCRIPT
 @Consumes(MediaType.APPLICATION_JSON)
 public class BuildConfigSetRecordEndpoint extends AbstractEndpoint<BuildConfigSetRecord, BuildConfigSetRecordRest> {
 
+    private BuildConfigSetRecordProvider buildConfigSetRecordProvider;
+
     private BuildRecordProvider buildRecordProvider;
 
     public BuildConfigSetRecordEndpoint() {
@@ -78,6 +81,7 @@ public class BuildConfigSetRecordEndpoint extends AbstractEndpoint<BuildConfigSe
     public BuildConfigSetRecordEndpoint(BuildConfigSetRecordProvider buildConfigSetRecordProvider,
             BuildRecordProvider buildRecordProvider) {
         super(buildConfigSetRecordProvider);
+        this.buildConfigSetRecordProvider = buildConfigSetRecordProvider;
         this.buildRecordProvider = buildRecordProvider;
     }
 
@@ -127,4 +131,19 @@ public class BuildConfigSetRecordEndpoint extends AbstractEndpoint<BuildConfigSe
         return fromCollection(buildRecordProvider.getAllForBuildConfigSetRecord(pageIndex, pageSize, sort, q, id));
     }
 
+    @ApiOperation(value = "Gets the expected duration, critical path and slack of the builds of a running build config set",
+            notes = "The estimate is computed from the previous successful builds when the set is submitted. "
+                    + "Durations are in milliseconds.")
+    @ApiResponses(value = {
+            @ApiResponse(code = SUCCESS_CODE, message = SUCCESS_DESCRIPTION, response = MakespanEstimateSingleton.class),
+            @ApiResponse(code = NOT_FOUND_CODE, message = NOT_FOUND_DESCRIPTION, response = MakespanEstimateSingleton.class),
+            @ApiResponse(code = INVALID_CODE, message = INVALID_DESCRIPTION, response = ErrorResponseRest.class),
+            @ApiResponse(code = SERVER_ERROR_CODE, message = SERVER_ERROR_DESCRIPTION, response = ErrorResponseRest.class)
+    })
+    @GET
+    @Path("/{id}/makespan-estimate")
+    public Response getMakespanEstimate(@ApiParam(value = "Build Config set record id", required = true) @PathParam("id") Integer id) {
+        return fromSingleton(buildConfigSetRecordProvider.getMakespanEstimate(id));
+    }
+
 }
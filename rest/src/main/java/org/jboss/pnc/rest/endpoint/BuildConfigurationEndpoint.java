@@ -66,6 +66,7 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.core.UriInfo;
@@ -74,6 +75,8 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
 
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.AFTER_DESCRIPTION;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.AFTER_QUERY_PARAM;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.CONFLICTED_CODE;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.CONFLICTED_DESCRIPTION;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.ENTITY_CREATED_CODE;
@@ -191,8 +194,9 @@ public class BuildConfigurationEndpoint extends AbstractEndpoint<BuildConfigurat
     @GET
     @Path("/{id}")
     public Response getSpecific(
-            @ApiParam(value = "Build Configuration id", required = true) @PathParam("id") Integer id) {
-        return super.getSpecific(id);
+            @ApiParam(value = "Build Configuration id", required = true) @PathParam("id") Integer id,
+            @Context Request request) {
+        return super.getSpecific(id, request);
     }
 
     @ApiOperation(value = "Updates an existing Build Configuration")
@@ -511,7 +515,11 @@ public class BuildConfigurationEndpoint extends AbstractEndpoint<BuildConfigurat
             @ApiParam(value = PAGE_SIZE_DESCRIPTION) @QueryParam(PAGE_SIZE_QUERY_PARAM) @DefaultValue(PAGE_SIZE_DEFAULT_VALUE) int pageSize,
             @ApiParam(value = SORTING_DESCRIPTION) @QueryParam(SORTING_QUERY_PARAM) String sort,
             @ApiParam(value = QUERY_DESCRIPTION, required = false) @QueryParam(QUERY_QUERY_PARAM) String q,
-            @ApiParam(value = "Build configuration id", required = true) @PathParam("id") Integer id) {
+            @ApiParam(value = "Build configuration id", required = true) @PathParam("id") Integer id,
+            @ApiParam(value = AFTER_DESCRIPTION) @QueryParam(AFTER_QUERY_PARAM) String after) throws InvalidEntityException {
+        if (after != null) {
+            return fromCollection(buildRecordProvider.getAllForBuildConfigurationAfter(after, pageSize, sort, q, id));
+        }
         return fromCollection(buildRecordProvider.getAllForBuildConfiguration(pageIndex, pageSize, sort, q, id));
     }
 
@@ -23,6 +23,7 @@ import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.BuildStatus;
 import org.jboss.pnc.rest.provider.ArtifactProvider;
 import org.jboss.pnc.rest.provider.BuildRecordProvider;
 import org.jboss.pnc.rest.restmodel.BuildRecordRest;
@@ -30,9 +31,13 @@ import org.jboss.pnc.rest.restmodel.response.error.ErrorResponseRest;
 import org.jboss.pnc.rest.swagger.response.ArtifactPage;
 import org.jboss.pnc.rest.swagger.response.AttributeSingleton;
 import org.jboss.pnc.rest.swagger.response.BuildConfigurationAuditedSingleton;
+import org.jboss.pnc.rest.swagger.response.BuildLogSearchResultPage;
 import org.jboss.pnc.rest.swagger.response.BuildRecordPage;
 import org.jboss.pnc.rest.swagger.response.BuildRecordSingleton;
+import org.jboss.pnc.rest.utils.ByteRange;
+import org.jboss.pnc.rest.utils.CollectionStreamingOutput;
 import org.jboss.pnc.rest.utils.EndpointAuthenticationProvider;
+import org.jboss.pnc.rest.validation.exceptions.InvalidEntityException;
 
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
@@ -40,6 +45,7 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
@@ -47,15 +53,23 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import java.util.Date;
 
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.AFTER_DESCRIPTION;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.AFTER_QUERY_PARAM;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.INVALID_CODE;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.INVALID_DESCRIPTION;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.NOT_FOUND_CODE;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.NOT_FOUND_DESCRIPTION;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.NO_CONTENT_CODE;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.NO_CONTENT_DESCRIPTION;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.PARTIAL_CONTENT_CODE;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.PARTIAL_CONTENT_DESCRIPTION;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.RANGE_NOT_SATISFIABLE_CODE;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.RANGE_NOT_SATISFIABLE_DESCRIPTION;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.PAGE_INDEX_DEFAULT_VALUE;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.PAGE_INDEX_DESCRIPTION;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.PAGE_INDEX_QUERY_PARAM;
@@ -68,6 +82,8 @@ import static org.jboss.pnc.rest.configuration.SwaggerConstants.SERVER_ERROR_COD
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.SERVER_ERROR_DESCRIPTION;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.SORTING_DESCRIPTION;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.SORTING_QUERY_PARAM;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.STREAM_DESCRIPTION;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.STREAM_QUERY_PARAM;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.SUCCESS_CODE;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.SUCCESS_DESCRIPTION;
 
@@ -105,12 +121,15 @@ public class BuildRecordEndpoint extends AbstractEndpoint<BuildRecord, BuildReco
             @ApiResponse(code = SERVER_ERROR_CODE, message = SERVER_ERROR_DESCRIPTION, response = ErrorResponseRest.class)
     })
     @GET
-    @Override
     public Response getAll(
             @ApiParam(value = PAGE_INDEX_DESCRIPTION) @QueryParam(PAGE_INDEX_QUERY_PARAM) @DefaultValue(PAGE_INDEX_DEFAULT_VALUE) int pageIndex,
             @ApiParam(value = PAGE_SIZE_DESCRIPTION) @QueryParam(PAGE_SIZE_QUERY_PARAM) @DefaultValue(PAGE_SIZE_DEFAULT_VALUE) int pageSize,
             @ApiParam(value = SORTING_DESCRIPTION) @QueryParam(SORTING_QUERY_PARAM) String sort,
-            @ApiParam(value = QUERY_DESCRIPTION, required = false) @QueryParam(QUERY_QUERY_PARAM) String q) {
+            @ApiParam(value = QUERY_DESCRIPTION, required = false) @QueryParam(QUERY_QUERY_PARAM) String q,
+            @ApiParam(value = AFTER_DESCRIPTION) @QueryParam(AFTER_QUERY_PARAM) String after) throws InvalidEntityException {
+        if (after != null) {
+            return fromCollection(buildRecordProvider.getAllAfter(after, pageSize, sort, q));
+        }
         return super.getAll(pageIndex, pageSize, sort, q);
     }
 
@@ -123,30 +142,88 @@ public class BuildRecordEndpoint extends AbstractEndpoint<BuildRecord, BuildReco
     })
     @GET
     @Path("/{id}")
-    public Response getSpecific(@ApiParam(value = "BuildRecord id", required = true) @PathParam("id") Integer id) {
-        return super.getSpecific(id);
+    public Response getSpecific(@ApiParam(value = "BuildRecord id", required = true) @PathParam("id") Integer id,
+            @Context Request request) {
+        return super.getSpecific(id, request);
     }
 
-    @ApiOperation(value = "Gets logs for specific Build Record")
+    @ApiOperation(value = "Gets logs for specific Build Record",
+            notes = "A single byte range, e.g. 'bytes=-65536' for the tail, can be requested with the Range header.")
     @ApiResponses(value = {
             @ApiResponse(code = SUCCESS_CODE, message = SUCCESS_DESCRIPTION, response = String.class),
+            @ApiResponse(code = PARTIAL_CONTENT_CODE, message = PARTIAL_CONTENT_DESCRIPTION, response = String.class),
             @ApiResponse(code = INVALID_CODE, message = INVALID_DESCRIPTION, response = ErrorResponseRest.class),
             @ApiResponse(code = NOT_FOUND_CODE, message = NOT_FOUND_DESCRIPTION),
             @ApiResponse(code = NO_CONTENT_CODE, message = NO_CONTENT_DESCRIPTION),
+            @ApiResponse(code = RANGE_NOT_SATISFIABLE_CODE, message = RANGE_NOT_SATISFIABLE_DESCRIPTION),
             @ApiResponse(code = SERVER_ERROR_CODE, message = SERVER_ERROR_DESCRIPTION, response = ErrorResponseRest.class)
     })
     @GET
     @Path("/{id}/log")
     @Produces(MediaType.TEXT_PLAIN)
-    public Response getLogs(@ApiParam(value = "BuildRecord id", required = true) @PathParam("id") Integer id) {
-        String buildRecordLog = buildRecordProvider.getBuildRecordLog(id);
-        if (buildRecordLog == null)
+    public Response getLogs(@ApiParam(value = "BuildRecord id", required = true) @PathParam("id") Integer id,
+            @HeaderParam(ByteRange.RANGE_HEADER) String range) {
+        long storedLogLength = buildRecordProvider.getStoredLogLength(id);
+        if (storedLogLength > 0) {
+            return getStoredLog(id, storedLogLength, ByteRange.parse(range));
+        }
+
+        // logs of builds stored before the log store was introduced are kept in the build record
+        Integer logLength = buildRecordProvider.getBuildRecordLogLength(id);
+        if (logLength == null)
             return Response.status(Status.NOT_FOUND).build();
 
-        if (buildRecordLog.isEmpty())
+        if (logLength == 0)
             return Response.noContent().build();
         else
-            return Response.ok(buildRecordProvider.getLogsForBuild(buildRecordLog)).build();
+            return Response.ok(buildRecordProvider.getLogsForBuild(id, logLength)).build();
+    }
+
+    private Response getStoredLog(Integer id, long logLength, ByteRange byteRange) {
+        if (byteRange == null) {
+            return Response.ok(buildRecordProvider.getStoredLog(id, 0, logLength))
+                    .header(ByteRange.ACCEPT_RANGES_HEADER, ByteRange.BYTES_UNIT)
+                    .build();
+        }
+        if (!byteRange.isSatisfiable(logLength)) {
+            return Response.status(Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(ByteRange.CONTENT_RANGE_HEADER, ByteRange.toUnsatisfiedContentRange(logLength))
+                    .build();
+        }
+        return Response.status(Status.PARTIAL_CONTENT)
+                .entity(buildRecordProvider.getStoredLog(id, byteRange.getOffset(logLength), byteRange.getLength(logLength)))
+                .header(ByteRange.ACCEPT_RANGES_HEADER, ByteRange.BYTES_UNIT)
+                .header(ByteRange.CONTENT_RANGE_HEADER, byteRange.toContentRange(logLength))
+                .build();
+    }
+
+    @ApiOperation(value = "Searches the logs of Build Records",
+            notes = "Builds are searched newest first. A page may hold fewer results than the page size when many "
+                    + "builds were searched without a match or the search ran out of time, the next page continues "
+                    + "after the last searched build. "
+                    + "The offset of a matching line can be used to read the log from the line with the Range header.")
+    @ApiResponses(value = {
+            @ApiResponse(code = SUCCESS_CODE, message = SUCCESS_DESCRIPTION, response = BuildLogSearchResultPage.class),
+            @ApiResponse(code = NO_CONTENT_CODE, message = NO_CONTENT_DESCRIPTION, response = BuildLogSearchResultPage.class),
+            @ApiResponse(code = INVALID_CODE, message = INVALID_DESCRIPTION, response = ErrorResponseRest.class),
+            @ApiResponse(code = SERVER_ERROR_CODE, message = SERVER_ERROR_DESCRIPTION, response = ErrorResponseRest.class)
+    })
+    @GET
+    @Path("/log-search")
+    public Response searchLogs(
+            @ApiParam(value = "Text to find in the log lines, ignoring the case") @QueryParam("text") String text,
+            @ApiParam(value = "Regular expression to find in the log lines, only together with a text of at least 3 characters") @QueryParam("regex") String regex,
+            @ApiParam(value = "Build Configuration id") @QueryParam("buildConfigurationId") Integer buildConfigurationId,
+            @ApiParam(value = "Project id") @QueryParam("projectId") Integer projectId,
+            @ApiParam(value = "Build status") @QueryParam("status") BuildStatus status,
+            @ApiParam(value = "Earliest end time of the build in milliseconds since the epoch") @QueryParam("endTimeFrom") Long endTimeFrom,
+            @ApiParam(value = "End time the build ended before in milliseconds since the epoch") @QueryParam("endTimeTo") Long endTimeTo,
+            @ApiParam(value = PAGE_SIZE_DESCRIPTION) @QueryParam(PAGE_SIZE_QUERY_PARAM) @DefaultValue(PAGE_SIZE_DEFAULT_VALUE) int pageSize,
+            @ApiParam(value = AFTER_DESCRIPTION) @QueryParam(AFTER_QUERY_PARAM) String after)
+            throws InvalidEntityException {
+        return fromCollection(buildRecordProvider.searchLogs(text, regex, buildConfigurationId, projectId, status,
+                endTimeFrom == null ? null : new Date(endTimeFrom), endTimeTo == null ? null : new Date(endTimeTo),
+                pageSize, after));
     }
 
     /**
@@ -204,7 +281,17 @@ public class BuildRecordEndpoint extends AbstractEndpoint<BuildRecord, BuildReco
             @ApiParam(value = PAGE_INDEX_DESCRIPTION) @QueryParam(PAGE_INDEX_QUERY_PARAM) @DefaultValue(PAGE_INDEX_DEFAULT_VALUE) int pageIndex,
             @ApiParam(value = PAGE_SIZE_DESCRIPTION) @QueryParam(PAGE_SIZE_QUERY_PARAM) @DefaultValue(PAGE_SIZE_DEFAULT_VALUE) int pageSize,
             @ApiParam(value = SORTING_DESCRIPTION) @QueryParam(SORTING_QUERY_PARAM) String sort,
-            @ApiParam(value = QUERY_DESCRIPTION, required = false) @QueryParam(QUERY_QUERY_PARAM) String q) {
+            @ApiParam(value = QUERY_DESCRIPTION, required = false) @QueryParam(QUERY_QUERY_PARAM) String q,
+            @ApiParam(value = AFTER_DESCRIPTION) @QueryParam(AFTER_QUERY_PARAM) String after,
+            @ApiParam(value = STREAM_DESCRIPTION) @QueryParam(STREAM_QUERY_PARAM) @DefaultValue("false") boolean stream)
+            throws InvalidEntityException {
+        if (stream) {
+            return fromCollectionStream(cursor -> artifactProvider.getDependencyArtifactsForBuildRecordAfter(cursor,
+                    CollectionStreamingOutput.BATCH_SIZE, sort, q, id));
+        }
+        if (after != null) {
+            return fromCollection(artifactProvider.getDependencyArtifactsForBuildRecordAfter(after, pageSize, sort, q, id));
+        }
         return fromCollection(artifactProvider.getDependencyArtifactsForBuildRecord(pageIndex, pageSize, sort, q, id));
     }
 
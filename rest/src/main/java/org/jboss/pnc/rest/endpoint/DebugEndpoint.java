@@ -17,7 +17,9 @@
  */
 package org.jboss.pnc.rest.endpoint;
 
+import org.jboss.pnc.common.util.MonitoredThreadPoolExecutor;
 import org.jboss.pnc.coordinator.builder.BuildQueue;
+import org.jboss.pnc.rest.provider.CountCache;
 
 import javax.inject.Inject;
 import javax.ws.rs.Consumes;
@@ -26,6 +28,7 @@ import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.util.stream.Collectors;
 
 /**
  * Author: Michal Szynkiewicz, michal.l.szynkiewicz@gmail.com
@@ -40,10 +43,29 @@ public class DebugEndpoint {
     @Inject
     private BuildQueue buildQueue;
 
+    @Inject
+    private CountCache countCache;
+
     @GET
     @Path("/build-queue")
     public Response getBuildQueueInfo() {
         String info = buildQueue.getDebugInfo();
         return Response.ok(info).build();
     }
+
+    @GET
+    @Path("/count-cache")
+    public Response getCountCacheInfo() {
+        return Response.ok(countCache.getDebugInfo()).build();
+    }
+
+    @GET
+    @Path("/thread-pools")
+    public Response getThreadPoolsInfo() {
+        String info = MonitoredThreadPoolExecutor.getPools().stream()
+                .map(MonitoredThreadPoolExecutor::getDebugInfo)
+                .sorted()
+                .collect(Collectors.joining("\n"));
+        return Response.ok(info).build();
+    }
 }
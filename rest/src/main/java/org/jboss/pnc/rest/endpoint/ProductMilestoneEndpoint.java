@@ -40,7 +40,9 @@ import org.jboss.pnc.rest.swagger.response.BuildRecordPage;
 import org.jboss.pnc.rest.swagger.response.ProductMilestonePage;
 import org.jboss.pnc.rest.swagger.response.ProductMilestoneReleaseSingleton;
 import org.jboss.pnc.rest.swagger.response.ProductMilestoneSingleton;
+import org.jboss.pnc.rest.utils.CollectionStreamingOutput;
 import org.jboss.pnc.rest.validation.exceptions.EmptyEntityException;
+import org.jboss.pnc.rest.validation.exceptions.InvalidEntityException;
 import org.jboss.pnc.rest.validation.exceptions.ValidationException;
 import org.jboss.pnc.spi.datastore.repositories.ProductMilestoneRepository;
 
@@ -81,6 +83,8 @@ import static org.jboss.pnc.rest.configuration.SwaggerConstants.SERVER_ERROR_COD
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.SERVER_ERROR_DESCRIPTION;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.SORTING_DESCRIPTION;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.SORTING_QUERY_PARAM;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.STREAM_DESCRIPTION;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.STREAM_QUERY_PARAM;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.SUCCESS_CODE;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.SUCCESS_DESCRIPTION;
 import static org.jboss.pnc.spi.datastore.predicates.ArtifactPredicates.withDistributedInProductMilestone;
@@ -216,7 +220,13 @@ public class ProductMilestoneEndpoint extends AbstractEndpoint<ProductMilestone,
                                       @ApiParam(value = PAGE_SIZE_DESCRIPTION) @QueryParam(PAGE_SIZE_QUERY_PARAM) @DefaultValue(PAGE_SIZE_DEFAULT_VALUE) int pageSize,
                                       @ApiParam(value = SORTING_DESCRIPTION) @QueryParam(SORTING_QUERY_PARAM) String sort,
                                       @ApiParam(value = QUERY_DESCRIPTION, required = false) @QueryParam(QUERY_QUERY_PARAM) String q,
-                                      @ApiParam(value = "Product milestone id", required = true) @PathParam("id") Integer id) {
+                                      @ApiParam(value = "Product milestone id", required = true) @PathParam("id") Integer id,
+                                      @ApiParam(value = STREAM_DESCRIPTION) @QueryParam(STREAM_QUERY_PARAM) @DefaultValue("false") boolean stream)
+            throws InvalidEntityException {
+        if (stream) {
+            return fromCollectionStream(after -> artifactProvider.queryForCollectionAfter(after, CollectionStreamingOutput.BATCH_SIZE,
+                    sort, q, withDistributedInProductMilestone(id)));
+        }
         return fromCollection(artifactProvider.queryForCollection(pageIndex, pageSize, sort, q, withDistributedInProductMilestone(id)));
     }
 
@@ -38,7 +38,9 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.*;
@@ -71,8 +73,10 @@ public class RunningBuildRecordEndpoint extends AbstractEndpoint<BuildRecord, Bu
     public Response getAll(@ApiParam(value = PAGE_INDEX_DESCRIPTION) @QueryParam(PAGE_INDEX_QUERY_PARAM) @DefaultValue(PAGE_INDEX_DEFAULT_VALUE) int pageIndex,
             @ApiParam(value = PAGE_SIZE_DESCRIPTION) @QueryParam(PAGE_SIZE_QUERY_PARAM) @DefaultValue(PAGE_SIZE_DEFAULT_VALUE) int pageSize,
             @ApiParam(value = SORTING_DESCRIPTION) @QueryParam(SORTING_QUERY_PARAM) String sort,
-            @ApiParam(value = SEARCH_DESCRIPTION) @QueryParam(SEARCH_QUERY_PARAM) @DefaultValue(SEARCH_DEFAULT_VALUE) String search) {
-        return fromCollection(buildRecordProvider.getAllRunning(pageIndex, pageSize, search, sort));
+            @ApiParam(value = SEARCH_DESCRIPTION) @QueryParam(SEARCH_QUERY_PARAM) @DefaultValue(SEARCH_DEFAULT_VALUE) String search,
+            @Context Request request) {
+        return fromCollection(request, buildRecordProvider.getRunningVersion(),
+                () -> buildRecordProvider.getAllRunning(pageIndex, pageSize, search, sort));
     }
 
     @ApiOperation(value = "Gets specific running Build Record")
@@ -84,8 +88,10 @@ public class RunningBuildRecordEndpoint extends AbstractEndpoint<BuildRecord, Bu
     })
     @GET
     @Path("/{id}")
-    public Response getSpecific(@ApiParam(value = "BuildRecord id", required = true) @PathParam("id") Integer id) {
-        return fromSingleton(buildRecordProvider.getSpecificRunning(id));
+    public Response getSpecific(@ApiParam(value = "BuildRecord id", required = true) @PathParam("id") Integer id,
+            @Context Request request) {
+        return fromSingleton(request, buildRecordProvider.getRunningVersion(),
+                () -> buildRecordProvider.getSpecificRunning(id));
     }
 
 
@@ -103,8 +109,10 @@ public class RunningBuildRecordEndpoint extends AbstractEndpoint<BuildRecord, Bu
             @ApiParam(value = PAGE_INDEX_DESCRIPTION) @QueryParam(PAGE_INDEX_QUERY_PARAM) @DefaultValue(PAGE_INDEX_DEFAULT_VALUE) int pageIndex,
             @ApiParam(value = PAGE_SIZE_DESCRIPTION) @QueryParam(PAGE_SIZE_QUERY_PARAM) @DefaultValue(PAGE_SIZE_DEFAULT_VALUE) int pageSize,
             @ApiParam(value = SEARCH_DESCRIPTION) @QueryParam(SEARCH_QUERY_PARAM) @DefaultValue(SEARCH_DEFAULT_VALUE) String search,
-            @ApiParam(value = "Build Configuration id", required = true) @PathParam("id") Integer bcId) {
-        return fromCollection(buildRecordProvider.getAllRunningForBuildConfiguration(pageIndex, pageSize, search, "", bcId));
+            @ApiParam(value = "Build Configuration id", required = true) @PathParam("id") Integer bcId,
+            @Context Request request) {
+        return fromCollection(request, buildRecordProvider.getRunningVersion(),
+                () -> buildRecordProvider.getAllRunningForBuildConfiguration(pageIndex, pageSize, search, "", bcId));
     }
 
 
@@ -122,7 +130,9 @@ public class RunningBuildRecordEndpoint extends AbstractEndpoint<BuildRecord, Bu
             @ApiParam(value = PAGE_INDEX_DESCRIPTION) @QueryParam(PAGE_INDEX_QUERY_PARAM) @DefaultValue(PAGE_INDEX_DEFAULT_VALUE) int pageIndex,
             @ApiParam(value = PAGE_SIZE_DESCRIPTION) @QueryParam(PAGE_SIZE_QUERY_PARAM) @DefaultValue(PAGE_SIZE_DEFAULT_VALUE) int pageSize,
             @ApiParam(value = SEARCH_DESCRIPTION) @QueryParam(SEARCH_QUERY_PARAM) @DefaultValue(SEARCH_DEFAULT_VALUE) String search,
-            @ApiParam(value = "Build Configuration Set id", required = true) @PathParam("id") Integer bcSetRecordId) {
-        return fromCollection(buildRecordProvider.getAllRunningForBCSetRecord(pageIndex, pageSize, search, bcSetRecordId));
+            @ApiParam(value = "Build Configuration Set id", required = true) @PathParam("id") Integer bcSetRecordId,
+            @Context Request request) {
+        return fromCollection(request, buildRecordProvider.getRunningVersion(),
+                () -> buildRecordProvider.getAllRunningForBCSetRecord(pageIndex, pageSize, search, bcSetRecordId));
     }
 }
@@ -0,0 +1,80 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.notifications.websockets;
+
+import org.jboss.pnc.spi.executor.BuildExecutionSession;
+import org.jboss.pnc.spi.executor.BuildExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.websocket.CloseReason;
+import javax.websocket.OnClose;
+import javax.websocket.OnError;
+import javax.websocket.OnOpen;
+import javax.websocket.Session;
+import javax.websocket.server.PathParam;
+import javax.websocket.server.ServerEndpoint;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+
+/**
+ * Live output of a running build. All the clients share the single connection of the build driver to the build agent
+ * and receive the recent output of the build when they connect.
+ *
+ * @see org.jboss.pnc.spi.executor.LiveLog
+ */
+@ApplicationScoped
+@ServerEndpoint(LiveLogEndpoint.ENDPOINT_PATH)
+public class LiveLogEndpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    public static final String ENDPOINT_PATH = "/ws/build-records/{id}/live-log";
+
+    @Inject
+    private BuildExecutor buildExecutor;
+
+    @OnOpen
+    public void attach(Session attachedSession, @PathParam("id") Integer id) throws IOException {
+        BuildExecutionSession buildExecutionSession = buildExecutor.getRunningExecution(id);
+        if (buildExecutionSession == null
+                || !buildExecutionSession.getLiveLog().subscribe(new SessionBasedLiveLogSubscriber(attachedSession))) {
+            attachedSession.close(new CloseReason(CloseReason.CloseCodes.CANNOT_ACCEPT, "Build " + id + " is not running."));
+        }
+    }
+
+    @OnClose
+    public void detach(Session detachedSession, @PathParam("id") Integer id) {
+        unsubscribe(detachedSession, id);
+    }
+
+    @OnError
+    public void onError(Session session, @PathParam("id") Integer id, Throwable t) {
+        logger.warn("An error occurred in live log client: " + session + ". Removing it", t);
+        unsubscribe(session, id);
+    }
+
+    private void unsubscribe(Session session, Integer id) {
+        BuildExecutionSession buildExecutionSession = buildExecutor.getRunningExecution(id);
+        if (buildExecutionSession != null) {
+            buildExecutionSession.getLiveLog().unsubscribe(new SessionBasedLiveLogSubscriber(session));
+        }
+    }
+}
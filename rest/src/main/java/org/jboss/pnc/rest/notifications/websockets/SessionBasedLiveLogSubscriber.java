@@ -0,0 +1,81 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.notifications.websockets;
+
+import org.jboss.pnc.spi.executor.LiveLogSubscriber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.websocket.CloseReason;
+import javax.websocket.Session;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.function.Consumer;
+
+public class SessionBasedLiveLogSubscriber implements LiveLogSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private final Session session;
+
+    public SessionBasedLiveLogSubscriber(Session session) {
+        this.session = session;
+    }
+
+    @Override
+    public void send(String output, Consumer<Throwable> onSent) {
+        session.getAsyncRemote().sendText(output, sendResult -> onSent.accept(sendResult.isOK() ? null : sendResult.getException()));
+    }
+
+    @Override
+    public void close(boolean dropped) {
+        CloseReason closeReason;
+        if (dropped) {
+            closeReason = new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER, "Client does not keep up with the build output.");
+        } else {
+            closeReason = new CloseReason(CloseReason.CloseCodes.NORMAL_CLOSURE, "Build finished.");
+        }
+        try {
+            session.close(closeReason);
+        } catch (IOException e) {
+            logger.warn("Cannot close live log session {}.", session.getId(), e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+
+        SessionBasedLiveLogSubscriber that = (SessionBasedLiveLogSubscriber) o;
+
+        return session != null ? session.equals(that.session) : that.session == null;
+    }
+
+    @Override
+    public int hashCode() {
+        return session != null ? session.hashCode() : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "SessionBasedLiveLogSubscriber{session=" + (session != null ? session.getId() : null) + "}";
+    }
+}
@@ -19,26 +19,33 @@
 package org.jboss.pnc.rest.provider;
 
 import com.google.common.collect.ObjectArrays;
+import org.jboss.pnc.common.util.StringUtils;
 import org.jboss.pnc.model.GenericEntity;
 import org.jboss.pnc.rest.provider.collection.CollectionInfo;
 import org.jboss.pnc.rest.provider.collection.CollectionInfoCollector;
 import org.jboss.pnc.rest.restmodel.GenericRestEntity;
 import org.jboss.pnc.rest.validation.ValidationBuilder;
+import org.jboss.pnc.rest.validation.exceptions.InvalidEntityException;
 import org.jboss.pnc.rest.validation.exceptions.ValidationException;
 import org.jboss.pnc.rest.validation.groups.WhenCreatingNew;
 import org.jboss.pnc.rest.validation.groups.WhenDeleting;
 import org.jboss.pnc.rest.validation.groups.WhenUpdating;
 import org.jboss.pnc.spi.datastore.repositories.PageInfoProducer;
 import org.jboss.pnc.spi.datastore.repositories.SortInfoProducer;
+import org.jboss.pnc.spi.datastore.repositories.api.FetchPlan;
+import org.jboss.pnc.spi.datastore.repositories.api.KeysetCursor;
 import org.jboss.pnc.spi.datastore.repositories.api.PageInfo;
 import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
+import org.jboss.pnc.spi.datastore.repositories.api.Projection;
 import org.jboss.pnc.spi.datastore.repositories.api.RSQLPredicateProducer;
 import org.jboss.pnc.spi.datastore.repositories.api.Repository;
 import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
 
+import javax.inject.Inject;
 import java.lang.reflect.ParameterizedType;
 import java.util.List;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.jboss.pnc.rest.utils.StreamHelper.nullableStreamOf;
 
@@ -57,6 +64,9 @@ public abstract class AbstractProvider<DBEntity extends GenericEntity<Integer>,
 
     protected Repository<DBEntity, Integer> repository;
 
+    @Inject
+    protected CountCache countCache;
+
     @Deprecated
     public AbstractProvider() {
     }
@@ -70,28 +80,122 @@ public abstract class AbstractProvider<DBEntity extends GenericEntity<Integer>,
     }
 
     public CollectionInfo<RESTEntity> getAll(int pageIndex, int pageSize, String sortingRsql, String query) {
-        return queryForCollection(pageIndex, pageSize, sortingRsql, query, null);
+        return queryForCollection(pageIndex, pageSize, sortingRsql, query, "");
     }
 
     public CollectionInfo<RESTEntity> queryForCollection(int pageIndex, int pageSize, String sortingRsql, String query,
             Predicate<DBEntity>... predicates) {
+        String predicatesKey = predicates == null || predicates.length == 0 ? "" : null;
+        return queryForCollection(pageIndex, pageSize, sortingRsql, query, predicatesKey, predicates);
+    }
+
+    /**
+     * Same as {@link #queryForCollection(int, int, String, String, Predicate[])}, the count of the collection is cached
+     * for a short time under the RSQL query and the predicatesKey, which has to identify the predicates including their
+     * parameters. Counts of queries with a null predicatesKey are not cached.
+     *
+     * The count is skipped entirely if the client asked so by {@link TotalCountOption}, the page is then returned with
+     * unknown total pages and with one extra entity fetched to tell whether there is a next page.
+     *
+     * Only the attributes of the summary projection are read if the client asked for the summary view by
+     * {@link SummaryViewOption} and the provider has a summary projection.
+     */
+    public CollectionInfo<RESTEntity> queryForCollection(int pageIndex, int pageSize, String sortingRsql, String query,
+            String predicatesKey, Predicate<DBEntity>... predicates) {
+        Predicate<DBEntity> rsqlPredicate = rsqlPredicateProducer.getPredicate(getDBEntityClass(), query);
+        SortInfo sortInfo = sortInfoProducer.getSortInfo(sortingRsql);
+        Predicate<DBEntity>[] allPredicates = predicates == null ? new Predicate[] { rsqlPredicate }
+                : ObjectArrays.concat(rsqlPredicate, predicates);
+        Projection<DBEntity, RESTEntity> summaryProjection = getRequestedSummaryProjection();
+
+        if (TotalCountOption.isSkipped()) {
+            PageInfo pageInfo = pageInfoProducer.getPageInfo(pageIndex * pageSize, pageSize + 1);
+            List<RESTEntity> content;
+            if (summaryProjection != null) {
+                content = repository.queryProjectionWithPredicatesUsingCursor(pageInfo, sortInfo, summaryProjection,
+                        allPredicates);
+            } else {
+                content = repository.queryWithPredicatesUsingCursor(pageInfo, sortInfo, getFetchPlan(), allPredicates)
+                        .stream()
+                        .map(toRESTModel())
+                        .collect(Collectors.toList());
+            }
+            boolean hasNextPage = content.size() > pageSize;
+            if (hasNextPage) {
+                content = content.subList(0, pageSize);
+            }
+            return new CollectionInfo<>(pageIndex, pageSize, -1, content, hasNextPage, null);
+        }
+
+        List<RESTEntity> content;
+        if (summaryProjection != null) {
+            PageInfo pageInfo = pageInfoProducer.getPageInfo(pageIndex * pageSize, pageSize);
+            content = repository.queryProjectionWithPredicatesUsingCursor(pageInfo, sortInfo, summaryProjection,
+                    allPredicates);
+        } else {
+            PageInfo pageInfo = pageInfoProducer.getPageInfo(pageIndex, pageSize);
+            List<DBEntity> collection = repository.queryWithPredicates(pageInfo, sortInfo, getFetchPlan(), allPredicates);
+            content = nullableStreamOf(collection)
+                    .map(toRESTModel())
+                    .collect(Collectors.toList());
+        }
+        int count;
+        if (countCache == null || predicatesKey == null) {
+            count = repository.count(allPredicates);
+        } else {
+            count = countCache.get(getDBEntityClass(), query, predicatesKey, () -> repository.count(allPredicates));
+        }
+        int totalPages = (count + pageSize - 1) / pageSize;
+
+        return content.stream()
+                .collect(new CollectionInfoCollector<>(pageIndex, pageSize, totalPages));
+    }
+
+    public CollectionInfo<RESTEntity> getAllAfter(String after, int pageSize, String sortingRsql, String query)
+            throws InvalidEntityException {
+        return queryForCollectionAfter(after, pageSize, sortingRsql, query, null);
+    }
+
+    /**
+     * Keyset variant of {@link #queryForCollection(int, int, String, String, Predicate[])}, returns the page following
+     * the after cursor, or the first page if the cursor is empty. The page index and the total number of pages are not
+     * known, the result carries the cursor of the next page instead.
+     */
+    public CollectionInfo<RESTEntity> queryForCollectionAfter(String after, int pageSize, String sortingRsql, String query,
+            Predicate<DBEntity>... predicates) throws InvalidEntityException {
         Predicate<DBEntity> rsqlPredicate = rsqlPredicateProducer.getPredicate(getDBEntityClass(), query);
-        PageInfo pageInfo = pageInfoProducer.getPageInfo(pageIndex, pageSize);
         SortInfo sortInfo = sortInfoProducer.getSortInfo(sortingRsql);
+        KeysetCursor cursor = StringUtils.isEmpty(after) ? null : parseCursor(after);
 
+        // one more entity tells if there is a next page
         List<DBEntity> collection;
-        int totalPages;
         if(predicates == null) {
-            collection = repository.queryWithPredicates(pageInfo, sortInfo, rsqlPredicate);
-            totalPages = (repository.count(rsqlPredicate) + pageSize - 1) / pageSize;
+            collection = repository.queryWithPredicatesAfter(cursor, pageSize + 1, sortInfo, rsqlPredicate);
         } else {
-            collection = repository.queryWithPredicates(pageInfo, sortInfo, ObjectArrays.concat(rsqlPredicate, predicates));
-            totalPages = (repository.count(ObjectArrays.concat(rsqlPredicate, predicates)) + pageSize - 1) / pageSize;
+            collection = repository.queryWithPredicatesAfter(cursor, pageSize + 1, sortInfo, ObjectArrays.concat(rsqlPredicate, predicates));
+        }
+
+        String nextCursor = null;
+        if (collection.size() > pageSize) {
+            collection = collection.subList(0, pageSize);
+            nextCursor = KeysetCursor.after(collection.get(pageSize - 1), sortInfo).toString();
         }
 
-        return nullableStreamOf(collection)
+        List<RESTEntity> content = collection.stream()
                 .map(toRESTModel())
-                .collect(new CollectionInfoCollector<>(pageIndex, pageSize, totalPages));
+                .collect(Collectors.toList());
+        return new CollectionInfo<>(-1, pageSize, -1, content, nextCursor != null, nextCursor);
+    }
+
+    /**
+     * @throws InvalidEntityException if the cursor is not one handed out with a page
+     */
+    protected static KeysetCursor parseCursor(String cursor) throws InvalidEntityException {
+        try {
+            return KeysetCursor.parse(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEntityException("Invalid cursor: " + cursor);
+        }
     }
 
     public RESTEntity getSpecific(Integer id) {
@@ -102,6 +206,16 @@ public abstract class AbstractProvider<DBEntity extends GenericEntity<Integer>,
         return null;
     }
 
+    /**
+     * Version of the REST entity for conditional requests, read without loading the entity. Providers of entities
+     * that are polled override it.
+     *
+     * @return the version, null if conditional requests are not supported or there is no such entity
+     */
+    public ResourceVersion getVersion(Integer id) {
+        return null;
+    }
+
     public Integer store(RESTEntity restEntity) throws ValidationException {
         validateBeforeSaving(restEntity);
         return repository.save(toDBModel().apply(restEntity)).getId();
@@ -136,6 +250,32 @@ public abstract class AbstractProvider<DBEntity extends GenericEntity<Integer>,
                 .validateAnnotations();
     }
 
+    /**
+     * Associations read by {@link #toRESTModel()}, fetched along with the entities of the queried collections.
+     *
+     * @return the fetch plan, null to fetch no associations
+     */
+    protected FetchPlan<DBEntity> getFetchPlan() {
+        return null;
+    }
+
+    /**
+     * Lightweight view of the entities for list views, reading only the attributes the list views display.
+     *
+     * @return the projection creating REST entities with the displayed fields only, null if the provider always
+     *         loads whole entities
+     */
+    protected Projection<DBEntity, RESTEntity> getSummaryProjection() {
+        return null;
+    }
+
+    /**
+     * @return the summary projection if the client asked for the summary view, null otherwise
+     */
+    protected Projection<DBEntity, RESTEntity> getRequestedSummaryProjection() {
+        return SummaryViewOption.isRequested() ? getSummaryProjection() : null;
+    }
+
     protected abstract Function<? super DBEntity, ? extends RESTEntity> toRESTModel();
 
     protected abstract Function<? super RESTEntity, ? extends DBEntity> toDBModel();
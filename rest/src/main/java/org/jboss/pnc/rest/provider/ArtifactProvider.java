@@ -28,6 +28,7 @@ import org.jboss.pnc.model.BuildRecord;
 import org.jboss.pnc.rest.provider.collection.CollectionInfo;
 import org.jboss.pnc.rest.provider.collection.CollectionInfoCollector;
 import org.jboss.pnc.rest.restmodel.ArtifactRest;
+import org.jboss.pnc.rest.validation.exceptions.InvalidEntityException;
 import org.jboss.pnc.rest.validation.exceptions.ValidationException;
 import org.jboss.pnc.spi.datastore.repositories.ArtifactRepository;
 import org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository;
@@ -104,7 +105,7 @@ public class ArtifactProvider extends AbstractProvider<Artifact, ArtifactRest> {
 
         Stream<ArtifactRest> filteredStream = nullableStreamOf(artifacts)
                 .map(artifact -> new ArtifactRest(artifact, getDeployUrl(artifact), getPublicUrl(artifact)))
-                .filter(queryPredicate).sorted(sortInfo.getComparator());
+                .filter(queryPredicate).sorted(sortInfo.getComparator(selectingClass));
         List<ArtifactRest> filteredList = filteredStream.collect(Collectors.toList());
 
         return filteredList.stream()
@@ -130,7 +131,13 @@ public class ArtifactProvider extends AbstractProvider<Artifact, ArtifactRest> {
 
     public CollectionInfo<ArtifactRest> getDependencyArtifactsForBuildRecord(int pageIndex, int pageSize, String sortingRsql, String query,
             int buildRecordId) {
-        return queryForCollection(pageIndex, pageSize, sortingRsql, query, withDependantBuildRecordId(buildRecordId));
+        return queryForCollection(pageIndex, pageSize, sortingRsql, query, "dependantBuildRecordId=" + buildRecordId,
+                withDependantBuildRecordId(buildRecordId));
+    }
+
+    public CollectionInfo<ArtifactRest> getDependencyArtifactsForBuildRecordAfter(String after, int pageSize, String sortingRsql,
+            String query, int buildRecordId) throws InvalidEntityException {
+        return queryForCollectionAfter(after, pageSize, sortingRsql, query, withDependantBuildRecordId(buildRecordId));
     }
 
     @Override
@@ -20,6 +20,9 @@ package org.jboss.pnc.rest.provider;
 import org.jboss.pnc.model.BuildConfigSetRecord;
 import org.jboss.pnc.rest.provider.collection.CollectionInfo;
 import org.jboss.pnc.rest.restmodel.BuildConfigSetRecordRest;
+import org.jboss.pnc.spi.coordinator.BuildCoordinator;
+import org.jboss.pnc.spi.coordinator.BuildSetTask;
+import org.jboss.pnc.spi.coordinator.MakespanEstimate;
 import org.jboss.pnc.spi.datastore.predicates.BuildConfigSetRecordPredicates;
 import org.jboss.pnc.spi.datastore.repositories.BuildConfigSetRecordRepository;
 import org.jboss.pnc.spi.datastore.repositories.PageInfoProducer;
@@ -33,13 +36,17 @@ import java.util.function.Function;
 @Stateless
 public class BuildConfigSetRecordProvider extends AbstractProvider<BuildConfigSetRecord, BuildConfigSetRecordRest> {
 
+    private BuildCoordinator buildCoordinator;
+
     public BuildConfigSetRecordProvider() {
     }
 
     @Inject
     public BuildConfigSetRecordProvider(BuildConfigSetRecordRepository buildConfigSetRecordRepository,
-            RSQLPredicateProducer rsqlPredicateProducer, SortInfoProducer sortInfoProducer, PageInfoProducer pageInfoProducer) {
+            RSQLPredicateProducer rsqlPredicateProducer, SortInfoProducer sortInfoProducer, PageInfoProducer pageInfoProducer,
+            BuildCoordinator buildCoordinator) {
         super(buildConfigSetRecordRepository, rsqlPredicateProducer, sortInfoProducer, pageInfoProducer);
+        this.buildCoordinator = buildCoordinator;
     }
 
     @Override
@@ -57,4 +64,16 @@ public class BuildConfigSetRecordProvider extends AbstractProvider<BuildConfigSe
         return queryForCollection(pageIndex, pageSize, sortingRsql, rsql,
                 BuildConfigSetRecordPredicates.withBuildConfigSetId(buildConfigSetId));
     }
+
+    /**
+     * Get the estimate computed when the build config set was submitted.
+     *
+     * @param buildConfigSetRecordId id of the build config set record
+     * @return the estimate, or null if the build config set is not being built
+     */
+    public MakespanEstimate getMakespanEstimate(Integer buildConfigSetRecordId) {
+        return buildCoordinator.getSubmittedBuildSetTask(buildConfigSetRecordId)
+                .map(BuildSetTask::getMakespanEstimate)
+                .orElse(null);
+    }
 }
@@ -30,6 +30,8 @@ import org.jboss.pnc.rest.provider.collection.CollectionInfo;
 import org.jboss.pnc.rest.provider.collection.CollectionInfoCollector;
 import org.jboss.pnc.rest.restmodel.BuildConfigurationAuditedRest;
 import org.jboss.pnc.rest.restmodel.BuildConfigurationRest;
+import org.jboss.pnc.rest.restmodel.BuildEnvironmentRest;
+import org.jboss.pnc.rest.restmodel.ProjectRest;
 import org.jboss.pnc.rest.validation.ConflictedEntryValidator;
 import org.jboss.pnc.rest.validation.ValidationBuilder;
 import org.jboss.pnc.rest.validation.exceptions.ConflictedEntryException;
@@ -37,19 +39,26 @@ import org.jboss.pnc.rest.validation.exceptions.InvalidEntityException;
 import org.jboss.pnc.rest.validation.exceptions.ValidationException;
 import org.jboss.pnc.rest.validation.groups.WhenCreatingNew;
 import org.jboss.pnc.rest.validation.groups.WhenUpdating;
+import org.jboss.pnc.spi.datastore.BuildConfigurationDependencyGraph;
+import org.jboss.pnc.spi.datastore.events.BuildConfigurationDependencyChangedEvent;
 import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationAuditedRepository;
 import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationRepository;
 import org.jboss.pnc.spi.datastore.repositories.PageInfoProducer;
 import org.jboss.pnc.spi.datastore.repositories.ProductVersionRepository;
 import org.jboss.pnc.spi.datastore.repositories.SortInfoProducer;
+import org.jboss.pnc.spi.datastore.repositories.api.FetchPlan;
+import org.jboss.pnc.spi.datastore.repositories.api.Projection;
 import org.jboss.pnc.spi.datastore.repositories.api.RSQLPredicateProducer;
 
 import javax.ejb.Stateless;
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
+import java.util.Date;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import static org.jboss.pnc.rest.utils.StreamHelper.nullableStreamOf;
 import static org.jboss.pnc.spi.datastore.predicates.BuildConfigurationPredicates.isNotArchived;
@@ -63,6 +72,39 @@ import static org.jboss.pnc.spi.datastore.predicates.BuildConfigurationPredicate
 @Stateless
 public class BuildConfigurationProvider extends AbstractProvider<BuildConfiguration, BuildConfigurationRest> {
 
+    private static final FetchPlan<BuildConfiguration> FETCH_PLAN = FetchPlan.of("project.license", "buildEnvironment", "productVersion");
+
+    private static final Projection<BuildConfiguration, BuildConfigurationRest> SUMMARY_PROJECTION = Projection.of(row -> {
+        BuildConfigurationRest configuration = new BuildConfigurationRest();
+        configuration.setId(row.get("id"));
+        configuration.setName(row.get("name"));
+        configuration.setScmRepoURL(row.get("scmRepoURL"));
+        configuration.setScmRevision(row.get("scmRevision"));
+        configuration.setScmExternalRepoURL(row.get("scmExternalRepoURL"));
+        configuration.setScmExternalRevision(row.get("scmExternalRevision"));
+        configuration.setCreationTime(row.get("creationTime"));
+        configuration.setLastModificationTime(row.get("lastModificationTime"));
+        configuration.setArchived(!Boolean.TRUE.equals(row.get("active")));
+        configuration.setProductVersionId(row.get("productVersion.id"));
+        Integer projectId = row.get("project.id");
+        if (projectId != null) {
+            ProjectRest project = new ProjectRest();
+            project.setId(projectId);
+            project.setName(row.get("project.name"));
+            configuration.setProject(project);
+        }
+        Integer environmentId = row.get("buildEnvironment.id");
+        if (environmentId != null) {
+            BuildEnvironmentRest environment = new BuildEnvironmentRest();
+            environment.setId(environmentId);
+            environment.setName(row.get("buildEnvironment.name"));
+            configuration.setEnvironment(environment);
+        }
+        return configuration;
+    }, "id", "name", "scmRepoURL", "scmRevision", "scmExternalRepoURL", "scmExternalRevision", "creationTime",
+            "lastModificationTime", "active", "productVersion.id", "project.id", "project.name", "buildEnvironment.id",
+            "buildEnvironment.name");
+
     private static final Pattern REPOSITORY_NAME_PATTERN = Pattern.compile("(\\/[\\w\\.:\\~_-]+)+(\\.git)(?:\\/?|\\#[\\d\\w\\.\\-_]+?)$");
 
     private BuildConfigurationAuditedRepository buildConfigurationAuditedRepository;
@@ -71,16 +113,24 @@ public class BuildConfigurationProvider extends AbstractProvider<BuildConfigurat
 
     private ScmModuleConfig moduleConfig;
 
+    private BuildConfigurationDependencyGraph dependencyGraph;
+
+    private Event<BuildConfigurationDependencyChangedEvent> dependencyChangedEvent;
+
     @Inject
     public BuildConfigurationProvider(BuildConfigurationRepository buildConfigurationRepository,
                                       BuildConfigurationAuditedRepository buildConfigurationAuditedRepository,
                                       RSQLPredicateProducer rsqlPredicateProducer, SortInfoProducer sortInfoProducer, PageInfoProducer pageInfoProducer,
                                       ProductVersionRepository productVersionRepository,
-                                      Configuration configuration) throws ConfigurationParseException {
+                                      Configuration configuration,
+                                      BuildConfigurationDependencyGraph dependencyGraph,
+                                      Event<BuildConfigurationDependencyChangedEvent> dependencyChangedEvent) throws ConfigurationParseException {
         super(buildConfigurationRepository, rsqlPredicateProducer, sortInfoProducer, pageInfoProducer);
         this.buildConfigurationAuditedRepository = buildConfigurationAuditedRepository;
         this.productVersionRepository = productVersionRepository;
         this.moduleConfig = configuration.getModuleConfig(new PncConfigProvider<>(ScmModuleConfig.class));
+        this.dependencyGraph = dependencyGraph;
+        this.dependencyChangedEvent = dependencyChangedEvent;
     }
 
     // needed for EJB/CDI
@@ -89,22 +139,25 @@ public class BuildConfigurationProvider extends AbstractProvider<BuildConfigurat
 
     public CollectionInfo<BuildConfigurationRest> getAllNonArchived(Integer pageIndex, Integer pageSize, String sortingRsql,
             String query) {
-        return queryForCollection(pageIndex, pageSize, sortingRsql, query, isNotArchived());
+        return queryForCollection(pageIndex, pageSize, sortingRsql, query, "notArchived", isNotArchived());
     }
 
     public CollectionInfo<BuildConfigurationRest> getAllForProject(Integer pageIndex, Integer pageSize, String sortingRsql,
             String query, Integer projectId) {
-        return queryForCollection(pageIndex, pageSize, sortingRsql, query, withProjectId(projectId), isNotArchived());
+        return queryForCollection(pageIndex, pageSize, sortingRsql, query, "notArchived,projectId=" + projectId,
+                withProjectId(projectId), isNotArchived());
     }
 
     public CollectionInfo<BuildConfigurationRest> getAllForProduct(int pageIndex, int pageSize, String sortingRsql,
             String query, Integer productId) {
-        return queryForCollection(pageIndex, pageSize, sortingRsql, query, withProductId(productId), isNotArchived());
+        return queryForCollection(pageIndex, pageSize, sortingRsql, query, "notArchived,productId=" + productId,
+                withProductId(productId), isNotArchived());
     }
 
     public CollectionInfo<BuildConfigurationRest> getAllForProductAndProductVersion(int pageIndex, int pageSize,
             String sortingRsql, String query, Integer productId, Integer versionId) {
-        return queryForCollection(pageIndex, pageSize, sortingRsql, query, withProductVersionId(versionId), isNotArchived());
+        return queryForCollection(pageIndex, pageSize, sortingRsql, query, "notArchived,productVersionId=" + versionId,
+                withProductVersionId(versionId), isNotArchived());
     }
 
     public CollectionInfo<BuildConfigurationRest> getAllForBuildConfigurationSet(int pageIndex, int pageSize,
@@ -113,6 +166,19 @@ public class BuildConfigurationProvider extends AbstractProvider<BuildConfigurat
                 withBuildConfigurationSetId(buildConfigurationSetId), isNotArchived());
     }
 
+    @Override
+    public Integer store(BuildConfigurationRest buildConfigurationRest) throws ValidationException {
+        Integer id = super.store(buildConfigurationRest);
+        dependencyChangedEvent.fire(BuildConfigurationDependencyChangedEvent.unknown());
+        return id;
+    }
+
+    @Override
+    public void update(Integer id, BuildConfigurationRest buildConfigurationRest) throws ValidationException {
+        super.update(id, buildConfigurationRest);
+        dependencyChangedEvent.fire(BuildConfigurationDependencyChangedEvent.unknown());
+    }
+
     @Override
     protected void validateBeforeSaving(BuildConfigurationRest buildConfigurationRest) throws ValidationException {
         super.validateBeforeSaving(buildConfigurationRest);
@@ -153,10 +219,9 @@ public class BuildConfigurationProvider extends AbstractProvider<BuildConfigurat
             ValidationBuilder.validateObject(buildConfig, WhenUpdating.class).validateCondition(
                     !buildConfig.getId().equals(dependencyId), "A build configuration cannot depend on itself");
 
-            BuildConfiguration dependency = repository.queryById(dependencyId);
             ValidationBuilder.validateObject(buildConfig, WhenUpdating.class)
-                    .validateCondition(!dependency.getAllDependencies().contains(buildConfig), "Cannot add dependency from : "
-                            + buildConfig.getId() + " to: " + dependencyId + " because it would introduce a cyclic dependency");
+                    .validateCondition(!dependencyGraph.wouldCreateCycle(buildConfigId, dependencyId),
+                            "Cannot add dependency from : " + buildConfig.getId() + " to: " + dependencyId + " because it would introduce a cyclic dependency");
         }
     }
 
@@ -175,6 +240,31 @@ public class BuildConfigurationProvider extends AbstractProvider<BuildConfigurat
         });
     }
 
+    @Override
+    public ResourceVersion getVersion(Integer id) {
+        BuildConfigurationRepository buildConfigurationRepository = (BuildConfigurationRepository) repository;
+        Date lastModificationTime = buildConfigurationRepository.getLastModificationTime(id);
+        if (lastModificationTime == null) {
+            return null;
+        }
+        // the embedded project and environment change on their own, so there is no last modification time either
+        int embeddedStateHash = buildConfigurationRepository.getEmbeddedProjectAndEnvironmentState(id).stream()
+                .map(String::valueOf)
+                .collect(Collectors.toList())
+                .hashCode();
+        return ResourceVersion.of(id + "-" + lastModificationTime.getTime() + "-" + Integer.toHexString(embeddedStateHash));
+    }
+
+    @Override
+    protected FetchPlan<BuildConfiguration> getFetchPlan() {
+        return FETCH_PLAN;
+    }
+
+    @Override
+    protected Projection<BuildConfiguration, BuildConfigurationRest> getSummaryProjection() {
+        return SUMMARY_PROJECTION;
+    }
+
     @Override
     protected Function<? super BuildConfiguration, ? extends BuildConfigurationRest> toRESTModel() {
         return buildConfiguration -> new BuildConfigurationRest(buildConfiguration);
@@ -222,6 +312,7 @@ public class BuildConfigurationProvider extends AbstractProvider<BuildConfigurat
         BuildConfiguration clonedBuildConfiguration = buildConfiguration.clone();
 
         clonedBuildConfiguration = repository.save(clonedBuildConfiguration);
+        dependencyChangedEvent.fire(BuildConfigurationDependencyChangedEvent.unknown());
         return clonedBuildConfiguration.getId();
     }
 
@@ -232,12 +323,11 @@ public class BuildConfigurationProvider extends AbstractProvider<BuildConfigurat
         ValidationBuilder.validateObject(buildConfig, WhenUpdating.class)
                 .validateCondition(buildConfig != null, "No build config exists with id: " + configId)
                 .validateCondition(dependency != null, "No dependency build config exists with id: " + dependencyId)
-                .validateCondition(!configId.equals(dependencyId), "A build configuration cannot depend on itself")
-                .validateCondition(!dependency.getAllDependencies().contains(buildConfig), "Cannot add dependency from : "
+                .validateCondition(!dependencyGraph.wouldCreateCycle(configId, dependencyId), "Cannot add dependency from : "
                         + configId + " to: " + dependencyId + " because it would introduce a cyclic dependency");
-        System.out.println("didn't throw any validation errors");
         buildConfig.addDependency(dependency);
         repository.save(buildConfig);
+        dependencyChangedEvent.fire(BuildConfigurationDependencyChangedEvent.added(configId, dependencyId));
     }
 
     public void removeDependency(Integer configId, Integer dependencyId) throws ValidationException {
@@ -248,6 +338,7 @@ public class BuildConfigurationProvider extends AbstractProvider<BuildConfigurat
                 .validateCondition(dependency != null, "No dependency build config exists with id: " + dependencyId);
         buildConfig.removeDependency(dependency);
         repository.save(buildConfig);
+        dependencyChangedEvent.fire(BuildConfigurationDependencyChangedEvent.removed(configId, dependencyId));
     }
 
     public void setProductVersion(Integer configId, Integer productVersionId) throws ValidationException {
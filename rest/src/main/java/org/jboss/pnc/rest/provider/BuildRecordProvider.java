@@ -19,22 +19,31 @@ package org.jboss.pnc.rest.provider;
 
 import org.jboss.pnc.common.util.StringUtils;
 import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.BuildStatus;
 import org.jboss.pnc.model.User;
 import org.jboss.pnc.rest.provider.collection.CollectionInfo;
 import org.jboss.pnc.rest.provider.collection.CollectionInfoCollector;
 import org.jboss.pnc.rest.restmodel.BuildConfigurationAuditedRest;
+import org.jboss.pnc.rest.restmodel.BuildLogSearchResultRest;
 import org.jboss.pnc.rest.restmodel.BuildRecordRest;
 import org.jboss.pnc.rest.restmodel.UserRest;
 import org.jboss.pnc.rest.restmodel.response.Page;
 import org.jboss.pnc.rest.trigger.BuildConfigurationSetTriggerResult;
+import org.jboss.pnc.rest.validation.exceptions.InvalidEntityException;
+import org.jboss.pnc.spi.BuildCoordinationStatus;
 import org.jboss.pnc.spi.SshCredentials;
 import org.jboss.pnc.spi.coordinator.BuildCoordinator;
 import org.jboss.pnc.spi.coordinator.BuildTask;
+import org.jboss.pnc.spi.datastore.BuildLogMatch;
+import org.jboss.pnc.spi.datastore.BuildLogStore;
 import org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository;
 import org.jboss.pnc.spi.datastore.repositories.PageInfoProducer;
 import org.jboss.pnc.spi.datastore.repositories.SortInfoProducer;
+import org.jboss.pnc.spi.datastore.repositories.api.FetchPlan;
+import org.jboss.pnc.spi.datastore.repositories.api.KeysetCursor;
 import org.jboss.pnc.spi.datastore.repositories.api.PageInfo;
 import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
+import org.jboss.pnc.spi.datastore.repositories.api.Projection;
 import org.jboss.pnc.spi.datastore.repositories.api.RSQLPredicateProducer;
 import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
 import org.jboss.pnc.spi.datastore.repositories.api.impl.DefaultPageInfo;
@@ -54,13 +63,20 @@ import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.lang.invoke.MethodHandles;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
 
 import static org.jboss.pnc.rest.utils.StreamHelper.nullableStreamOf;
@@ -68,7 +84,11 @@ import static org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates.withA
 import static org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates.withAttribute;
 import static org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates.withBuildConfigSetId;
 import static org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates.withBuildConfigurationId;
+import static org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates.withEndTimeAfter;
+import static org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates.withEndTimeBefore;
 import static org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates.withProjectId;
+import static org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates.withStatus;
+import static org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates.withSubmittedBefore;
 import static org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates.withUserId;
 
 @Stateless
@@ -76,11 +96,79 @@ public class BuildRecordProvider extends AbstractProvider<BuildRecord, BuildReco
 
     private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
+    private static final FetchPlan<BuildRecord> FETCH_PLAN = FetchPlan.of("buildConfigurationAudited.project", "buildConfigurationAudited.buildEnvironment",
+            "user", "buildEnvironment", "productMilestone", "buildConfigSetRecord");
+
+    private static final Projection<BuildRecord, BuildRecordRest> SUMMARY_PROJECTION = Projection.of(row -> {
+        BuildRecordRest buildRecord = new BuildRecordRest();
+        buildRecord.setId(row.get("id"));
+        buildRecord.setSubmitTime(row.get("submitTime"));
+        buildRecord.setStartTime(row.get("startTime"));
+        buildRecord.setEndTime(row.get("endTime"));
+        buildRecord.setStatus(BuildCoordinationStatus.fromBuildStatus(row.get("status")));
+        buildRecord.setScmRepoURL(row.get("scmRepoURL"));
+        buildRecord.setScmRevision(row.get("scmRevision"));
+        buildRecord.setBuildConfigurationId(row.get("buildConfigurationAudited.id"));
+        buildRecord.setBuildConfigurationRev(row.get("buildConfigurationAudited.rev"));
+        buildRecord.setBuildConfigurationName(row.get("buildConfigurationAudited.name"));
+        buildRecord.setProjectId(row.get("buildConfigurationAudited.project.id"));
+        buildRecord.setProjectName(row.get("buildConfigurationAudited.project.name"));
+        buildRecord.setUserId(row.get("user.id"));
+        buildRecord.setUsername(row.get("user.username"));
+        buildRecord.setBuildEnvironmentId(row.get("buildEnvironment.id"));
+        buildRecord.setBuildConfigSetRecordId(row.get("buildConfigSetRecord.id"));
+        buildRecord.setBuildContentId(row.get("buildContentId"));
+        buildRecord.setProductMilestoneId(row.get("productMilestone.id"));
+        buildRecord.setExecutionRootName(row.get("executionRootName"));
+        buildRecord.setExecutionRootVersion(row.get("executionRootVersion"));
+        return buildRecord;
+    }, "id", "submitTime", "startTime", "endTime", "status", "scmRepoURL", "scmRevision",
+            "buildConfigurationAudited.id", "buildConfigurationAudited.rev", "buildConfigurationAudited.name",
+            "buildConfigurationAudited.project.id", "buildConfigurationAudited.project.name", "user.id",
+            "user.username", "buildEnvironment.id", "buildConfigSetRecord.id", "buildContentId", "productMilestone.id",
+            "executionRootName", "executionRootVersion");
+
+    private static final int LOG_PART_LENGTH = 1024 * 1024;
+
+    /**
+     * Position of a build in the log search, builds are searched by their submit time as ids are not allocated in
+     * order by all the nodes.
+     */
+    private static final Projection<BuildRecord, KeysetCursor> LOG_SEARCH_CURSOR_PROJECTION = Projection.of(
+            row -> new KeysetCursor(String.valueOf(row.<Date>get("submitTime").getTime()), row.get("id")),
+            "submitTime", "id");
+
+    /**
+     * Number of builds whose logs are searched at once.
+     */
+    static final int LOG_SEARCH_BATCH_SIZE = 100;
+
+    /**
+     * Number of builds whose logs are searched at most for a page of results, the page is returned incomplete with
+     * the cursor of the last searched build when it is reached.
+     */
+    static final int LOG_SEARCH_MAX_SCANNED = 5000;
+
+    static final int LOG_SEARCH_MAX_MATCHES_PER_BUILD = 100;
+
+    /**
+     * Number of UTF-8 bytes of the text a regex has to be combined with. A shorter text has no trigram to skip the logs
+     * by, the regex would be run on every line of every searched log.
+     */
+    static final int LOG_SEARCH_MIN_TEXT_BYTES_WITH_REGEX = 3;
+
+    /**
+     * Time the search of a page may take, the page is returned incomplete with the cursor of the last searched batch
+     * when it runs out.
+     */
+    static final long LOG_SEARCH_TIMEOUT_MILLIS = 10_000;
+
     private static final String QUERY_BY_USER = "user.id==%d";
     private static final String QUERY_BY_BUILD_CONFIGURATION_ID = "buildConfigurationAudited.idRev.id==%d";
 
     private BuildExecutor buildExecutor;
     private BuildCoordinator buildCoordinator;
+    private BuildLogStore buildLogStore;
 
     public BuildRecordProvider() {
     }
@@ -88,17 +176,18 @@ public class BuildRecordProvider extends AbstractProvider<BuildRecord, BuildReco
     @Inject
     public BuildRecordProvider(BuildRecordRepository buildRecordRepository, BuildCoordinator buildCoordinator,
             PageInfoProducer pageInfoProducer, RSQLPredicateProducer rsqlPredicateProducer, SortInfoProducer sortInfoProducer,
-            BuildExecutor buildExecutor) {
+            BuildExecutor buildExecutor, BuildLogStore buildLogStore) {
         super(buildRecordRepository, rsqlPredicateProducer, sortInfoProducer, pageInfoProducer);
         this.buildCoordinator = buildCoordinator;
         this.buildExecutor = buildExecutor;
+        this.buildLogStore = buildLogStore;
     }
 
     public CollectionInfo<BuildRecordRest> getAllRunning(Integer pageIndex, Integer pageSize, String search, String sort) {
         List<BuildTask> x = buildCoordinator.getSubmittedBuildTasks();
         return nullableStreamOf(x)
                 .filter(rsqlPredicateProducer.getStreamPredicate(BuildTask.class, search))
-                .sorted(sortInfoProducer.getSortInfo(sort).getComparator())
+                .sorted(sortInfoProducer.getSortInfo(sort).getComparator(BuildTask.class))
                 .skip(pageIndex * pageSize)
                 .limit(pageSize)
                 .map(submittedBuild -> createNewBuildRecordRest(submittedBuild))
@@ -113,7 +202,7 @@ public class BuildRecordProvider extends AbstractProvider<BuildRecord, BuildReco
                 .filter(t -> t.getBuildConfigurationAudited() != null
                         && bcId.equals(t.getBuildConfigurationAudited().getId().getId()))
                 .filter(rsqlPredicateProducer.getStreamPredicate(BuildTask.class, search))
-                .sorted(sortInfoProducer.getSortInfo(sort).getComparator())
+                .sorted(sortInfoProducer.getSortInfo(sort).getComparator(BuildTask.class))
                 .skip(pageIndex * pageSize)
                 .limit(pageSize)
                 .map(submittedBuild -> createNewBuildRecordRest(submittedBuild))
@@ -128,7 +217,7 @@ public class BuildRecordProvider extends AbstractProvider<BuildRecord, BuildReco
                 .filter(t -> t.getUser() != null
                         && userId.equals(t.getUser().getId()))
                 .filter(rsqlPredicateProducer.getStreamPredicate(BuildTask.class, search))
-                .sorted(sortInfoProducer.getSortInfo(sort).getComparator())
+                .sorted(sortInfoProducer.getSortInfo(sort).getComparator(BuildTask.class))
                 .skip(pageIndex * pageSize)
                 .limit(pageSize)
                 .map(submittedBuild -> createNewBuildRecordRest(submittedBuild))
@@ -180,21 +269,28 @@ public class BuildRecordProvider extends AbstractProvider<BuildRecord, BuildReco
 
     public CollectionInfo<BuildRecordRest> getAllForBuildConfiguration(int pageIndex, int pageSize, String sortingRsql,
             String query, Integer configurationId) {
-        return queryForCollection(pageIndex, pageSize, sortingRsql, query, withBuildConfigurationId(configurationId));
+        return queryForCollection(pageIndex, pageSize, sortingRsql, query, "buildConfigurationId=" + configurationId,
+                withBuildConfigurationId(configurationId));
+    }
+
+    public CollectionInfo<BuildRecordRest> getAllForBuildConfigurationAfter(String after, int pageSize, String sortingRsql,
+            String query, Integer configurationId) throws InvalidEntityException {
+        return queryForCollectionAfter(after, pageSize, sortingRsql, query, withBuildConfigurationId(configurationId));
     }
 
     public CollectionInfo<BuildRecordRest> getAllOfUser(int pageIndex, int pageSize, String sortingRsql,
             String query, Integer userId) {
-        return queryForCollection(pageIndex, pageSize, sortingRsql, query, withUserId(userId));
+        return queryForCollection(pageIndex, pageSize, sortingRsql, query, "userId=" + userId, withUserId(userId));
     }
 
     public CollectionInfo<BuildRecordRest> getAllForProject(int pageIndex, int pageSize, String sortingRsql, String query,
             Integer projectId) {
-        return queryForCollection(pageIndex, pageSize, sortingRsql, query, withProjectId(projectId));
+        return queryForCollection(pageIndex, pageSize, sortingRsql, query, "projectId=" + projectId, withProjectId(projectId));
     }
 
     public CollectionInfo<BuildRecordRest> getAllBuildRecordsWithArtifactsDistributedInProductMilestone(int pageIndex, int pageSize, String sortingRsql, String query, Integer milestoneId) {
-        return queryForCollection(pageIndex, pageSize, sortingRsql, query, withArtifactDistributedInMilestone(milestoneId));
+        return queryForCollection(pageIndex, pageSize, sortingRsql, query, "distributedInMilestoneId=" + milestoneId,
+                withArtifactDistributedInMilestone(milestoneId));
     }
 
     /**
@@ -208,7 +304,37 @@ public class BuildRecordProvider extends AbstractProvider<BuildRecord, BuildReco
 
     public CollectionInfo<BuildRecordRest> getAllForBuildConfigSetRecord(int pageIndex, int pageSize, String sortingRsql,
             String rsql, Integer buildConfigurationSetId) {
-        return queryForCollection(pageIndex, pageSize, sortingRsql, rsql, withBuildConfigSetId(buildConfigurationSetId));
+        return queryForCollection(pageIndex, pageSize, sortingRsql, rsql, "buildConfigSetId=" + buildConfigurationSetId,
+                withBuildConfigSetId(buildConfigurationSetId));
+    }
+
+    /**
+     * Only the attributes of a build record change once it is stored.
+     */
+    @Override
+    public ResourceVersion getVersion(Integer id) {
+        Map<String, String> attributes = ((BuildRecordRepository) repository).getAttributes(id);
+        if (attributes == null) {
+            return null;
+        }
+        return ResourceVersion.of(id + "-" + Integer.toHexString(attributes.hashCode()));
+    }
+
+    /**
+     * Version of the running build records, shared by all of them, see {@link BuildCoordinator#getModificationCount()}.
+     */
+    public ResourceVersion getRunningVersion() {
+        return ResourceVersion.of("running-" + buildCoordinator.getModificationCount());
+    }
+
+    @Override
+    protected FetchPlan<BuildRecord> getFetchPlan() {
+        return FETCH_PLAN;
+    }
+
+    @Override
+    protected Projection<BuildRecord, BuildRecordRest> getSummaryProjection() {
+        return SUMMARY_PROJECTION;
     }
 
     @Override
@@ -229,6 +355,157 @@ public class BuildRecordProvider extends AbstractProvider<BuildRecord, BuildReco
             return null;
     }
 
+    /**
+     * @param id id of the build record
+     * @return length in bytes of the build log kept in the {@link BuildLogStore}, 0 if the log of the build is not
+     *         stored there, see {@link #getBuildRecordLogLength(Integer)} for logs kept in the build record
+     */
+    public long getStoredLogLength(Integer id) {
+        return buildLogStore.getLength(id);
+    }
+
+    /**
+     * Streams a byte range of the build log kept in the {@link BuildLogStore}.
+     *
+     * @param id id of the build record
+     * @param offset position of the first byte to stream
+     * @param length number of bytes to stream
+     */
+    public StreamingOutput getStoredLog(Integer id, long offset, long length) {
+        return outputStream -> buildLogStore.read(id, offset, length, outputStream);
+    }
+
+    /**
+     * Searches the logs kept in the {@link BuildLogStore} of the builds matching the filters, newest builds first.
+     *
+     * @param text text to look for ignoring the case, may be null
+     * @param regex regular expression to find in the lines, may be null, has to be combined with a text of at least
+     *        {@link #LOG_SEARCH_MIN_TEXT_BYTES_WITH_REGEX} bytes
+     * @param after cursor of the last build searched for the previous page, null for the first page
+     * @return builds with matching lines, the cursor of the next page is the submit time and the id of the last
+     *         searched build
+     * @throws InvalidEntityException if neither text nor regex is given, the regex or the cursor is not valid, or the
+     *         first batch of builds cannot be searched in {@link #LOG_SEARCH_TIMEOUT_MILLIS}
+     */
+    @SuppressWarnings("unchecked")
+    public CollectionInfo<BuildLogSearchResultRest> searchLogs(String text, String regex, Integer buildConfigurationId,
+            Integer projectId, BuildStatus status, Date endTimeFrom, Date endTimeTo, int pageSize, String after)
+            throws InvalidEntityException {
+        if (StringUtils.isEmpty(text) && StringUtils.isEmpty(regex)) {
+            throw new InvalidEntityException("Either text or regex has to be given.");
+        }
+        if (!StringUtils.isEmpty(regex) && (StringUtils.isEmpty(text)
+                || text.getBytes(StandardCharsets.UTF_8).length < LOG_SEARCH_MIN_TEXT_BYTES_WITH_REGEX)) {
+            throw new InvalidEntityException("A regex has to be combined with a text of at least "
+                    + LOG_SEARCH_MIN_TEXT_BYTES_WITH_REGEX + " characters.");
+        }
+        Pattern pattern;
+        try {
+            pattern = StringUtils.isEmpty(regex) ? null : Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            throw new InvalidEntityException("Invalid regex: " + e.getMessage());
+        }
+        KeysetCursor lastSearched = StringUtils.isEmpty(after) ? null : parseLogSearchCursor(after);
+        List<Predicate<BuildRecord>> predicates = new ArrayList<>();
+        if (buildConfigurationId != null) {
+            predicates.add(withBuildConfigurationId(buildConfigurationId));
+        }
+        if (projectId != null) {
+            predicates.add(withProjectId(projectId));
+        }
+        if (status != null) {
+            predicates.add(withStatus(status));
+        }
+        if (endTimeFrom != null) {
+            predicates.add(withEndTimeAfter(endTimeFrom));
+        }
+        if (endTimeTo != null) {
+            predicates.add(withEndTimeBefore(endTimeTo));
+        }
+        SortInfo sortInfo = sortInfoProducer.getSortInfo(SortInfo.SortingDirection.DESC, "submitTime", "id");
+        PageInfo pageInfo = new DefaultPageInfo(0, LOG_SEARCH_BATCH_SIZE);
+        long deadline = System.currentTimeMillis() + LOG_SEARCH_TIMEOUT_MILLIS;
+
+        List<BuildLogSearchResultRest> content = new ArrayList<>();
+        boolean exhausted = false;
+        for (int scanned = 0; content.size() < pageSize && scanned < LOG_SEARCH_MAX_SCANNED && !exhausted
+                && System.currentTimeMillis() < deadline; scanned += LOG_SEARCH_BATCH_SIZE) {
+            List<Predicate<BuildRecord>> batchPredicates = new ArrayList<>(predicates);
+            if (lastSearched != null) {
+                batchPredicates.add(withSubmittedBefore(new Date(Long.parseLong(lastSearched.getSortKey())),
+                        lastSearched.getId()));
+            }
+            List<KeysetCursor> batch = repository.queryProjectionWithPredicatesUsingCursor(pageInfo, sortInfo,
+                    LOG_SEARCH_CURSOR_PROJECTION, batchPredicates.toArray(new Predicate[batchPredicates.size()]));
+            exhausted = batch.size() < LOG_SEARCH_BATCH_SIZE;
+            if (batch.isEmpty()) {
+                break;
+            }
+            Map<Integer, KeysetCursor> cursors = batch.stream()
+                    .collect(Collectors.toMap(KeysetCursor::getId, Function.identity(), (a, b) -> a, LinkedHashMap::new));
+
+            Map<Integer, List<BuildLogMatch>> matches;
+            try {
+                matches = buildLogStore.search(new ArrayList<>(cursors.keySet()), text, pattern,
+                        LOG_SEARCH_MAX_MATCHES_PER_BUILD, deadline);
+            } catch (TimeoutException e) {
+                if (scanned == 0) {
+                    throw new InvalidEntityException("The search did not finish in time, use a longer text, a simpler "
+                            + "regex or narrow down the searched builds.");
+                }
+                // the batch is searched again for the next page
+                exhausted = false;
+                break;
+            }
+            lastSearched = batch.get(batch.size() - 1);
+            for (Map.Entry<Integer, List<BuildLogMatch>> buildMatches : matches.entrySet()) {
+                content.add(new BuildLogSearchResultRest(buildMatches.getKey(), buildMatches.getValue()));
+                if (content.size() == pageSize) {
+                    // the rest of the batch is searched again for the next page
+                    lastSearched = cursors.get(buildMatches.getKey());
+                    exhausted = false;
+                    break;
+                }
+            }
+        }
+        String nextCursor = exhausted || lastSearched == null ? null : lastSearched.toString();
+        return new CollectionInfo<>(-1, pageSize, -1, content, nextCursor != null, nextCursor);
+    }
+
+    /**
+     * @throws InvalidEntityException if the cursor does not hold the submit time and the id of a build
+     */
+    private static KeysetCursor parseLogSearchCursor(String cursor) throws InvalidEntityException {
+        KeysetCursor keysetCursor = parseCursor(cursor);
+        try {
+            Long.parseLong(keysetCursor.getSortKey());
+        } catch (NumberFormatException e) {
+            throw new InvalidEntityException("Invalid cursor: " + cursor);
+        }
+        return keysetCursor;
+    }
+
+    public Integer getBuildRecordLogLength(Integer id) {
+        return ((BuildRecordRepository) repository).getBuildLogLength(id);
+    }
+
+    /**
+     * Streams the build log by parts, so that only a part of the log is held in memory at a time.
+     *
+     * @param id id of the build record
+     * @param logLength length of the build log, see {@link #getBuildRecordLogLength(Integer)}
+     */
+    public StreamingOutput getLogsForBuild(Integer id, int logLength) {
+        BuildRecordRepository buildRecordRepository = (BuildRecordRepository) repository;
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            for (int offset = 0; offset < logLength; offset += LOG_PART_LENGTH) {
+                writer.write(buildRecordRepository.getBuildLogPart(id, offset, LOG_PART_LENGTH));
+                writer.flush();
+            }
+        };
+    }
+
     public StreamingOutput getLogsForBuild(String buildRecordLog) {
         if (buildRecordLog == null)
             return null;
@@ -253,9 +530,7 @@ public class BuildRecordProvider extends AbstractProvider<BuildRecord, BuildReco
     }
 
     private BuildTask getSubmittedBuild(Integer id) {
-        return buildCoordinator.getSubmittedBuildTasks().stream()
-                .filter(submittedBuild -> id.equals(submittedBuild.getId()))
-                .findFirst().orElse(null);
+        return buildCoordinator.getSubmittedBuildTask(id).orElse(null);
     }
 
     public BuildConfigurationAuditedRest getBuildConfigurationAudited(Integer id) {
@@ -296,57 +571,87 @@ public class BuildRecordProvider extends AbstractProvider<BuildRecord, BuildReco
      * Abstracts away the implementation detail that BuildRecords are not persisted to the database until the build is
      * complete. This abstraction allows clients to query for a list of all builds whether running or completed.
      */
+    @SuppressWarnings("unchecked")
     private CollectionInfo<BuildRecordRest> getBuilds(Integer pageIndex, Integer pageSize, String sort, String... rsqlQueries) {
 
-        Predicate[] dbPredicates = Arrays.stream(rsqlQueries)
+        Predicate<BuildRecord>[] dbPredicates = Arrays.stream(rsqlQueries)
                 .map(p -> rsqlPredicateProducer.getPredicate(BuildRecord.class, p))
                 .toArray(Predicate[]::new);
 
-        Set<BuildRecordRest> running = nullableStreamOf(buildCoordinator.getSubmittedBuildTasks())
+        SortInfo sortInfo = sortInfoProducer.getSortInfo(sort);
+        Comparator<BuildRecordRest> comparator = sortInfo.getComparator(BuildRecordRest.class);
+
+        List<BuildRecordRest> running = nullableStreamOf(buildCoordinator.getSubmittedBuildTasks())
                 .map(this::createNewBuildRecordRest)
                 .filter(rsqlPredicateProducer.getStreamPredicate(BuildRecordRest.class, combineRsqlQueriesMatchAll(rsqlQueries)))
-                .sorted(sortInfoProducer.getSortInfo(sort).getComparator())
-                .collect(Collectors.toSet());
-
-        final int totalRunning = running.size();
-
-        CollectionInfo<BuildRecordRest> page = null;
+                .sorted(comparator)
+                .collect(Collectors.toList());
 
-        for (int i = 0; i <= pageIndex; i++) {
-            final int offset = totalRunning - running.size();
+        // at most running.size() running builds precede the page, so the completed builds needed for the page
+        // are all within pageSize + running.size() records starting running.size() records before the page start
+        int pageStart = pageIndex * pageSize;
+        int completedOffset = Math.max(0, pageStart - running.size());
+        PageInfo pageInfo = new DefaultPageInfo(completedOffset, pageSize + running.size());
 
-            if (offset == totalRunning) {
-                page = createInterleavedPage(pageIndex, pageSize, offset, totalRunning, sort, running, dbPredicates);
-                break;
-            }
-
-            page = createInterleavedPage(i, pageSize, offset, totalRunning, sort, running, dbPredicates);
-            running.removeAll(page.getContent());
+        Projection<BuildRecord, BuildRecordRest> summaryProjection = getRequestedSummaryProjection();
+        List<BuildRecordRest> completed;
+        if (summaryProjection != null) {
+            completed = repository.queryProjectionWithPredicatesUsingCursor(pageInfo, sortInfo, summaryProjection, dbPredicates);
+        } else {
+            completed = nullableStreamOf(repository.queryWithPredicatesUsingCursor(pageInfo, sortInfo, getFetchPlan(), dbPredicates))
+                    .map(toRESTModel())
+                    .collect(Collectors.toList());
         }
-        return page;
-    }
-
-    @SafeVarargs
-    private final CollectionInfo<BuildRecordRest> createInterleavedPage(int pageIndex, int pageSize, int offset, int totalRunning,
-            String sort, Set<BuildRecordRest> running, Predicate<BuildRecord>... dbPredicates) {
-
-        PageInfo pageInfo = new DefaultPageInfo(pageIndex * pageSize - offset, pageSize);
-        SortInfo sortInfo = sortInfoProducer.getSortInfo(sort);
 
-        List<BuildRecordRest> content = nullableStreamOf(((BuildRecordRepository) repository).queryWithPredicatesUsingCursor(pageInfo, sortInfo, dbPredicates))
-                .map(toRESTModel())
-                .collect(Collectors.toList());
+        List<BuildRecordRest> content = mergePage(running, completed, completedOffset, pageStart, pageSize, comparator);
 
-        content.addAll(running);
+        int totalPages = calculateInterleavedPageCount(running.size(), repository.count(dbPredicates), pageSize);
 
-        content = content.stream()
-                .sorted(sortInfoProducer.getSortInfo(sort).getComparator())
-                .limit(pageSize)
-                .collect(Collectors.toList());
+        return new CollectionInfo<>(pageIndex, pageSize, totalPages, content);
+    }
 
-        int totalPages = calculateInterleavedPageCount(totalRunning, repository.count(dbPredicates), pageSize);
+    /**
+     * Merges sorted running builds with a window of sorted completed builds and returns a page of the merged list.
+     * On equal sort keys completed builds go first.
+     *
+     * @param running all running builds, sorted
+     * @param completed completed builds starting at completedOffset, sorted
+     * @param completedOffset position of the first element of completed among all completed builds, has to be at
+     *                        most pageStart - running.size() if positive
+     * @param pageStart position of the first element of the page in the merged list
+     * @param pageSize maximal number of elements in the page
+     * @param comparator comparator both lists are sorted with
+     */
+    static <T> List<T> mergePage(List<T> running, List<T> completed, int completedOffset, int pageStart, int pageSize,
+            Comparator<? super T> comparator) {
+        int runningIndex = 0;
+        if (completedOffset > 0) {
+            if (completed.isEmpty()) {
+                // all the completed builds precede the window, and so does the page
+                return new ArrayList<>();
+            }
+            // running builds sorting before the window precede it in the merged list
+            while (runningIndex < running.size() && comparator.compare(running.get(runningIndex), completed.get(0)) < 0) {
+                runningIndex++;
+            }
+        }
 
-        return new CollectionInfo<>(pageIndex, pageSize, totalPages, content);
+        List<T> page = new ArrayList<>(pageSize);
+        int completedIndex = 0;
+        int position = completedOffset + runningIndex;
+        while (page.size() < pageSize && (runningIndex < running.size() || completedIndex < completed.size())) {
+            T next;
+            if (completedIndex < completed.size() && (runningIndex == running.size()
+                    || comparator.compare(running.get(runningIndex), completed.get(completedIndex)) >= 0)) {
+                next = completed.get(completedIndex++);
+            } else {
+                next = running.get(runningIndex++);
+            }
+            if (position++ >= pageStart) {
+                page.add(next);
+            }
+        }
+        return page;
     }
 
     private String combineRsqlQueriesMatchAll(String... rsqlQueries) {
@@ -0,0 +1,104 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.provider;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Short lived cache of collection counts. Clients paging through a collection repeat the same count query for every
+ * page, a few seconds of staleness in the total number of pages is acceptable for them.
+ */
+@ApplicationScoped
+public class CountCache {
+
+    static final long EXPIRE_AFTER_SECONDS = 10;
+
+    private static final long MAX_SIZE = 10000;
+
+    private final Cache<Key, Integer> counts = CacheBuilder.newBuilder()
+            .expireAfterWrite(EXPIRE_AFTER_SECONDS, TimeUnit.SECONDS)
+            .maximumSize(MAX_SIZE)
+            .recordStats()
+            .build();
+
+    /**
+     * @param entityClass queried entity
+     * @param query RSQL query of the collection
+     * @param predicatesKey identifies the predicates added to the RSQL query, empty if there are none
+     * @param count runs the count query on a miss
+     */
+    public int get(Class<?> entityClass, String query, String predicatesKey, Supplier<Integer> count) {
+        Key key = new Key(entityClass, query == null ? "" : query.trim(), predicatesKey);
+        Integer cached = counts.getIfPresent(key);
+        if (cached == null) {
+            cached = count.get();
+            counts.put(key, cached);
+        }
+        return cached;
+    }
+
+    public CacheStats getStats() {
+        return counts.stats();
+    }
+
+    public String getDebugInfo() {
+        CacheStats stats = counts.stats();
+        return "{\"hits\": " + stats.hitCount()
+                + ", \"misses\": " + stats.missCount()
+                + ", \"hitRate\": " + stats.hitRate()
+                + ", \"size\": " + counts.size() + "}";
+    }
+
+    private static class Key {
+        private final Class<?> entityClass;
+        private final String query;
+        private final String predicatesKey;
+
+        private Key(Class<?> entityClass, String query, String predicatesKey) {
+            this.entityClass = entityClass;
+            this.query = query;
+            this.predicatesKey = predicatesKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return entityClass.equals(key.entityClass)
+                    && query.equals(key.query)
+                    && predicatesKey.equals(key.predicatesKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityClass, query, predicatesKey);
+        }
+    }
+}
@@ -32,6 +32,7 @@ import org.jboss.pnc.spi.datastore.repositories.ArtifactRepository;
 import org.jboss.pnc.spi.datastore.repositories.PageInfoProducer;
 import org.jboss.pnc.spi.datastore.repositories.ProductMilestoneRepository;
 import org.jboss.pnc.spi.datastore.repositories.SortInfoProducer;
+import org.jboss.pnc.spi.datastore.repositories.api.FetchPlan;
 import org.jboss.pnc.spi.datastore.repositories.api.RSQLPredicateProducer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,6 +49,8 @@ public class ProductMilestoneProvider extends AbstractProvider<ProductMilestone,
 
     private static final Logger log = LoggerFactory.getLogger(ProductMilestoneProvider.class);
 
+    private static final FetchPlan<ProductMilestone> FETCH_PLAN = FetchPlan.of("productVersion", "productRelease");
+
     private ArtifactRepository artifactRepository;
     private ProductMilestoneReleaseManager releaseManager;
 
@@ -73,6 +76,11 @@ public class ProductMilestoneProvider extends AbstractProvider<ProductMilestone,
         return super.queryForCollection(pageIndex, pageSize, sortingRsql, query, withProductVersionId(versionId));
     }
 
+    @Override
+    protected FetchPlan<ProductMilestone> getFetchPlan() {
+        return FETCH_PLAN;
+    }
+
     @Override
     protected Function<? super ProductMilestone, ? extends ProductMilestoneRest> toRESTModel() {
         return ProductMilestoneRest::new;
@@ -34,6 +34,7 @@ import org.jboss.pnc.spi.datastore.repositories.PageInfoProducer;
 import org.jboss.pnc.spi.datastore.repositories.ProductRepository;
 import org.jboss.pnc.spi.datastore.repositories.ProductVersionRepository;
 import org.jboss.pnc.spi.datastore.repositories.SortInfoProducer;
+import org.jboss.pnc.spi.datastore.repositories.api.FetchPlan;
 import org.jboss.pnc.spi.datastore.repositories.api.RSQLPredicateProducer;
 
 import javax.ejb.Stateless;
@@ -51,6 +52,8 @@ import static org.jboss.pnc.spi.datastore.predicates.ProductVersionPredicates.wi
 @Stateless
 public class ProductVersionProvider extends AbstractProvider<ProductVersion, ProductVersionRest> {
 
+    private static final FetchPlan<ProductVersion> FETCH_PLAN = FetchPlan.of("product", "currentProductMilestone");
+
     private BuildConfigurationSetRepository buildConfigurationSetRepository;
     
     private ProductRepository productRepository;
@@ -119,6 +122,11 @@ public class ProductVersionProvider extends AbstractProvider<ProductVersion, Pro
         repository.save(productVersion);
     }
 
+    @Override
+    protected FetchPlan<ProductVersion> getFetchPlan() {
+        return FETCH_PLAN;
+    }
+
     @Override
     protected Function<? super ProductVersion, ? extends ProductVersionRest> toRESTModel() {
         return productVersion -> new ProductVersionRest(productVersion);
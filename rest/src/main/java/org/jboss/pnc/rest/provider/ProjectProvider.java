@@ -24,6 +24,7 @@ import org.jboss.pnc.rest.validation.exceptions.ValidationException;
 import org.jboss.pnc.spi.datastore.repositories.PageInfoProducer;
 import org.jboss.pnc.spi.datastore.repositories.ProjectRepository;
 import org.jboss.pnc.spi.datastore.repositories.SortInfoProducer;
+import org.jboss.pnc.spi.datastore.repositories.api.Projection;
 import org.jboss.pnc.spi.datastore.repositories.api.RSQLPredicateProducer;
 
 import javax.ejb.Stateless;
@@ -35,6 +36,16 @@ import static org.jboss.pnc.spi.datastore.predicates.ProjectPredicates.withProje
 @Stateless
 public class ProjectProvider extends AbstractProvider<Project, ProjectRest> {
 
+    private static final Projection<Project, ProjectRest> SUMMARY_PROJECTION = Projection.of(row -> {
+        ProjectRest project = new ProjectRest();
+        project.setId(row.get("id"));
+        project.setName(row.get("name"));
+        project.setIssueTrackerUrl(row.get("issueTrackerUrl"));
+        project.setProjectUrl(row.get("projectUrl"));
+        project.setLicenseId(row.get("license.id"));
+        return project;
+    }, "id", "name", "issueTrackerUrl", "projectUrl", "license.id");
+
     @Inject
     public ProjectProvider(ProjectRepository projectRepository, RSQLPredicateProducer rsqlPredicateProducer, SortInfoProducer sortInfoProducer, PageInfoProducer pageInfoProducer) {
         super(projectRepository, rsqlPredicateProducer, sortInfoProducer, pageInfoProducer);
@@ -53,6 +64,11 @@ public class ProjectProvider extends AbstractProvider<Project, ProjectRest> {
         }
     }
 
+    @Override
+    protected Projection<Project, ProjectRest> getSummaryProjection() {
+        return SUMMARY_PROJECTION;
+    }
+
     @Override
     protected Function<? super Project, ? extends ProjectRest> toRESTModel() {
         return project -> new ProjectRest(project);
@@ -0,0 +1,64 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.provider;
+
+import javax.ws.rs.core.EntityTag;
+import java.util.Date;
+
+/**
+ * Version of a REST resource for conditional requests, read without loading the resource. It changes whenever the
+ * representation of the resource does.
+ */
+public class ResourceVersion {
+
+    private final EntityTag entityTag;
+
+    private final Date lastModified;
+
+    private ResourceVersion(EntityTag entityTag, Date lastModified) {
+        this.entityTag = entityTag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * @param tag opaque value identifying the version, it is used as a strong entity tag
+     */
+    public static ResourceVersion of(String tag) {
+        return new ResourceVersion(new EntityTag(tag), null);
+    }
+
+    /**
+     * @param tag opaque value identifying the version, it is used as a strong entity tag
+     * @param lastModified time of the last modification, HTTP dates have a precision of seconds so milliseconds are
+     *        dropped
+     */
+    public static ResourceVersion of(String tag, Date lastModified) {
+        return new ResourceVersion(new EntityTag(tag), new Date(lastModified.getTime() / 1000 * 1000));
+    }
+
+    public EntityTag getEntityTag() {
+        return entityTag;
+    }
+
+    /**
+     * @return time of the last modification, null if not known
+     */
+    public Date getLastModified() {
+        return lastModified;
+    }
+}
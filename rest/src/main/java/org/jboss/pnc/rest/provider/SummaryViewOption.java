@@ -0,0 +1,43 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.provider;
+
+/**
+ * Per request switch telling the providers whether the client wants the summary view of collections. The summary view
+ * has only the fields list views display, the providers read just those instead of loading whole entities, see
+ * {@link AbstractProvider#getSummaryProjection()}.
+ */
+public class SummaryViewOption {
+
+    private static final ThreadLocal<Boolean> requested = new ThreadLocal<>();
+
+    private SummaryViewOption() {
+    }
+
+    public static boolean isRequested() {
+        return Boolean.TRUE.equals(requested.get());
+    }
+
+    public static void request() {
+        requested.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        requested.remove();
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.provider;
+
+/**
+ * Per request switch telling the providers whether the client wants the total number of pages of a collection.
+ * Counting is usually the most expensive part of listing a large collection, clients that only page forward can skip
+ * it and rely on {@link org.jboss.pnc.rest.provider.collection.CollectionInfo#getHasNextPage()} instead.
+ */
+public class TotalCountOption {
+
+    private static final ThreadLocal<Boolean> skipped = new ThreadLocal<>();
+
+    private TotalCountOption() {
+    }
+
+    public static boolean isSkipped() {
+        return Boolean.TRUE.equals(skipped.get());
+    }
+
+    public static void skip() {
+        skipped.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        skipped.remove();
+    }
+}
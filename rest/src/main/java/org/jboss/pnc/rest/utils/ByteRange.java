@@ -0,0 +1,127 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.utils;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A single byte range of a Range request header, either "bytes=first-last", "bytes=first-" or the suffix range
+ * "bytes=-length" for the tail of the content. Requests with multiple ranges are served as a whole.
+ */
+public class ByteRange {
+
+    public static final String RANGE_HEADER = "Range";
+
+    public static final String CONTENT_RANGE_HEADER = "Content-Range";
+
+    public static final String ACCEPT_RANGES_HEADER = "Accept-Ranges";
+
+    public static final String BYTES_UNIT = "bytes";
+
+    private static final Pattern SINGLE_RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+
+    private final Long first;
+
+    private final Long last;
+
+    private ByteRange(Long first, Long last) {
+        this.first = first;
+        this.last = last;
+    }
+
+    /**
+     * @param header value of the Range request header
+     * @return the range, null if the header is missing, has multiple ranges or is not valid
+     */
+    public static ByteRange parse(String header) {
+        if (header == null) {
+            return null;
+        }
+        Matcher matcher = SINGLE_RANGE.matcher(header.replace(" ", ""));
+        if (!matcher.matches()) {
+            return null;
+        }
+        try {
+            Long first = matcher.group(1).isEmpty() ? null : Long.valueOf(matcher.group(1));
+            Long last = matcher.group(2).isEmpty() ? null : Long.valueOf(matcher.group(2));
+            if (first == null && last == null || first != null && last != null && last < first) {
+                return null;
+            }
+            return new ByteRange(first, last);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param contentLength length of the whole content
+     * @return true if the range overlaps the content
+     */
+    public boolean isSatisfiable(long contentLength) {
+        if (first == null) {
+            return last > 0 && contentLength > 0;
+        }
+        return first < contentLength;
+    }
+
+    /**
+     * @param contentLength length of the whole content
+     * @return position of the first byte of the range within the content
+     */
+    public long getOffset(long contentLength) {
+        if (first == null) {
+            return Math.max(0, contentLength - last);
+        }
+        return first;
+    }
+
+    /**
+     * @param contentLength length of the whole content
+     * @return number of bytes of the range within the content
+     */
+    public long getLength(long contentLength) {
+        if (first == null) {
+            return Math.min(last, contentLength);
+        }
+        long end = last == null || last >= contentLength ? contentLength : last + 1;
+        return end - first;
+    }
+
+    /**
+     * @param contentLength length of the whole content
+     * @return value of the Content-Range response header of a satisfiable range
+     */
+    public String toContentRange(long contentLength) {
+        long offset = getOffset(contentLength);
+        return BYTES_UNIT + " " + offset + "-" + (offset + getLength(contentLength) - 1) + "/" + contentLength;
+    }
+
+    /**
+     * @param contentLength length of the whole content
+     * @return value of the Content-Range response header of an unsatisfiable range
+     */
+    public static String toUnsatisfiedContentRange(long contentLength) {
+        return BYTES_UNIT + " */" + contentLength;
+    }
+
+    @Override
+    public String toString() {
+        return BYTES_UNIT + "=" + (first == null ? "" : first) + "-" + (last == null ? "" : last);
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.utils;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.jboss.pnc.rest.provider.collection.CollectionInfo;
+import org.jboss.pnc.rest.validation.exceptions.InvalidEntityException;
+
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes a whole collection as a single {@link org.jboss.pnc.rest.restmodel.response.Page} while it is being read.
+ * The collection is read by keyset pages, each of them loaded and converted to REST entities in a transaction of its
+ * own, and every entity is written to the output right away. Only a single page is held in memory at a time no matter
+ * how big the collection is.
+ */
+public class CollectionStreamingOutput<T> implements StreamingOutput {
+
+    public static final int BATCH_SIZE = 200;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private final CollectionInfo<T> firstPage;
+
+    private final PageLoader<T> pageAfterCursor;
+
+    /**
+     * @param firstPage the first page, loaded before the response is committed so that an invalid query still
+     *        results in an error response
+     * @param pageAfterCursor loads the page following a cursor
+     */
+    public CollectionStreamingOutput(CollectionInfo<T> firstPage, PageLoader<T> pageAfterCursor) {
+        this.firstPage = firstPage;
+        this.pageAfterCursor = pageAfterCursor;
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        JsonGenerator generator = MAPPER.getFactory().createGenerator(output, JsonEncoding.UTF8);
+        int size = 0;
+
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("content");
+        CollectionInfo<T> page = firstPage;
+        while (true) {
+            for (T entity : page.getContent()) {
+                MAPPER.writeValue(generator, entity);
+                size++;
+            }
+            generator.flush();
+            if (page.getNextCursor() == null) {
+                break;
+            }
+            try {
+                page = pageAfterCursor.load(page.getNextCursor());
+            } catch (InvalidEntityException e) {
+                // the cursor comes from the page just written
+                throw new IllegalStateException("Cannot load the page after " + page.getNextCursor(), e);
+            }
+        }
+        generator.writeEndArray();
+
+        generator.writeNumberField("pageIndex", 0);
+        generator.writeNumberField("pageSize", size);
+        generator.writeNumberField("totalPages", 1);
+        generator.writeBooleanField("hasNextPage", false);
+        generator.writeEndObject();
+        generator.close();
+    }
+
+    /**
+     * Loads the keyset page following a cursor, or the first page for a null cursor.
+     */
+    @FunctionalInterface
+    public interface PageLoader<T> {
+        CollectionInfo<T> load(String cursor) throws InvalidEntityException;
+    }
+}
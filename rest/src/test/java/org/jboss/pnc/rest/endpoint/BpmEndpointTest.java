@@ -80,7 +80,7 @@ public class BpmEndpointTest {
         when(configuration.getModuleConfig(any())).thenReturn(scmModuleConfig);
 
         BuildConfigurationProvider configurationProvider = new BuildConfigurationProvider(configurationRepository, configurationAuditedRepository,
-                null, null, null, versionRepository, configuration);
+                null, null, null, versionRepository, configuration, null, null);
 
         bpmEndpoint = new BpmEndpoint(bpmManager, null, authProviderFactory, configurationProvider, null);
 
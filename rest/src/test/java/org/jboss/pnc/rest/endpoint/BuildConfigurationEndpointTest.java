@@ -33,7 +33,11 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -41,6 +45,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.jboss.pnc.common.util.RandomUtils.randInt;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -111,6 +117,64 @@ public class BuildConfigurationEndpointTest {
         assertThat(supportedParameters.get(KEY)).startsWith(VALUE);
     }
 
+    @Test
+    public void shouldAnswerNotModifiedWithoutLoadingBCWhenClientHasCurrentVersion() {
+        // given
+        Date lastModificationTime = new Date();
+        when(buildConfigurationRepository.getLastModificationTime(1)).thenReturn(lastModificationTime);
+        Request request = mock(Request.class);
+        when(request.evaluatePreconditions(any(EntityTag.class))).thenReturn(Response.notModified());
+
+        // when
+        Response response = bcEndpoint.getSpecific(1, request);
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(((EntityTag) response.getMetadata().getFirst("ETag")).getValue())
+                .startsWith("1-" + lastModificationTime.getTime() + "-");
+        verify(buildConfigurationRepository, never()).queryById(any());
+    }
+
+    @Test
+    public void shouldChangeVersionWhenEmbeddedProjectChanges() {
+        // given
+        Date lastModificationTime = new Date();
+        when(buildConfigurationRepository.getLastModificationTime(1)).thenReturn(lastModificationTime);
+        when(buildConfigurationRepository.getEmbeddedProjectAndEnvironmentState(1))
+                .thenReturn(Arrays.asList(2, "project", "description"))
+                .thenReturn(Arrays.asList(2, "project", "changed description"));
+        when(buildConfigurationRepository.queryById(1)).thenReturn(BuildConfiguration.Builder.newBuilder().id(1).build());
+        Request request = mock(Request.class);
+
+        // when
+        Object tagBefore = bcEndpoint.getSpecific(1, request).getMetadata().getFirst("ETag");
+        Object tagAfter = bcEndpoint.getSpecific(1, request).getMetadata().getFirst("ETag");
+
+        // then
+        assertThat(tagAfter).isNotEqualTo(tagBefore);
+    }
+
+    @Test
+    public void shouldReturnBCWithVersionWhenClientDoesNotHaveCurrentVersion() {
+        // given
+        BuildConfiguration bcGiven = BuildConfiguration.Builder.newBuilder()
+                .id(1)
+                .build();
+        when(buildConfigurationRepository.getLastModificationTime(1)).thenReturn(bcGiven.getLastModificationTime());
+        when(buildConfigurationRepository.queryById(1)).thenReturn(bcGiven);
+        Request request = mock(Request.class);
+
+        // when
+        Response response = bcEndpoint.getSpecific(1, request);
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(((EntityTag) response.getMetadata().getFirst("ETag")).getValue())
+                .startsWith("1-" + bcGiven.getLastModificationTime().getTime() + "-");
+        // the embedded project and environment have no modification time
+        assertThat(response.getMetadata().getFirst("Last-Modified")).isNull();
+    }
+
     @SuppressWarnings("unchecked")
     @Test
     public void testGetPMEGenericParameterWithDescription() {
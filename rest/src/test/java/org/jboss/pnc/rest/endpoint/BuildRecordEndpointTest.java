@@ -24,6 +24,7 @@ import org.jboss.pnc.model.SystemImageType;
 import org.jboss.pnc.model.User;
 import org.jboss.pnc.rest.provider.BuildRecordProvider;
 import org.jboss.pnc.rest.utils.EndpointAuthenticationProvider;
+import org.jboss.pnc.spi.datastore.BuildLogStore;
 import org.jboss.pnc.spi.datastore.Datastore;
 import org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository;
 import org.jboss.pnc.spi.executor.BuildExecutionConfiguration;
@@ -35,6 +36,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import javax.ws.rs.core.Response;
+
 import java.util.HashMap;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -60,6 +63,8 @@ public class BuildRecordEndpointTest {
     private Datastore datastore;
     @Mock
     private EndpointAuthenticationProvider authProvider;
+    @Mock
+    private BuildLogStore buildLogStore;
     @InjectMocks
     private BuildRecordProvider buildRecordProvider = new BuildRecordProvider();
     private BuildRecordEndpoint endpoint;
@@ -84,7 +89,7 @@ public class BuildRecordEndpointTest {
         endpointReturnsLog(logId, logContent);
 
         // then
-        assertThat(endpoint.getLogs(logId).getStatus()).isEqualTo(204);
+        assertThat(endpoint.getLogs(logId, null).getStatus()).isEqualTo(204);
     }
 
     @Test
@@ -97,7 +102,49 @@ public class BuildRecordEndpointTest {
         endpointReturnsLog(logId, logContent);
 
         // then
-        assertThat(endpoint.getLogs(logId).getStatus()).isEqualTo(200);
+        assertThat(endpoint.getLogs(logId, null).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    public void shouldGetWholeStoredLog() {
+        // given
+        int logId = 1;
+        when(buildLogStore.getLength(logId)).thenReturn(100L);
+
+        // when
+        Response response = endpoint.getLogs(logId, null);
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getMetadata().getFirst("Accept-Ranges")).isEqualTo("bytes");
+    }
+
+    @Test
+    public void shouldGetTailOfStoredLog() {
+        // given
+        int logId = 1;
+        when(buildLogStore.getLength(logId)).thenReturn(100L);
+
+        // when
+        Response response = endpoint.getLogs(logId, "bytes=-10");
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getMetadata().getFirst("Content-Range")).isEqualTo("bytes 90-99/100");
+    }
+
+    @Test
+    public void shouldRejectRangeBeyondStoredLog() {
+        // given
+        int logId = 1;
+        when(buildLogStore.getLength(logId)).thenReturn(100L);
+
+        // when
+        Response response = endpoint.getLogs(logId, "bytes=100-");
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getMetadata().getFirst("Content-Range")).isEqualTo("bytes */100");
     }
 
     private void endpointReturnsLog(int logId, String logContent) {
@@ -0,0 +1,191 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.notifications.websockets;
+
+import org.jboss.pnc.spi.executor.BuildExecutionSession;
+import org.jboss.pnc.spi.executor.BuildExecutor;
+import org.jboss.pnc.spi.executor.LiveLog;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.websocket.CloseReason;
+import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LiveLogEndpointTest {
+
+    private static final int BUILD_ID = 1;
+
+    @Mock
+    private BuildExecutor buildExecutor;
+
+    @InjectMocks
+    private LiveLogEndpoint endpoint = new LiveLogEndpoint();
+
+    private LiveLog liveLog = new LiveLog(10, 5);
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        BuildExecutionSession buildExecutionSession = mock(BuildExecutionSession.class);
+        when(buildExecutionSession.getLiveLog()).thenReturn(liveLog);
+        when(buildExecutor.getRunningExecution(BUILD_ID)).thenReturn(buildExecutionSession);
+    }
+
+    @Test
+    public void shouldReplayRetainedOutputAndThenSendNewOutput() throws Exception {
+        //given
+        liveLog.append("0123");
+        liveLog.append("456789ab");
+        List<String> received = new ArrayList<>();
+
+        //when
+        endpoint.attach(mockSession(received, true), BUILD_ID);
+        liveLog.append("cd");
+
+        //then
+        assertThat(received).containsExactly("23456789ab", "cd");
+    }
+
+    @Test
+    public void shouldSendToAllClients() throws Exception {
+        //given
+        List<String> receivedByFirst = new ArrayList<>();
+        List<String> receivedBySecond = new ArrayList<>();
+        endpoint.attach(mockSession(receivedByFirst, true), BUILD_ID);
+        endpoint.attach(mockSession(receivedBySecond, true), BUILD_ID);
+
+        //when
+        liveLog.append("abc");
+
+        //then
+        assertThat(receivedByFirst).containsExactly("abc");
+        assertThat(receivedBySecond).containsExactly("abc");
+        assertThat(liveLog.getSubscribersCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldDropSlowClient() throws Exception {
+        //given
+        List<String> receivedBySlow = new ArrayList<>();
+        List<String> receivedByFast = new ArrayList<>();
+        Session slowSession = mockSession(receivedBySlow, false);
+        endpoint.attach(slowSession, BUILD_ID);
+        endpoint.attach(mockSession(receivedByFast, true), BUILD_ID);
+
+        //when
+        liveLog.append("abc");
+        liveLog.append("def");
+        liveLog.append("ghi");
+
+        //then
+        ArgumentCaptor<CloseReason> closeReason = ArgumentCaptor.forClass(CloseReason.class);
+        verify(slowSession).close(closeReason.capture());
+        assertThat(closeReason.getValue().getCloseCode()).isEqualTo(CloseReason.CloseCodes.TRY_AGAIN_LATER);
+        assertThat(receivedBySlow).containsExactly("abc");
+        assertThat(receivedByFast).containsExactly("abc", "def", "ghi");
+        assertThat(liveLog.getSubscribersCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotHoldTheLogWhileClosingSlowClient() throws Exception {
+        //given
+        Session slowSession = mockSession(new ArrayList<>(), false);
+        AtomicBoolean logAvailableDuringClose = new AtomicBoolean();
+        doAnswer(invocation -> {
+            CompletableFuture.runAsync(liveLog::getSubscribersCount).get(5, TimeUnit.SECONDS);
+            logAvailableDuringClose.set(true);
+            return null;
+        }).when(slowSession).close(any(CloseReason.class));
+        endpoint.attach(slowSession, BUILD_ID);
+
+        //when
+        liveLog.append("abc");
+        liveLog.append("def");
+
+        //then
+        verify(slowSession).close(any(CloseReason.class));
+        assertThat(logAvailableDuringClose.get()).isTrue();
+    }
+
+    @Test
+    public void shouldCloseClientsWhenBuildFinishes() throws Exception {
+        //given
+        Session session = mockSession(new ArrayList<>(), true);
+        endpoint.attach(session, BUILD_ID);
+
+        //when
+        liveLog.close();
+
+        //then
+        ArgumentCaptor<CloseReason> closeReason = ArgumentCaptor.forClass(CloseReason.class);
+        verify(session).close(closeReason.capture());
+        assertThat(closeReason.getValue().getCloseCode()).isEqualTo(CloseReason.CloseCodes.NORMAL_CLOSURE);
+    }
+
+    @Test
+    public void shouldRejectClientOfBuildWhichIsNotRunning() throws Exception {
+        //given
+        Session session = mockSession(new ArrayList<>(), true);
+
+        //when
+        endpoint.attach(session, BUILD_ID + 1);
+
+        //then
+        ArgumentCaptor<CloseReason> closeReason = ArgumentCaptor.forClass(CloseReason.class);
+        verify(session).close(closeReason.capture());
+        assertThat(closeReason.getValue().getCloseCode()).isEqualTo(CloseReason.CloseCodes.CANNOT_ACCEPT);
+        assertThat(liveLog.getSubscribersCount()).isEqualTo(0);
+    }
+
+    /**
+     * @param completeSends false to simulate a client which does not receive the sent messages
+     */
+    private Session mockSession(List<String> received, boolean completeSends) {
+        Session session = mock(Session.class);
+        RemoteEndpoint.Async remote = mock(RemoteEndpoint.Async.class);
+        when(session.getAsyncRemote()).thenReturn(remote);
+        doAnswer(invocation -> {
+            received.add((String) invocation.getArguments()[0]);
+            if (completeSends) {
+                ((SendHandler) invocation.getArguments()[1]).onResult(new SendResult());
+            }
+            return null;
+        }).when(remote).sendText(anyString(), any(SendHandler.class));
+        return session;
+    }
+}
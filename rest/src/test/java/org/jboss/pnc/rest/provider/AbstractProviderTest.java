@@ -24,8 +24,10 @@ import org.jboss.pnc.rest.restmodel.BuildConfigurationRest;
 import org.jboss.pnc.rest.validation.exceptions.ValidationException;
 import org.jboss.pnc.spi.datastore.repositories.PageInfoProducer;
 import org.jboss.pnc.spi.datastore.repositories.SortInfoProducer;
+import org.jboss.pnc.spi.datastore.repositories.api.Projection;
 import org.jboss.pnc.spi.datastore.repositories.api.RSQLPredicateProducer;
 import org.jboss.pnc.spi.datastore.repositories.api.Repository;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -36,6 +38,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 public class AbstractProviderTest {
 
@@ -45,6 +50,11 @@ public class AbstractProviderTest {
             super(AbstractProviderTest.this.repository, AbstractProviderTest.this.rsqlPredicateProducer, AbstractProviderTest.this.sortInfoProducer, AbstractProviderTest.this.pageInfoProducer);
         }
 
+        @Override
+        protected Projection<BuildConfiguration, BuildConfigurationRest> getSummaryProjection() {
+            return summaryProjection;
+        }
+
         @Override
         protected Function<? super BuildConfiguration, ? extends BuildConfigurationRest> toRESTModel() {
             return buildConfiguration -> new BuildConfigurationRest(buildConfiguration);
@@ -61,6 +71,7 @@ public class AbstractProviderTest {
     private SortInfoProducer sortInfoProducer;
     private PageInfoProducer pageInfoProducer;
     private Repository<BuildConfiguration, Integer> repository;
+    private Projection<BuildConfiguration, BuildConfigurationRest> summaryProjection;
 
     @Before
     public void before() {
@@ -70,13 +81,19 @@ public class AbstractProviderTest {
         repository = mock(Repository.class);
     }
 
+    @After
+    public void after() {
+        TotalCountOption.clear();
+        SummaryViewOption.clear();
+    }
+
     @Test
     public void shouldReturnCollectionWithPagingInfo() throws Exception {
         //given
         BuildConfiguration exampleConfiguration = BuildConfiguration.Builder.newBuilder().build();
 
         TestedAbstractProvider testedAbstractProvider = new TestedAbstractProvider();
-        doReturn(Arrays.asList(exampleConfiguration)).when(repository).queryWithPredicates(any(), any(), any());
+        doReturn(Arrays.asList(exampleConfiguration)).when(repository).queryWithPredicates(any(), any(), any(), any());
         doReturn(100).when(repository).count(any());
 
         //when
@@ -89,6 +106,90 @@ public class AbstractProviderTest {
         assertThat(returnedCollection.getContent().size()).isEqualTo(1);
     }
 
+    @Test
+    public void shouldSkipCountAndTellThereIsNextPage() throws Exception {
+        //given
+        BuildConfiguration exampleConfiguration = BuildConfiguration.Builder.newBuilder().build();
+
+        TestedAbstractProvider testedAbstractProvider = new TestedAbstractProvider();
+        doReturn(Arrays.asList(exampleConfiguration, exampleConfiguration, exampleConfiguration))
+                .when(repository).queryWithPredicatesUsingCursor(any(), any(), any(), any());
+        TotalCountOption.skip();
+
+        //when
+        CollectionInfo<BuildConfigurationRest> returnedCollection = testedAbstractProvider.getAll(1, 2, "sort", "query");
+
+        //then
+        verify(pageInfoProducer).getPageInfo(2, 3);
+        verify(repository, never()).count(any());
+        assertThat(returnedCollection.getPageIndex()).isEqualTo(1);
+        assertThat(returnedCollection.getTotalPages()).isEqualTo(-1);
+        assertThat(returnedCollection.getHasNextPage()).isTrue();
+        assertThat(returnedCollection.getContent().size()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldCountOnceForPagesOfTheSameQuery() throws Exception {
+        //given
+        BuildConfiguration exampleConfiguration = BuildConfiguration.Builder.newBuilder().build();
+
+        TestedAbstractProvider testedAbstractProvider = new TestedAbstractProvider();
+        testedAbstractProvider.countCache = new CountCache();
+        doReturn(Arrays.asList(exampleConfiguration)).when(repository).queryWithPredicates(any(), any(), any(), any());
+        doReturn(100).when(repository).count(any());
+
+        //when
+        testedAbstractProvider.getAll(0, 10, "sort", "query");
+        testedAbstractProvider.getAll(1, 10, "sort", " query ");
+        CollectionInfo<BuildConfigurationRest> returnedCollection = testedAbstractProvider.getAll(2, 10, "sort", "query");
+
+        //then
+        verify(repository, times(1)).count(any());
+        assertThat(returnedCollection.getTotalPages()).isEqualTo(10);
+        assertThat(returnedCollection.getHasNextPage()).isTrue();
+        assertThat(testedAbstractProvider.countCache.getStats().hitCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldReadSummaryProjectionWhenSummaryRequested() throws Exception {
+        //given
+        BuildConfigurationRest exampleSummary = new BuildConfigurationRest();
+
+        TestedAbstractProvider testedAbstractProvider = new TestedAbstractProvider();
+        summaryProjection = Projection.of(row -> exampleSummary, "id");
+        doReturn(Arrays.asList(exampleSummary)).when(repository)
+                .queryProjectionWithPredicatesUsingCursor(any(), any(), any(), any());
+        doReturn(100).when(repository).count(any());
+        SummaryViewOption.request();
+
+        //when
+        CollectionInfo<BuildConfigurationRest> returnedCollection = testedAbstractProvider.getAll(2, 10, "sort", "query");
+
+        //then
+        verify(pageInfoProducer).getPageInfo(20, 10);
+        verify(repository, never()).queryWithPredicates(any(), any(), any(), any());
+        assertThat(returnedCollection.getTotalPages()).isEqualTo(10);
+        assertThat(returnedCollection.getContent()).containsExactly(exampleSummary);
+    }
+
+    @Test
+    public void shouldLoadEntitiesWithoutSummaryProjection() throws Exception {
+        //given
+        BuildConfiguration exampleConfiguration = BuildConfiguration.Builder.newBuilder().build();
+
+        TestedAbstractProvider testedAbstractProvider = new TestedAbstractProvider();
+        doReturn(Arrays.asList(exampleConfiguration)).when(repository).queryWithPredicates(any(), any(), any(), any());
+        doReturn(100).when(repository).count(any());
+        SummaryViewOption.request();
+
+        //when
+        CollectionInfo<BuildConfigurationRest> returnedCollection = testedAbstractProvider.getAll(0, 10, "sort", "query");
+
+        //then
+        verify(repository, never()).queryProjectionWithPredicatesUsingCursor(any(), any(), any(), any());
+        assertThat(returnedCollection.getContent().size()).isEqualTo(1);
+    }
+
     @Test
     public void shouldReturnSingleton() throws Exception {
         //given
@@ -0,0 +1,257 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.provider;
+
+import org.jboss.pnc.datastore.limits.DefaultSortInfoProducer;
+import org.jboss.pnc.datastore.predicates.SpringDataRSQLPredicateProducer;
+import org.jboss.pnc.model.BuildConfiguration;
+import org.jboss.pnc.model.BuildConfigurationAudited;
+import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.BuildStatus;
+import org.jboss.pnc.model.IdRev;
+import org.jboss.pnc.model.Project;
+import org.jboss.pnc.model.User;
+import org.jboss.pnc.rest.provider.collection.CollectionInfo;
+import org.jboss.pnc.rest.restmodel.BuildLogSearchResultRest;
+import org.jboss.pnc.rest.restmodel.BuildRecordRest;
+import org.jboss.pnc.rest.validation.exceptions.InvalidEntityException;
+import org.jboss.pnc.spi.coordinator.BuildCoordinator;
+import org.jboss.pnc.spi.coordinator.BuildTask;
+import org.jboss.pnc.spi.datastore.BuildLogMatch;
+import org.jboss.pnc.spi.datastore.BuildLogStore;
+import org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository;
+import org.jboss.pnc.spi.datastore.repositories.api.KeysetCursor;
+import org.jboss.pnc.spi.datastore.repositories.api.PageInfo;
+import org.jboss.pnc.spi.executor.BuildExecutor;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BuildRecordProviderTest {
+
+    private static final int PAGE_SIZE = 10;
+
+    private static final long SUBMIT_TIME = 1_500_000_000_000L;
+
+    private static final List<Integer> RUNNING_IDS = Arrays.asList(3, 41, 43, 121, 199, 201, 203);
+
+    private final List<BuildRecord> completed = IntStream.rangeClosed(1, 100)
+            .map(i -> 2 * i)
+            .mapToObj(id -> BuildRecord.Builder.newBuilder().id(id).status(BuildStatus.SUCCESS).build())
+            .sorted(Comparator.comparing(BuildRecord::getId).reversed())
+            .collect(Collectors.toList());
+
+    private BuildRecordRepository repository;
+
+    private BuildLogStore buildLogStore;
+
+    private BuildRecordProvider provider;
+
+    @Before
+    public void setUp() {
+        repository = mock(BuildRecordRepository.class);
+        when(repository.queryWithPredicatesUsingCursor(any(), any(), any(), any())).thenAnswer(invocation -> {
+            PageInfo pageInfo = (PageInfo) invocation.getArguments()[0];
+            return completed.stream()
+                    .skip(pageInfo.getPageOffset())
+                    .limit(pageInfo.getPageSize())
+                    .collect(Collectors.toList());
+        });
+        when(repository.count(any())).thenReturn(completed.size());
+
+        BuildCoordinator buildCoordinator = mock(BuildCoordinator.class);
+        List<BuildTask> runningTasks = RUNNING_IDS.stream().map(this::buildTask).collect(Collectors.toList());
+        when(buildCoordinator.getSubmittedBuildTasks()).thenReturn(runningTasks);
+
+        buildLogStore = mock(BuildLogStore.class);
+        provider = new BuildRecordProvider(repository, buildCoordinator, null, new SpringDataRSQLPredicateProducer(),
+                new DefaultSortInfoProducer(), mock(BuildExecutor.class), buildLogStore);
+    }
+
+    @Test
+    public void shouldInterleaveRunningAndCompletedBuildsOnEveryPage() {
+        List<Integer> allIds = new ArrayList<>(RUNNING_IDS);
+        completed.forEach(r -> allIds.add(r.getId()));
+        allIds.sort(Comparator.reverseOrder());
+        int totalPages = (allIds.size() + PAGE_SIZE - 1) / PAGE_SIZE;
+
+        for (int pageIndex = 0; pageIndex <= totalPages; pageIndex++) {
+            CollectionInfo<BuildRecordRest> page =
+                    provider.getRunningAndCompletedBuildRecords(pageIndex, PAGE_SIZE, "=desc=id", null);
+
+            List<Integer> expected = allIds.stream()
+                    .skip(pageIndex * PAGE_SIZE)
+                    .limit(PAGE_SIZE)
+                    .collect(Collectors.toList());
+            assertThat(page.getContent().stream().map(BuildRecordRest::getId).collect(Collectors.toList()))
+                    .isEqualTo(expected);
+            assertThat(page.getTotalPages()).isEqualTo(totalPages);
+        }
+    }
+
+    @Test
+    public void shouldQueryDatabaseOncePerPageRegardlessOfPageIndex() {
+        for (int pageIndex : Arrays.asList(0, 1, 5, 10)) {
+            setUp();
+
+            provider.getRunningAndCompletedBuildRecords(pageIndex, PAGE_SIZE, "=desc=id", null);
+
+            verify(repository, times(1)).queryWithPredicatesUsingCursor(any(), any(), any(), any());
+            verify(repository, times(1)).count(any());
+        }
+    }
+
+    @Test
+    public void shouldSearchLogsInBatchesUntilPageIsFull() throws Exception {
+        //given
+        givenLogSearchBatches();
+        when(buildLogStore.search(any(), eq("error"), any(), anyInt(), anyLong()))
+                .thenAnswer(invocation -> matchesOfEveryThirtiethBuild(invocation.getArguments()[0]));
+
+        //when
+        CollectionInfo<BuildLogSearchResultRest> page = provider.searchLogs("error", null, null, null, null, null,
+                null, 5, null);
+
+        //then
+        assertThat(page.getContent().stream().map(BuildLogSearchResultRest::getBuildRecordId)
+                .collect(Collectors.toList())).containsExactly(990, 960, 930, 900, 870);
+        assertThat(page.getNextCursor()).isEqualTo((SUBMIT_TIME + 870) + ",870");
+        verify(buildLogStore, times(2)).search(any(), any(), any(), anyInt(), anyLong());
+    }
+
+    @Test
+    public void shouldReturnSearchedBatchesWhenSearchRunsOutOfTime() throws Exception {
+        //given
+        givenLogSearchBatches();
+        when(buildLogStore.search(any(), eq("error"), any(), anyInt(), anyLong()))
+                .thenAnswer(invocation -> matchesOfEveryThirtiethBuild(invocation.getArguments()[0]))
+                .thenThrow(new TimeoutException());
+
+        //when
+        CollectionInfo<BuildLogSearchResultRest> page = provider.searchLogs("error", null, null, null, null, null,
+                null, 5, null);
+
+        //then
+        assertThat(page.getContent().stream().map(BuildLogSearchResultRest::getBuildRecordId)
+                .collect(Collectors.toList())).containsExactly(990, 960, 930);
+        assertThat(page.getNextCursor()).isEqualTo((SUBMIT_TIME + 901) + ",901");
+    }
+
+    @Test(expected = InvalidEntityException.class)
+    public void shouldFailWhenFirstBatchRunsOutOfTime() throws Exception {
+        //given
+        givenLogSearchBatches();
+        when(buildLogStore.search(any(), any(), any(), anyInt(), anyLong())).thenThrow(new TimeoutException());
+
+        //when
+        provider.searchLogs("error", "Error: \\w+$", null, null, null, null, null, 5, null);
+    }
+
+    @Test
+    public void shouldTakeProjectNameOfFullViewFromProject() {
+        //given
+        BuildConfigurationAudited configurationAudited = new BuildConfigurationAudited();
+        configurationAudited.setIdRev(new IdRev(7, 3));
+        configurationAudited.setName("configuration");
+        configurationAudited.setProject(Project.Builder.newBuilder().id(5).name("project").build());
+        when(repository.queryById(2)).thenReturn(
+                BuildRecord.Builder.newBuilder().id(2).buildConfigurationAudited(configurationAudited).build());
+
+        //when
+        BuildRecordRest buildRecord = provider.getSpecific(2);
+
+        //then
+        assertThat(buildRecord.getBuildConfigurationName()).isEqualTo("configuration");
+        assertThat(buildRecord.getProjectName()).isEqualTo("project");
+    }
+
+    @Test(expected = InvalidEntityException.class)
+    public void shouldRejectRegexWithoutTextOfThreeCharacters() throws Exception {
+        provider.searchLogs("er", "Error: \\w+$", null, null, null, null, null, 5, null);
+    }
+
+    @Test(expected = InvalidEntityException.class)
+    public void shouldRejectLogSearchCursorWithoutSubmitTime() throws Exception {
+        provider.searchLogs("error", null, null, null, null, null, null, 5, "870");
+    }
+
+    @Test(expected = InvalidEntityException.class)
+    public void shouldRejectKeysetCursorWithoutId() throws Exception {
+        provider.getAllAfter("1476800000000,x", 5, null, null);
+    }
+
+    /**
+     * Ten batches of builds, the ids go down from 1000.
+     */
+    private void givenLogSearchBatches() {
+        int batchSize = BuildRecordProvider.LOG_SEARCH_BATCH_SIZE;
+        Iterator<List<KeysetCursor>> batches = IntStream.range(0, 10)
+                .mapToObj(batch -> IntStream.range(0, batchSize)
+                        .mapToObj(i -> 10 * batchSize - batch * batchSize - i)
+                        .map(id -> new KeysetCursor(String.valueOf(SUBMIT_TIME + id), id))
+                        .collect(Collectors.toList()))
+                .iterator();
+        when(repository.queryProjectionWithPredicatesUsingCursor(any(), any(), any(), anyVararg()))
+                .thenAnswer(invocation -> batches.next());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Integer, List<BuildLogMatch>> matchesOfEveryThirtiethBuild(Object buildRecordIds) {
+        return ((List<Integer>) buildRecordIds).stream()
+                .filter(id -> id % 30 == 0)
+                .collect(Collectors.toMap(Function.identity(),
+                        id -> Collections.singletonList(new BuildLogMatch(1, 0)),
+                        (a, b) -> a,
+                        LinkedHashMap::new));
+    }
+
+    private BuildTask buildTask(int id) {
+        BuildConfiguration configuration = BuildConfiguration.Builder.newBuilder().id(1).name("c1").build();
+        BuildConfigurationAudited configurationAudited = BuildConfigurationAudited.Builder.newBuilder()
+                .buildConfiguration(configuration)
+                .id(1)
+                .rev(1)
+                .build();
+        User user = User.Builder.newBuilder().id(1).username("demo-user").build();
+        return BuildTask.build(configuration, configurationAudited, false, false, user, id, null, new Date(), null);
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jboss.pnc.rest.provider.collection.CollectionInfo;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CollectionStreamingOutputTest {
+
+    @Test
+    public void shouldWriteAllPagesAsSinglePage() throws Exception {
+        //given
+        List<String> requestedCursors = new ArrayList<>();
+        CollectionInfo<String> firstPage = new CollectionInfo<>(-1, 2, -1, Arrays.asList("a", "b"), true, "b,2");
+        CollectionStreamingOutput<String> streamingOutput = new CollectionStreamingOutput<>(firstPage, cursor -> {
+            requestedCursors.add(cursor);
+            if ("b,2".equals(cursor)) {
+                return new CollectionInfo<>(-1, 2, -1, Arrays.asList("c", "d"), true, "d,4");
+            }
+            return new CollectionInfo<>(-1, 2, -1, Arrays.asList("e"), false, null);
+        });
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        //when
+        streamingOutput.write(output);
+
+        //then
+        JsonNode page = new ObjectMapper().readTree(output.toByteArray());
+        assertThat(requestedCursors).containsExactly("b,2", "d,4");
+        assertThat(page.get("content").size()).isEqualTo(5);
+        assertThat(page.get("content").get(4).asText()).isEqualTo("e");
+        assertThat(page.get("pageSize").asInt()).isEqualTo(5);
+        assertThat(page.get("totalPages").asInt()).isEqualTo(1);
+        assertThat(page.get("hasNextPage").asBoolean()).isFalse();
+    }
+}
@@ -26,6 +26,10 @@ import java.io.Serializable;
  */
 public interface BuildDriverResult extends Serializable {
 
+    /**
+     * @return the log of the build, null if the driver has stored the log to the
+     * {@link org.jboss.pnc.spi.datastore.BuildLogStore} while the build was running
+     */
     String getBuildLog();
 
     BuildStatus getBuildStatus();
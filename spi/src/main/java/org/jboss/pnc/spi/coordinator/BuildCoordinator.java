@@ -27,6 +27,7 @@ import org.jboss.pnc.spi.exception.BuildConflictException;
 import org.jboss.pnc.spi.exception.CoreException;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface BuildCoordinator {
 
@@ -40,12 +41,25 @@ public interface BuildCoordinator {
 
     List<BuildTask> getSubmittedBuildTasks();
 
+    Optional<BuildTask> getSubmittedBuildTask(int buildTaskId);
+
+    Optional<BuildSetTask> getSubmittedBuildSetTask(int buildConfigSetRecordId);
+
     void completeBuild(BuildTask buildTask, BuildResult buildResult);
 
     boolean cancel(int buildTaskId) throws CoreException;
 
     void updateBuildTaskStatus(BuildTask task, BuildCoordinationStatus status);
 
+    /**
+     * Counter increased after every change of the submitted build tasks, their statuses included. Tells cheaply
+     * whether a view of the submitted build tasks is still current.
+     *
+     * @return the number of changes, the counter does not start from 0 so that its values are not repeated after
+     *         a restart
+     */
+    long getModificationCount();
+
     void start();
 
 }
@@ -52,6 +52,8 @@ public class BuildSetTask {
 
     private final Set<BuildTask> buildTasks = new HashSet<>();
 
+    private volatile MakespanEstimate makespanEstimate;
+
     /**
      * Create build set task for running a single build or set of builds
      * 
@@ -156,6 +158,14 @@ public class BuildSetTask {
         return buildConfigSetRecord;
     }
 
+    public MakespanEstimate getMakespanEstimate() {
+        return makespanEstimate;
+    }
+
+    public void setMakespanEstimate(MakespanEstimate makespanEstimate) {
+        this.makespanEstimate = makespanEstimate;
+    }
+
     public boolean getForceRebuildAll() {
         return forceRebuildAll;
     }
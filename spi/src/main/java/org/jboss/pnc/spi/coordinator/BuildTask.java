@@ -29,6 +29,7 @@ import org.slf4j.LoggerFactory;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
 * Created by <a href="mailto:matejonnet@gmail.com">Matej Lazar</a> on 2014-12-23.
@@ -61,6 +62,17 @@ public class BuildTask {
      */
     private Set<BuildTask> dependencies = new HashSet<>();
 
+    /**
+     * Number of dependencies which are not completed yet. The task is ready to build when it drops to zero.
+     */
+    private final AtomicInteger unfinishedDependencies = new AtomicInteger(0);
+
+    /**
+     * Expected duration in milliseconds of the longest chain of tasks waiting for this one, including this task.
+     * Used to start the long dependency chains first.
+     */
+    private volatile long criticalPathLength = 1;
+
     private final BuildSetTask buildSetTask;
 
     private ProductMilestone productMilestone;
@@ -111,6 +123,9 @@ public class BuildTask {
     public void addDependency(BuildTask buildTask) {
         if (!dependencies.contains(buildTask)) {
             dependencies.add(buildTask);
+            if (!buildTask.getStatus().isCompleted()) {
+                unfinishedDependencies.incrementAndGet();
+            }
             buildTask.addDependant(this);
         }
     }
@@ -153,6 +168,10 @@ public class BuildTask {
         return buildConfiguration.dependsOn(buildTask.getBuildConfiguration());
     }
 
+    public Set<BuildTask> getDependants() {
+        return dependants;
+    }
+
     public void addDependant(BuildTask buildTask) {
         if (!dependants.contains(buildTask)) {
             dependants.add(buildTask);
@@ -232,12 +251,17 @@ public class BuildTask {
      * @return true if already built, false otherwise
      */
     public boolean readyToBuild() {
-        for (BuildTask buildTask : dependencies) {
-            if(!buildTask.getStatus().isCompleted()) {
-                return false;
-            }
-        }
-        return true;
+        return unfinishedDependencies.get() <= 0;
+    }
+
+    /**
+     * Notify the task that one of its dependencies has been completed.
+     * Has to be invoked once per completed dependency.
+     *
+     * @return true if the completed dependency was the last one this task was waiting for
+     */
+    public boolean dependencyCompleted() {
+        return unfinishedDependencies.decrementAndGet() == 0;
     }
 
     @Override
@@ -274,6 +298,14 @@ public class BuildTask {
     }
 
 
+    public long getCriticalPathLength() {
+        return criticalPathLength;
+    }
+
+    public void setCriticalPathLength(long criticalPathLength) {
+        this.criticalPathLength = criticalPathLength;
+    }
+
     public Integer getBuildConfigSetRecordId() {
         return buildConfigSetRecordId;
     }
@@ -0,0 +1,82 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.spi.coordinator;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Expected duration of a build set computed from the historical build durations when the set is submitted.
+ * All the durations and offsets are in milliseconds, the offsets are relative to {@link #estimatedAt}.
+ *
+ * WARNING: This class is used in REST API too.
+ * Create a separate *Rest class if you wish to add here something that should not be sent via rest
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MakespanEstimate {
+
+    private Integer buildConfigSetRecordId;
+
+    private Date estimatedAt;
+
+    /**
+     * Expected time needed to build the whole set with unlimited build slots.
+     */
+    private long makespan;
+
+    /**
+     * Ids of the build tasks on the critical path, in the order they are built.
+     */
+    private List<Integer> criticalPath;
+
+    private List<TaskEstimate> tasks;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TaskEstimate {
+
+        private Integer buildTaskId;
+
+        private Integer buildConfigurationId;
+
+        private String buildConfigurationName;
+
+        private long expectedDuration;
+
+        /**
+         * False if there is no successful build of the configuration and the expected duration is a guess.
+         */
+        private boolean basedOnHistory;
+
+        private long earliestStart;
+
+        private long latestStart;
+
+        /**
+         * How much the task can be delayed without delaying the whole set.
+         */
+        private long slack;
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.spi.datastore;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Index of the dependencies between the build configurations, answering the transitive dependency queries without
+ * loading the build configurations.
+ *
+ * Changes of the dependencies have to be reported by firing a
+ * {@link org.jboss.pnc.spi.datastore.events.BuildConfigurationDependencyChangedEvent} in the transaction making the
+ * change. The graph counts them in the database, so that the graphs of the other nodes notice them too, and applies
+ * them once the transaction commits.
+ */
+public interface BuildConfigurationDependencyGraph {
+
+    /**
+     * @param configurationId id of the dependant build configuration
+     * @param dependencyId id of the dependency
+     * @return true if the build configuration depends on the other one, directly or indirectly
+     */
+    boolean dependsOn(Integer configurationId, Integer dependencyId);
+
+    /**
+     * @param configurationId id of the dependant build configuration
+     * @param dependencyIds ids of the dependencies
+     * @return true if the build configuration depends on any of the others, directly or indirectly
+     */
+    boolean dependsOnAny(Integer configurationId, Collection<Integer> dependencyIds);
+
+    /**
+     * @param configurationId id of the build configuration
+     * @return ids of the direct and indirect dependencies of the build configuration
+     */
+    Set<Integer> getAllDependencyIds(Integer configurationId);
+
+    /**
+     * @param configurationId id of the dependant build configuration
+     * @param dependencyId id of the new dependency
+     * @return true if adding the dependency would introduce a cycle. Has to be called in the transaction adding the
+     *         dependency, concurrent changes of the dependencies wait until it ends.
+     */
+    boolean wouldCreateCycle(Integer configurationId, Integer dependencyId);
+
+    void dependencyAdded(Integer configurationId, Integer dependencyId);
+
+    void dependencyRemoved(Integer configurationId, Integer dependencyId);
+
+    /**
+     * Drops the index, it is loaded again on the next query.
+     */
+    void invalidate();
+}
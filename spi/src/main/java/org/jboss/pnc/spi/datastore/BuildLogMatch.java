@@ -0,0 +1,69 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.spi.datastore;
+
+/**
+ * Line of a build log matching a search.
+ */
+public class BuildLogMatch {
+
+    private final long lineNumber;
+
+    private final long offset;
+
+    public BuildLogMatch(long lineNumber, long offset) {
+        this.lineNumber = lineNumber;
+        this.offset = offset;
+    }
+
+    /**
+     * @return number of the line, starting from 1
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * @return position of the first byte of the line in the log, it can be used to read the log from the line on
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BuildLogMatch)) {
+            return false;
+        }
+        BuildLogMatch that = (BuildLogMatch) o;
+        return lineNumber == that.lineNumber && offset == that.offset;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(lineNumber) + Long.hashCode(offset);
+    }
+
+    @Override
+    public String toString() {
+        return "BuildLogMatch [lineNumber=" + lineNumber + ", offset=" + offset + "]";
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.spi.datastore;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/**
+ * Stores the logs of builds outside of the build records. The logs are addressed by the id of the build record and
+ * are handled as UTF-8 encoded bytes, so that they can be appended to and read by byte ranges without holding the
+ * whole log in memory.
+ */
+public interface BuildLogStore {
+
+    /**
+     * Append text to the log of a build.
+     *
+     * @param buildRecordId id of the build record the log belongs to
+     * @param text text to append, nothing is appended if it is null or empty
+     */
+    void append(Integer buildRecordId, String text);
+
+    /**
+     * Open a stream appending to the log of a build. Written bytes are buffered and stored in parts, flushing the
+     * stream stores the bytes buffered so far. The stream has to be closed to store the last part.
+     *
+     * @param buildRecordId id of the build record the log belongs to
+     * @return the stream appending to the log, it is not thread safe
+     */
+    OutputStream openAppendStream(Integer buildRecordId);
+
+    /**
+     * @param buildRecordId id of the build record the log belongs to
+     * @return length of the stored log in bytes, 0 if no log is stored for the build
+     */
+    long getLength(Integer buildRecordId);
+
+    /**
+     * Write a byte range of the log of a build to the output stream. Only the parts of the log within the range are
+     * read.
+     *
+     * @param buildRecordId id of the build record the log belongs to
+     * @param offset position of the first byte to write, starting from 0
+     * @param length number of bytes to write at most
+     * @param outputStream stream to write the log to, it is not closed
+     * @throws IOException if writing to the output stream fails
+     */
+    void read(Integer buildRecordId, long offset, long length, OutputStream outputStream) throws IOException;
+
+    /**
+     * Find the lines of the logs of builds containing a text and/or matching a regular expression. At least one of
+     * them has to be given, a line matches if it matches both of them.
+     *
+     * @param buildRecordIds ids of the build records whose logs are searched
+     * @param text text to look for ignoring the case of ASCII letters, may be null
+     * @param pattern regular expression to find in the lines, may be null
+     * @param maxMatchesPerBuild number of matching lines after which the search of a log stops
+     * @param deadline time in milliseconds since the epoch after which the search is abandoned, it interrupts also
+     *        the matching of a line by the regular expression
+     * @return matching lines by the id of the build record, in the order of the given ids, builds without a matching
+     *         line are left out
+     * @throws TimeoutException if the search does not finish before the deadline
+     */
+    Map<Integer, List<BuildLogMatch>> search(List<Integer> buildRecordIds, String text, Pattern pattern,
+            int maxMatchesPerBuild, long deadline) throws TimeoutException;
+
+    /**
+     * Remove the stored log of a build.
+     *
+     * @param buildRecordId id of the build record the log belongs to
+     */
+    void delete(Integer buildRecordId);
+}
@@ -26,7 +26,9 @@ import org.jboss.pnc.model.User;
 import org.jboss.pnc.spi.coordinator.BuildTask;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Topmost datastore interface.
@@ -73,6 +75,14 @@ public interface Datastore {
      */
     int getNextBuildRecordId();
 
+    /**
+     * Gets the given number of generated Build Record Ids at once.
+     *
+     * @param count Number of ids to generate.
+     * @return Generated Build Record Ids in ascending order.
+     */
+    List<Integer> getNextBuildRecordIds(int count);
+
     /**
      * Save build config set record to db
      * 
@@ -106,4 +116,22 @@ public interface Datastore {
      */
     boolean requiresRebuild(BuildTask task);
 
+    /**
+     * Check which of the given build configurations should be rebuilt (if some of their dependencies were rebuilt or
+     * the configuration was modified). The number of queries does not depend on the number of configurations.
+     *
+     * @param buildConfigurationIds ids of the configurations to check
+     * @return ids of the configurations that require a rebuild
+     */
+    Set<Integer> getIdsRequiringRebuild(Collection<Integer> buildConfigurationIds);
+
+    /**
+     * Get the average duration of the successful builds of the given build configurations.
+     *
+     * @param buildConfigurationIds ids of the configurations to check
+     * @return Average build duration in milliseconds mapped by the build configuration id, configurations without
+     *         a successful build are not present in the map
+     */
+    Map<Integer, Long> getAverageBuildDurations(Collection<Integer> buildConfigurationIds);
+
 }
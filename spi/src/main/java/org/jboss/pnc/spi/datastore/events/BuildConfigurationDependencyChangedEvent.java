@@ -0,0 +1,90 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.spi.datastore.events;
+
+/**
+ * Fired when the dependencies between the build configurations change. Observers interested in committed data only
+ * have to observe it after the transaction succeeds.
+ */
+public class BuildConfigurationDependencyChangedEvent {
+
+    public enum Change {
+        ADDED, REMOVED,
+        /**
+         * The dependencies of unknown build configurations may have changed.
+         */
+        UNKNOWN
+    }
+
+    private final Change change;
+    private final Integer configurationId;
+    private final Integer dependencyId;
+
+    /**
+     * Number of the changes of the dependencies including this one, null until the change is counted.
+     */
+    private Long generation;
+
+    private BuildConfigurationDependencyChangedEvent(Change change, Integer configurationId, Integer dependencyId) {
+        this.change = change;
+        this.configurationId = configurationId;
+        this.dependencyId = dependencyId;
+    }
+
+    public static BuildConfigurationDependencyChangedEvent added(Integer configurationId, Integer dependencyId) {
+        return new BuildConfigurationDependencyChangedEvent(Change.ADDED, configurationId, dependencyId);
+    }
+
+    public static BuildConfigurationDependencyChangedEvent removed(Integer configurationId, Integer dependencyId) {
+        return new BuildConfigurationDependencyChangedEvent(Change.REMOVED, configurationId, dependencyId);
+    }
+
+    public static BuildConfigurationDependencyChangedEvent unknown() {
+        return new BuildConfigurationDependencyChangedEvent(Change.UNKNOWN, null, null);
+    }
+
+    public Change getChange() {
+        return change;
+    }
+
+    public Integer getConfigurationId() {
+        return configurationId;
+    }
+
+    public Integer getDependencyId() {
+        return dependencyId;
+    }
+
+    public Long getGeneration() {
+        return generation;
+    }
+
+    public void setGeneration(Long generation) {
+        this.generation = generation;
+    }
+
+    @Override
+    public String toString() {
+        return "BuildConfigurationDependencyChangedEvent{" +
+                "change=" + change +
+                ", configurationId=" + configurationId +
+                ", dependencyId=" + dependencyId +
+                ", generation=" + generation +
+                '}';
+    }
+}
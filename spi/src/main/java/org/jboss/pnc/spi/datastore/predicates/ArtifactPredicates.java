@@ -26,6 +26,7 @@ import org.jboss.pnc.model.ProductMilestone_;
 import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
 
 import javax.persistence.criteria.Join;
+import java.util.Collection;
 
 /**
  * Predicates for {@link org.jboss.pnc.model.Artifact} entity.
@@ -76,10 +77,18 @@ public class ArtifactPredicates {
                 cb.equal(root.get(Artifact_.sha256), sha256));
     }
 
+    public static Predicate<Artifact> withSha256In(Collection<String> sha256s) {
+        return (root, query, cb) -> root.get(Artifact_.sha256).in(sha256s);
+    }
+
     public static Predicate<Artifact> withOriginUrl(String originUrl) {
         return (root, query, cb) -> cb.equal(root.get(Artifact_.originUrl), originUrl);
     }
 
+    public static Predicate<Artifact> withOriginUrlIn(Collection<String> originUrls) {
+        return (root, query, cb) -> root.get(Artifact_.originUrl).in(originUrls);
+    }
+
     public static Predicate<Artifact> withDistributedInMilestone(Integer productMilestoneId) {
         return (root, query, cb) -> {
             Join<Artifact, ProductMilestone> productMilestone = root.join(Artifact_.distributedInProductMilestones);
@@ -34,6 +34,7 @@ import javax.persistence.criteria.Join;
 import javax.persistence.criteria.MapJoin;
 import javax.persistence.criteria.SetJoin;
 import java.util.Collection;
+import java.util.Date;
 
 /**
  * Predicates for {@link org.jboss.pnc.model.BuildRecord} entity.
@@ -55,6 +56,28 @@ public class BuildRecordPredicates {
         return (root, query, cb) -> cb.equal(root.get(BuildRecord_.status), BuildStatus.SUCCESS);
     }
 
+    public static Predicate<BuildRecord> withStatus(BuildStatus status) {
+        return (root, query, cb) -> cb.equal(root.get(BuildRecord_.status), status);
+    }
+
+    public static Predicate<BuildRecord> withEndTimeAfter(Date endTime) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get(BuildRecord_.endTime), endTime);
+    }
+
+    public static Predicate<BuildRecord> withEndTimeBefore(Date endTime) {
+        return (root, query, cb) -> cb.lessThan(root.get(BuildRecord_.endTime), endTime);
+    }
+
+    /**
+     * Builds submitted before the given one, or at the same time with a lower id.
+     */
+    public static Predicate<BuildRecord> withSubmittedBefore(Date submitTime, Integer buildRecordId) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get(BuildRecord_.submitTime), submitTime),
+                cb.and(cb.equal(root.get(BuildRecord_.submitTime), submitTime),
+                        cb.lessThan(root.get(BuildRecord_.id), buildRecordId)));
+    }
+
     public static Predicate<BuildRecord> withBuildConfigSetId(Integer buildConfigSetId) {
         return (root, query, cb) -> {
             Join<BuildRecord, BuildConfigSetRecord> joinedConfiguSet = root.join(BuildRecord_.buildConfigSetRecord);
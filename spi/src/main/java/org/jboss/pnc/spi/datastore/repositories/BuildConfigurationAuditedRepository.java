@@ -21,11 +21,29 @@ import org.jboss.pnc.model.BuildConfigurationAudited;
 import org.jboss.pnc.model.IdRev;
 import org.jboss.pnc.spi.datastore.repositories.api.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interface for manipulating {@link org.jboss.pnc.model.BuildConfigurationAudited} entity.
  */
 public interface BuildConfigurationAuditedRepository extends Repository<BuildConfigurationAudited, IdRev> {
     List<BuildConfigurationAudited> findAllByIdOrderByRevDesc(Integer id);
+
+    /**
+     * Get the latest revision of a build configuration without loading the older ones.
+     *
+     * @param id of the build configuration
+     * @return The latest revision of the build configuration or null if there is none
+     */
+    BuildConfigurationAudited findLatestById(Integer id);
+
+    /**
+     * Get the latest revisions of the given build configurations.
+     *
+     * @param ids ids of the build configurations
+     * @return The latest revision mapped by the build configuration id
+     */
+    Map<Integer, Integer> getLatestRevisions(Collection<Integer> ids);
 }
@@ -20,8 +20,59 @@ package org.jboss.pnc.spi.datastore.repositories;
 import org.jboss.pnc.model.BuildConfiguration;
 import org.jboss.pnc.spi.datastore.repositories.api.Repository;
 
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Interface for manipulating {@link org.jboss.pnc.model.BuildConfiguration} entity.
  */
 public interface BuildConfigurationRepository extends Repository<BuildConfiguration, Integer> {
+
+    /**
+     * @return ids of the direct dependencies mapped by the build configuration id, build configurations without
+     *         dependencies are not present in the map
+     */
+    Map<Integer, Set<Integer>> getDependencyIds();
+
+    /**
+     * @return the committed number of the changes of the dependencies between the build configurations
+     */
+    long getDependencyGeneration();
+
+    /**
+     * Lock the changes of the dependencies until the current transaction ends. Transactions validating a new
+     * dependency hold the lock, so that a concurrent change cannot invalidate the validation before they commit.
+     *
+     * @return the number of the changes of the dependencies, as committed before the lock was taken
+     */
+    long lockDependencyGeneration();
+
+    /**
+     * Count a change of the dependencies made by the current transaction. Takes the lock of
+     * {@link #lockDependencyGeneration()}.
+     *
+     * @return the number of the changes including this one
+     */
+    long incrementDependencyGeneration();
+
+    /**
+     * Get the version of a build configuration without loading it. The modification time is the optimistic locking
+     * version of build configurations, it changes with every update.
+     *
+     * @param id id of the build configuration
+     * @return the last modification time, null if there is no such build configuration
+     */
+    Date getLastModificationTime(Integer id);
+
+    /**
+     * Read the fields of the project and the build environment that the representation of a build configuration
+     * embeds, without loading them. Neither of them has a version of its own and they change without the build
+     * configuration.
+     *
+     * @param id id of the build configuration
+     * @return values of the fields in a stable order, empty if there is no such build configuration
+     */
+    List<Object> getEmbeddedProjectAndEnvironmentState(Integer id);
 }
@@ -0,0 +1,53 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.spi.datastore.repositories;
+
+import org.jboss.pnc.model.BuildLogChunk;
+import org.jboss.pnc.spi.datastore.repositories.api.Repository;
+
+import java.util.List;
+
+/**
+ * Interface for manipulating {@link org.jboss.pnc.model.BuildLogChunk} entity.
+ */
+public interface BuildLogChunkRepository extends Repository<BuildLogChunk, Integer> {
+
+    /**
+     * @param buildRecordId id of the build record the log belongs to
+     * @return length of the uncompressed log in bytes, 0 if there are no chunks of the log
+     */
+    long getLogLength(Integer buildRecordId);
+
+    /**
+     * Get the chunks holding a byte range of a log without loading their content.
+     *
+     * @param buildRecordId id of the build record the log belongs to
+     * @param offset position of the first byte of the range in the uncompressed log
+     * @param length number of bytes of the range
+     * @return ids of the chunks overlapping the range, ordered by their position in the log
+     */
+    List<Integer> getChunkIds(Integer buildRecordId, long offset, long length);
+
+    /**
+     * Get the trigram filters of the chunks of a log without loading their content.
+     *
+     * @param buildRecordId id of the build record the log belongs to
+     * @return filters of the chunks ordered by their position in the log, null for chunks stored without a filter
+     */
+    List<byte[]> getTrigramFilters(Integer buildRecordId);
+}
@@ -18,13 +18,13 @@
 package org.jboss.pnc.spi.datastore.repositories;
 
 import org.jboss.pnc.model.BuildRecord;
-import org.jboss.pnc.spi.datastore.repositories.api.PageInfo;
-import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
+import org.jboss.pnc.model.IdRev;
 import org.jboss.pnc.spi.datastore.repositories.api.Repository;
-import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Interface for manipulating {@link org.jboss.pnc.model.BuildRecord} entity.
@@ -33,5 +33,55 @@ public interface BuildRecordRepository extends Repository<BuildRecord, Integer>
 
     BuildRecord findByIdFetchAllProperties(Integer id);
 
-    List<BuildRecord> queryWithPredicatesUsingCursor(PageInfo pageInfo, SortInfo sortInfo, Predicate<BuildRecord>... predicates);
+    /**
+     * @param id id of the build record
+     * @return length of the build log in characters, null if there is no such build record or it has no log
+     */
+    Integer getBuildLogLength(Integer id);
+
+    /**
+     * Read a part of the build log without loading the whole log.
+     *
+     * @param id id of the build record
+     * @param offset index of the first character to read, starting from 0
+     * @param length number of characters to read at most
+     * @return the part of the build log
+     */
+    String getBuildLogPart(Integer id, int offset, int length);
+
+    /**
+     * Read the attributes of a build record without loading the build record.
+     *
+     * @param id id of the build record
+     * @return the attributes, null if there is no such build record
+     */
+    Map<String, String> getAttributes(Integer id);
+
+    /**
+     * Get the revisions the latest successful builds of the given build configurations were run from.
+     *
+     * @param buildConfigurationIds ids of the build configurations
+     * @return id and revision of the audited build configuration mapped by the build configuration id, configurations
+     *         without a successful build are not present in the map
+     */
+    Map<Integer, IdRev> getLatestSuccessfulBuildRevisions(Collection<Integer> buildConfigurationIds);
+
+    /**
+     * Get the build configurations whose latest successful build used an artifact produced by a build that has
+     * since been superseded by a newer successful build of the same configuration.
+     *
+     * @param buildConfigurationIds ids of the build configurations to check
+     * @return ids of the build configurations with a rebuilt dependency
+     */
+    Set<Integer> getIdsWithRebuiltDependencies(Collection<Integer> buildConfigurationIds);
+
+    /**
+     * Get the average duration of the successful builds of the given build configurations without loading the
+     * build records.
+     *
+     * @param buildConfigurationIds ids of the build configurations
+     * @return average duration in milliseconds mapped by the build configuration id, configurations without a
+     *         successful build with known start and end time are not present in the map
+     */
+    Map<Integer, Long> getAverageSuccessfulBuildDurations(Collection<Integer> buildConfigurationIds);
 }
@@ -17,6 +17,8 @@
  */
 package org.jboss.pnc.spi.datastore.repositories;
 
+import java.util.List;
+
 /**
  * Author: Michal Szynkiewicz, michal.l.szynkiewicz@gmail.com
  * Date: 9/22/16
@@ -27,8 +29,26 @@ public interface SequenceHandlerRepository {
 
     Long getNextID(String sequenceName);
 
+    /**
+     * Fetches the next <code>count</code> values of the sequence in a single database round-trip.
+     *
+     * @param sequenceName name of the sequence
+     * @param count number of values to fetch
+     * @return the fetched values in the order they were generated
+     */
+    List<Long> getNextIDs(String sequenceName, int count);
+
     void createSequence(String sequenceName);
 
+    /**
+     * Creates a sequence which starts at <code>incrementSize</code> and is incremented by it, each value reserves the
+     * <code>incrementSize</code> ids up to it.
+     *
+     * @param sequenceName name of the sequence
+     * @param incrementSize increment of the sequence
+     */
+    void createSequence(String sequenceName, int incrementSize);
+
     boolean sequenceExists(String sequenceName);
 
     void dropSequence(String sequenceName);
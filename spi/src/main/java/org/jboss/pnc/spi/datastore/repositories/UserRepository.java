@@ -24,4 +24,12 @@ import org.jboss.pnc.spi.datastore.repositories.api.Repository;
  * Interface for manipulating {@link org.jboss.pnc.model.User} entity.
  */
 public interface UserRepository extends Repository<User, Integer> {
+
+    /**
+     * Look up a user by the username, the lookup is answered from the query cache as long as no user changes.
+     *
+     * @param username the username
+     * @return the user, null if there is no such user
+     */
+    User queryByUsername(String username);
 }
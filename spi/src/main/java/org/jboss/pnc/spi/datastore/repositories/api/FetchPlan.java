@@ -0,0 +1,57 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.spi.datastore.repositories.api;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Associations to load together with the queried entities, in the same query. A fetch plan describes what a view of
+ * the entity, usually a REST entity, reads from it and keeps the conversion of a page from issuing a query per entity.
+ *
+ * Only single valued associations belong to a fetch plan, fetching collections would break paging. Collections are
+ * loaded in batches instead, see hibernate.default_batch_fetch_size in persistence.xml.
+ *
+ * @param <T> the queried entity
+ */
+public final class FetchPlan<T> {
+
+    private final List<String> paths;
+
+    private FetchPlan(List<String> paths) {
+        this.paths = paths;
+    }
+
+    /**
+     * @param paths association paths relative to the entity, nested associations are separated by dots, for
+     *        example <code>buildConfigurationAudited.project</code>
+     */
+    public static <T> FetchPlan<T> of(String... paths) {
+        return new FetchPlan<>(Collections.unmodifiableList(Arrays.asList(paths)));
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    @Override
+    public String toString() {
+        return "FetchPlan" + paths;
+    }
+}
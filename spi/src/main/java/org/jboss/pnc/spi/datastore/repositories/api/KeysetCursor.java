@@ -0,0 +1,126 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.spi.datastore.repositories.api;
+
+import com.google.common.base.Preconditions;
+import org.jboss.pnc.model.GenericEntity;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Position in a collection sorted by a single field and the id, used for keyset (seek) pagination.
+ *
+ * The textual form is <code>sortKey,id</code> where sortKey is the value of the sort field of the last entity of the
+ * previous page, dates are represented by milliseconds since the epoch. It is just <code>id</code> if the sort field of
+ * that entity is null, the entities without a value of the sort field follow all the others.
+ */
+public class KeysetCursor {
+
+    public static final String ID_FIELD = "id";
+
+    private static final char SEPARATOR = ',';
+
+    private final String sortKey;
+    private final Integer id;
+
+    /**
+     * @param sortKey value of the sort field, null if the entity has none
+     * @param id id of the entity
+     */
+    public KeysetCursor(String sortKey, Integer id) {
+        Preconditions.checkArgument(id != null, "Id must not be null");
+        this.sortKey = sortKey;
+        this.id = id;
+    }
+
+    public static KeysetCursor parse(String cursor) {
+        int separatorIndex = cursor.lastIndexOf(SEPARATOR);
+        String sortKey = separatorIndex < 0 ? null : cursor.substring(0, separatorIndex);
+        try {
+            return new KeysetCursor(sortKey, Integer.valueOf(cursor.substring(separatorIndex + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor must be in the form sortKey,id or id: " + cursor, e);
+        }
+    }
+
+    /**
+     * Creates the cursor pointing right after the given entity.
+     */
+    public static KeysetCursor after(GenericEntity<Integer> entity, SortInfo sortInfo) {
+        String sortField = getSortField(sortInfo);
+        Object sortKey = entity;
+        for (String property : sortField.split("\\.")) {
+            sortKey = readProperty(sortKey, property);
+        }
+        if (sortKey == null) {
+            return new KeysetCursor(null, entity.getId());
+        }
+        if (sortKey instanceof Date) {
+            sortKey = ((Date) sortKey).getTime();
+        } else if (sortKey instanceof Enum) {
+            sortKey = ((Enum) sortKey).name();
+        }
+        return new KeysetCursor(sortKey.toString(), entity.getId());
+    }
+
+    /**
+     * @return the field the keyset is sorted by first, the id is always used as the last sort field
+     * @throws IllegalArgumentException if the sorting is done by more than one field
+     */
+    public static String getSortField(SortInfo sortInfo) {
+        List<String> fields = sortInfo.getFields();
+        if (fields.isEmpty()) {
+            return ID_FIELD;
+        }
+        Preconditions.checkArgument(fields.size() == 1 || fields.size() == 2 && ID_FIELD.equals(fields.get(1)),
+                "Keyset pagination supports sorting by a single field, got %s", fields);
+        return fields.get(0);
+    }
+
+    private static Object readProperty(Object bean, String property) {
+        if (bean == null) {
+            return null;
+        }
+        String getterName = "get" + Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        try {
+            Method getter = bean.getClass().getMethod(getterName);
+            return getter.invoke(bean);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalArgumentException("Cannot read " + property + " of " + bean.getClass().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * @return value of the sort field, null if the entity has none
+     */
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return sortKey == null ? id.toString() : sortKey + SEPARATOR + id;
+    }
+}
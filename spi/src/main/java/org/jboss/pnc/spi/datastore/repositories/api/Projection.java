@@ -0,0 +1,78 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.spi.datastore.repositories.api;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Selection of attributes of the queried entities, read instead of the whole entities and mapped to a lightweight view
+ * of them. A projection lets a list view read only the columns it displays, leaving out large columns and the
+ * associations of the entity.
+ *
+ * @param <T> the queried entity
+ * @param <P> the view the selected values are mapped to
+ */
+public final class Projection<T, P> {
+
+    private final List<String> paths;
+
+    private final Function<Row, P> mapper;
+
+    private Projection(List<String> paths, Function<Row, P> mapper) {
+        this.paths = paths;
+        this.mapper = mapper;
+    }
+
+    /**
+     * @param mapper creates the view from the values selected for an entity
+     * @param paths attribute paths relative to the entity, attributes of associated entities are reached through
+     *        dots, for example <code>project.name</code>. Associations are left joined, the values of a missing
+     *        associated entity are null.
+     */
+    public static <T, P> Projection<T, P> of(Function<Row, P> mapper, String... paths) {
+        return new Projection<>(Collections.unmodifiableList(Arrays.asList(paths)), mapper);
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    public P map(Row row) {
+        return mapper.apply(row);
+    }
+
+    @Override
+    public String toString() {
+        return "Projection" + paths;
+    }
+
+    /**
+     * Values selected for a single entity.
+     */
+    public interface Row {
+
+        /**
+         * @param path one of the paths of the projection
+         * @return the value of the path, the caller is responsible for the right value type
+         */
+        <V> V get(String path);
+    }
+}
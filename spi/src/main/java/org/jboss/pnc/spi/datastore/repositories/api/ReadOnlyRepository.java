@@ -30,4 +30,47 @@ public interface ReadOnlyRepository<T extends GenericEntity<ID>, ID extends Seri
     int count(Predicate<T>... predicates);
     List<T> queryWithPredicates(Predicate<T>... predicates);
     List<T> queryWithPredicates(PageInfo pageInfo, SortInfo sortInfo, Predicate<T>... predicates);
+
+    /**
+     * Same as {@link #queryWithPredicates(PageInfo, SortInfo, Predicate[])}, but the page offset of the pageInfo is
+     * the index of the first entity rather than the index of the page.
+     */
+    List<T> queryWithPredicatesUsingCursor(PageInfo pageInfo, SortInfo sortInfo, Predicate<T>... predicates);
+
+    /**
+     * Same as {@link #queryWithPredicates(PageInfo, SortInfo, Predicate[])}, loading the associations of the fetch
+     * plan in the same query.
+     *
+     * @param fetchPlan associations to fetch, null to fetch none
+     */
+    List<T> queryWithPredicates(PageInfo pageInfo, SortInfo sortInfo, FetchPlan<T> fetchPlan, Predicate<T>... predicates);
+
+    /**
+     * Same as {@link #queryWithPredicatesUsingCursor(PageInfo, SortInfo, Predicate[])}, loading the associations of
+     * the fetch plan in the same query.
+     *
+     * @param fetchPlan associations to fetch, null to fetch none
+     */
+    List<T> queryWithPredicatesUsingCursor(PageInfo pageInfo, SortInfo sortInfo, FetchPlan<T> fetchPlan,
+            Predicate<T>... predicates);
+
+    /**
+     * Same as {@link #queryWithPredicatesUsingCursor(PageInfo, SortInfo, Predicate[])}, reading only the attributes of
+     * the projection instead of the entities.
+     *
+     * @return views of the entities created by the projection
+     */
+    <P> List<P> queryProjectionWithPredicatesUsingCursor(PageInfo pageInfo, SortInfo sortInfo, Projection<T, P> projection,
+            Predicate<T>... predicates);
+
+    /**
+     * Keyset (seek) pagination: returns up to pageSize entities following the cursor, sorted by the sort field and
+     * the id. Unlike offset pagination the cost does not grow with the depth of the page.
+     *
+     * @param after cursor of the last entity of the previous page, null for the first page
+     * @param pageSize maximal number of returned entities
+     * @param sortInfo sorting by at most one field, see {@link KeysetCursor#getSortField(SortInfo)}
+     * @param predicates filtering predicates
+     */
+    List<T> queryWithPredicatesAfter(KeysetCursor after, int pageSize, SortInfo sortInfo, Predicate<T>... predicates);
 }
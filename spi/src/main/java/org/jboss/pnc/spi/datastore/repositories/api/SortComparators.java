@@ -0,0 +1,163 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.spi.datastore.repositories.api;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Comparators sorting java objects by {@link SortInfo}. The getters of the sorted fields are resolved once per sorted
+ * class, fields and direction and the resulting comparators are shared.
+ *
+ * Null values come last in ascending and first in descending order, the same way the database sorts them.
+ */
+class SortComparators {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final Map<Key, Comparator<?>> comparators = new ConcurrentHashMap<>();
+
+    private SortComparators() {
+    }
+
+    /**
+     * Comparator which resolves the getters from the class of the first compared object.
+     */
+    static <T> Comparator<T> lazy(List<String> fields, SortInfo.SortingDirection direction) {
+        return new Comparator<T>() {
+            private volatile Resolved<T> resolved;
+
+            @Override
+            public int compare(T x, T y) {
+                Resolved<T> current = resolved;
+                if (current == null || current.type != x.getClass()) {
+                    current = new Resolved<>(x.getClass(), get(x.getClass(), fields, direction));
+                    resolved = current;
+                }
+                return current.comparator.compare(x, y);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> Comparator<T> get(Class<?> type, List<String> fields, SortInfo.SortingDirection direction) {
+        Key key = new Key(type, fields, direction);
+        Comparator<?> comparator = comparators.get(key);
+        if (comparator == null) {
+            comparator = create(type, fields, direction);
+            comparators.put(key, comparator);
+        }
+        return (Comparator<T>) comparator;
+    }
+
+    private static Comparator<Object> create(Class<?> type, List<String> fields, SortInfo.SortingDirection direction) {
+        List<Comparator<Object>> fieldComparators = new ArrayList<>();
+        for (String field : fields) {
+            MethodHandle getter = getter(type, field);
+            Comparator<Object> fieldComparator = (o1, o2) -> compareValues(get(getter, o1), get(getter, o2));
+            if (direction == SortInfo.SortingDirection.DESC) {
+                fieldComparator = fieldComparator.reversed();
+            }
+            fieldComparators.add(fieldComparator);
+        }
+        return fieldComparators.stream()
+                .reduce(Comparator::thenComparing)
+                .orElse((o1, o2) -> 0);
+    }
+
+    /**
+     * Values which are not comparable are considered equal.
+     */
+    @SuppressWarnings("unchecked")
+    private static int compareValues(Object v1, Object v2) {
+        if (v1 == null || v2 == null) {
+            return v1 == null ? (v2 == null ? 0 : 1) : -1;
+        }
+        if (v1 instanceof Comparable && v2 instanceof Comparable) {
+            return ((Comparable<Object>) v1).compareTo(v2);
+        }
+        return 0;
+    }
+
+    private static MethodHandle getter(Class<?> type, String field) {
+        String getterName = "get" + Character.toString(field.charAt(0)).toUpperCase() + field.substring(1);
+        try {
+            Method method = type.getMethod(getterName);
+            return MethodHandles.publicLookup().unreflect(method).asType(GETTER_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException("Field is not accessible via reflection", e);
+        }
+    }
+
+    private static Object get(MethodHandle getter, Object instance) {
+        try {
+            return getter.invokeExact(instance);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("Field is not accessible via reflection", e);
+        }
+    }
+
+    private static class Resolved<T> {
+        private final Class<?> type;
+        private final Comparator<T> comparator;
+
+        private Resolved(Class<?> type, Comparator<T> comparator) {
+            this.type = type;
+            this.comparator = comparator;
+        }
+    }
+
+    private static class Key {
+        private final Class<?> type;
+        private final List<String> fields;
+        private final SortInfo.SortingDirection direction;
+
+        private Key(Class<?> type, List<String> fields, SortInfo.SortingDirection direction) {
+            this.type = type;
+            this.fields = new ArrayList<>(fields);
+            this.direction = direction;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return type.equals(key.type) && fields.equals(key.fields) && direction == key.direction;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, fields, direction);
+        }
+    }
+}
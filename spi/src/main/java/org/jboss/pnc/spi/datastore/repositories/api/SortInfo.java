@@ -17,8 +17,6 @@
  */
 package org.jboss.pnc.spi.datastore.repositories.api;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.Comparator;
 import java.util.List;
 
@@ -29,30 +27,17 @@ public interface SortInfo {
     List<String> getFields();
     SortingDirection getDirection();
 
+    /**
+     * @return comparator sorting java objects of any class by the getters of the sorted fields
+     */
     default <T> Comparator<T> getComparator() {
-        return (x, y) -> {
-            Comparator<T> combinedComparator = (instance1, instance2) -> 0;
-            try {
-                for(String field : getFields()) {
-                    String getterName = "get" + Character.toString(field.charAt(0)).toUpperCase()+field.substring(1);
-                    Method toCompare = x.getClass().getDeclaredMethod(getterName, null);
-                    Object v1 = toCompare.invoke(x, null);
-                    Object v2 = toCompare.invoke(y, null);
-                    if (v1 instanceof Comparable<?> && v2 instanceof Comparable<?>){
-                        Comparable c1 = (Comparable) v1;
-                        Comparable c2 = (Comparable) v2;
-                        if(getDirection() == SortingDirection.ASC) {
-                            combinedComparator = combinedComparator.thenComparing((o1, o2) -> c1.compareTo(c2));
-                        } else {
-                            combinedComparator = combinedComparator.thenComparing((o1, o2) -> c2.compareTo(c1));
-                        }
-                    }
-                }
-            } catch (InvocationTargetException | IllegalAccessException | NoSuchMethodException e) {
-                throw new IllegalArgumentException("Field is not accessible via reflection", e);
-            }
+        return SortComparators.lazy(getFields(), getDirection());
+    }
 
-            return combinedComparator.compare(x, y);
-        };
+    /**
+     * @return comparator sorting objects of the given class, the getters are resolved when it is created
+     */
+    default <T> Comparator<T> getComparator(Class<T> sortedClass) {
+        return SortComparators.get(sortedClass, getFields(), getDirection());
     }
 }
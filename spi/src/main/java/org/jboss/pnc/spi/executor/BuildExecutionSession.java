@@ -38,6 +38,11 @@ public interface BuildExecutionSession {
 
     void setLiveLogsUri(Optional<URI> liveLogsUri);
 
+    /**
+     * @return output of the running build shared by the clients following it
+     */
+    LiveLog getLiveLog();
+
     void getEventLog();
 
     BuildExecutionConfiguration getBuildExecutionConfiguration();
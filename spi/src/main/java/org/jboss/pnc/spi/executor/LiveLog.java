@@ -0,0 +1,253 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.spi.executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Output of a running build shared by all the clients following it, so that the build agent serves a single connection
+ * per build regardless of the number of clients.
+ *
+ * The last {@link #RETAINED_CHARS} characters of the output are retained and sent first to a client subscribing
+ * while the build runs. Each subscriber has its own queue of output waiting to be sent; a subscriber with more than
+ * {@link #SUBSCRIBER_QUEUE_CHARS} characters waiting is dropped, so a slow client holds back neither the build nor the
+ * other clients.
+ *
+ * Subscribers are only queued to while holding the log's monitor; sending to and closing them, which may block on the
+ * client connection, happens after the monitor is released.
+ */
+public class LiveLog {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveLog.class);
+
+    public static final int RETAINED_CHARS = 1024 * 1024;
+
+    public static final int SUBSCRIBER_QUEUE_CHARS = 256 * 1024;
+
+    private final int retainedChars;
+
+    private final int subscriberQueueChars;
+
+    private final Deque<String> retained = new ArrayDeque<>();
+
+    private int retainedLength;
+
+    private final Map<LiveLogSubscriber, Subscription> subscriptions = new LinkedHashMap<>();
+
+    private boolean closed;
+
+    public LiveLog() {
+        this(RETAINED_CHARS, SUBSCRIBER_QUEUE_CHARS);
+    }
+
+    public LiveLog(int retainedChars, int subscriberQueueChars) {
+        this.retainedChars = retainedChars;
+        this.subscriberQueueChars = subscriberQueueChars;
+    }
+
+    /**
+     * Retain the output and queue it to all the subscribers. Never waits for the subscribers.
+     */
+    public void append(String output) {
+        List<Subscription> queued = new ArrayList<>();
+        List<Subscription> overflown = new ArrayList<>();
+        synchronized (this) {
+            if (closed || output == null || output.isEmpty()) {
+                return;
+            }
+            retain(output);
+            for (Subscription subscription : subscriptions.values()) {
+                if (subscription.offer(output, true)) {
+                    queued.add(subscription);
+                } else {
+                    overflown.add(subscription);
+                }
+            }
+            overflown.forEach(subscription -> subscriptions.remove(subscription.subscriber));
+        }
+        overflown.forEach(Subscription::drop);
+        queued.forEach(Subscription::sendNext);
+    }
+
+    /**
+     * Subscribe a client to the output. The retained output is sent first.
+     *
+     * @return false if the build has already finished, the subscriber is not used then
+     */
+    public boolean subscribe(LiveLogSubscriber subscriber) {
+        Subscription subscription = new Subscription(subscriber);
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            subscriptions.put(subscriber, subscription);
+            if (retainedLength > 0) {
+                subscription.offer(String.join("", retained), false);
+            }
+        }
+        subscription.sendNext();
+        return true;
+    }
+
+    public synchronized void unsubscribe(LiveLogSubscriber subscriber) {
+        subscriptions.remove(subscriber);
+    }
+
+    public synchronized int getSubscribersCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * End the log when the build finishes. Subscribers are closed once the queued output is sent to them.
+     */
+    public void close() {
+        List<Subscription> ended;
+        synchronized (this) {
+            closed = true;
+            retained.clear();
+            retainedLength = 0;
+            ended = new ArrayList<>(subscriptions.values());
+            subscriptions.clear();
+        }
+        ended.forEach(Subscription::end);
+    }
+
+    private void retain(String output) {
+        retained.addLast(output);
+        retainedLength += output.length();
+        while (retainedLength > retainedChars) {
+            String first = retained.removeFirst();
+            int excess = retainedLength - retainedChars;
+            if (first.length() > excess) {
+                retained.addFirst(first.substring(excess));
+                retainedLength -= excess;
+            } else {
+                retainedLength -= first.length();
+            }
+        }
+    }
+
+    private void remove(Subscription subscription) {
+        synchronized (this) {
+            subscriptions.remove(subscription.subscriber);
+        }
+    }
+
+    /**
+     * Queue of output waiting to be sent to a subscriber. The queued output is sent as one message when the previous
+     * message has been sent.
+     */
+    private class Subscription {
+
+        private final LiveLogSubscriber subscriber;
+
+        private final Deque<String> pending = new ArrayDeque<>();
+
+        private int pendingLength;
+
+        private boolean sending;
+
+        private boolean ended;
+
+        private boolean completed;
+
+        Subscription(LiveLogSubscriber subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * Queue the output without sending it, call {@link #sendNext()} to send it.
+         *
+         * @return false if the output overflows the queue, the subscription is completed then and has to be dropped
+         */
+        synchronized boolean offer(String output, boolean bounded) {
+            if (bounded && pendingLength + output.length() > subscriberQueueChars) {
+                pending.clear();
+                pendingLength = 0;
+                completed = true;
+                return false;
+            }
+            pending.addLast(output);
+            pendingLength += output.length();
+            return true;
+        }
+
+        void drop() {
+            log.debug("Dropping live log subscriber {}, it does not keep up with the build output.", subscriber);
+            subscriber.close(true);
+        }
+
+        void end() {
+            synchronized (this) {
+                ended = true;
+            }
+            sendNext();
+        }
+
+        void sendNext() {
+            String message;
+            boolean complete = false;
+            synchronized (this) {
+                if (sending || completed) {
+                    return;
+                }
+                if (pending.isEmpty()) {
+                    complete = completed = ended;
+                    message = null;
+                } else {
+                    message = String.join("", pending);
+                    pending.clear();
+                    pendingLength = 0;
+                    sending = true;
+                }
+            }
+            if (complete) {
+                subscriber.close(false);
+            } else if (message != null) {
+                try {
+                    subscriber.send(message, this::onSent);
+                } catch (RuntimeException e) {
+                    onSent(e);
+                }
+            }
+        }
+
+        private void onSent(Throwable error) {
+            synchronized (this) {
+                sending = false;
+                if (error != null) {
+                    completed = true;
+                }
+            }
+            if (error != null) {
+                log.debug("Removing live log subscriber {}, sending the output failed.", subscriber, error);
+                remove(this);
+            } else {
+                sendNext();
+            }
+        }
+    }
+}
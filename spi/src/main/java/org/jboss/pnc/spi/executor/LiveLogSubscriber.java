@@ -0,0 +1,43 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.spi.executor;
+
+import java.util.function.Consumer;
+
+/**
+ * Client following the output of a running build.
+ *
+ * @see LiveLog
+ */
+public interface LiveLogSubscriber {
+
+    /**
+     * Send the output to the client asynchronously. No other output is sent before the previous send completes.
+     *
+     * @param output output of the build
+     * @param onSent to be called once the output is sent, with null on success or with the cause of the failure
+     */
+    void send(String output, Consumer<Throwable> onSent);
+
+    /**
+     * Called after all the output was sent when the build finishes, or when the client is dropped.
+     *
+     * @param dropped true if the client was dropped because it did not keep up with the build output
+     */
+    void close(boolean dropped);
+}
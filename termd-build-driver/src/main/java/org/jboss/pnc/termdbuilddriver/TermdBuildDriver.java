@@ -25,6 +25,7 @@ import org.jboss.pnc.common.Configuration;
 import org.jboss.pnc.common.json.ConfigurationParseException;
 import org.jboss.pnc.common.json.moduleconfig.SystemConfig;
 import org.jboss.pnc.common.json.moduleprovider.PncConfigProvider;
+import org.jboss.pnc.common.util.MonitoredThreadPoolExecutor;
 import org.jboss.pnc.common.util.NamedThreadFactory;
 import org.jboss.pnc.model.BuildStatus;
 import org.jboss.pnc.spi.builddriver.BuildDriver;
@@ -32,8 +33,10 @@ import org.jboss.pnc.spi.builddriver.CompletedBuild;
 import org.jboss.pnc.spi.builddriver.DebugData;
 import org.jboss.pnc.spi.builddriver.RunningBuild;
 import org.jboss.pnc.spi.builddriver.exception.BuildDriverException;
+import org.jboss.pnc.spi.datastore.BuildLogStore;
 import org.jboss.pnc.spi.environment.RunningEnvironment;
 import org.jboss.pnc.spi.executor.BuildExecutionSession;
+import org.jboss.pnc.termdbuilddriver.transfer.BuildLogStreamer;
 import org.jboss.pnc.termdbuilddriver.transfer.TermdFileTranser;
 import org.jboss.pnc.termdbuilddriver.transfer.TransferException;
 import org.slf4j.Logger;
@@ -43,7 +46,6 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.io.IOException;
 import java.net.URI;
-import java.net.URISyntaxException;
 import java.nio.file.Paths;
 import java.util.HashSet;
 import java.util.Optional;
@@ -52,6 +54,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 
@@ -71,6 +74,18 @@ public class TermdBuildDriver implements BuildDriver { //TODO rename class
 
     private ExecutorService executor;
 
+    /**
+     * Stores the output of the builds, kept apart so that a slow log store does not hold up the builds.
+     */
+    private ExecutorService logExecutor;
+
+    /**
+     * Flushes the stored output of the builds that went quiet.
+     */
+    private ScheduledExecutorService logFlushScheduler;
+
+    private BuildLogStore buildLogStore;
+
     private Set<Consumer<StatusUpdateEvent>> statusUpdateConsumers = new HashSet<>();
 
     private Consumer<StatusUpdateEvent> onStatusUpdate = (status) -> {
@@ -82,19 +97,26 @@ public class TermdBuildDriver implements BuildDriver { //TODO rename class
     }
 
     @Inject
-    public TermdBuildDriver(Configuration configuration) {
-        int threadPoolSize = 12; //TODO configurable
+    public TermdBuildDriver(Configuration configuration, BuildLogStore buildLogStore) {
+        this.buildLogStore = buildLogStore;
+        int threadPoolSize = 12;
+        int queueCapacity = 1000;
         try {
-            String executorThreadPoolSizeStr = configuration.getModuleConfig(new PncConfigProvider<>(SystemConfig.class))
-                    .getBuilderThreadPoolSize();
+            SystemConfig systemConfig = configuration.getModuleConfig(new PncConfigProvider<>(SystemConfig.class));
+            String executorThreadPoolSizeStr = systemConfig.getBuilderThreadPoolSize();
             if (executorThreadPoolSizeStr != null) {
                 threadPoolSize = Integer.parseInt(executorThreadPoolSizeStr);
             }
+            if (systemConfig.getThreadPoolQueueCapacity() > 0) {
+                queueCapacity = systemConfig.getThreadPoolQueueCapacity();
+            }
         } catch (ConfigurationParseException e) {
             logger.warn("Unable parse config. Using defaults.");
         }
 
-        executor = Executors.newFixedThreadPool(threadPoolSize, new NamedThreadFactory("termd-build-driver"));
+        executor = new MonitoredThreadPoolExecutor("termd-build-driver", threadPoolSize, queueCapacity);
+        logExecutor = new MonitoredThreadPoolExecutor("termd-build-log", threadPoolSize, queueCapacity);
+        logFlushScheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("termd-build-log-flush"));
     }
 
     @Override
@@ -120,12 +142,15 @@ public class TermdBuildDriver implements BuildDriver { //TODO rename class
 
         DebugData debugData = runningEnvironment.getDebugData();
         String buildScript = prepareBuildScript(termdRunningBuild, debugData);
+        BuildLogStreamer buildLogStreamer = new BuildLogStreamer(buildLogStore, buildExecutionSession.getId(), logExecutor,
+                logFlushScheduler);
+        Consumer<String> onOutput = buildLogStreamer.andThen(buildExecutionSession.getLiveLog()::append);
 
         uploadScript(termdRunningBuild, buildScript)
-                .thenComposeAsync(scriptPath -> invokeRemoteScript(termdRunningBuild, scriptPath, debugData), executor)
+                .thenComposeAsync(scriptPath -> invokeRemoteScript(termdRunningBuild, scriptPath, debugData, onOutput), executor)
                 //no cancellation after this point ... collecting partial results
                 .thenComposeAsync(status -> collectResults(termdRunningBuild, status), executor)
-                .handle((completedBuild, exception) -> complete(termdRunningBuild, completedBuild, exception));
+                .handle((completedBuild, exception) -> complete(termdRunningBuild, buildLogStreamer, completedBuild, exception));
 
         return termdRunningBuild;
     }
@@ -179,7 +204,8 @@ public class TermdBuildDriver implements BuildDriver { //TODO rename class
     private CompletableFuture<org.jboss.pnc.buildagent.api.Status> invokeRemoteScript(
             TermdRunningBuild termdRunningBuild,
             String scriptPath,
-            DebugData debugData) {
+            DebugData debugData,
+            Consumer<String> onOutput) {
 
         CompletableFuture<org.jboss.pnc.buildagent.api.Status> invocation = new CompletableFuture<>();
 
@@ -209,7 +235,7 @@ public class TermdBuildDriver implements BuildDriver { //TODO rename class
             }
         };
 
-        BuildAgentClient buildAgentClient = createBuildAgentClient(termdRunningBuild, invocation, onStatusUpdate);
+        BuildAgentClient buildAgentClient = createBuildAgentClient(termdRunningBuild, invocation, onStatusUpdate, onOutput);
 
         termdRunningBuild.setBuildAgentClient(buildAgentClient);
 
@@ -256,11 +282,12 @@ public class TermdBuildDriver implements BuildDriver { //TODO rename class
         }
     }
 
-    private BuildAgentClient createBuildAgentClient(TermdRunningBuild termdRunningBuild, CompletableFuture<Status> invocation, Consumer<TaskStatusUpdateEvent> onStatusUpdate) {
+    private BuildAgentClient createBuildAgentClient(TermdRunningBuild termdRunningBuild, CompletableFuture<Status> invocation,
+            Consumer<TaskStatusUpdateEvent> onStatusUpdate, Consumer<String> onOutput) {
         BuildAgentClient buildAgentClient = null;
         try {
             String terminalUrl = getBuildAgentUrl(termdRunningBuild);
-            buildAgentClient = new BuildAgentClient(terminalUrl.replace("http://", "ws://"), Optional.empty(), onStatusUpdate, "");
+            buildAgentClient = new BuildAgentClient(terminalUrl.replace("http://", "ws://"), Optional.of(onOutput), onStatusUpdate, "");
         } catch (Exception e) {
             invocation.completeExceptionally(new BuildDriverException("Cannot connect build agent client.", e));
         }
@@ -283,22 +310,8 @@ public class TermdBuildDriver implements BuildDriver { //TODO rename class
                 //cancel has been requested
             }
 
-            TermdFileTranser transfer = new TermdFileTranser();
-            StringBuffer stringBuffer = new StringBuffer();
-
-            String logsDirectory = termdRunningBuild.getRunningEnvironment().getWorkingDirectory().toString();
-
-            try {
-                URI logsUri = new URI(getBuildAgentUrl(termdRunningBuild)).resolve("servlet/download" + logsDirectory + "/console.log");
-                transfer.downloadFileToStringBuilder(stringBuffer, logsUri);
-            } catch (URISyntaxException e) {
-                future.completeExceptionally(new BuildDriverException("Cannot construct logs uri.", e));
-            } catch (TransferException e) {
-                future.completeExceptionally(new BuildDriverException("Cannot transfer file.", e));
-            }
-
             CompletedBuild completedBuild = new DefaultCompletedBuild(
-                    termdRunningBuild.getRunningEnvironment(), getBuildStatus(completionStatus), stringBuffer.toString());
+                    termdRunningBuild.getRunningEnvironment(), getBuildStatus(completionStatus), null);
 
             future.complete(completedBuild);
         }, executor);
@@ -315,7 +328,13 @@ public class TermdBuildDriver implements BuildDriver { //TODO rename class
         }
     }
 
-    private Void complete(TermdRunningBuild termdRunningBuild, CompletedBuild completedBuild, Throwable throwable) {
+    /**
+     * The build output has been streamed to the log store while the build was running, only the end of the log is
+     * stored here. That happens on every path, the log of a failed build is the one needed most.
+     */
+    private Void complete(TermdRunningBuild termdRunningBuild, BuildLogStreamer buildLogStreamer,
+            CompletedBuild completedBuild, Throwable throwable) {
+        buildLogStreamer.seal();
         logger.debug("[{}] Command result {}", termdRunningBuild.getRunningEnvironment().getId(), completedBuild);
         if(throwable != null) {
             logger.warn("[{}] Exception {}", termdRunningBuild.getRunningEnvironment().getId(), throwable);
@@ -0,0 +1,261 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.termdbuilddriver.transfer;
+
+import org.jboss.pnc.spi.datastore.BuildLogStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Streams the output of a running build into the {@link BuildLogStore} while the build runs.
+ *
+ * Output received from the build agent is put to a bounded queue and written to the log store by short tasks on the
+ * given executor, so no thread is held for the whole build. When the queue is full the thread receiving the output
+ * waits, which slows down reading from the build agent connection instead of growing the heap. Output that could not
+ * be queued within {@link #OFFER_TIMEOUT_MILLIS} is dropped and replaced by a note in the stored log. Buffered output
+ * is flushed to the log store at most {@link #FLUSH_INTERVAL_MILLIS} after it was written, by the given scheduler if
+ * no more output arrives in the meantime, so the log of a build survives the node running it even when the build
+ * goes quiet.
+ *
+ * @see #seal()
+ */
+public class BuildLogStreamer implements Consumer<String> {
+
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    static final int QUEUE_CAPACITY = 1024;
+
+    static final long FLUSH_INTERVAL_MILLIS = 10_000;
+
+    static final long OFFER_TIMEOUT_MILLIS = 60_000;
+
+    private final BuildLogStore buildLogStore;
+
+    private final Integer buildRecordId;
+
+    private final Executor executor;
+
+    private final ScheduledExecutorService flushScheduler;
+
+    private final BlockingQueue<String> queue;
+
+    private final long flushIntervalMillis;
+
+    private final long offerTimeoutMillis;
+
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    /**
+     * Characters dropped since the last note about dropped output was queued.
+     */
+    private final AtomicLong droppedCharacters = new AtomicLong();
+
+    private volatile boolean sealed;
+
+    private volatile boolean failed;
+
+    private Writer writer;
+
+    private boolean closed;
+
+    private long lastFlush = System.currentTimeMillis();
+
+    /**
+     * Flush of the output written since the last flush, null if none is scheduled.
+     */
+    private ScheduledFuture<?> scheduledFlush;
+
+    public BuildLogStreamer(BuildLogStore buildLogStore, Integer buildRecordId, Executor executor,
+            ScheduledExecutorService flushScheduler) {
+        this(buildLogStore, buildRecordId, executor, flushScheduler, QUEUE_CAPACITY, FLUSH_INTERVAL_MILLIS);
+    }
+
+    BuildLogStreamer(BuildLogStore buildLogStore, Integer buildRecordId, Executor executor,
+            ScheduledExecutorService flushScheduler, int queueCapacity, long flushIntervalMillis) {
+        this(buildLogStore, buildRecordId, executor, flushScheduler, queueCapacity, flushIntervalMillis,
+                OFFER_TIMEOUT_MILLIS);
+    }
+
+    BuildLogStreamer(BuildLogStore buildLogStore, Integer buildRecordId, Executor executor,
+            ScheduledExecutorService flushScheduler, int queueCapacity, long flushIntervalMillis,
+            long offerTimeoutMillis) {
+        this.buildLogStore = buildLogStore;
+        this.buildRecordId = buildRecordId;
+        this.executor = executor;
+        this.flushScheduler = flushScheduler;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+    }
+
+    /**
+     * Queue the output to be written to the log store. Waits while the queue is full, the output is dropped if it
+     * stays full for longer than the offer timeout.
+     */
+    @Override
+    public void accept(String output) {
+        if (sealed || failed || output == null || output.isEmpty()) {
+            return;
+        }
+        try {
+            // the note goes in the place of the dropped output, before the output following it
+            long dropped = droppedCharacters.get();
+            if (dropped > 0) {
+                if (!queue.offer(droppedOutputNote(dropped), offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    drop(output);
+                    return;
+                }
+                droppedCharacters.addAndGet(-dropped);
+            }
+            if (!queue.offer(output, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                drop(output);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            drop(output);
+        } finally {
+            if (!queue.isEmpty() && drainScheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drainScheduled);
+                } catch (RejectedExecutionException e) {
+                    // the output stays queued until the next output or the seal
+                    logger.warn("[{}] Cannot schedule storing of the build output.", buildRecordId, e);
+                    drainScheduled.set(false);
+                }
+            }
+        }
+    }
+
+    private void drop(String output) {
+        logger.warn("[{}] Log store does not keep up with the build output, dropping {} characters.",
+                buildRecordId, output.length());
+        droppedCharacters.addAndGet(output.length());
+    }
+
+    private static String droppedOutputNote(long dropped) {
+        return "\n[PNC: " + dropped + " characters of the build output were dropped, the log store did not keep up.]\n";
+    }
+
+    /**
+     * Write the queued output and store the last part of the log. Output received afterwards is ignored.
+     */
+    public void seal() {
+        sealed = true;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+            drain();
+            long dropped = droppedCharacters.getAndSet(0);
+            if (dropped > 0) {
+                write(droppedOutputNote(dropped));
+            }
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException | RuntimeException e) {
+                    logger.error("[{}] Cannot store the end of the build log.", buildRecordId, e);
+                }
+                writer = null;
+            }
+            closed = true;
+        }
+        logger.debug("[{}] Build log sealed.", buildRecordId);
+    }
+
+    private void drainScheduled() {
+        drainScheduled.set(false);
+        synchronized (this) {
+            drain();
+            if (writer == null || closed) {
+                return;
+            }
+            long sinceLastFlush = System.currentTimeMillis() - lastFlush;
+            if (sinceLastFlush >= flushIntervalMillis) {
+                flush();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = flushScheduler.schedule(this::flushScheduled, flushIntervalMillis - sinceLastFlush,
+                        TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private synchronized void flushScheduled() {
+        scheduledFlush = null;
+        if (writer != null && !closed && !failed) {
+            drain();
+            flush();
+        }
+    }
+
+    private void drain() {
+        String output;
+        while ((output = queue.poll()) != null) {
+            write(output);
+        }
+    }
+
+    private void write(String output) {
+        if (failed || closed) {
+            return;
+        }
+        try {
+            if (writer == null) {
+                writer = new OutputStreamWriter(buildLogStore.openAppendStream(buildRecordId), StandardCharsets.UTF_8);
+            }
+            writer.write(output);
+        } catch (IOException | RuntimeException e) {
+            logger.error("[{}] Cannot store the build log, the rest of the build output is dropped.", buildRecordId, e);
+            failed = true;
+        }
+    }
+
+    private void flush() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        try {
+            writer.flush();
+        } catch (IOException | RuntimeException e) {
+            logger.error("[{}] Cannot store the build log, the rest of the build output is dropped.", buildRecordId, e);
+            failed = true;
+        }
+        lastFlush = System.currentTimeMillis();
+    }
+}
@@ -17,14 +17,11 @@
  */
 package org.jboss.pnc.termdbuilddriver.transfer;
 
-import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.StringWriter;
 import java.lang.invoke.MethodHandles;
 import java.net.HttpURLConnection;
 import java.net.URI;
@@ -43,35 +40,6 @@ public class TermdFileTranser {
         this.baseServerUri = baseServerUri;
     }
 
-    public TermdFileTranser() {
-        this.baseServerUri = null;
-    }
-
-    public StringBuffer downloadFileToStringBuilder(StringBuffer logsAggregate, URI uri) throws TransferException {
-        try {
-            logger.debug("Downloading file to String Buffer from {}", uri);
-
-            StringWriter writer = new StringWriter();
-            HttpURLConnection connection = (HttpURLConnection) uri.toURL().openConnection();
-            connection.setRequestMethod("GET");
-
-            connection.setDoOutput(true);
-            connection.setDoInput(true);
-
-            try (InputStream inputStream = connection.getInputStream()) {
-                IOUtils.copy(inputStream, writer, ENCODING);
-            }
-
-            logsAggregate.append("==== ").append(uri.toString()).append(" ====\n");
-            logsAggregate.append(writer.getBuffer());
-
-            logger.trace("Downloaded {}", writer.getBuffer().toString());
-            return logsAggregate;
-        } catch (IOException e) {
-            throw new TransferException("Could not obtain log file: " + uri.toString(), e);
-        }
-    }
-
     public void uploadScript(String script, Path remoteFilePath) throws TransferException {
         logger.debug("Uploading build script to remote path {}, build script {}", remoteFilePath, script);
         String scriptPath = UPLOAD_PATH + remoteFilePath.toAbsolutePath().toString();
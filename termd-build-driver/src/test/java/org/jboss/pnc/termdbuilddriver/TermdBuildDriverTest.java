@@ -21,12 +21,14 @@ import org.jboss.pnc.buildagent.api.Status;
 import org.jboss.pnc.common.Configuration;
 import org.jboss.pnc.common.json.ConfigurationParseException;
 import org.jboss.pnc.common.json.moduleconfig.SystemConfig;
+import org.jboss.pnc.mock.datastore.BuildLogStoreMock;
 import org.jboss.pnc.spi.builddriver.CompletedBuild;
 import org.jboss.pnc.spi.builddriver.RunningBuild;
 import org.jboss.pnc.spi.builddriver.exception.BuildDriverException;
 import org.jboss.pnc.spi.environment.RunningEnvironment;
 import org.jboss.pnc.spi.executor.BuildExecutionConfiguration;
 import org.jboss.pnc.spi.executor.BuildExecutionSession;
+import org.jboss.pnc.spi.executor.LiveLog;
 import org.junit.Before;
 import org.junit.Test;
 import org.slf4j.Logger;
@@ -50,11 +52,15 @@ public class TermdBuildDriverTest extends AbstractLocalBuildAgentTest {
 
     private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
+    private static final int BUILD_ID = 1;
+
     private Configuration configuration = mock(Configuration.class);
 
+    private BuildLogStoreMock buildLogStore = new BuildLogStoreMock();
+
     @Before
     public void before() throws ConfigurationParseException {
-        doReturn(new SystemConfig(null, null, null, null, null, null, null)).when(configuration).getModuleConfig(any());
+        doReturn(new SystemConfig(null, null, null, null, null, null, null, null, null, null, null, null)).when(configuration).getModuleConfig(any());
     }
 
     @Test(timeout = 15_000)
@@ -65,8 +71,10 @@ public class TermdBuildDriverTest extends AbstractLocalBuildAgentTest {
         ZipUtils.unzipToDir(tmpRepo, "/repo.zip");
         String dirName = "test-repo-cloned";
 
-        TermdBuildDriver driver = new TermdBuildDriver(getConfiguration());
+        TermdBuildDriver driver = new TermdBuildDriver(getConfiguration(), buildLogStore);
         BuildExecutionSession buildExecution = mock(BuildExecutionSession.class);
+        doReturn(BUILD_ID).when(buildExecution).getId();
+        doReturn(new LiveLog()).when(buildExecution).getLiveLog();
         BuildExecutionConfiguration buildExecutionConfiguration = mock(BuildExecutionConfiguration.class);
         doReturn(repoPath).when(buildExecutionConfiguration).getScmRepoURL();
         doReturn("master").when(buildExecutionConfiguration).getScmRevision();
@@ -96,7 +104,7 @@ public class TermdBuildDriverTest extends AbstractLocalBuildAgentTest {
         latch.await();
         //then
         assertThat(buildResult.get().getBuildResult()).isNotNull();
-        assertThat(buildResult.get().getBuildResult().getBuildLog()).isNotEmpty();
+        assertThat(getBuildLog()).isNotEmpty();
         assertThat(Files.exists(localEnvironmentPointer.getWorkingDirectory())).isTrue();
         assertThat(Files.exists(localEnvironmentPointer.getWorkingDirectory().resolve(dirName))).isTrue();
     }
@@ -108,8 +116,10 @@ public class TermdBuildDriverTest extends AbstractLocalBuildAgentTest {
         String logStart = "Running the command...";
         String logEnd = "Command completed.";
 
-        TermdBuildDriver driver = new TermdBuildDriver(getConfiguration());
+        TermdBuildDriver driver = new TermdBuildDriver(getConfiguration(), buildLogStore);
         BuildExecutionSession buildExecution = mock(BuildExecutionSession.class);
+        doReturn(BUILD_ID).when(buildExecution).getId();
+        doReturn(new LiveLog()).when(buildExecution).getLiveLog();
         BuildExecutionConfiguration buildExecutionConfiguration = mock(BuildExecutionConfiguration.class);
         doReturn("echo \"" + logStart + "\"; mvn validate; echo \"" + logEnd + "\";").when(buildExecutionConfiguration).getBuildScript();
         doReturn(dirName).when(buildExecutionConfiguration).getName();
@@ -134,7 +144,7 @@ public class TermdBuildDriverTest extends AbstractLocalBuildAgentTest {
         latch.await();
 
         //then
-        assertThat(buildResult.get().getBuildResult().getBuildLog()).doesNotContain(logEnd);
+        assertThat(getBuildLog()).doesNotContain(logEnd);
         assertThat(buildResult.get().getBuildResult().getBuildStatus()).isEqualTo(CANCELLED);
     }
 
@@ -145,7 +155,7 @@ public class TermdBuildDriverTest extends AbstractLocalBuildAgentTest {
         String logStart = "Running the command...";
         String logEnd = "Command completed.";
 
-        TermdBuildDriver driver = new TermdBuildDriver(getConfiguration());
+        TermdBuildDriver driver = new TermdBuildDriver(getConfiguration(), buildLogStore);
         Consumer<StatusUpdateEvent> cancelOnBuildStart = (statusUpdateEvent) -> {
             try {
                 Thread.sleep(200);
@@ -158,6 +168,8 @@ public class TermdBuildDriverTest extends AbstractLocalBuildAgentTest {
         };
         driver.addStatusUpdateConsumer(cancelOnBuildStart);
         BuildExecutionSession buildExecution = mock(BuildExecutionSession.class);
+        doReturn(BUILD_ID).when(buildExecution).getId();
+        doReturn(new LiveLog()).when(buildExecution).getLiveLog();
         BuildExecutionConfiguration buildExecutionConfiguration = mock(BuildExecutionConfiguration.class);
         doReturn("echo \"" + logStart + "\"; mvn validate; echo \"" + logEnd + "\";").when(buildExecutionConfiguration).getBuildScript();
         doReturn(dirName).when(buildExecutionConfiguration).getName();
@@ -181,11 +193,16 @@ public class TermdBuildDriverTest extends AbstractLocalBuildAgentTest {
 
         //then
         assertThat(buildResult.get().getBuildResult()).isNotNull();
-        assertThat(buildResult.get().getBuildResult().getBuildLog()).contains("sh /tmp/termd-build-agent");
-        assertThat(buildResult.get().getBuildResult().getBuildLog()).doesNotContain(logEnd);
+        assertThat(getBuildLog()).contains("sh /tmp/termd-build-agent");
+        assertThat(getBuildLog()).doesNotContain(logEnd);
         assertThat(buildResult.get().getBuildResult().getBuildStatus()).isEqualTo(CANCELLED);
     }
 
+    private String getBuildLog() {
+        String buildLog = buildLogStore.getLog(BUILD_ID);
+        return buildLog == null ? "" : buildLog;
+    }
+
     private Configuration getConfiguration() throws ConfigurationParseException {
         SystemConfig systemConfig = mock(SystemConfig.class);
         Configuration configuration = mock(Configuration.class);
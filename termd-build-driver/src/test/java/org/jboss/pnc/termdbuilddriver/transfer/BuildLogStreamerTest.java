@@ -0,0 +1,194 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.termdbuilddriver.transfer;
+
+import org.jboss.pnc.mock.datastore.BuildLogStoreMock;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BuildLogStreamerTest {
+
+    private static final Integer BUILD_ID = 1;
+
+    private final BuildLogStoreMock buildLogStore = new BuildLogStoreMock();
+
+    private final ScheduledThreadPoolExecutor flushScheduler = new ScheduledThreadPoolExecutor(1);
+
+    @After
+    public void tearDown() {
+        flushScheduler.shutdownNow();
+    }
+
+    @Test
+    public void shouldStoreOutputWhileBuildIsRunning() {
+        //given
+        BuildLogStreamer streamer = new BuildLogStreamer(buildLogStore, BUILD_ID, Runnable::run, flushScheduler, 16, 0);
+
+        //when
+        streamer.accept("Cloning into 'test-repo'...\n");
+        streamer.accept("[INFO] BUILD SUCCESS\n");
+
+        //then
+        assertThat(buildLogStore.getLog(BUILD_ID)).isEqualTo("Cloning into 'test-repo'...\n[INFO] BUILD SUCCESS\n");
+    }
+
+    @Test(timeout = 5_000)
+    public void shouldFlushOutputOfQuietBuild() throws Exception {
+        //given
+        BuildLogStreamer streamer = new BuildLogStreamer(buildLogStore, BUILD_ID, Runnable::run, flushScheduler, 16,
+                100);
+
+        //when
+        streamer.accept("Waiting for the tests to finish...\n");
+
+        //then
+        while (!"Waiting for the tests to finish...\n".equals(buildLogStore.getLog(BUILD_ID))) {
+            Thread.sleep(10);
+        }
+        assertThat(flushScheduler.getQueue()).isEmpty();
+    }
+
+    @Test
+    public void shouldCancelScheduledFlushOnSeal() {
+        //given
+        flushScheduler.setRemoveOnCancelPolicy(true);
+        BuildLogStreamer streamer = new BuildLogStreamer(buildLogStore, BUILD_ID, Runnable::run, flushScheduler, 16,
+                60_000);
+        streamer.accept("last line\n");
+        assertThat(flushScheduler.getQueue()).hasSize(1);
+
+        //when
+        streamer.seal();
+
+        //then
+        assertThat(flushScheduler.getQueue()).isEmpty();
+        assertThat(buildLogStore.getLog(BUILD_ID)).isEqualTo("last line\n");
+    }
+
+    @Test
+    public void shouldKeepOutputQueuedWhenStoringIsRejected() {
+        //given
+        Executor rejecting = task -> {
+            throw new RejectedExecutionException("Queue is full.");
+        };
+        BuildLogStreamer streamer = new BuildLogStreamer(buildLogStore, BUILD_ID, rejecting, flushScheduler, 16, 0);
+
+        //when
+        streamer.accept("first\n");
+        streamer.accept("second\n");
+        streamer.seal();
+
+        //then
+        assertThat(buildLogStore.getLog(BUILD_ID)).isEqualTo("first\nsecond\n");
+    }
+
+    @Test
+    public void shouldWriteQueuedOutputOnSealAndIgnoreLaterOutput() {
+        //given
+        List<Runnable> tasks = new ArrayList<>();
+        BuildLogStreamer streamer = new BuildLogStreamer(buildLogStore, BUILD_ID, tasks::add, flushScheduler);
+        streamer.accept("first\n");
+        streamer.accept("second\n");
+
+        //when
+        streamer.seal();
+        streamer.accept("after seal\n");
+        tasks.forEach(Runnable::run);
+
+        //then
+        assertThat(tasks).hasSize(1);
+        assertThat(buildLogStore.getLog(BUILD_ID)).isEqualTo("first\nsecond\n");
+    }
+
+    @Test(timeout = 5_000)
+    public void shouldBlockReceivingThreadWhenQueueIsFull() throws Exception {
+        //given
+        List<Runnable> tasks = new ArrayList<>();
+        Executor executor = task -> {
+            synchronized (tasks) {
+                tasks.add(task);
+            }
+        };
+        BuildLogStreamer streamer = new BuildLogStreamer(buildLogStore, BUILD_ID, executor, flushScheduler, 2, 0);
+        streamer.accept("1");
+        streamer.accept("2");
+
+        //when
+        CountDownLatch received = new CountDownLatch(1);
+        Thread receivingThread = new Thread(() -> {
+            streamer.accept("3");
+            received.countDown();
+        });
+        receivingThread.start();
+
+        //then
+        assertThat(received.await(200, TimeUnit.MILLISECONDS)).isFalse();
+        synchronized (tasks) {
+            tasks.forEach(Runnable::run);
+        }
+        assertThat(received.await(2, TimeUnit.SECONDS)).isTrue();
+        streamer.seal();
+        assertThat(buildLogStore.getLog(BUILD_ID)).isEqualTo("123");
+    }
+
+    @Test(timeout = 5_000)
+    public void shouldNoteDroppedOutputInPlaceOfIt() {
+        //given
+        List<Runnable> tasks = new ArrayList<>();
+        BuildLogStreamer streamer = new BuildLogStreamer(buildLogStore, BUILD_ID, tasks::add, flushScheduler, 2, 0, 10);
+        streamer.accept("1");
+        streamer.accept("2");
+
+        //when
+        streamer.accept("dropped");
+        new ArrayList<>(tasks).forEach(Runnable::run);
+        streamer.accept("3");
+        streamer.seal();
+
+        //then
+        assertThat(buildLogStore.getLog(BUILD_ID))
+                .startsWith("12\n[PNC: 7 characters of the build output were dropped")
+                .endsWith("]\n3");
+    }
+
+    @Test
+    public void shouldNoteOutputDroppedBeforeSeal() {
+        //given
+        List<Runnable> tasks = new ArrayList<>();
+        BuildLogStreamer streamer = new BuildLogStreamer(buildLogStore, BUILD_ID, tasks::add, flushScheduler, 1, 0, 10);
+        streamer.accept("1");
+        streamer.accept("dropped");
+
+        //when
+        streamer.seal();
+        streamer.seal();
+
+        //then
+        assertThat(buildLogStore.getLog(BUILD_ID)).startsWith("1\n[PNC: 7 characters").endsWith("]\n");
+    }
+}